@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+
+/**
+ * 解析バッファ等に用いるダイレクトバッファを再利用する。
+ * <p>
+ * 要求された大きさを2のべき乗に切り上げた大きさごとに、返却されたバッファを保持して次の貸し出しに用いる。
+ * 確保したダイレクトバッファの合計が上限を超える場合は、他の大きさの未使用のバッファを解放し、
+ * それでも足りなければヒープ上のバッファを貸し出す。
+ * 貸し出し中のバッファは弱参照で管理し、返却されないまま参照されなくなったバッファは
+ * GCで回収された後に貸し出し中の合計と確保した合計から差し引く。
+ * このクラスのメソッドは複数のスレッドから同時に呼び出すことができる。
+ * </p>
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+public class DirectBufferPool {
+
+    /** 貸し出すバッファの最小の大きさ */
+    public static final int MIN_BUFFER_SIZE = 4096;
+
+    /** 貸し出すバッファの最大の大きさ */
+    public static final int MAX_BUFFER_SIZE = 1 << 30;
+
+    /** {@link #getDefault()}が確保するダイレクトバッファの合計の上限 */
+    public static final long DEFAULT_MAX_DIRECT_MEMORY = 64L * 1024 * 1024;
+
+    private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_BUFFER_SIZE);
+    private static final int MAX_SHIFT = Integer.numberOfTrailingZeros(MAX_BUFFER_SIZE);
+
+    private static final DirectBufferPool defaultPool_ = new DirectBufferPool(DEFAULT_MAX_DIRECT_MEMORY);
+
+    /**
+     * @return パーサが共有するプール
+     */
+    public static DirectBufferPool getDefault() {
+        return defaultPool_;
+    }
+
+
+    private final Log logger_ = LogFactory.getLog(this.getClass());
+
+    private final long maxDirectMemory_;
+    /** 大きさごとの未使用のバッファ */
+    private final List<ArrayDeque<ByteBuffer>> free_;
+    /** 貸し出し中のバッファ。パーサごとに数個のため線形に探す */
+    private final List<Lease> leased_ = new ArrayList<Lease>();
+    /** 返却されずに回収されたバッファ */
+    private final ReferenceQueue<ByteBuffer> collected_ = new ReferenceQueue<ByteBuffer>();
+
+    private long allocatedBytes_;
+    private long peakAllocatedBytes_;
+    private long leasedBytes_;
+    private long leaseCount_;
+    private long allocationCount_;
+    private long overflowCount_;
+    private long collectedCount_;
+
+
+    /**
+     * 貸し出し中のバッファへの弱参照
+     */
+    private static final class Lease extends WeakReference<ByteBuffer> {
+        final int capacity;
+        final boolean isDirect;
+
+        Lease(final ByteBuffer buffer, final ReferenceQueue<ByteBuffer> queue) {
+            super(buffer, queue);
+            this.capacity = buffer.capacity();
+            this.isDirect = buffer.isDirect();
+        }
+    }
+
+    /**
+     * @param maxDirectMemory 確保するダイレクトバッファの合計の上限
+     */
+    public DirectBufferPool(final long maxDirectMemory) {
+        if (maxDirectMemory < 0) {
+            throw new IllegalArgumentException("negative limit: " + maxDirectMemory);
+        }
+        maxDirectMemory_ = maxDirectMemory;
+        free_ = new ArrayList<ArrayDeque<ByteBuffer>>(MAX_SHIFT - MIN_SHIFT + 1);
+        for (int k = MIN_SHIFT; k <= MAX_SHIFT; k++) {
+            free_.add(new ArrayDeque<ByteBuffer>());
+        }
+    }
+
+    /**
+     * @param capacity
+     * @return 大きさの区分
+     */
+    static int sizeClass(final int capacity) {
+        if (capacity < 0 || capacity > MAX_BUFFER_SIZE) {
+            throw new IllegalArgumentException("illegal buffer size: " + capacity);
+        }
+        if (capacity <= MIN_BUFFER_SIZE) {
+            return 0;
+        }
+        return Integer.SIZE - Integer.numberOfLeadingZeros(capacity - 1) - MIN_SHIFT;
+    }
+
+    /**
+     * 指定された大きさ以上のバッファを貸し出す。
+     * バッファはクリアされ、バイト順はビッグエンディアンになっている。
+     * @param capacity 必要な大きさ
+     * @return バッファ。使い終わったら{@link #release(ByteBuffer)}で返却する
+     */
+    public synchronized ByteBuffer lease(final int capacity) {
+        expungeCollected();
+        final int sizeClass = sizeClass(capacity);
+        final int size = MIN_BUFFER_SIZE << sizeClass;
+        ByteBuffer buffer = free_.get(sizeClass).poll();
+        if (buffer == null) {
+            buffer = allocate(size);
+        }
+        buffer.clear();
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        leased_.add(new Lease(buffer, collected_));
+        leasedBytes_ += size;
+        leaseCount_++;
+        return buffer;
+    }
+
+    private ByteBuffer allocate(final int size) {
+        if (allocatedBytes_ + size > maxDirectMemory_) {
+            // 未使用のバッファを大きいものから解放する
+            for (int k = free_.size(); --k >= 0 && allocatedBytes_ + size > maxDirectMemory_; ) {
+                while (!free_.get(k).isEmpty() && allocatedBytes_ + size > maxDirectMemory_) {
+                    allocatedBytes_ -= free_.get(k).poll().capacity();
+                }
+            }
+        }
+        if (allocatedBytes_ + size > maxDirectMemory_) {
+            overflowCount_++;
+            logger_.debug("direct memory limit exceeded, allocating heap buffer: " + size + " bytes");
+            return ByteBuffer.allocate(size);
+        }
+        allocatedBytes_ += size;
+        peakAllocatedBytes_ = Math.max(peakAllocatedBytes_, allocatedBytes_);
+        allocationCount_++;
+        return ByteBuffer.allocateDirect(size);
+    }
+
+    /**
+     * 貸し出したバッファを返却する。返却後はバッファを参照してはならない。
+     * @param buffer {@link #lease(int)}で貸し出したバッファ
+     */
+    public synchronized void release(final ByteBuffer buffer) {
+        Lease lease = null;
+        for (final Iterator<Lease> i = leased_.iterator(); i.hasNext(); ) {
+            final Lease next = i.next();
+            if (next.get() == buffer) {
+                i.remove();
+                next.clear();
+                lease = next;
+                break;
+            }
+        }
+        if (lease == null) {
+            throw new IllegalArgumentException("buffer is not leased from this pool");
+        }
+        leasedBytes_ -= lease.capacity;
+        if (buffer.isDirect()) {
+            free_.get(sizeClass(buffer.capacity())).push(buffer);
+        }
+    }
+
+    /**
+     * 返却されずに回収されたバッファを、貸し出し中の合計と確保した合計から差し引く。
+     */
+    private void expungeCollected() {
+        for (Lease lease; (lease = (Lease)collected_.poll()) != null; ) {
+            if (!leased_.remove(lease)) {
+                continue;
+            }
+            leasedBytes_ -= lease.capacity;
+            if (lease.isDirect) {
+                allocatedBytes_ -= lease.capacity;
+            }
+            collectedCount_++;
+            logger_.warn("leased buffer was not released: " + lease.capacity + " bytes");
+        }
+    }
+
+    /**
+     * 未使用のバッファを全て解放する。
+     */
+    public synchronized void trim() {
+        expungeCollected();
+        for (final ArrayDeque<ByteBuffer> buffers: free_) {
+            for (final ByteBuffer buffer: buffers) {
+                allocatedBytes_ -= buffer.capacity();
+            }
+            buffers.clear();
+        }
+    }
+
+
+    /**
+     * @return 確保するダイレクトバッファの合計の上限
+     */
+    public long maxDirectMemory() {
+        return maxDirectMemory_;
+    }
+
+    /**
+     * @return 確保しているダイレクトバッファの合計
+     */
+    public synchronized long allocatedBytes() {
+        expungeCollected();
+        return allocatedBytes_;
+    }
+
+    /**
+     * @return 確保したダイレクトバッファの合計の最大値
+     */
+    public synchronized long peakAllocatedBytes() {
+        return peakAllocatedBytes_;
+    }
+
+    /**
+     * @return 貸し出し中のバッファの合計。ヒープ上のバッファを含む
+     */
+    public synchronized long leasedBytes() {
+        expungeCollected();
+        return leasedBytes_;
+    }
+
+    /**
+     * @return 貸し出した回数
+     */
+    public synchronized long leaseCount() {
+        return leaseCount_;
+    }
+
+    /**
+     * @return ダイレクトバッファを新たに確保した回数
+     */
+    public synchronized long allocationCount() {
+        return allocationCount_;
+    }
+
+    /**
+     * @return 上限を超えたためにヒープ上のバッファを貸し出した回数
+     */
+    public synchronized long overflowCount() {
+        return overflowCount_;
+    }
+
+    /**
+     * @return 返却されないまま回収されたバッファの数
+     */
+    public synchronized long collectedCount() {
+        expungeCollected();
+        return collectedCount_;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "DirectBufferPool[allocated=" + allocatedBytes_ + "/" + maxDirectMemory_
+             + ", peak=" + peakAllocatedBytes_ + ", leased=" + leasedBytes_
+             + ", leases=" + leaseCount_ + ", allocations=" + allocationCount_
+             + ", overflows=" + overflowCount_ + ", collected=" + collectedCount_ + "]";
+    }
+
+}
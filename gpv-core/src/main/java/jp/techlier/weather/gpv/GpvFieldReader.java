@@ -0,0 +1,390 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv;
+
+import static jp.techlier.weather.gpv.grib2.Grib2.*;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import jp.techlier.weather.gpv.grib2.Grib2.BitmapSection;
+import jp.techlier.weather.gpv.grib2.Grib2.DataRepresentationSection;
+import jp.techlier.weather.gpv.grib2.Grib2.DataSection;
+import jp.techlier.weather.gpv.grib2.Grib2.GridDefinitionSection;
+import jp.techlier.weather.gpv.grib2.Grib2.IdentificationSection;
+import jp.techlier.weather.gpv.grib2.Grib2.IndicatorSection;
+import jp.techlier.weather.gpv.grib2.Grib2.ProductDefinitionSection;
+import jp.techlier.weather.gpv.grib2.index.FieldKey;
+import jp.techlier.weather.gpv.grib2.index.Grib2Index;
+import jp.techlier.weather.gpv.grib2.index.Grib2Indexer;
+import jp.techlier.weather.gpv.grib2.parser.MessageHolder;
+import jp.techlier.weather.gpv.grib2.parser.PackedStatistics;
+import jp.techlier.weather.gpv.grib2.parser.SimplePackingDecorder;
+
+
+/**
+ * 索引を用いて、ファイル中の指定された格子データだけを読み込む。
+ * <p>
+ * 格子データごとにSection 0, 1, 3〜7だけを読み込んで解析し、それ以外の部分は読まない。
+ * 索引はファイルごとに保持し、ファイルが更新されたときに作り直す。
+ * {@link #decodeAll}は索引を用いて格子データの境界を求め、読み込みと復号を並列に行う。
+ * このクラスのメソッドは複数のスレッドから同時に呼び出すことができる。
+ * </p>
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+public class GpvFieldReader {
+
+    /**
+     * 読み込んだ格子データ。
+     * 各セクションは読み込み時に確保したバッファを参照し、他の読み込みの影響を受けない。
+     */
+    public static final class FieldData implements MessageHolder {
+
+        private final Grib2Index.Field field_;
+        private final IndicatorSection indicatorSection_;
+        private final IdentificationSection identificationSection_;
+        private final GridDefinitionSection gridDefinitionSection_;
+        private final ProductDefinitionSection productDefinitionSection_;
+        private final DataRepresentationSection dataRepresentationSection_;
+        private final BitmapSection bitmapSection_;
+        private final DataSection dataSection_;
+
+        FieldData(final Grib2Index.Field field, final MessageHolder messages) {
+            this.field_ = field;
+            this.indicatorSection_ = messages.latestIndicatorSection();
+            this.identificationSection_ = messages.latestIdentificationSection();
+            this.gridDefinitionSection_ = messages.latestGridDefinitionSection();
+            this.productDefinitionSection_ = messages.latestProductDefinitionSection();
+            this.dataRepresentationSection_ = messages.latestDataRepresentationSection();
+            this.bitmapSection_ = messages.latestBitmapSection();
+            this.dataSection_ = messages.latestDataSection();
+        }
+
+        public Grib2Index.Field field() { return field_; }
+
+        public IndicatorSection latestIndicatorSection() { return indicatorSection_; }
+        public IdentificationSection latestIdentificationSection() { return identificationSection_; }
+        public GridDefinitionSection latestGridDefinitionSection() { return gridDefinitionSection_; }
+        public ProductDefinitionSection latestProductDefinitionSection() { return productDefinitionSection_; }
+        public DataRepresentationSection latestDataRepresentationSection() { return dataRepresentationSection_; }
+        public BitmapSection latestBitmapSection() { return bitmapSection_; }
+        public DataSection latestDataSection() { return dataSection_; }
+
+        public SimplePackingDecorder decorder() {
+            final boolean hasBitmap = bitmapSection_ != null && bitmapSection_.bitmapIndicator() == 0;
+            return new SimplePackingDecorder(gridDefinitionSection_.template(),
+                                             dataRepresentationSection_.template(),
+                                             hasBitmap ? bitmapSection_.bitmapBuffer() : null,
+                                             dataSection_.dataBuffer());
+        }
+
+        /**
+         * @return 復号した値
+         */
+        public double[] decode() {
+            return decorder().decode();
+        }
+
+        /**
+         * 復号せずに統計量を求める。
+         * @return 統計量
+         */
+        public PackedStatistics statistics() {
+            return decorder().statistics();
+        }
+    }
+
+
+    /**
+     * {@link GpvFieldReader#decodeAll}で復号した格子データを受け取る。
+     */
+    public interface FieldHandler {
+
+        /**
+         * @param field 読み込んだ格子データ
+         * @param values 復号した値
+         */
+        void field(FieldData field, double[] values);
+
+    }
+
+    /**
+     * 1つの格子データを読み込んで復号する。
+     */
+    private final class DecodeTask implements Callable<DecodeTask> {
+        final int number_;
+        final FileChannel channel_;
+        final Grib2Index.Field field_;
+        final FieldHandler handler_;
+        FieldData data_;
+        double[] values_;
+
+        DecodeTask(final int number, final FileChannel channel, final Grib2Index.Field field, final FieldHandler handler) {
+            this.number_ = number;
+            this.channel_ = channel;
+            this.field_ = field;
+            this.handler_ = handler;
+        }
+
+        public DecodeTask call() throws IOException {
+            data_ = read(channel_, field_);
+            values_ = data_.decode();
+            if (handler_ != null) {
+                handler_.field(data_, values_);
+                data_ = null;
+                values_ = null;
+            }
+            return this;
+        }
+    }
+
+
+    /**
+     * 連続して配置したセクションを解析する。
+     */
+    private static final class FieldParser extends GpvFileParser {
+        FieldParser() {
+            // バッファは読み込みごとに確保するため、複製する必要はない
+            enableZeroCopy(true);
+        }
+
+        FieldData parse(final Grib2Index.Field field, final ByteBuffer in) throws IOException {
+            reset();
+            parseFirstSection(in);
+            while (in.hasRemaining()) {
+                parseNextSection(in);
+            }
+            return new FieldData(field, this);
+        }
+    }
+
+
+    private final Grib2Indexer indexer_;
+    private final ConcurrentMap<File,Grib2Index> indexes_ = new ConcurrentHashMap<File,Grib2Index>();
+
+    public GpvFieldReader() {
+        this(new Grib2Indexer());
+    }
+
+    /**
+     * @param indexer 索引の作成に用いる
+     */
+    public GpvFieldReader(final Grib2Indexer indexer) {
+        this.indexer_ = indexer;
+    }
+
+    /**
+     * @param file
+     * @return ファイルの索引
+     * @throws IOException
+     */
+    public Grib2Index index(final File file) throws IOException {
+        final File key = file.getAbsoluteFile();
+        Grib2Index index = indexes_.get(key);
+        if (index == null || !index.isUpToDate(file)) {
+            index = indexer_.index(file);
+            indexes_.put(key, index);
+        }
+        return index;
+    }
+
+    /**
+     * @param file
+     * @param key
+     * @return キーに一致する格子データ。なければ空のリスト
+     * @throws IOException
+     */
+    public List<Grib2Index.Field> find(final File file, final FieldKey key) throws IOException {
+        return index(file).find(key);
+    }
+
+    /**
+     * @param file
+     * @param key
+     * @return キーに一致する最初の格子データ。なければnull
+     * @throws IOException
+     */
+    public FieldData read(final File file, final FieldKey key) throws IOException {
+        final Grib2Index.Field field = index(file).findFirst(key);
+        if (field == null) return null;
+        final FileInputStream in = new FileInputStream(file); try {
+            return read(in.getChannel(), field);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * @param file
+     * @param key
+     * @return キーに一致する全ての格子データ
+     * @throws IOException
+     */
+    public List<FieldData> readAll(final File file, final FieldKey key) throws IOException {
+        final List<Grib2Index.Field> fields = index(file).find(key);
+        final List<FieldData> result = new ArrayList<FieldData>(fields.size());
+        if (fields.isEmpty()) return result;
+        final FileInputStream in = new FileInputStream(file); try {
+            final FileChannel channel = in.getChannel();
+            for (final Grib2Index.Field field: fields) {
+                result.add(read(channel, field));
+            }
+        } finally {
+            in.close();
+        }
+        return result;
+    }
+
+    /**
+     * ファイル中の全ての格子データを並列に読み込んで復号する。
+     * <p>
+     * 格子データの位置は索引で求め、各格子データの読み込みと復号をexecutorで実行する。
+     * orderedがtrueの場合、handlerは呼び出し元のスレッドからファイル中の順に呼び出される。
+     * falseの場合は復号したスレッドから完了した順に呼び出されるため、handlerは複数のスレッドから
+     * 同時に呼び出されてもよいように実装すること。
+     * 復号済みで未通知の格子データはparallelismの2倍までに制限する。
+     * </p>
+     * @param file
+     * @param executor 読み込みと復号を実行する。終了は呼び出し側が行う
+     * @param parallelism 同時に復号する格子データの最大数
+     * @param ordered true: ファイル中の順に通知する
+     * @param handler
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    public void decodeAll(final File file, final ExecutorService executor, final int parallelism,
+                          final boolean ordered, final FieldHandler handler) throws IOException, InterruptedException {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        final List<Grib2Index.Field> fields = index(file).fields();
+        final int window = parallelism * 2;
+        final CompletionService<DecodeTask> completion = new ExecutorCompletionService<DecodeTask>(executor);
+        final List<Future<DecodeTask>> futures = new ArrayList<Future<DecodeTask>>(fields.size());
+        final Map<Integer,DecodeTask> decoded = new HashMap<Integer,DecodeTask>();
+        final FileInputStream in = new FileInputStream(file); try {
+            final FileChannel channel = in.getChannel();
+            int delivered = 0;
+            while (delivered < fields.size()) {
+                while (futures.size() < fields.size() && futures.size() - delivered < window) {
+                    final int number = futures.size();
+                    futures.add(completion.submit(new DecodeTask(number, channel, fields.get(number),
+                                                                 ordered ? null : handler)));
+                }
+                final DecodeTask task = get(completion.take());
+                if (!ordered) {
+                    delivered++;
+                    continue;
+                }
+                decoded.put(task.number_, task);
+                for (DecodeTask next; (next = decoded.remove(delivered)) != null; delivered++) {
+                    handler.field(next.data_, next.values_);
+                }
+            }
+        } finally {
+            for (final Future<DecodeTask> future: futures) {
+                future.cancel(false);
+            }
+            in.close();
+        }
+    }
+
+    private static <T> T get(final Future<T> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        }
+        catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException)cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException)cause;
+            if (cause instanceof Error) throw (Error)cause;
+            throw new IOException("cannot decode field", cause);
+        }
+    }
+
+    /**
+     * 索引が示すセクションだけを読み込んで解析する。
+     * @param channel
+     * @param field
+     * @return 読み込んだ格子データ
+     * @throws IOException
+     */
+    public FieldData read(final FileChannel channel, final Grib2Index.Field field) throws IOException {
+        final long[] offsets = new long[] {
+            field.messageOffset(),
+            field.messageOffset() + INDICATOR_SECTION_LENGTH,
+            field.sectionOffset(GRID_DEFINITION_SECTION_NUMBER),
+            field.sectionOffset(PRODUCT_DEFITION_SECTION_NUMBER),
+            field.sectionOffset(DATA_REPRESENTAITON_SECTION_NUMBER),
+            field.sectionOffset(BITMAP_SECTION_NUMBER),
+            field.sectionOffset(DATA_SECTION_NUMBER),
+        };
+        final int[] lengths = new int[offsets.length];
+        lengths[0] = INDICATOR_SECTION_LENGTH;
+        int totalLength = lengths[0];
+        final ByteBuffer header = ByteBuffer.allocate(4);
+        for (int k = 1; k < offsets.length; k++) {
+            if (offsets[k] < field.messageOffset()) {
+                throw new IOException("section is not indexed: " + field);
+            }
+            header.clear();
+            read(channel, header, offsets[k]);
+            lengths[k] = header.getInt(0);
+            totalLength += lengths[k];
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(totalLength);
+        for (int k = 0; k < offsets.length; k++) {
+            buffer.limit(buffer.position() + lengths[k]);
+            read(channel, buffer, offsets[k]);
+        }
+        buffer.flip();
+        return new FieldParser().parse(field, buffer);
+    }
+
+    /**
+     * バッファのpositionからlimitまでを読み込む。
+     */
+    private static void read(final FileChannel channel, final ByteBuffer buffer, final long position) throws IOException {
+        final int start = buffer.position();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position() - start) < 0) {
+                throw new EOFException("unexpected end of file at " + (position + buffer.position() - start));
+            }
+        }
+    }
+
+}
@@ -16,13 +16,36 @@
  */
 package jp.techlier.weather.gpv;
 
+import java.io.Closeable;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
 
+import jp.techlier.weather.gpv.archive.TarEntry;
+import jp.techlier.weather.gpv.archive.TarIndex;
+import jp.techlier.weather.gpv.archive.TarReader;
 import jp.techlier.weather.gpv.grib2.parser.MessageParser;
 
 
@@ -33,17 +56,41 @@ import jp.techlier.weather.gpv.grib2.parser.MessageParser;
  * @since 2011/08/16
  * @version $Id$
  */
-public class GpvFileParser extends MessageParser implements FileFilter {
+public class GpvFileParser extends MessageParser implements FileFilter, Closeable {
 
     public static final int BUFFER_SIZE = 1024 * 1024;
 
-    private ByteBuffer defaultBuffer;
+    /** 読み飛ばした直後に読み込む量 */
+    public static final int SKIP_REFILL_SIZE = 4096;
 
-    private ByteBuffer defaultBuffer() {
-        if (defaultBuffer == null) {
-            defaultBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    /** 先読みで1回に読み込む大きさ */
+    public static final int READ_AHEAD_BLOCK_SIZE = 256 * 1024;
+
+    /** 先読みするブロックの数 */
+    public static final int READ_AHEAD_BLOCK_COUNT = 4;
+
+    /** gzipの展開に用いるバッファの大きさ */
+    public static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    /** メモリマップで解析できるファイルサイズの上限 */
+    public static final long MAX_MAPPING_SIZE = Integer.MAX_VALUE;
+
+    private DirectBufferPool bufferPool_ = DirectBufferPool.getDefault();
+
+    /**
+     * 解析バッファと先読みのブロックを借りるプールを設定する。
+     * 既定では{@link DirectBufferPool#getDefault()}を全てのパーサで共有する。
+     * @param pool
+     */
+    public void setBufferPool(final DirectBufferPool pool) {
+        if (pool == null) {
+            throw new NullPointerException("pool");
         }
-        return defaultBuffer;
+        this.bufferPool_ = pool;
+    }
+
+    public DirectBufferPool getBufferPool() {
+        return bufferPool_;
     }
 
 
@@ -54,6 +101,18 @@ public class GpvFileParser extends MessageParser implements FileFilter {
             }
         }
         else if (file.isFile()) {
+            parseFile(file);
+        }
+    }
+
+    /**
+     * tarアーカイブであれば{@link #parseArchive(File)}で、それ以外は{@link #parse(File)}で解析する。
+     */
+    private void parseFile(final File file) throws IOException {
+        if (TarReader.isArchive(file.getName())) {
+            parseArchive(file);
+        }
+        else {
             parse(file);
         }
     }
@@ -62,13 +121,152 @@ public class GpvFileParser extends MessageParser implements FileFilter {
         return dir.listFiles(this);
     }
 
+
+    /**
+     * ディレクトリ以下のファイルを、指定された数のスレッドで並列に解析する。
+     * @param file
+     * @param parallelism 同時に解析するファイルの最大数
+     * @throws IOException
+     * @throws InterruptedException
+     * @see #parseAll(File, ExecutorService, int)
+     */
+    public void parseAll(final File file, final int parallelism) throws IOException, InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            parseAll(file, executor, parallelism);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * ディレクトリ以下のファイルを並列に解析する。
+     * <p>
+     * executorにはparallelism個のワーカーを投入する。各ワーカーは{@link #createWorker()}で生成した
+     * 専用のパーサと解析バッファを持ち、未解析のファイルを大きい順に取り出して解析する。
+     * executorは固定サイズのスレッドプールの他、仮想スレッドのExecutor
+     * (Java 21以降の{@code Executors.newVirtualThreadPerTaskExecutor()})でもよい。
+     * いずれの場合も同時に解析するファイルはparallelism個までとなる。
+     * </p>
+     * <p>
+     * リスナーは全てのワーカーで共有され、異なるファイルについて複数のスレッドから同時に呼び出される。
+     * 1つのファイルに関する通知は1つのスレッドから順に行われる。
+     * 解析に失敗したファイルがあっても残りのファイルの解析は続け、最後に最初の失敗を例外として通知する。
+     * </p>
+     * @param file ファイルまたはディレクトリ
+     * @param executor ワーカーを実行する。終了は呼び出し側が行う
+     * @param parallelism 同時に解析するファイルの最大数
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    public void parseAll(final File file, final ExecutorService executor, final int parallelism)
+            throws IOException, InterruptedException {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        final List<File> files = new ArrayList<File>();
+        collectFiles(file, files);
+        // 大きいファイルから解析し、最後に大きなファイルが残らないようにする
+        Collections.sort(files, new Comparator<File>() {
+            public int compare(final File f1, final File f2) {
+                final long l1 = f1.length(), l2 = f2.length();
+                return l1 > l2 ? -1 : l1 < l2 ? 1 : 0;
+            }
+        });
+        final Queue<File> queue = new ConcurrentLinkedQueue<File>(files);
+        final Queue<IOException> failures = new ConcurrentLinkedQueue<IOException>();
+
+        final List<Future<GpvFileParser>> workers = new ArrayList<Future<GpvFileParser>>();
+        for (int k = Math.min(parallelism, files.size()); --k >= 0; ) {
+            final GpvFileParser worker = createWorker();
+            workers.add(executor.submit(new Callable<GpvFileParser>() {
+                public GpvFileParser call() {
+                    for (File next; (next = queue.poll()) != null; ) {
+                        try {
+                            worker.parseFile(next);
+                        }
+                        catch (IOException e) {
+                            failures.add(new IOException("cannot parse " + next, e));
+                        }
+                        catch (RuntimeException e) {
+                            failures.add(new IOException("cannot parse " + next, e));
+                        }
+                    }
+                    return worker;
+                }
+            }));
+        }
+        try {
+            for (final Future<GpvFileParser> worker: workers) {
+                mergeMissingEnumValues(worker.get());
+            }
+        }
+        catch (ExecutionException e) {
+            throw new IOException("worker failed", e.getCause());
+        }
+        finally {
+            queue.clear();
+        }
+        if (!failures.isEmpty()) {
+            final IOException first = failures.peek();
+            if (failures.size() > 1) {
+                logger_.error(failures.size() + " files cannot be parsed");
+            }
+            throw first;
+        }
+    }
+
+    private void collectFiles(final File file, final List<File> files) {
+        if (file.isDirectory()) {
+            for (final File child: listFiles(file)) {
+                collectFiles(child, files);
+            }
+        }
+        else if (file.isFile()) {
+            files.add(file);
+        }
+    }
+
+    /**
+     * 並列解析のワーカーとして用いるパーサを生成する。
+     * 設定とリスナーはこのパーサと同じものを用いる。
+     * @return 新しいパーサ
+     */
+    protected GpvFileParser createWorker() {
+        final GpvFileParser worker = new GpvFileParser();
+        copyConfigurationTo(worker);
+        return worker;
+    }
+
+    @Override
+    protected void copyConfigurationTo(final MessageParser other) {
+        super.copyConfigurationTo(other);
+        if (other instanceof GpvFileParser) {
+            ((GpvFileParser)other).isEnabledMemoryMapping_ = isEnabledMemoryMapping_;
+            ((GpvFileParser)other).isEnabledReadAhead_ = isEnabledReadAhead_;
+            ((GpvFileParser)other).bufferPool_ = bufferPool_;
+        }
+    }
+
+    private void mergeMissingEnumValues(final GpvFileParser worker) {
+        for (final Map.Entry<Class<? extends Enum<?>>,Set<Integer>> entry: worker.missingEnumValues_.entrySet()) {
+            Set<Integer> values = missingEnumValues_.get(entry.getKey());
+            if (values == null) {
+                values = new TreeSet<Integer>();
+                missingEnumValues_.put(entry.getKey(), values);
+            }
+            values.addAll(entry.getValue());
+        }
+    }
+
     /*(non-Javadoc)
      * @see java.io.FileFilter#accept(java.io.File)
      */
     @Override
     public boolean accept(final File file) {
         if (file.isFile()) {
-            return (file.getName().endsWith(GpvFileType.GRIB2_SUFFIX));
+            return (GpvFileType.uncompressedName(file.getName()).endsWith(GpvFileType.GRIB2_SUFFIX)
+                    || TarReader.isArchive(file.getName()));
         }
         return true;
     }
@@ -80,50 +278,427 @@ public class GpvFileParser extends MessageParser implements FileFilter {
         return source_;
     }
 
+    private boolean isEnabledMemoryMapping_ = false;
+
+    /**
+     * ファイル全体をメモリにマップして解析する。
+     * <p>
+     * ファイルを{@link FileChannel#map}でマップし、バッファへの複製を行わずにセクションを解析する。
+     * {@link #MAX_MAPPING_SIZE}を超えるファイルは従来通りバッファに読み込んで解析する。
+     * ゼロコピーモードと併用した場合、Data Section等のビューはマップされたファイルを直接参照するため、
+     * 解析後も参照し続けることができる。
+     * </p>
+     * @param flag true: メモリマップを用いる
+     */
+    public void enableMemoryMapping(boolean flag) {
+        this.isEnabledMemoryMapping_ = flag;
+    }
+
+    private boolean isEnabledReadAhead_ = false;
+
+    /**
+     * バッファに読み込んで解析する場合に、専用のスレッドでファイルを先読みする。
+     * <p>
+     * {@link #READ_AHEAD_BLOCK_SIZE}のブロックを{@link #READ_AHEAD_BLOCK_COUNT}個用いて、
+     * 解析中にファイルの続きを読み込んでおく。読み込みの待ち時間が長いネットワーク上のファイルで効果がある。
+     * 先読みした範囲を超えて読み飛ばすと先読みをやり直すため、インベントリモード等では効果が小さい。
+     * メモリマップで解析する場合は用いない。
+     * </p>
+     * @param flag true: 先読みする
+     */
+    public void enableReadAhead(boolean flag) {
+        this.isEnabledReadAhead_ = flag;
+    }
+
     public void parse(final File file) throws IOException {
-        parse(file, defaultBuffer());
+        open(file);
+        try {
+            parseMessages();
+        } finally {
+            close();
+        }
+    }
+
+    public void parse(final File file, final ByteBuffer buffer) throws IOException {
+        open(file, buffer);
+        try {
+            parseMessages();
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * チャネルから読み込みながら解析する。チャネルは閉じない。
+     * @param channel ブロッキングモードのチャネル
+     * @throws IOException
+     */
+    public void parse(final ReadableByteChannel channel) throws IOException {
+        final ByteBuffer buffer = bufferPool_.lease(BUFFER_SIZE);
+        try {
+            parse(channel, buffer);
+        } finally {
+            bufferPool_.release(buffer);
+        }
+    }
+
+    public void parse(final ReadableByteChannel channel, final ByteBuffer buffer) throws IOException {
+        open(channel, buffer);
+        try {
+            parseMessages();
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * ストリームから読み込みながら解析する。ストリームは閉じない。
+     * 圧縮されたデータは展開するストリーム(GZIPInputStream等)を渡せば、一時ファイルを介さずに解析できる。
+     * @param in
+     * @throws IOException
+     */
+    public void parse(final InputStream in) throws IOException {
+        parse(Channels.newChannel(in));
+    }
+
+    /**
+     * ファイル全体をメモリにマップして解析する。
+     * @param file
+     * @throws IOException
+     */
+    public void parseMapped(final File file) throws IOException {
+        openMapped(file);
+        try {
+            parseMessages();
+        } finally {
+            close();
+        }
+    }
+
+    private void parseMessages() throws IOException {
+        while (parseNextMessage()) {
+            // continue
+        }
+        if (expectedLength_ >= 0 && totalLength_ != expectedLength_) {
+            System.err.println("ファイルサイズと読み込み長さが一致しない: " + expectedLength_ + ", " + totalLength_);
+        }
+    }
+
+
+    private TarEntry archiveEntry_;
+
+    /**
+     * @return 解析中のアーカイブのエントリ。アーカイブを解析していなければnull
+     */
+    public TarEntry getArchiveEntry() {
+        return archiveEntry_;
+    }
+
+    /**
+     * tarアーカイブに含まれるGRIB2ファイルを、展開せずに先頭から順に解析する。
+     * <p>
+     * 名前が{@link GpvFileType}のいずれかに該当するエントリだけを解析し、他のエントリは読み飛ばす。
+     * gzipで圧縮されたアーカイブ(.tar.gz, .tgz)とエントリ(.gz)は展開しながら読み込む。
+     * 解析中は{@link #getFile()}がアーカイブを、{@link #getArchiveEntry()}がエントリを返す。
+     * </p>
+     * @param archive
+     * @throws IOException
+     */
+    public void parseArchive(final File archive) throws IOException {
+        final FileInputStream file = new FileInputStream(archive);
+        final ReadableByteChannel channel;
+        if (TarReader.isCompressedArchive(archive.getName())) {
+            try {
+                channel = Channels.newChannel(new GZIPInputStream(file, GZIP_BUFFER_SIZE));
+            } catch (IOException e) {
+                file.close();
+                throw e;
+            }
+        }
+        else {
+            channel = file.getChannel();
+        }
+        final TarReader reader = new TarReader(channel);
+        final ByteBuffer buffer = bufferPool_.lease(BUFFER_SIZE);
+        try {
+            for (TarEntry entry; (entry = reader.nextEntry()) != null; ) {
+                if (entry.isFile() && GpvFileType.getFileType(entry.name()) != GpvFileType.UNKNOWN) {
+                    parseEntry(archive, entry, reader.entryChannel(), buffer);
+                }
+            }
+        } finally {
+            bufferPool_.release(buffer);
+            reader.close();
+        }
+    }
+
+    /**
+     * 圧縮されていないtarアーカイブのエントリを、索引が示す位置から読み込んで解析する。
+     * メモリマップが有効であればエントリをマップする。
+     * @param index
+     * @param entry indexのエントリ
+     * @throws IOException
+     */
+    public void parseArchiveEntry(final TarIndex index, final TarEntry entry) throws IOException {
+        if (isEnabledMemoryMapping_ && !GpvFileType.isGzipped(entry.name())) {
+            close();
+            buffer_ = index.map(entry);
+            source_ = index.archive();
+            archiveEntry_ = entry;
+            expectedLength_ = entry.size();
+            totalLength_ = 0;
+            super.reset();
+            try {
+                parseMessages();
+            } finally {
+                close();
+            }
+            return;
+        }
+        final ReadableByteChannel channel = index.open(entry);
+        try {
+            final ByteBuffer buffer = bufferPool_.lease(BUFFER_SIZE);
+            try {
+                parseEntry(index.archive(), entry, channel, buffer);
+            } finally {
+                bufferPool_.release(buffer);
+            }
+        } finally {
+            channel.close();
+        }
     }
 
+    private void parseEntry(final File archive, final TarEntry entry,
+                            final ReadableByteChannel channel, final ByteBuffer buffer) throws IOException {
+        final InputStream inflater = GpvFileType.isGzipped(entry.name())
+                ? new GZIPInputStream(Channels.newInputStream(channel), GZIP_BUFFER_SIZE) : null;
+        try {
+            open(inflater != null ? Channels.newChannel(inflater) : channel, buffer);
+            source_ = archive;
+            archiveEntry_ = entry;
+            expectedLength_ = inflater != null ? -1 : entry.size();
+            parseMessages();
+        } finally {
+            close();
+            if (inflater != null) {
+                inflater.close();
+            }
+        }
+    }
+
+
+    /** 開いたファイル */
     private FileChannel input_;
+    private ReadAheadChannel readAhead_;
+    /** gzipで圧縮されたファイルを展開する */
+    private InputStream inflater_;
+    /** 解析バッファに読み込む入力 */
+    private ReadableByteChannel channel_;
+    private ByteBuffer buffer_;
+    /** プールから借りた解析バッファ */
+    private ByteBuffer leasedBuffer_;
+    private long totalLength_;
+    /** 解析するメッセージの長さの合計。分からなければ-1 */
+    private long expectedLength_ = -1;
 
-    public void parse(final File file, final ByteBuffer buffer) throws IOException {
+    /**
+     * ファイルを開き、{@link #parseNextMessage()}でメッセージを1つずつ解析できるようにする。
+     * メモリマップが有効で、ファイルが{@link #MAX_MAPPING_SIZE}以下であればマップする。
+     * gzipで圧縮されたファイルはマップしない。
+     * @param file
+     * @throws IOException
+     */
+    public void open(final File file) throws IOException {
+        if (isEnabledMemoryMapping_ && file.length() <= MAX_MAPPING_SIZE && !GpvFileType.isGzipped(file.getName())) {
+            openMapped(file);
+        }
+        else {
+            final ByteBuffer buffer = bufferPool_.lease(BUFFER_SIZE);
+            try {
+                open(file, buffer);
+            } catch (IOException e) {
+                bufferPool_.release(buffer);
+                throw e;
+            } catch (RuntimeException e) {
+                bufferPool_.release(buffer);
+                throw e;
+            }
+            leasedBuffer_ = buffer;
+        }
+    }
+
+    /**
+     * ファイルを開き、指定されたバッファに読み込みながら解析できるようにする。
+     * 名前が{@link GpvFileType#GZIP_SUFFIX}で終わるファイルは展開しながら読み込む。
+     * @param file
+     * @param buffer 解析バッファ
+     * @throws IOException
+     */
+    public void open(final File file, final ByteBuffer buffer) throws IOException {
+        close();
+        final FileChannel input = new FileInputStream(file).getChannel();
         source_ = file;
-        final FileInputStream in = new FileInputStream(file); try {
-            input_ = in.getChannel(); try {
-                init(buffer);
-                int totalLength = 0;
-                while (buffer.hasRemaining()) {
-                    totalLength += parse(buffer);
-                }
-                if (totalLength != file.length()) {
-                    System.err.println("ファイルサイズと読み込み長さが一致しない: " + file.length() + ", " + totalLength);
+        archiveEntry_ = null;
+        input_ = input;
+        try {
+            ReadableByteChannel channel = input;
+            if (isEnabledReadAhead_) {
+                channel = readAhead_ = new ReadAheadChannel(input, bufferPool_, READ_AHEAD_BLOCK_SIZE, READ_AHEAD_BLOCK_COUNT);
+            }
+            if (GpvFileType.isGzipped(file.getName())) {
+                inflater_ = new GZIPInputStream(Channels.newInputStream(channel), GZIP_BUFFER_SIZE);
+                channel = Channels.newChannel(inflater_);
+            }
+            start(channel, buffer);
+            expectedLength_ = inflater_ == null ? file.length() : -1;
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * チャネルから読み込みながら解析できるようにする。{@link #close()}でチャネルは閉じない。
+     * @param channel ブロッキングモードのチャネル
+     * @param buffer 解析バッファ
+     * @throws IOException
+     */
+    public void open(final ReadableByteChannel channel, final ByteBuffer buffer) throws IOException {
+        close();
+        source_ = null;
+        archiveEntry_ = null;
+        try {
+            start(channel, buffer);
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private void start(final ReadableByteChannel channel, final ByteBuffer buffer) throws IOException {
+        channel_ = channel;
+        buffer_ = buffer;
+        totalLength_ = 0;
+        expectedLength_ = -1;
+        init(buffer);
+    }
+
+    /**
+     * ファイル全体をメモリにマップして開く。
+     * @param file
+     * @throws IOException
+     */
+    public void openMapped(final File file) throws IOException {
+        close();
+        final FileChannel channel = new FileInputStream(file).getChannel(); try {
+            buffer_ = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } finally {
+            channel.close();
+        }
+        source_ = file;
+        archiveEntry_ = null;
+        expectedLength_ = file.length();
+        totalLength_ = 0;
+        super.reset();
+    }
+
+    /**
+     * 開いているファイルの次のメッセージを解析する。
+     * @return 解析した場合はtrue。ファイルの終わりに達していればfalse
+     * @throws IOException
+     */
+    public boolean parseNextMessage() throws IOException {
+        if (buffer_ == null) {
+            throw new IllegalStateException("file is not opened");
+        }
+        if (!buffer_.hasRemaining()) {
+            return false;
+        }
+        totalLength_ += parse(buffer_);
+        return true;
+    }
+
+    /**
+     * 開いているファイルを閉じ、プールから借りたバッファを返却する。開いていなければ何もしない。
+     */
+    public void close() throws IOException {
+        buffer_ = null;
+        channel_ = null;
+        if (leasedBuffer_ != null) {
+            bufferPool_.release(leasedBuffer_);
+            leasedBuffer_ = null;
+        }
+        try {
+            if (inflater_ != null) {
+                inflater_.close();
+            }
+        } finally {
+            inflater_ = null;
+            try {
+                if (readAhead_ != null) {
+                    readAhead_.close();
                 }
             } finally {
-                input_.close();
-                input_ = null;
+                readAhead_ = null;
+                if (input_ != null) {
+                    try {
+                        input_.close();
+                    } finally {
+                        input_ = null;
+                    }
+                }
             }
-        } finally {
-            in.close();
         }
     }
 
 
     public void init(final ByteBuffer buffer) throws IOException {
         super.reset();
-        buffer.clear();
+        buffer.clear().limit(0);
         refill(buffer);
     }
 
     @Override
     protected void refill(final ByteBuffer buffer) throws IOException {
-        if (buffer.position() > 0) {
-            buffer.compact();
+        if (channel_ == null) {
+            // メモリマップ時はファイル全体がバッファにある
+            return;
+        }
+        buffer.compact();
+        // ストリームは一度に一部しか返さないことがあるため、一杯になるか終わりに達するまで読み込む
+        while (buffer.hasRemaining() && channel_.read(buffer) >= 0) {
+            // continue
+        }
+        buffer.flip();
+    }
+
+    /**
+     * バッファに残っていない部分はファイルの位置を移動して読み飛ばす。
+     * 圧縮されたファイルやチャネルから読み込んでいる場合は、読み込んで捨てる。
+     * 移動後は次のセクションの見出し程度({@link #SKIP_REFILL_SIZE})だけを読み込み、
+     * 続けて読み飛ばすセクションを無駄に読み込まないようにする。
+     */
+    @Override
+    protected void skip(final ByteBuffer buffer, final long n) throws IOException {
+        if (input_ == null || inflater_ != null || n <= buffer.remaining()) {
+            super.skip(buffer, n);
+            return;
+        }
+        final long current = readAhead_ != null ? readAhead_.position() : input_.position();
+        final long position = current + n - buffer.remaining();
+        if (position > input_.size()) {
+            throw new EOFException("section is truncated: " + (position - input_.size()) + " bytes remain");
+        }
+        buffer.clear().limit(Math.min(buffer.capacity(), SKIP_REFILL_SIZE));
+        if (readAhead_ != null) {
+            readAhead_.position(position);
+            readAhead_.read(buffer);
         }
-        input_.read(buffer);
-        if (input_.position() == input_.size()) {
-            buffer.limit(buffer.position());
+        else {
+            input_.position(position);
+            input_.read(buffer);
         }
-        buffer.position(0);
+        buffer.flip();
     }
 
 }
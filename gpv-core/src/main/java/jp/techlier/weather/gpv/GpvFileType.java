@@ -34,6 +34,9 @@ public enum GpvFileType {
 
     public static final String GRIB2_SUFFIX = "grib2.bin";
 
+    /** gzipで圧縮されたファイルの接尾辞 */
+    public static final String GZIP_SUFFIX = ".gz";
+
     private GpvFileType(final String rule) {
         this.namingRule_ = rule != null ? rule.toLowerCase() : null;
     }
@@ -41,15 +44,26 @@ public enum GpvFileType {
     private final String namingRule_;
 
     public boolean match(final String filename) {
-        return matchLowercaseName(filename.toLowerCase());
+        return matchLowercaseName(uncompressedName(filename.toLowerCase()));
     }
 
     private boolean matchLowercaseName(final String filename) {
         return this != UNKNOWN && filename.endsWith(GRIB2_SUFFIX) && filename.contains(namingRule_);
     }
 
+    /**
+     * @return 圧縮されたファイルの名前であれば、圧縮前の名前
+     */
+    public static String uncompressedName(final String filename) {
+        return isGzipped(filename) ? filename.substring(0, filename.length() - GZIP_SUFFIX.length()) : filename;
+    }
+
+    public static boolean isGzipped(final String filename) {
+        return filename.toLowerCase().endsWith(GZIP_SUFFIX);
+    }
+
     public static GpvFileType getFileType(String filename) {
-        filename = filename.toLowerCase();
+        filename = uncompressedName(filename.toLowerCase());
         for (final GpvFileType type: values()) {
             if (type.matchLowercaseName(filename)) return type;
         }
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.Set;
+
+import jp.techlier.weather.gpv.GpvFieldReader.FieldData;
+import jp.techlier.weather.gpv.grib2.Grib2.DataSection;
+import jp.techlier.weather.gpv.grib2.Grib2.SectionNumber;
+import jp.techlier.weather.gpv.grib2.parser.AbstractMessageListener;
+import jp.techlier.weather.gpv.grib2.parser.DataChunkListener;
+import jp.techlier.weather.gpv.grib2.parser.FieldFilter;
+import jp.techlier.weather.gpv.grib2.parser.MessageHolder;
+import jp.techlier.weather.gpv.grib2.parser.SelectiveMessageListener;
+import jp.techlier.weather.gpv.grib2.types.ContentInfo;
+
+
+/**
+ * ファイル中の格子データを先頭から1つずつ取り出す。
+ * <p>
+ * {@link jp.techlier.weather.gpv.grib2.parser.MessageListener}による通知とは逆に、利用者が{@link #next()}を呼び出したときに
+ * 必要な分だけメッセージを解析する。途中で読み込みをやめる場合は{@link #close()}を呼び出す。
+ * 最後の格子データを取り出すとファイルは自動的に閉じられる。
+ * 値の復号は{@link FieldData#decode()}を呼び出すまで行わない。
+ * </p>
+ * <p>
+ * 取り出した格子データは他の格子データの読み込みの影響を受けないため、
+ * 復号は別のスレッドで行ってもよい。ただし、このクラス自体はスレッドセーフではない。
+ * Java 8以降では{@code Spliterators.spliteratorUnknownSize(reader, ORDERED | NONNULL)}を
+ * {@code StreamSupport.stream}に渡してStreamとして扱える。その場合はonCloseで{@link #close()}を呼び出す。
+ * </p>
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+public class GribFieldReader implements Iterator<FieldData>, Closeable {
+
+    private static final ContentInfo DATA_CONTENT = ContentInfo.getContentDefinitions(DataSection.class).get("data");
+
+    private final GpvFileParser parser_;
+    private final Queue<FieldData> fields_ = new LinkedList<FieldData>();
+    private final File source_;
+    private boolean isOpened_;
+
+
+    public GribFieldReader(final File file) throws IOException {
+        this(file, null);
+    }
+
+    /**
+     * ファイルが{@link GpvFileParser#MAX_MAPPING_SIZE}以下であればメモリにマップし、
+     * 格子データはマップしたバッファを参照する。
+     * それより大きなファイルとgzipで圧縮されたファイルは{@link DirectBufferPool}から借りたバッファに読み込む。
+     * @param file
+     * @param filter 取り出す格子データの条件。nullの場合はすべて
+     * @throws IOException
+     */
+    public GribFieldReader(final File file, final FieldFilter filter) throws IOException {
+        this(file, filter, null,
+             file.length() <= GpvFileParser.MAX_MAPPING_SIZE && !GpvFileType.isGzipped(file.getName()));
+    }
+
+    /**
+     * 指定されたバッファに読み込みながら解析する。格子データのデータは複製して保持する。
+     * @param file
+     * @param filter 取り出す格子データの条件。nullの場合はすべて
+     * @param buffer 解析バッファ。nullの場合はファイル全体をメモリにマップする
+     * @throws IOException
+     */
+    public GribFieldReader(final File file, final FieldFilter filter, final ByteBuffer buffer) throws IOException {
+        this(file, filter, buffer, buffer == null);
+    }
+
+    private GribFieldReader(final File file, final FieldFilter filter, final ByteBuffer buffer, final boolean mapping)
+            throws IOException {
+        source_ = file;
+        parser_ = new GpvFileParser();
+        parser_.setFieldFilter(filter);
+        parser_.enableZeroCopy(mapping);
+        parser_.addListener(new FieldCollector());
+        if (mapping) {
+            parser_.openMapped(file);
+        }
+        else if (buffer == null) {
+            parser_.open(file);
+        }
+        else {
+            parser_.open(file, buffer);
+        }
+        isOpened_ = true;
+    }
+
+
+    /**
+     * 解析中に例外が発生した場合は、例外の種類によらずファイルを閉じて解析バッファを返却する。
+     * @throws IllegalStateException 読み込みに失敗した場合。原因はIOException
+     */
+    @Override
+    public boolean hasNext() {
+        boolean completed = false;
+        try {
+            while (fields_.isEmpty() && isOpened_) {
+                if (!parser_.parseNextMessage()) {
+                    close();
+                }
+            }
+            completed = true;
+        } catch (IOException e) {
+            throw new IllegalStateException("failed to read: " + source_, e);
+        } finally {
+            if (!completed) closeQuietly();
+        }
+        return !fields_.isEmpty();
+    }
+
+    @Override
+    public FieldData next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return fields_.remove();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * ファイルを閉じる。取り出し済みの格子データは引き続き参照できる。
+     */
+    @Override
+    public void close() throws IOException {
+        isOpened_ = false;
+        parser_.close();
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+
+
+    /**
+     * Data Sectionの解析が終わるたびに格子データを記録する。
+     * 解析バッファに収まらないData Sectionはデータを組み立ててから記録する。
+     */
+    private class FieldCollector extends AbstractMessageListener implements SelectiveMessageListener, DataChunkListener {
+
+        private byte[] data_;
+
+        @Override
+        public Set<SectionNumber> consumedSections() {
+            return Collections.unmodifiableSet(EnumSet.of(SectionNumber.DATA_SECTION));
+        }
+
+        @Override
+        public void dataChunk(final DataSection section, final ByteBuffer chunk, final long offset, final MessageHolder messages) {
+            if (offset == 0) {
+                data_ = new byte[section.length() - 5];
+            }
+            chunk.get(data_, (int)offset, chunk.remaining());
+        }
+
+        @Override
+        public void dataSection(final DataSection section, final MessageHolder holder) {
+            if (section.dataBuffer() == null && data_ != null) {
+                section.set(DATA_CONTENT, data_);
+            }
+            data_ = null;
+            fields_.add(new FieldData(null, holder));
+        }
+    }
+
+}
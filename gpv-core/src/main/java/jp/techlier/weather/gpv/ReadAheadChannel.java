@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+
+
+/**
+ * 専用のスレッドでファイルを先読みするチャネル。
+ * <p>
+ * 固定長のブロックを指定された数だけ確保し、読み込みスレッドがファイルの続きをブロックに読み込んでおく。
+ * {@link #read(ByteBuffer)}は読み込み済みのブロックから複製するため、解析とファイルの読み込みが並行して行われる。
+ * 先読みした範囲を超えて位置を移動した場合は、移動先から先読みをやり直す。
+ * </p>
+ * <p>
+ * ブロックはプールから借り、このチャネルを閉じると返却する。このチャネルを閉じても元のチャネルは閉じない。
+ * 読み込みスレッドは元のチャネルの位置を変更しないが、元のチャネルを同時に読み込んではならない。
+ * </p>
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+final class ReadAheadChannel implements ReadableByteChannel {
+
+    /** 読み込みスレッドに終了を指示する */
+    private static final ByteBuffer STOP = ByteBuffer.allocate(0);
+    /** ファイルの終わり */
+    private static final Object END = new Object();
+
+    private static final ThreadFactory THREAD_FACTORY = new ThreadFactory() {
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "gpv-read-ahead");
+            thread.setDaemon(true);
+            return thread;
+        }
+    };
+
+
+    private final FileChannel channel_;
+    private final DirectBufferPool pool_;
+    private final ByteBuffer[] blocks_;
+    private final int blockSize_;
+    private final ExecutorService executor_;
+
+    /** 読み込みを待つブロック */
+    private final BlockingQueue<ByteBuffer> free_ = new LinkedBlockingQueue<ByteBuffer>();
+    /** 読み込み済みのブロック、{@link #END}、または読み込みで発生した例外 */
+    private final BlockingQueue<Object> filled_ = new LinkedBlockingQueue<Object>();
+
+    private Future<Void> reader_;
+    private ByteBuffer current_;
+    private long position_;
+    private boolean isOpen_ = true;
+
+
+    /**
+     * 元のチャネルの現在の位置から先読みを始める。
+     * @param channel
+     * @param pool ブロックを借りるプール
+     * @param blockSize 1回に読み込む大きさ
+     * @param blockCount 先読みするブロックの数
+     * @throws IOException
+     */
+    ReadAheadChannel(final FileChannel channel, final DirectBufferPool pool,
+                     final int blockSize, final int blockCount) throws IOException {
+        if (blockSize <= 0 || blockCount <= 0) {
+            throw new IllegalArgumentException("illegal read-ahead size: " + blockSize + " x " + blockCount);
+        }
+        final long position = channel.position();
+        channel_ = channel;
+        pool_ = pool;
+        blockSize_ = blockSize;
+        blocks_ = new ByteBuffer[blockCount];
+        for (int k = 0; k < blockCount; k++) {
+            blocks_[k] = pool.lease(blockSize);
+        }
+        executor_ = Executors.newSingleThreadExecutor(THREAD_FACTORY);
+        start(position);
+    }
+
+    private void start(final long position) {
+        free_.clear();
+        filled_.clear();
+        for (final ByteBuffer block: blocks_) {
+            free_.add(block);
+        }
+        current_ = null;
+        position_ = position;
+        reader_ = executor_.submit(new Reader(position));
+    }
+
+    private void stop() throws IOException {
+        if (reader_ == null) {
+            return;
+        }
+        // 捨てる範囲を読み込まないよう、待っているブロックを取り除いてから指示する
+        free_.clear();
+        free_.add(STOP);
+        try {
+            reader_.get();
+            reader_ = null;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while stopping read-ahead");
+        }
+        catch (ExecutionException e) {
+            reader_ = null;
+            throw new IOException("read-ahead failed", e.getCause());
+        }
+    }
+
+
+    @Override
+    public int read(final ByteBuffer dst) throws IOException {
+        if (!isOpen_) {
+            throw new ClosedChannelException();
+        }
+        int total = 0;
+        while (dst.hasRemaining()) {
+            if (current_ == null) {
+                final Object next = take();
+                if (next == END) {
+                    filled_.add(END);
+                    if (total == 0) {
+                        return -1;
+                    }
+                    break;
+                }
+                if (next instanceof IOException) {
+                    filled_.add(next);
+                    throw new IOException("read-ahead failed", (IOException)next);
+                }
+                current_ = (ByteBuffer)next;
+            }
+            final int length = Math.min(current_.remaining(), dst.remaining());
+            final ByteBuffer src = current_.duplicate();
+            src.limit(src.position() + length);
+            dst.put(src);
+            advance(length, free_);
+            total += length;
+        }
+        return total;
+    }
+
+    private Object take() throws IOException {
+        try {
+            return filled_.take();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while reading ahead");
+        }
+    }
+
+    /**
+     * 読み込み中のブロックの位置を進める。
+     * @param length
+     * @param done 読み終えたブロックを加える先
+     */
+    private void advance(final int length, final Collection<ByteBuffer> done) {
+        current_.position(current_.position() + length);
+        position_ += length;
+        if (!current_.hasRemaining()) {
+            done.add(current_);
+            current_ = null;
+        }
+    }
+
+    /**
+     * @return 次に読み込む位置
+     */
+    public long position() {
+        return position_;
+    }
+
+    /**
+     * 読み込む位置を移動する。
+     * 先読み済みの範囲内で前方に移動する場合は、読み込み済みのブロックを読み飛ばす。
+     * 読み飛ばしたブロックは移動先が範囲内にあった場合にだけ読み込みスレッドに返し、
+     * 範囲外であれば読み込みスレッドを止めてから移動先で再利用する。
+     * @param newPosition
+     * @throws IOException
+     */
+    public void position(final long newPosition) throws IOException {
+        if (!isOpen_) {
+            throw new ClosedChannelException();
+        }
+        final List<ByteBuffer> skipped = new ArrayList<ByteBuffer>();
+        while (newPosition > position_) {
+            if (current_ == null) {
+                final Object next = filled_.peek();
+                if (!(next instanceof ByteBuffer)) {
+                    break;
+                }
+                current_ = (ByteBuffer)filled_.remove();
+                if (!current_.hasRemaining()) {
+                    skipped.add(current_);
+                    current_ = null;
+                    continue;
+                }
+            }
+            advance((int)Math.min(current_.remaining(), newPosition - position_), skipped);
+        }
+        if (newPosition != position_) {
+            stop();
+            start(newPosition);
+        }
+        else {
+            free_.addAll(skipped);
+        }
+    }
+
+    public long size() throws IOException {
+        return channel_.size();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return isOpen_;
+    }
+
+    /**
+     * 読み込みスレッドを終了する。元のチャネルは閉じない。
+     */
+    @Override
+    public void close() throws IOException {
+        if (!isOpen_) {
+            return;
+        }
+        isOpen_ = false;
+        try {
+            stop();
+        } finally {
+            executor_.shutdown();
+            free_.clear();
+            filled_.clear();
+            current_ = null;
+            // 読み込みスレッドが終了していなければ、ブロックは返却しない
+            if (reader_ == null) {
+                for (final ByteBuffer block: blocks_) {
+                    pool_.release(block);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * 指定された位置からファイルの終わりまで、空いたブロックに順に読み込む。
+     */
+    private class Reader implements Callable<Void> {
+
+        private long readPosition_;
+
+        Reader(final long position) {
+            readPosition_ = position;
+        }
+
+        @Override
+        public Void call() throws InterruptedException {
+            try {
+                while (true) {
+                    final ByteBuffer block = free_.take();
+                    if (block == STOP) {
+                        return null;
+                    }
+                    block.clear().limit(Math.min(block.capacity(), blockSize_));
+                    boolean eof = false;
+                    while (block.hasRemaining()) {
+                        if (channel_.read(block, readPosition_ + block.position()) < 0) {
+                            eof = true;
+                            break;
+                        }
+                    }
+                    block.flip();
+                    readPosition_ += block.remaining();
+                    filled_.add(block);
+                    if (eof) {
+                        filled_.add(END);
+                        return null;
+                    }
+                }
+            }
+            catch (IOException e) {
+                filled_.add(e);
+                return null;
+            }
+        }
+    }
+
+}
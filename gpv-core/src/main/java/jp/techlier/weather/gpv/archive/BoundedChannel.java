@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv.archive;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+
+
+/**
+ * 元のチャネルから指定された長さだけを読み込むチャネル。
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+class BoundedChannel implements ReadableByteChannel {
+
+    private final ReadableByteChannel channel_;
+    private final boolean isClosingChannel_;
+    private long remaining_;
+    private boolean isOpen_ = true;
+
+    /**
+     * @param channel 元のチャネル
+     * @param length 読み込む長さ
+     * @param closeChannel true: 閉じるときに元のチャネルも閉じる
+     */
+    BoundedChannel(final ReadableByteChannel channel, final long length, final boolean closeChannel) {
+        this.channel_ = channel;
+        this.remaining_ = length;
+        this.isClosingChannel_ = closeChannel;
+    }
+
+    /**
+     * @return まだ読み込んでいない長さ
+     */
+    long remaining() {
+        return remaining_;
+    }
+
+    @Override
+    public int read(final ByteBuffer dst) throws IOException {
+        if (!isOpen_) {
+            throw new ClosedChannelException();
+        }
+        if (remaining_ <= 0) {
+            return -1;
+        }
+        final int limit = dst.limit();
+        if (dst.remaining() > remaining_) {
+            dst.limit(dst.position() + (int)remaining_);
+        }
+        try {
+            final int n = channel_.read(dst);
+            if (n < 0) {
+                throw new EOFException("archive is truncated: " + remaining_ + " bytes remain");
+            }
+            remaining_ -= n;
+            return n;
+        } finally {
+            dst.limit(limit);
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return isOpen_;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (isOpen_) {
+            isOpen_ = false;
+            if (isClosingChannel_) {
+                channel_.close();
+            }
+        }
+    }
+
+}
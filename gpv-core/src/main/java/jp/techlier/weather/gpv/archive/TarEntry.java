@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv.archive;
+
+
+/**
+ * tarアーカイブのエントリ。
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+public final class TarEntry {
+
+    private final String name_;
+    private final long size_;
+    private final long offset_;
+    private final byte type_;
+
+    TarEntry(final String name, final long size, final long offset, final byte type) {
+        this.name_ = name;
+        this.size_ = size;
+        this.offset_ = offset;
+        this.type_ = type;
+    }
+
+    /**
+     * @return パスを含む名前
+     */
+    public String name() {
+        return name_;
+    }
+
+    /**
+     * @return データの大きさ
+     */
+    public long size() {
+        return size_;
+    }
+
+    /**
+     * @return アーカイブの先頭からデータまでの位置
+     */
+    public long offset() {
+        return offset_;
+    }
+
+    /**
+     * @return typeflag
+     */
+    public byte type() {
+        return type_;
+    }
+
+    /**
+     * @return 通常のファイルであればtrue
+     */
+    public boolean isFile() {
+        return type_ == '0' || type_ == 0 || type_ == '7';
+    }
+
+    @Override
+    public String toString() {
+        return name_ + "(" + size_ + " bytes at " + offset_ + ")";
+    }
+
+}
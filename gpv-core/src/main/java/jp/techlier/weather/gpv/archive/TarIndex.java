@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv.archive;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * 圧縮されていないtarアーカイブのエントリの位置の一覧。
+ * <p>
+ * エントリのデータを読まずに見出しだけを辿って作成し、
+ * 任意のエントリを先頭から読み直すことなく読み込めるようにする。
+ * </p>
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+public final class TarIndex {
+
+    private final File archive_;
+    private final List<TarEntry> entries_;
+
+    private TarIndex(final File archive, final List<TarEntry> entries) {
+        this.archive_ = archive;
+        this.entries_ = Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * アーカイブの見出しを辿って一覧を作成する。
+     * @param archive 圧縮されていないtarアーカイブ
+     * @return 一覧
+     * @throws IOException
+     */
+    public static TarIndex scan(final File archive) throws IOException {
+        if (TarReader.isCompressedArchive(archive.getName())) {
+            throw new IllegalArgumentException("compressed archive cannot be indexed: " + archive);
+        }
+        final List<TarEntry> entries = new ArrayList<TarEntry>();
+        final TarReader reader = new TarReader(new FileInputStream(archive).getChannel()); try {
+            for (TarEntry entry; (entry = reader.nextEntry()) != null; ) {
+                entries.add(entry);
+            }
+        } finally {
+            reader.close();
+        }
+        return new TarIndex(archive, entries);
+    }
+
+    public File archive() {
+        return archive_;
+    }
+
+    /**
+     * @return アーカイブ中の順のエントリ
+     */
+    public List<TarEntry> entries() {
+        return entries_;
+    }
+
+    /**
+     * @param name
+     * @return 指定された名前のエントリ。なければnull
+     */
+    public TarEntry find(final String name) {
+        for (final TarEntry entry: entries_) {
+            if (entry.name().equals(name)) return entry;
+        }
+        return null;
+    }
+
+    /**
+     * エントリのデータを読み込むチャネルを開く。
+     * @param entry この一覧のエントリ
+     * @return 閉じるとアーカイブも閉じるチャネル
+     * @throws IOException
+     */
+    public ReadableByteChannel open(final TarEntry entry) throws IOException {
+        final FileChannel channel = new FileInputStream(archive_).getChannel();
+        try {
+            channel.position(entry.offset());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new BoundedChannel(channel, entry.size(), true);
+    }
+
+    /**
+     * エントリのデータをメモリにマップする。
+     * @param entry この一覧のエントリ
+     * @return 読み込み専用のバッファ
+     * @throws IOException
+     */
+    public ByteBuffer map(final TarEntry entry) throws IOException {
+        final FileChannel channel = new FileInputStream(archive_).getChannel(); try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, entry.offset(), entry.size());
+        } finally {
+            channel.close();
+        }
+    }
+
+}
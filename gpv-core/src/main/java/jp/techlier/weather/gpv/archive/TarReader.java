@@ -0,0 +1,314 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv.archive;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+
+
+/**
+ * tarアーカイブのエントリを先頭から順に読み込む。
+ * <p>
+ * POSIX(ustar, pax)とGNUの長い名前に対応する。
+ * {@link FileChannel}から読み込む場合、読まなかったデータはチャネルの位置を移動して読み飛ばす。
+ * </p>
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+public class TarReader implements Closeable {
+
+    public static final int BLOCK_SIZE = 512;
+
+    public static final String TAR_SUFFIX = ".tar";
+    public static final String TAR_GZIP_SUFFIX = ".tar.gz";
+    public static final String TGZ_SUFFIX = ".tgz";
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final int NAME_OFFSET = 0;
+    private static final int NAME_LENGTH = 100;
+    private static final int SIZE_OFFSET = 124;
+    private static final int SIZE_LENGTH = 12;
+    private static final int CHECKSUM_OFFSET = 148;
+    private static final int CHECKSUM_LENGTH = 8;
+    private static final int TYPE_OFFSET = 156;
+    private static final int MAGIC_OFFSET = 257;
+    /** POSIXのmagic。GNUの"ustar  "ではprefixの位置にatime, ctimeが入る */
+    private static final byte[] POSIX_MAGIC = { 'u', 's', 't', 'a', 'r', 0 };
+    private static final int PREFIX_OFFSET = 345;
+    private static final int PREFIX_LENGTH = 155;
+
+    /** GNUの長い名前 */
+    private static final byte GNU_LONG_NAME = 'L';
+    /** paxの拡張ヘッダ */
+    private static final byte PAX_HEADER = 'x';
+    /** paxの全体に適用される拡張ヘッダ */
+    private static final byte PAX_GLOBAL_HEADER = 'g';
+
+    /**
+     * @param filename
+     * @return tarアーカイブの名前であればtrue
+     */
+    public static boolean isArchive(final String filename) {
+        final String name = filename.toLowerCase();
+        return name.endsWith(TAR_SUFFIX) || isCompressedArchive(name);
+    }
+
+    /**
+     * @param filename
+     * @return gzipで圧縮されたtarアーカイブの名前であればtrue
+     */
+    public static boolean isCompressedArchive(final String filename) {
+        final String name = filename.toLowerCase();
+        return name.endsWith(TAR_GZIP_SUFFIX) || name.endsWith(TGZ_SUFFIX);
+    }
+
+
+    private final ReadableByteChannel channel_;
+    private final ByteBuffer header_ = ByteBuffer.allocate(BLOCK_SIZE);
+    private ByteBuffer skipBuffer_;
+    /** アーカイブの先頭から次に読み込む位置 */
+    private long position_;
+    private BoundedChannel entryChannel_;
+    /** 読み込み中のエントリの末尾の詰め物 */
+    private int padding_;
+    private boolean isEnd_;
+
+    /**
+     * @param channel アーカイブの先頭に位置するチャネル
+     */
+    public TarReader(final ReadableByteChannel channel) {
+        this.channel_ = channel;
+    }
+
+    /**
+     * 読み込み中のエントリの残りを読み飛ばし、次のエントリを読み込む。
+     * @return 次のエントリ。アーカイブの終わりに達した場合はnull
+     * @throws IOException
+     */
+    public TarEntry nextEntry() throws IOException {
+        if (entryChannel_ != null) {
+            skip(entryChannel_.remaining() + padding_);
+            entryChannel_.close();
+            entryChannel_ = null;
+        }
+        String longName = null;
+        String paxName = null;
+        long paxSize = -1;
+        while (!isEnd_) {
+            header_.clear();
+            if (!readFully(header_)) {
+                isEnd_ = true;
+                break;
+            }
+            final byte[] header = header_.array();
+            if (isZero(header)) {
+                isEnd_ = true;
+                break;
+            }
+            verifyChecksum(header);
+            final byte type = header[TYPE_OFFSET];
+            final long size = paxSize >= 0 ? paxSize : parseNumber(header, SIZE_OFFSET, SIZE_LENGTH);
+            final long offset = position_;
+            final int padding = (int)((BLOCK_SIZE - size % BLOCK_SIZE) % BLOCK_SIZE);
+
+            if (type == GNU_LONG_NAME) {
+                longName = trim(readString(size));
+                skip(padding);
+                continue;
+            }
+            if (type == PAX_HEADER) {
+                final String records = readString(size);
+                skip(padding);
+                for (final String record: records.split("\n")) {
+                    final int space = record.indexOf(' ');
+                    final int equal = record.indexOf('=');
+                    if (space < 0 || equal < space) continue;
+                    final String key = record.substring(space + 1, equal);
+                    final String value = record.substring(equal + 1);
+                    if (key.equals("path")) paxName = value;
+                    else if (key.equals("size")) paxSize = Long.parseLong(value);
+                }
+                continue;
+            }
+            if (type == PAX_GLOBAL_HEADER) {
+                skip(size + padding);
+                continue;
+            }
+
+            final String name = paxName != null ? paxName : longName != null ? longName : headerName(header);
+            entryChannel_ = new BoundedChannel(channel_, size, false) {
+                @Override
+                public int read(final ByteBuffer dst) throws IOException {
+                    final int n = super.read(dst);
+                    if (n > 0) position_ += n;
+                    return n;
+                }
+            };
+            padding_ = padding;
+            return new TarEntry(name, size, offset, type);
+        }
+        return null;
+    }
+
+    /**
+     * @return 最後に{@link #nextEntry()}が返したエントリのデータを読み込むチャネル。閉じても元のチャネルは閉じない
+     */
+    public ReadableByteChannel entryChannel() {
+        if (entryChannel_ == null) {
+            throw new IllegalStateException("no current entry");
+        }
+        return entryChannel_;
+    }
+
+    /**
+     * 元のチャネルを閉じる。
+     */
+    @Override
+    public void close() throws IOException {
+        channel_.close();
+    }
+
+
+    private boolean readFully(final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            final int n = channel_.read(buffer);
+            if (n < 0) {
+                if (buffer.position() == 0) return false;
+                throw new EOFException("archive is truncated at " + position_);
+            }
+            position_ += n;
+        }
+        return true;
+    }
+
+    private String readString(final long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("extended header is too large: " + size);
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate((int)size);
+        if (!readFully(buffer) && size > 0) {
+            throw new EOFException("archive is truncated at " + position_);
+        }
+        return new String(buffer.array(), UTF8);
+    }
+
+    private void skip(final long n) throws IOException {
+        if (n <= 0) {
+            return;
+        }
+        if (channel_ instanceof FileChannel) {
+            final FileChannel file = (FileChannel)channel_;
+            file.position(file.position() + n);
+            position_ += n;
+            return;
+        }
+        if (skipBuffer_ == null) {
+            skipBuffer_ = ByteBuffer.allocate(64 * BLOCK_SIZE);
+        }
+        for (long remains = n; remains > 0; ) {
+            skipBuffer_.clear().limit((int)Math.min(skipBuffer_.capacity(), remains));
+            final int read = channel_.read(skipBuffer_);
+            if (read < 0) {
+                throw new EOFException("archive is truncated at " + position_);
+            }
+            remains -= read;
+            position_ += read;
+        }
+    }
+
+
+    static boolean isZero(final byte[] block) {
+        for (final byte b: block) {
+            if (b != 0) return false;
+        }
+        return true;
+    }
+
+    static void verifyChecksum(final byte[] header) throws IOException {
+        long sum = 0;
+        for (int k = 0; k < header.length; k++) {
+            final boolean isChecksum = k >= CHECKSUM_OFFSET && k < CHECKSUM_OFFSET + CHECKSUM_LENGTH;
+            sum += isChecksum ? ' ' : header[k] & 0xff;
+        }
+        if (sum != parseNumber(header, CHECKSUM_OFFSET, CHECKSUM_LENGTH)) {
+            throw new IOException("invalid tar header checksum");
+        }
+    }
+
+    /**
+     * 8進数の文字列、またはGNUの256進数で表された数値を読む。
+     */
+    static long parseNumber(final byte[] header, final int offset, final int length) throws IOException {
+        if ((header[offset] & 0x80) != 0) {
+            long value = header[offset] & 0x7f;
+            for (int k = 1; k < length; k++) {
+                value = value << 8 | header[offset + k] & 0xff;
+            }
+            return value;
+        }
+        final int end = offset + length;
+        int k = offset;
+        while (k < end && header[k] == ' ') k++;
+        long value = 0;
+        for (; k < end && header[k] != 0 && header[k] != ' '; k++) {
+            final byte b = header[k];
+            if (b < '0' || b > '7') {
+                throw new IOException("invalid octal number in tar header");
+            }
+            value = value << 3 | (b - '0');
+        }
+        return value;
+    }
+
+    private static String headerName(final byte[] header) {
+        final String name = cString(header, NAME_OFFSET, NAME_LENGTH);
+        if (isPosixHeader(header)) {
+            final String prefix = cString(header, PREFIX_OFFSET, PREFIX_LENGTH);
+            if (prefix.length() > 0) {
+                return prefix + "/" + name;
+            }
+        }
+        return name;
+    }
+
+    private static boolean isPosixHeader(final byte[] header) {
+        for (int k = 0; k < POSIX_MAGIC.length; k++) {
+            if (header[MAGIC_OFFSET + k] != POSIX_MAGIC[k]) return false;
+        }
+        return true;
+    }
+
+    private static String cString(final byte[] bytes, final int offset, final int length) {
+        int end = offset;
+        while (end < offset + length && bytes[end] != 0) end++;
+        return new String(bytes, offset, end - offset, UTF8);
+    }
+
+    private static String trim(final String name) {
+        final int nul = name.indexOf('\0');
+        return nul < 0 ? name : name.substring(0, nul);
+    }
+
+}
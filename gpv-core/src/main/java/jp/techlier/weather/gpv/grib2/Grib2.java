@@ -16,11 +16,14 @@
  */
 package jp.techlier.weather.gpv.grib2;
 
+import java.nio.ByteBuffer;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 import jp.techlier.weather.gpv.grib2.types.ByteBits;
 import jp.techlier.weather.gpv.grib2.types.Container.Assertion;
+import jp.techlier.weather.gpv.grib2.types.Container.BufferView;
 import jp.techlier.weather.gpv.grib2.types.Content;
 import jp.techlier.weather.gpv.grib2.types.EnumValue;
 import jp.techlier.weather.gpv.grib2.types.EnumValues;
@@ -806,6 +809,15 @@ public abstract class Grib2 {
         public static ParameterCategory valueOf(final MasterTableCode product, final int value) {
             return EnumValues.valueOf(ParameterCategory.class, calcValue(product, value));
         }
+
+        /**
+         * @param product nullの場合は該当なしとする
+         * @param value オクテット値(下位8bitを用いる)
+         * @return 該当する値がない場合はnull
+         */
+        public static ParameterCategory find(final MasterTableCode product, final int value) {
+            return product != null ? EnumValues.find(ParameterCategory.class, calcValue(product, value & 0xff)) : null;
+        }
     }
 
     /**
@@ -872,15 +884,27 @@ public abstract class Grib2 {
             return EnumValues.valueOf(ParameterNumber.class, calcValue(category, value));
         }
 
+        /**
+         * @param category nullの場合は該当なしとする
+         * @param value オクテット値(下位8bitを用いる)
+         * @return 該当する値がない場合はnull
+         */
+        public static ParameterNumber find(final ParameterCategory category, final int value) {
+            return category != null ? EnumValues.find(ParameterNumber.class, calcValue(category, value & 0xff)) : null;
+        }
 
-        private static final Map<String,ParameterNumber> abbrevs_ = new HashMap();
 
-        public static ParameterNumber forName(final String name) {
-            if (abbrevs_.isEmpty()) {
-                for (ParameterNumber e: values()) {
-                    abbrevs_.put(e.abbrev_, e);
-                }
+        private static final Map<String,ParameterNumber> abbrevs_ = createAbbrevs();
+
+        private static Map<String,ParameterNumber> createAbbrevs() {
+            final Map<String,ParameterNumber> abbrevs = new HashMap<String,ParameterNumber>();
+            for (ParameterNumber e: values()) {
+                abbrevs.put(e.abbrev_, e);
             }
+            return Collections.unmodifiableMap(abbrevs);
+        }
+
+        public static ParameterNumber forName(final String name) {
             ParameterNumber e = abbrevs_.get(name);
             if (e == null) e = Enum.valueOf(ParameterNumber.class, name);
             return e;
@@ -1136,6 +1160,13 @@ public abstract class Grib2 {
     public interface BitmapSection extends Section {
         @Content(offset=6, length=1) byte bitmapIndicator();
         @Content(offset=7) byte[] bitmap();
+
+        /**
+         * bitmapの読み込み専用ビュー。
+         * ゼロコピーモードでは解析バッファを直接参照するため、
+         * {@link jp.techlier.weather.gpv.grib2.parser.MessageParser#enableZeroCopy(boolean)}の説明にある期間のみ有効。
+         */
+        @BufferView("bitmap") ByteBuffer bitmapBuffer();
     }
 
 
@@ -1158,6 +1189,13 @@ public abstract class Grib2 {
     @Assertion(section=DATA_SECTION_NUMBER)
     public interface DataSection extends Section {
         @Content(offset=6) byte[] data();
+
+        /**
+         * dataの読み込み専用ビュー。
+         * ゼロコピーモードでは解析バッファを直接参照するため、
+         * {@link jp.techlier.weather.gpv.grib2.parser.MessageParser#enableZeroCopy(boolean)}の説明にある期間のみ有効。
+         */
+        @BufferView("data") ByteBuffer dataBuffer();
     }
 
 
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv.grib2.index;
+
+import jp.techlier.weather.gpv.grib2.Grib2.GeneratingProcessType;
+import jp.techlier.weather.gpv.grib2.Grib2.ParameterNumber;
+import jp.techlier.weather.gpv.grib2.Grib2.SurfaceType;
+import jp.techlier.weather.gpv.grib2.Grib2.UnitOfTimeRange;
+
+
+/**
+ * 格子データの種別を識別するキー。
+ * <p>
+ * 値はSection 0, 4のオクテット値をそのまま保持するため、コード表に定義されていない値も扱える。
+ * 第1固定面の値は尺度因子と尺度付きの値の組で保持し、
+ * 末尾の0を取り除いた形に正規化するため、同じ物理量を表す組は等しいキーとなる。
+ * </p>
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+public final class FieldKey {
+
+    private final int discipline_;
+    private final int parameterCategory_;
+    private final int parameterNumber_;
+    private final int generatingProcess_;
+    private final int unitOfForecastTime_;
+    private final int forecastTime_;
+    private final int surfaceType_;
+    private final int surfaceScaleFactor_;
+    private final int surfaceScaledValue_;
+
+    /**
+     * @param discipline Section 0 オクテット7
+     * @param parameterCategory Section 4 オクテット10
+     * @param parameterNumber Section 4 オクテット11
+     * @param generatingProcess Section 4 オクテット12
+     * @param unitOfForecastTime Section 4 オクテット18
+     * @param forecastTime Section 4 オクテット19-22
+     * @param surfaceType Section 4 オクテット23
+     * @param surfaceScaleFactor Section 4 オクテット24(2の補数形式)
+     * @param surfaceScaledValue Section 4 オクテット25-28(2の補数形式)
+     */
+    public FieldKey(final int discipline, final int parameterCategory, final int parameterNumber,
+                    final int generatingProcess, final int unitOfForecastTime, final int forecastTime,
+                    final int surfaceType, final int surfaceScaleFactor, final int surfaceScaledValue) {
+        this.discipline_ = discipline;
+        this.parameterCategory_ = parameterCategory;
+        this.parameterNumber_ = parameterNumber;
+        this.generatingProcess_ = generatingProcess;
+        this.unitOfForecastTime_ = unitOfForecastTime;
+        this.forecastTime_ = forecastTime;
+        this.surfaceType_ = surfaceType;
+        int scaleFactor = surfaceScaleFactor;
+        int scaledValue = surfaceScaledValue;
+        if (scaledValue == 0) {
+            scaleFactor = 0;
+        }
+        else if (scaledValue != -1) {
+            while (scaledValue % 10 == 0) {
+                scaledValue /= 10;
+                scaleFactor--;
+            }
+        }
+        this.surfaceScaleFactor_ = scaleFactor;
+        this.surfaceScaledValue_ = scaledValue;
+    }
+
+    /**
+     * @param parameter 要素
+     * @param process 作成処理の種類
+     * @param unit 予報時間の単位
+     * @param forecastTime 予報時間
+     * @param surfaceType 第1固定面の種類
+     * @param surfaceScaleFactor 第1固定面の尺度因子
+     * @param surfaceScaledValue 第1固定面の尺度付きの値
+     */
+    public static FieldKey of(final ParameterNumber parameter, final GeneratingProcessType process,
+                              final UnitOfTimeRange unit, final int forecastTime,
+                              final SurfaceType surfaceType, final int surfaceScaleFactor, final int surfaceScaledValue) {
+        return new FieldKey(parameter.category().product().intValue(),
+                            parameter.category().categoryNumber(),
+                            parameter.parameterNumber(),
+                            process.intValue(), unit.intValue(), forecastTime,
+                            surfaceType.intValue(), surfaceScaleFactor, surfaceScaledValue);
+    }
+
+    public int discipline() { return discipline_; }
+    public int parameterCategory() { return parameterCategory_; }
+    public int parameterNumber() { return parameterNumber_; }
+    public int generatingProcess() { return generatingProcess_; }
+    public int unitOfForecastTime() { return unitOfForecastTime_; }
+    public int forecastTime() { return forecastTime_; }
+    public int surfaceType() { return surfaceType_; }
+    public int surfaceScaleFactor() { return surfaceScaleFactor_; }
+    public int surfaceScaledValue() { return surfaceScaledValue_; }
+
+    /**
+     * @return 第1固定面の値(尺度付きの値 &times; 10<sup>-尺度因子</sup>)
+     */
+    public double surfaceValue() {
+        return surfaceScaledValue_ * Math.pow(10.0, -surfaceScaleFactor_);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof FieldKey)) return false;
+        final FieldKey other = (FieldKey)obj;
+        return discipline_ == other.discipline_
+            && parameterCategory_ == other.parameterCategory_
+            && parameterNumber_ == other.parameterNumber_
+            && generatingProcess_ == other.generatingProcess_
+            && unitOfForecastTime_ == other.unitOfForecastTime_
+            && forecastTime_ == other.forecastTime_
+            && surfaceType_ == other.surfaceType_
+            && surfaceScaleFactor_ == other.surfaceScaleFactor_
+            && surfaceScaledValue_ == other.surfaceScaledValue_;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = discipline_;
+        hash = hash * 31 + parameterCategory_;
+        hash = hash * 31 + parameterNumber_;
+        hash = hash * 31 + generatingProcess_;
+        hash = hash * 31 + unitOfForecastTime_;
+        hash = hash * 31 + forecastTime_;
+        hash = hash * 31 + surfaceType_;
+        hash = hash * 31 + surfaceScaleFactor_;
+        hash = hash * 31 + surfaceScaledValue_;
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "discipline:" + discipline_
+             + ",parameter:" + parameterCategory_ + '.' + parameterNumber_
+             + ",process:" + generatingProcess_
+             + ",forecastTime:" + forecastTime_ + '(' + unitOfForecastTime_ + ')'
+             + ",surface:" + surfaceType_ + '(' + surfaceScaledValue_ + "e" + -surfaceScaleFactor_ + ')';
+    }
+
+}
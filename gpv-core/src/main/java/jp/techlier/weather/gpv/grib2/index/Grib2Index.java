@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv.grib2.index;
+
+import static jp.techlier.weather.gpv.grib2.Grib2.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * GRIB2ファイル中の各格子データの位置を保持する索引。
+ * <p>
+ * 1つのメッセージがSection 3〜7(または4〜7)を繰り返して複数の格子データを含む場合、
+ * 格子データごとに1つの{@link Field}を持つ。
+ * 省略されたセクションは同じメッセージ中で直前に現れたものを指す。
+ * 索引は生成後に変更されず、複数のスレッドから参照できる。
+ * </p>
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+public final class Grib2Index {
+
+    /**
+     * 1つの格子データの位置。
+     */
+    public static final class Field {
+
+        private final FieldKey key_;
+        private final long messageOffset_;
+        private final long messageLength_;
+        private final int fieldNumber_;
+        private final int[] sectionOffsets_;
+
+        /**
+         * @param key
+         * @param messageOffset メッセージ先頭のファイル中の位置
+         * @param messageLength メッセージの長さ
+         * @param fieldNumber メッセージ中の順番(0から)
+         * @param sectionOffsets Section 3〜7のメッセージ先頭からの位置
+         */
+        Field(final FieldKey key, final long messageOffset, final long messageLength,
+              final int fieldNumber, final int[] sectionOffsets) {
+            assert sectionOffsets.length == DATA_SECTION_NUMBER - GRID_DEFINITION_SECTION_NUMBER + 1;
+            this.key_ = key;
+            this.messageOffset_ = messageOffset;
+            this.messageLength_ = messageLength;
+            this.fieldNumber_ = fieldNumber;
+            this.sectionOffsets_ = sectionOffsets;
+        }
+
+        public FieldKey key() { return key_; }
+        public long messageOffset() { return messageOffset_; }
+        public long messageLength() { return messageLength_; }
+        public int fieldNumber() { return fieldNumber_; }
+
+        /**
+         * @param sectionNumber 3〜7
+         * @return セクション先頭のファイル中の位置
+         */
+        public long sectionOffset(final int sectionNumber) {
+            return messageOffset_ + relativeOffset(sectionNumber);
+        }
+
+        /**
+         * @param sectionNumber 3〜7
+         * @return セクション先頭のメッセージ先頭からの位置
+         */
+        public int relativeOffset(final int sectionNumber) {
+            if (sectionNumber < GRID_DEFINITION_SECTION_NUMBER || sectionNumber > DATA_SECTION_NUMBER) {
+                throw new IllegalArgumentException("section is not indexed: " + sectionNumber);
+            }
+            return sectionOffsets_[sectionNumber - GRID_DEFINITION_SECTION_NUMBER];
+        }
+
+        @Override
+        public String toString() {
+            return "offset:" + messageOffset_ + ",length:" + messageLength_ + ",field:" + fieldNumber_ + ',' + key_;
+        }
+    }
+
+
+    private final File source_;
+    private final long sourceLength_;
+    private final long sourceLastModified_;
+    private final List<Field> fields_;
+    private final Map<FieldKey,List<Field>> fieldsByKey_;
+
+    Grib2Index(final File source, final long sourceLength, final long sourceLastModified, final List<Field> fields) {
+        this.source_ = source;
+        this.sourceLength_ = sourceLength;
+        this.sourceLastModified_ = sourceLastModified;
+        this.fields_ = Collections.unmodifiableList(new ArrayList<Field>(fields));
+        final Map<FieldKey,List<Field>> fieldsByKey = new LinkedHashMap<FieldKey,List<Field>>();
+        for (final Field field: fields_) {
+            List<Field> list = fieldsByKey.get(field.key());
+            if (list == null) {
+                list = new ArrayList<Field>(1);
+                fieldsByKey.put(field.key(), list);
+            }
+            list.add(field);
+        }
+        for (final Map.Entry<FieldKey,List<Field>> entry: fieldsByKey.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        this.fieldsByKey_ = Collections.unmodifiableMap(fieldsByKey);
+    }
+
+    public File source() { return source_; }
+
+    /**
+     * @return 索引作成時のファイルサイズ
+     */
+    public long sourceLength() { return sourceLength_; }
+
+    /**
+     * @return 索引作成時のファイルの最終更新時刻
+     */
+    public long sourceLastModified() { return sourceLastModified_; }
+
+    /**
+     * @return ファイル中の順の全ての格子データ
+     */
+    public List<Field> fields() {
+        return fields_;
+    }
+
+    /**
+     * @return ファイル中に現れる順のキー
+     */
+    public Set<FieldKey> keys() {
+        return fieldsByKey_.keySet();
+    }
+
+    /**
+     * @param key
+     * @return キーに一致する格子データ。なければ空のリスト
+     */
+    public List<Field> find(final FieldKey key) {
+        final List<Field> fields = fieldsByKey_.get(key);
+        return fields != null ? fields : Collections.<Field>emptyList();
+    }
+
+    /**
+     * @param key
+     * @return キーに一致する最初の格子データ。なければnull
+     */
+    public Field findFirst(final FieldKey key) {
+        final List<Field> fields = fieldsByKey_.get(key);
+        return fields != null ? fields.get(0) : null;
+    }
+
+    /**
+     * @param file
+     * @return 索引作成時からファイルのサイズと最終更新時刻が変わっていなければtrue
+     */
+    public boolean isUpToDate(final File file) {
+        return file.length() == sourceLength_ && file.lastModified() == sourceLastModified_;
+    }
+
+}
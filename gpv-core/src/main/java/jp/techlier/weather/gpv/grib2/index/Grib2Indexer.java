@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv.grib2.index;
+
+import static jp.techlier.weather.gpv.grib2.Grib2.*;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import jp.techlier.weather.gpv.grib2.index.Grib2Index.Field;
+import jp.techlier.weather.gpv.grib2.types.ContentReader;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+
+/**
+ * GRIB2ファイルを走査して{@link Grib2Index}を作成する。
+ * <p>
+ * 走査ではセクションの長さと番号だけを読み、Section 4の先頭部分以外の内容は読み飛ばす。
+ * 作成した索引はファイルと同じディレクトリの索引ファイル({@link #SIDECAR_SUFFIX})に保存し、
+ * 元のファイルのサイズと最終更新時刻が変わらない間は再利用する。
+ * </p>
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+public class Grib2Indexer {
+
+    private final Log logger_ = LogFactory.getLog(this.getClass());
+
+    public static final String SIDECAR_SUFFIX = ".idx";
+
+    static final int SIDECAR_MAGIC = 0x47494458; // "GIDX"
+    static final int SIDECAR_VERSION = 1;
+
+    static final int GRIB_MARKER = 0x47524942; // "GRIB"
+    static final int GRIB_EDITION = 2;
+    static final int SECTION_HEADER_LENGTH = 5;
+    /** キーを構成するSection 4の範囲(オクテット1〜28)。テンプレート4.0から派生したテンプレートに共通する。 */
+    static final int PRODUCT_KEY_LENGTH = 28;
+
+    private static final int NUM_INDEXED_SECTIONS = DATA_SECTION_NUMBER - GRID_DEFINITION_SECTION_NUMBER + 1;
+
+
+    private boolean isEnabledSidecar_ = true;
+
+    /**
+     * @param flag true: 索引ファイルを読み書きする
+     */
+    public void enableSidecar(boolean flag) {
+        this.isEnabledSidecar_ = flag;
+    }
+
+    /**
+     * @param file GRIB2ファイル
+     * @return 索引ファイル
+     */
+    public static File sidecarFile(final File file) {
+        return new File(file.getPath() + SIDECAR_SUFFIX);
+    }
+
+
+    /**
+     * ファイルの索引を返す。
+     * 有効な索引ファイルがあればそれを読み込み、なければ走査して索引ファイルを作成する。
+     * @param file GRIB2ファイル
+     * @return 索引
+     * @throws IOException
+     */
+    public Grib2Index index(final File file) throws IOException {
+        final File sidecar = sidecarFile(file);
+        if (isEnabledSidecar_ && sidecar.isFile()) {
+            final Grib2Index index = load(file, sidecar);
+            if (index != null) return index;
+        }
+        final Grib2Index index = scan(file);
+        if (isEnabledSidecar_) {
+            try {
+                store(index, sidecar);
+            }
+            catch (IOException cannotStore) {
+                logger_.warn("index cannot be stored: " + sidecar, cannotStore);
+            }
+        }
+        return index;
+    }
+
+
+    /**
+     * ファイルを走査して索引を作成する。
+     * @param file GRIB2ファイル
+     * @return 索引
+     * @throws IOException
+     */
+    public Grib2Index scan(final File file) throws IOException {
+        // 走査中に更新された場合に索引が古いと判定されるよう、先に取得する
+        final long lastModified = file.lastModified();
+        final FileInputStream in = new FileInputStream(file); try {
+            final FileChannel channel = in.getChannel();
+            final long size = channel.size();
+            final ByteBuffer buffer = ByteBuffer.allocate(PRODUCT_KEY_LENGTH);
+            final List<Field> fields = new ArrayList<Field>();
+            long offset = 0;
+            while (offset < size) {
+                read(channel, buffer, offset, INDICATOR_SECTION_LENGTH);
+                if (buffer.getInt(0) != GRIB_MARKER) {
+                    throw new IOException("GRIB marker is not found at " + offset + ": " + file);
+                }
+                if (buffer.get(7) != GRIB_EDITION) {
+                    throw new IOException("unsupported GRIB edition at " + offset + ": " + buffer.get(7) + ", " + file);
+                }
+                final int discipline = buffer.get(6) & 0xff;
+                final long messageLength = buffer.getLong(8);
+                if (messageLength < INDICATOR_SECTION_LENGTH + END_SECTION_LENGTH || offset + messageLength > size) {
+                    throw new EOFException("message is truncated at " + offset + ": length=" + messageLength + ", " + file);
+                }
+                scanMessage(channel, buffer, offset, messageLength, discipline, fields);
+                offset += messageLength;
+            }
+            return new Grib2Index(file, size, lastModified, fields);
+        } finally {
+            in.close();
+        }
+    }
+
+    private void scanMessage(final FileChannel channel, final ByteBuffer buffer,
+                             final long offset, final long messageLength, final int discipline,
+                             final List<Field> fields) throws IOException {
+        final int[] sectionOffsets = new int[NUM_INDEXED_SECTIONS];
+        Arrays.fill(sectionOffsets, -1);
+        FieldKey key = null;
+        int fieldNumber = 0;
+        long position = INDICATOR_SECTION_LENGTH;
+        while (position + END_SECTION_LENGTH < messageLength) {
+            read(channel, buffer, offset + position, SECTION_HEADER_LENGTH);
+            final int sectionLength = buffer.getInt(0);
+            final int sectionNumber = buffer.get(4);
+            if (sectionLength < SECTION_HEADER_LENGTH || position + sectionLength > messageLength) {
+                throw new IOException("invalid section length at " + (offset + position) + ": " + sectionLength);
+            }
+            if (sectionNumber >= GRID_DEFINITION_SECTION_NUMBER && sectionNumber <= DATA_SECTION_NUMBER) {
+                sectionOffsets[sectionNumber - GRID_DEFINITION_SECTION_NUMBER] = (int)position;
+            }
+            if (sectionNumber == PRODUCT_DEFITION_SECTION_NUMBER) {
+                if (sectionLength >= PRODUCT_KEY_LENGTH) {
+                    read(channel, buffer, offset + position, PRODUCT_KEY_LENGTH);
+                    key = productKey(buffer, discipline);
+                }
+                else {
+                    logger_.warn("product definition is too short to index at " + (offset + position) + ": " + sectionLength);
+                    key = null;
+                }
+            }
+            else if (sectionNumber == DATA_SECTION_NUMBER && key != null) {
+                fields.add(new Field(key, offset, messageLength, fieldNumber++, sectionOffsets.clone()));
+            }
+            position += sectionLength;
+        }
+        read(channel, buffer, offset + position, END_SECTION_LENGTH);
+        if (position + END_SECTION_LENGTH != messageLength || buffer.getInt(0) != END_SECTION_MARKER) {
+            throw new IOException("end section is not found at " + (offset + position));
+        }
+    }
+
+    /**
+     * Section 4の先頭部分からキーを作成する。
+     * @param section オクテット1から{@link #PRODUCT_KEY_LENGTH}までの内容
+     */
+    static FieldKey productKey(final ByteBuffer section, final int discipline) {
+        return new FieldKey(discipline,
+                            section.get(9) & 0xff,
+                            section.get(10) & 0xff,
+                            section.get(11) & 0xff,
+                            section.get(17) & 0xff,
+                            ContentReader.signedInt(section.getInt(18)),
+                            section.get(22) & 0xff,
+                            ContentReader.signedByte(section.get(23)),
+                            ContentReader.signedInt(section.getInt(24)));
+    }
+
+    private static void read(final FileChannel channel, final ByteBuffer buffer,
+                             final long position, final int length) throws IOException {
+        buffer.clear().limit(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("unexpected end of file at " + (position + buffer.position()));
+            }
+        }
+    }
+
+
+    /**
+     * 索引ファイルを読み込む。
+     * @param file GRIB2ファイル
+     * @param sidecar 索引ファイル
+     * @return 索引。索引ファイルが古いか読み込めない場合はnull
+     */
+    Grib2Index load(final File file, final File sidecar) {
+        final long length = file.length();
+        final long lastModified = file.lastModified();
+        try {
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(sidecar))); try {
+                if (in.readInt() != SIDECAR_MAGIC || in.readShort() != SIDECAR_VERSION) {
+                    logger_.info("unknown index format: " + sidecar);
+                    return null;
+                }
+                if (in.readLong() != length || in.readLong() != lastModified) {
+                    logger_.debug("index is out of date: " + sidecar);
+                    return null;
+                }
+                final int count = in.readInt();
+                // 各フィールドは少なくともData Sectionの先頭部分を占める
+                if (count < 0 || count > length / SECTION_HEADER_LENGTH) {
+                    throw new IOException("invalid number of fields: " + count);
+                }
+                final List<Field> fields = new ArrayList<Field>(count);
+                for (int k = 0; k < count; k++) {
+                    final long messageOffset = in.readLong();
+                    final long messageLength = in.readLong();
+                    if (messageOffset < 0 || messageLength < INDICATOR_SECTION_LENGTH + END_SECTION_LENGTH
+                            || messageOffset + messageLength > length) {
+                        throw new IOException("invalid message at " + messageOffset + ": length=" + messageLength);
+                    }
+                    final int fieldNumber = in.readUnsignedShort();
+                    final int[] sectionOffsets = new int[NUM_INDEXED_SECTIONS];
+                    for (int s = 0; s < sectionOffsets.length; s++) {
+                        sectionOffsets[s] = in.readInt();
+                        if (sectionOffsets[s] < -1 || sectionOffsets[s] >= messageLength) {
+                            throw new IOException("invalid section offset at " + messageOffset + ": " + sectionOffsets[s]);
+                        }
+                    }
+                    final FieldKey key = new FieldKey(in.readUnsignedByte(), in.readUnsignedByte(), in.readUnsignedByte(),
+                                                      in.readUnsignedByte(), in.readUnsignedByte(), in.readInt(),
+                                                      in.readUnsignedByte(), in.readShort(), in.readInt());
+                    fields.add(new Field(key, messageOffset, messageLength, fieldNumber, sectionOffsets));
+                }
+                if (in.read() >= 0) {
+                    throw new IOException("trailing data after " + count + " fields");
+                }
+                return new Grib2Index(file, length, lastModified, fields);
+            } finally {
+                in.close();
+            }
+        }
+        catch (IOException cannotLoad) {
+            logger_.warn("index cannot be loaded: " + sidecar, cannotLoad);
+            return null;
+        }
+        catch (RuntimeException corrupt) {
+            // 壊れた索引ファイルは古い索引と同じく作り直す
+            logger_.warn("index is corrupt: " + sidecar, corrupt);
+            return null;
+        }
+    }
+
+    /**
+     * 索引ファイルを書き出す。
+     * 一時ファイルに書き出してから置き換えるため、読み込み中の索引ファイルが壊れることはない。
+     * @param index
+     * @param sidecar 索引ファイル
+     * @throws IOException
+     */
+    void store(final Grib2Index index, final File sidecar) throws IOException {
+        final File temp = File.createTempFile(sidecar.getName(), ".tmp", sidecar.getAbsoluteFile().getParentFile());
+        try {
+            final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp))); try {
+                out.writeInt(SIDECAR_MAGIC);
+                out.writeShort(SIDECAR_VERSION);
+                out.writeLong(index.sourceLength());
+                out.writeLong(index.sourceLastModified());
+                out.writeInt(index.fields().size());
+                for (final Field field: index.fields()) {
+                    out.writeLong(field.messageOffset());
+                    out.writeLong(field.messageLength());
+                    out.writeShort(field.fieldNumber());
+                    for (int s = GRID_DEFINITION_SECTION_NUMBER; s <= DATA_SECTION_NUMBER; s++) {
+                        out.writeInt(field.relativeOffset(s));
+                    }
+                    final FieldKey key = field.key();
+                    out.writeByte(key.discipline());
+                    out.writeByte(key.parameterCategory());
+                    out.writeByte(key.parameterNumber());
+                    out.writeByte(key.generatingProcess());
+                    out.writeByte(key.unitOfForecastTime());
+                    out.writeInt(key.forecastTime());
+                    out.writeByte(key.surfaceType());
+                    out.writeShort(key.surfaceScaleFactor());
+                    out.writeInt(key.surfaceScaledValue());
+                }
+            } finally {
+                out.close();
+            }
+            if (!temp.renameTo(sidecar)) {
+                // 既存のファイルを置き換えられない環境
+                if (!sidecar.delete() || !temp.renameTo(sidecar)) {
+                    throw new IOException("index cannot be replaced: " + sidecar);
+                }
+            }
+        } finally {
+            if (temp.exists()) temp.delete();
+        }
+    }
+
+}
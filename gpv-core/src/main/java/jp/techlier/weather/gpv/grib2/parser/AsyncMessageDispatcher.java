@@ -0,0 +1,477 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv.grib2.parser;
+
+import static jp.techlier.weather.gpv.grib2.Grib2.*;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import jp.techlier.weather.gpv.grib2.Grib2.BitmapSection;
+import jp.techlier.weather.gpv.grib2.Grib2.DataRepresentationSection;
+import jp.techlier.weather.gpv.grib2.Grib2.DataSection;
+import jp.techlier.weather.gpv.grib2.Grib2.EndSection;
+import jp.techlier.weather.gpv.grib2.Grib2.GridDefinitionSection;
+import jp.techlier.weather.gpv.grib2.Grib2.IdentificationSection;
+import jp.techlier.weather.gpv.grib2.Grib2.IndicatorSection;
+import jp.techlier.weather.gpv.grib2.Grib2.ProductDefinitionSection;
+import jp.techlier.weather.gpv.grib2.Grib2.SectionNumber;
+import jp.techlier.weather.gpv.grib2.types.Section;
+
+
+/**
+ * 解析したセクションを別のスレッドでリスナーに通知する。
+ * <p>
+ * パーサにリスナーとして登録すると、通知されたセクションを固定長のリングバッファに格納し、
+ * {@link #start(ExecutorService)}で起動したリスナーごとのスレッドがそれを順に取り出して通知する。
+ * リングバッファが一杯になると、最も遅いリスナーが追いつくまで解析を待たせる。
+ * 各リスナーには解析した順に1つのスレッドから通知される。
+ * </p>
+ * <p>
+ * セクションはリスナーが取り出すまで保持されるため、パーサはメモリマップで解析するか、
+ * ゼロコピーモードを無効にしておかなければならない。
+ * 通知に渡される{@link MessageHolder}は通知から戻るまでのみ有効で、
+ * {@link DataChunkListener}による分割通知は行わない。
+ * リスナーで発生した例外は以降の解析を中断させ、{@link #close()}で通知される。
+ * </p>
+ * <pre>
+ * final AsyncMessageDispatcher dispatcher = new AsyncMessageDispatcher(1024, WaitStrategy.BLOCKING, listener);
+ * parser.addListener(dispatcher);
+ * dispatcher.start(executor);
+ * try {
+ *     parser.parse(file);
+ * } finally {
+ *     dispatcher.close();
+ * }
+ * </pre>
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+public class AsyncMessageDispatcher implements SelectiveMessageListener, Closeable {
+
+    /**
+     * リングバッファが空または一杯のときの待ち方。
+     */
+    public enum WaitStrategy {
+        /** しばらく他のスレッドに譲った後、ロックで待つ。CPUを消費しないが、再開に最大1msの遅れがある */
+        BLOCKING,
+        /** 他のスレッドに譲りながら待つ */
+        YIELDING,
+        /** 繰り返し確認しながら待つ。待っている間も1つのCPUを占有する */
+        BUSY_SPIN,
+    }
+
+    /** {@link WaitStrategy#BLOCKING}でロックを使うまでに譲る回数 */
+    private static final int YIELD_COUNT = 100;
+
+    private static final long BLOCKING_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+
+    private final Event[] ring_;
+    private final int mask_;
+    private final WaitStrategy waitStrategy_;
+    private final Consumer[] consumers_;
+    private final Set<SectionNumber> consumedSections_;
+
+    /** 最後に格納したイベントの番号 */
+    private final AtomicLong cursor_ = new AtomicLong(-1);
+    private long nextSequence_ = 0;
+    private long cachedMinSequence_ = -1;
+
+    private final Lock lock_ = new ReentrantLock();
+    private final Condition signal_ = lock_.newCondition();
+    private final AtomicInteger waiters_ = new AtomicInteger();
+
+    private final List<Future<Void>> futures_ = new ArrayList<Future<Void>>();
+    private volatile boolean isStarted_;
+    private volatile boolean isClosed_;
+    private final AtomicReference<Throwable> failure_ = new AtomicReference<Throwable>();
+
+
+    /**
+     * @param capacity リングバッファに格納するセクションの数。2のべき乗に切り上げる
+     * @param waitStrategy
+     * @param listeners 通知先
+     */
+    public AsyncMessageDispatcher(final int capacity, final WaitStrategy waitStrategy, final MessageListener... listeners) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        if (listeners.length == 0) {
+            throw new IllegalArgumentException("no listeners");
+        }
+        final int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        ring_ = new Event[size];
+        for (int k = 0; k < size; k++) {
+            ring_[k] = new Event();
+        }
+        mask_ = size - 1;
+        waitStrategy_ = waitStrategy;
+
+        final Set<SectionNumber> consumedSections = EnumSet.noneOf(SectionNumber.class);
+        consumers_ = new Consumer[listeners.length];
+        for (int k = 0; k < listeners.length; k++) {
+            consumers_[k] = new Consumer(listeners[k]);
+            consumedSections.addAll(consumers_[k].sections_);
+        }
+        consumedSections_ = Collections.unmodifiableSet(consumedSections);
+    }
+
+    /**
+     * @return リングバッファに格納できるセクションの数
+     */
+    public int capacity() {
+        return ring_.length;
+    }
+
+    /**
+     * @return 全てのリスナーへの通知が済んでいないセクションの数
+     */
+    public int pending() {
+        return (int)Math.max(0, cursor_.get() - minSequence());
+    }
+
+
+    /**
+     * リスナーごとのスレッドをexecutorに投入する。
+     * executorはリスナーの数以上のスレッドを同時に実行できなければならない。
+     * @param executor 終了は呼び出し側が行う
+     */
+    public synchronized void start(final ExecutorService executor) {
+        if (isStarted_) {
+            throw new IllegalStateException("already started");
+        }
+        for (final Consumer consumer: consumers_) {
+            futures_.add(executor.submit(consumer));
+        }
+        isStarted_ = true;
+    }
+
+    /**
+     * 格納済みのセクションを全てのリスナーに通知し終えるまで待ち、スレッドを終了させる。
+     * @throws IOException リスナーで例外が発生した場合
+     */
+    public void close() throws IOException {
+        isClosed_ = true;
+        wakeUp(true);
+        try {
+            for (final Future<Void> future: futures_) {
+                future.get();
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while closing dispatcher");
+        }
+        catch (ExecutionException e) {
+            failure_.compareAndSet(null, e.getCause());
+        }
+        for (final Event event: ring_) {
+            event.clear();
+        }
+        final Throwable failure = failure_.get();
+        if (failure != null) {
+            if (failure instanceof IOException) throw (IOException)failure;
+            if (failure instanceof RuntimeException) throw (RuntimeException)failure;
+            if (failure instanceof Error) throw (Error)failure;
+            throw new IOException("listener failed", failure);
+        }
+    }
+
+
+    @Override
+    public Set<SectionNumber> consumedSections() {
+        return consumedSections_;
+    }
+
+    @Override
+    public void indicatorSection(final IndicatorSection section, final MessageHolder holder) {
+        publish(section, holder);
+    }
+
+    @Override
+    public void identificationSection(final IdentificationSection section, final MessageHolder holder) {
+        publish(section, holder);
+    }
+
+    @Override
+    public void gridDefinitionSection(final GridDefinitionSection section, final MessageHolder holder) {
+        publish(section, holder);
+    }
+
+    @Override
+    public void productDefinitionSection(final ProductDefinitionSection section, final MessageHolder holder) {
+        publish(section, holder);
+    }
+
+    @Override
+    public void dataRepresentationSection(final DataRepresentationSection section, final MessageHolder holder) {
+        publish(section, holder);
+    }
+
+    @Override
+    public void bitmapSection(final BitmapSection section, final MessageHolder holder) {
+        publish(section, holder);
+    }
+
+    @Override
+    public void dataSection(final DataSection section, final MessageHolder holder) {
+        publish(section, holder);
+    }
+
+    @Override
+    public void endSection(final EndSection section, final MessageHolder holder) {
+        publish(section, holder);
+    }
+
+
+    /**
+     * セクションをリングバッファに格納する。空きがなければ待つ。
+     * 並列解析で複数のパーサから呼び出されても、格納は1つずつ行う。
+     */
+    private synchronized void publish(final Section section, final MessageHolder holder) {
+        if (!isStarted_ || isClosed_) {
+            throw new IllegalStateException("dispatcher is not running");
+        }
+        final long sequence = nextSequence_;
+        final long wrapPoint = sequence - ring_.length;
+        try {
+            for (int count = 0; cachedMinSequence_ < wrapPoint; count++) {
+                checkFailure();
+                if ((cachedMinSequence_ = minSequence()) < wrapPoint) {
+                    idle(count);
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for listeners", e);
+        }
+        checkFailure();
+        ring_[(int)sequence & mask_].set(section, holder);
+        nextSequence_ = sequence + 1;
+        cursor_.set(sequence);
+        wakeUp(false);
+    }
+
+    private void checkFailure() {
+        final Throwable failure = failure_.get();
+        if (failure != null) {
+            throw new IllegalStateException("listener failed", failure);
+        }
+    }
+
+    private long minSequence() {
+        long min = Long.MAX_VALUE;
+        for (final Consumer consumer: consumers_) {
+            min = Math.min(min, consumer.sequence_.get());
+        }
+        return min;
+    }
+
+    private void idle(final int count) throws InterruptedException {
+        switch (waitStrategy_) {
+          case BUSY_SPIN:
+            break;
+          case YIELDING:
+            Thread.yield();
+            break;
+          case BLOCKING:
+            if (count < YIELD_COUNT) {
+                Thread.yield();
+                break;
+            }
+            lock_.lock();
+            try {
+                waiters_.incrementAndGet();
+                signal_.awaitNanos(BLOCKING_TIMEOUT_NANOS);
+            } finally {
+                waiters_.decrementAndGet();
+                lock_.unlock();
+            }
+            break;
+          default:
+            throw new IllegalStateException("unknown wait strategy: " + waitStrategy_);
+        }
+    }
+
+    private void wakeUp(final boolean force) {
+        if (force || waitStrategy_ == WaitStrategy.BLOCKING && waiters_.get() > 0) {
+            lock_.lock();
+            try {
+                signal_.signalAll();
+            } finally {
+                lock_.unlock();
+            }
+        }
+    }
+
+
+    /**
+     * 1つのリスナーに通知するスレッド。
+     */
+    private class Consumer implements Callable<Void> {
+
+        final MessageListener listener_;
+        final Set<SectionNumber> sections_;
+        /** 最後に通知したイベントの番号 */
+        final AtomicLong sequence_ = new AtomicLong(-1);
+
+        Consumer(final MessageListener listener) {
+            listener_ = listener;
+            sections_ = listener instanceof SelectiveMessageListener
+                    ? ((SelectiveMessageListener)listener).consumedSections()
+                    : EnumSet.allOf(SectionNumber.class);
+        }
+
+        @Override
+        public Void call() {
+            try {
+                long next = sequence_.get() + 1;
+                for (int count = 0; ; count++) {
+                    final long available = cursor_.get();
+                    if (next > available) {
+                        // 終了は最後の格納より後に設定されるので、その後に番号を読み直せばよい
+                        if (isClosed_ && next > cursor_.get()) {
+                            return null;
+                        }
+                        idle(count);
+                        continue;
+                    }
+                    for (; next <= available; next++) {
+                        final Event event = ring_[(int)next & mask_];
+                        if (sections_.contains(event.number_)) {
+                            event.dispatchTo(listener_);
+                        }
+                        sequence_.lazySet(next);
+                    }
+                    wakeUp(false);
+                    count = 0;
+                }
+            }
+            catch (Throwable e) {
+                failure_.compareAndSet(null, e);
+                return null;
+            }
+            finally {
+                // 以降の格納を待たせない
+                sequence_.set(Long.MAX_VALUE);
+                wakeUp(false);
+            }
+        }
+    }
+
+
+    /**
+     * リングバッファの要素。通知するセクションと、その時点の最新のセクションを保持する。
+     */
+    private static final class Event implements MessageHolder {
+
+        SectionNumber number_;
+        Section section_;
+        IndicatorSection indicatorSection_;
+        IdentificationSection identificationSection_;
+        GridDefinitionSection gridDefinitionSection_;
+        ProductDefinitionSection productDefinitionSection_;
+        DataRepresentationSection dataRepresentationSection_;
+        BitmapSection bitmapSection_;
+        DataSection dataSection_;
+
+        void set(final Section section, final MessageHolder holder) {
+            number_ = SectionNumber.valueOf(section.number());
+            section_ = section;
+            indicatorSection_ = holder.latestIndicatorSection();
+            identificationSection_ = holder.latestIdentificationSection();
+            gridDefinitionSection_ = holder.latestGridDefinitionSection();
+            productDefinitionSection_ = holder.latestProductDefinitionSection();
+            dataRepresentationSection_ = holder.latestDataRepresentationSection();
+            bitmapSection_ = holder.latestBitmapSection();
+            dataSection_ = holder.latestDataSection();
+        }
+
+        void clear() {
+            number_ = null;
+            section_ = null;
+            indicatorSection_ = null;
+            identificationSection_ = null;
+            gridDefinitionSection_ = null;
+            productDefinitionSection_ = null;
+            dataRepresentationSection_ = null;
+            bitmapSection_ = null;
+            dataSection_ = null;
+        }
+
+        void dispatchTo(final MessageListener listener) {
+            switch (section_.number()) {
+              case INDICATOR_SECTION_NUMBER:
+                listener.indicatorSection((IndicatorSection)section_, this);
+                break;
+              case IDENTIFICATION_SECTION_NUMBER:
+                listener.identificationSection((IdentificationSection)section_, this);
+                break;
+              case GRID_DEFINITION_SECTION_NUMBER:
+                listener.gridDefinitionSection((GridDefinitionSection)section_, this);
+                break;
+              case PRODUCT_DEFITION_SECTION_NUMBER:
+                listener.productDefinitionSection((ProductDefinitionSection)section_, this);
+                break;
+              case DATA_REPRESENTAITON_SECTION_NUMBER:
+                listener.dataRepresentationSection((DataRepresentationSection)section_, this);
+                break;
+              case BITMAP_SECTION_NUMBER:
+                listener.bitmapSection((BitmapSection)section_, this);
+                break;
+              case DATA_SECTION_NUMBER:
+                listener.dataSection((DataSection)section_, this);
+                break;
+              case END_SECTION_NUMBER:
+                listener.endSection((EndSection)section_, this);
+                break;
+              default:
+                throw new IllegalStateException("unknown section number: " + section_.number());
+            }
+        }
+
+        public IndicatorSection latestIndicatorSection() { return indicatorSection_; }
+        public IdentificationSection latestIdentificationSection() { return identificationSection_; }
+        public GridDefinitionSection latestGridDefinitionSection() { return gridDefinitionSection_; }
+        public ProductDefinitionSection latestProductDefinitionSection() { return productDefinitionSection_; }
+        public DataRepresentationSection latestDataRepresentationSection() { return dataRepresentationSection_; }
+        public BitmapSection latestBitmapSection() { return bitmapSection_; }
+        public DataSection latestDataSection() { return dataSection_; }
+    }
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv.grib2.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+
+/**
+ * 固定ビット長で詰められた符号なし整数列を読み出す。
+ * <p>
+ * データの先頭はバッファのpositionとし、バッファのposition/limitは変更しない。
+ * JMAのGPVで用いられる12bit, 16bitには専用の処理を持ち、
+ * それ以外の1〜32bitは64bitワード単位で読み出す。
+ * </p>
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+class BitUnpacker {
+
+    /**
+     * 指定されたビット長で格納された値の個数に必要なバイト数を返す。
+     * @param numBits ビット長
+     * @param count 値の個数
+     * @return バイト数
+     */
+    public static final int byteLength(final int numBits, final int count) {
+        return (int)(((long)numBits * count + Byte.SIZE - 1) / Byte.SIZE);
+    }
+
+    /**
+     * index番目の値を読み込む。
+     * @param in 入力。positionをデータの先頭とする。
+     * @param numBits ビット長(0〜32)
+     * @param index 値の位置
+     * @return 符号なし整数値
+     */
+    public static final long get(final ByteBuffer in, final int numBits, final int index) {
+        checkNumBits(numBits);
+        if (numBits == 0) return 0;
+        final long bitOffset = (long)index * numBits;
+        return getBits(in, in.position() + (int)(bitOffset >>> 3), (int)(bitOffset & 7), numBits);
+    }
+
+    /**
+     * from番目からcount個の値を読み込む。
+     * 32bitの値はintの範囲を超えるため、符号なしとして扱うこと。
+     * @param in 入力。positionをデータの先頭とする。
+     * @param numBits ビット長(0〜32)
+     * @param from 最初の値の位置
+     * @param dest 出力先
+     * @param offset 出力先の開始位置
+     * @param count 値の個数
+     */
+    public static final void unpack(final ByteBuffer in, final int numBits, final int from,
+                                    final int[] dest, final int offset, final int count) {
+        checkNumBits(numBits);
+        if (count <= 0) return;
+        if (in.position() + byteLength(numBits, from + count) > in.limit()) {
+            throw new IndexOutOfBoundsException("data is too short: " + (from + count) + " values of " + numBits + " bits");
+        }
+        switch (numBits) {
+          case 0:
+            Arrays.fill(dest, offset, offset + count, 0);
+            break;
+          case 12:
+            unpack12(in, from, dest, offset, count);
+            break;
+          case 16:
+            unpack16(in, from, dest, offset, count);
+            break;
+          default:
+            unpackBits(in, numBits, from, dest, offset, count);
+            break;
+        }
+    }
+
+    /**
+     * 12bit: 3バイトに2つの値が格納される。
+     */
+    private static void unpack12(final ByteBuffer in, final int from,
+                                 final int[] dest, final int offset, final int count) {
+        int k = offset;
+        final int end = offset + count;
+        int index = from;
+        if ((index & 1) != 0) {
+            // 奇数番目から始まる場合は先頭の1個を読んでバイト境界に揃える。
+            final int p = in.position() + index / 2 * 3;
+            dest[k++] = (in.get(p + 1) & 0x0f) << 8 | in.get(p + 2) & 0xff;
+            index++;
+        }
+        int p = in.position() + index / 2 * 3;
+        for (; k + 1 < end; k += 2, p += 3) {
+            final int b0 = in.get(p) & 0xff;
+            final int b1 = in.get(p + 1) & 0xff;
+            final int b2 = in.get(p + 2) & 0xff;
+            dest[k] = b0 << 4 | b1 >>> 4;
+            dest[k + 1] = (b1 & 0x0f) << 8 | b2;
+        }
+        if (k < end) {
+            dest[k] = (in.get(p) & 0xff) << 4 | (in.get(p + 1) & 0xff) >>> 4;
+        }
+    }
+
+    /**
+     * 16bit: 2バイトに1つの値が格納される。
+     */
+    private static void unpack16(final ByteBuffer in, final int from,
+                                 final int[] dest, final int offset, final int count) {
+        int p = in.position() + from * 2;
+        for (int k = offset, end = offset + count; k < end; k++, p += 2) {
+            dest[k] = (in.get(p) & 0xff) << 8 | in.get(p + 1) & 0xff;
+        }
+    }
+
+    /**
+     * 任意のビット長: 64bitワードを読み込んで値を切り出す。
+     */
+    private static void unpackBits(final ByteBuffer in, final int numBits, final int from,
+                                   final int[] dest, final int offset, final int count) {
+        final int base = in.position();
+        long bitOffset = (long)from * numBits;
+        for (int k = offset, end = offset + count; k < end; k++, bitOffset += numBits) {
+            dest[k] = (int)getBits(in, base + (int)(bitOffset >>> 3), (int)(bitOffset & 7), numBits);
+        }
+    }
+
+    /**
+     * 指定位置から最大32bitの値を読み込む。
+     * @param in 入力
+     * @param position 先頭バイトの絶対位置
+     * @param shift 先頭バイト内のビット位置(0〜7)
+     * @param numBits ビット長(1〜32)
+     * @return 符号なし整数値
+     */
+    private static long getBits(final ByteBuffer in, final int position, final int shift, final int numBits) {
+        final long word;
+        if (position + 8 <= in.limit()) {
+            final long w = in.getLong(position);
+            word = in.order() == ByteOrder.BIG_ENDIAN ? w : Long.reverseBytes(w);
+        }
+        else {
+            // 末尾付近では存在するバイトだけを詰める。
+            long w = 0;
+            for (int i = 0; i < 8; i++) {
+                w <<= Byte.SIZE;
+                if (position + i < in.limit()) w |= in.get(position + i) & 0xff;
+            }
+            word = w;
+        }
+        return (word << shift) >>> (Long.SIZE - numBits);
+    }
+
+    private static void checkNumBits(final int numBits) {
+        if (numBits < 0 || numBits > Integer.SIZE) {
+            throw new IndexOutOfBoundsException("illegal length: " + numBits);
+        }
+    }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv.grib2.parser;
+
+import java.nio.ByteBuffer;
+
+import jp.techlier.weather.gpv.grib2.Grib2.DataSection;
+
+
+/**
+ * 解析バッファに収まらないData Sectionを分割して受け取る。
+ * <p>
+ * Data Sectionを受け取る全てのリスナーがこのインターフェースを持つ場合、
+ * バッファより大きなData Sectionのデータは読み込まれた順にdataChunkで通知され、
+ * 最後に{@link MessageListener#dataSection}が呼び出される。
+ * この場合、{@link DataSection#data()}, {@link DataSection#dataBuffer()}はnullを返す。
+ * このインターフェースを持たないリスナーが一つでもあれば、他のセクションと同じく
+ * バッファより大きなData SectionはIllegalStateExceptionとなる。
+ * </p>
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+public interface DataChunkListener {
+
+    /**
+     * @param section 解析中のData Section。length()のみ参照できる。
+     * @param chunk 読み込み専用のデータ。呼び出しから戻るまでのみ有効。
+     * @param offset データ部分の先頭からのchunkの位置
+     * @param messages
+     */
+    void dataChunk(DataSection section, ByteBuffer chunk, long offset, MessageHolder messages);
+
+}
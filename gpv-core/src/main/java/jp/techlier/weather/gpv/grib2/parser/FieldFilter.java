@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv.grib2.parser;
+
+import jp.techlier.weather.gpv.grib2.Grib2.ProductDefinitionTemplate;
+
+
+/**
+ * 解析する格子データを選択する。
+ * <p>
+ * {@link MessageParser#setFieldFilter(FieldFilter)}で設定すると、Product Definition Sectionの解析後に呼び出される。
+ * 受け付けられなかった格子データのProduct Definition Sectionはリスナーに通知されず、
+ * 続くData Representation Section, Bitmap Section, Data Sectionは長さだけを用いて読み飛ばされる。
+ * </p>
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+public interface FieldFilter {
+
+    /**
+     * @param template 解析したProduct Definition Template
+     * @param messages 解析中のメッセージ
+     * @return true: 格子データを解析する
+     */
+    boolean accept(ProductDefinitionTemplate template, MessageHolder messages);
+
+}
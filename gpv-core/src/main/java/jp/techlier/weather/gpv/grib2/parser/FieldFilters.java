@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv.grib2.parser;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import jp.techlier.weather.gpv.grib2.Grib2.ParameterNumber;
+import jp.techlier.weather.gpv.grib2.Grib2.ProductDefinitionTemplate;
+import jp.techlier.weather.gpv.grib2.Grib2.SurfaceType;
+
+
+/**
+ * よく用いる{@link FieldFilter}を生成する。
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+public final class FieldFilters {
+
+    private FieldFilters() {
+        // no instance
+    }
+
+    /**
+     * @param first
+     * @param rest
+     * @return 指定された要素の格子データを受け付けるフィルタ
+     */
+    public static FieldFilter parameters(final ParameterNumber first, final ParameterNumber... rest) {
+        final Set<ParameterNumber> parameters = Collections.unmodifiableSet(EnumSet.of(first, rest));
+        return new FieldFilter() {
+            public boolean accept(final ProductDefinitionTemplate template, final MessageHolder messages) {
+                return parameters.contains(template.parameterNumber().enumValue());
+            }
+        };
+    }
+
+    /**
+     * @param first
+     * @param rest
+     * @return 第1固定面が指定された種類の格子データを受け付けるフィルタ
+     */
+    public static FieldFilter surfaces(final SurfaceType first, final SurfaceType... rest) {
+        final Set<SurfaceType> surfaces = Collections.unmodifiableSet(EnumSet.of(first, rest));
+        return new FieldFilter() {
+            public boolean accept(final ProductDefinitionTemplate template, final MessageHolder messages) {
+                return surfaces.contains(template.firstFixedSurfaceType().enumValue());
+            }
+        };
+    }
+
+    /**
+     * @param filters
+     * @return 全てのフィルタが受け付ける格子データを受け付けるフィルタ
+     */
+    public static FieldFilter all(final FieldFilter... filters) {
+        final FieldFilter[] copy = filters.clone();
+        return new FieldFilter() {
+            public boolean accept(final ProductDefinitionTemplate template, final MessageHolder messages) {
+                for (final FieldFilter filter: copy) {
+                    if (!filter.accept(template, messages)) return false;
+                }
+                return true;
+            }
+        };
+    }
+
+}
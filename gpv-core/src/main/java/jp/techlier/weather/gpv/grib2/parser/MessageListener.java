@@ -28,7 +28,14 @@ import jp.techlier.weather.gpv.grib2.Grib2.ProductDefinitionSection;
 
 
 /**
- *
+ * 解析したセクションの通知を受ける。
+ * <p>
+ * 1つのファイルに関する通知は、1つのスレッドからファイル中の順に行われる。
+ * {@link jp.techlier.weather.gpv.GpvFileParser#parseAll(java.io.File, java.util.concurrent.ExecutorService, int)}
+ * のように複数のファイルを並列に解析する場合、同じリスナーが異なるファイルについて複数のスレッドから
+ * 同時に呼び出されるため、リスナーが状態を持つ場合は実装側で同期すること。
+ * 引数のsection, messagesは呼び出しから戻るまでのみ参照できる。
+ * </p>
  *
  * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
  * @since 2011/08/17
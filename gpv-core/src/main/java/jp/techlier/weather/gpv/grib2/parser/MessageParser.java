@@ -18,11 +18,13 @@ package jp.techlier.weather.gpv.grib2.parser;
 
 import static jp.techlier.weather.gpv.grib2.Grib2.*;
 
+import java.io.EOFException;
 import java.io.IOException;
-import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
@@ -43,8 +45,11 @@ import jp.techlier.weather.gpv.grib2.Grib2.ParameterNumber;
 import jp.techlier.weather.gpv.grib2.Grib2.ProductDefinitionSection;
 import jp.techlier.weather.gpv.grib2.Grib2.ProductDefinitionTemplate;
 import jp.techlier.weather.gpv.grib2.Grib2.SectionNumber;
+import jp.techlier.weather.gpv.grib2.types.CompiledContainer;
 import jp.techlier.weather.gpv.grib2.types.Container;
 import jp.techlier.weather.gpv.grib2.types.ContentInfo;
+import jp.techlier.weather.gpv.grib2.types.ContentReader;
+import jp.techlier.weather.gpv.grib2.types.ContentValidator;
 import jp.techlier.weather.gpv.grib2.types.EnumValue;
 import jp.techlier.weather.gpv.grib2.types.EnumValues;
 import jp.techlier.weather.gpv.grib2.types.Grib2ContainerFactory;
@@ -54,7 +59,6 @@ import jp.techlier.weather.gpv.grib2.types.Template;
 import jp.techlier.weather.gpv.grib2.types.TemplateNumber;
 
 import org.apache.commons.lang3.ArrayUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.reflect.ConstructorUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -69,7 +73,7 @@ import org.apache.commons.logging.LogFactory;
  */
 public abstract class MessageParser implements MessageHolder {
 
-    final Log logger_ = LogFactory.getLog(this.getClass());
+    protected final Log logger_ = LogFactory.getLog(this.getClass());
 
 
     protected boolean isEnabledSyntaxChecking_ = true;
@@ -79,6 +83,70 @@ public abstract class MessageParser implements MessageHolder {
     }
 
 
+    protected boolean isEnabledZeroCopy_ = false;
+
+    /**
+     * Data SectionとBitmap Sectionの内容を複製せず、解析バッファの読み込み専用ビューとして保持する。
+     * <p>
+     * ゼロコピーモードでは{@link DataSection#dataBuffer()}, {@link BitmapSection#bitmapBuffer()}は
+     * 解析バッファを直接参照する。これらのビューは次のセクションの解析が始まるまで
+     * (通常はリスナーの呼び出しから戻るまで)のみ有効で、それ以降は内容が上書きされる。
+     * 有効期間を超えて値を保持する場合は、期間内に{@link DataSection#data()}等で複製を取得すること。
+     * </p>
+     * @param flag true: ゼロコピーモードを有効にする
+     */
+    public void enableZeroCopy(boolean flag) {
+        this.isEnabledZeroCopy_ = flag;
+    }
+
+
+    protected boolean isEnabledInventoryMode_ = false;
+
+    /**
+     * Bitmap SectionとData Sectionを読まずに、セクションの長さだけを用いて読み飛ばす。
+     * <p>
+     * 一覧の作成などSection 0〜5だけが必要な場合に用いる。
+     * 読み飛ばしたセクションはリスナーに通知されず、{@link #latestBitmapSection()},
+     * {@link #latestDataSection()}はnullとなる。
+     * </p>
+     * @param flag true: インベントリモードを有効にする
+     */
+    public void enableInventoryMode(boolean flag) {
+        this.isEnabledInventoryMode_ = flag;
+    }
+
+
+    private FieldFilter fieldFilter_;
+
+    /**
+     * 解析する格子データを選択する。
+     * @param filter nullの場合は全ての格子データを解析する
+     * @see FieldFilter
+     */
+    public void setFieldFilter(final FieldFilter filter) {
+        this.fieldFilter_ = filter;
+    }
+
+    public FieldFilter getFieldFilter() {
+        return fieldFilter_;
+    }
+
+
+    /**
+     * 設定とリスナーを他のパーサに複製する。解析中の状態は複製しない。
+     * @param other
+     */
+    protected void copyConfigurationTo(final MessageParser other) {
+        other.isEnabledSyntaxChecking_ = isEnabledSyntaxChecking_;
+        other.isEnabledZeroCopy_ = isEnabledZeroCopy_;
+        other.isEnabledInventoryMode_ = isEnabledInventoryMode_;
+        other.fieldFilter_ = fieldFilter_;
+        for (final MessageListener listener: listenerSet_) {
+            other.addListener(listener);
+        }
+    }
+
+
     private class IndicatorSectionParser extends SectionParser<IndicatorSection> {
         // There isn't need optional implmentations.
     }
@@ -117,23 +185,9 @@ public abstract class MessageParser implements MessageHolder {
                                       final ContentInfo content,
                                       final ByteBuffer in) {
             final Class contentType = content.type();
-            if (contentType == ParameterCategory.class) {
+            if (contentType == ParameterCategory.class || contentType == ParameterNumber.class) {
                 assert content.length() == 1;
-                final int value = in.get();
-                try {
-                    return ParameterCategory.valueOf(latestIndicatorSection_.discipline().enumValue(), value);
-                } catch (Exception enumValueIsNotFound) {
-                    return unknownEnumValue(contentType, value, enumValueIsNotFound);
-                }
-            }
-            else if (contentType == ParameterNumber.class) {
-                assert content.length() == 1;
-                final int value = in.get();
-                try {
-                    return ParameterNumber.valueOf(section.parameterCategory().enumValue(), value);
-                } catch (Exception enumValueIsNotFound) {
-                    return unknownEnumValue(contentType, value, enumValueIsNotFound);
-                }
+                return resolveEnumValue(section, contentType, in.get());
             }
             return super.parseContent(section, content, in);
         }
@@ -158,9 +212,7 @@ public abstract class MessageParser implements MessageHolder {
                                       final ByteBuffer in) {
             if (content.name().equals("bitmap")) {
                 if (section.bitmapIndicator() >= 0) {
-                    final byte[] bitmap = new byte[section.length() - content.offset() + 1];
-                    in.get(bitmap);
-                    return bitmap;
+                    return getPayload(in, section.length() - content.offset() + 1);
                 }
                 else {
                     return ArrayUtils.EMPTY_BYTE_ARRAY;
@@ -176,9 +228,7 @@ public abstract class MessageParser implements MessageHolder {
                                       final ContentInfo content,
                                       final ByteBuffer in) {
             if (content.name().equals("data")) {
-                final byte[] data = new byte[section.length() - content.offset() + 1];
-                in.get(data);
-                return data;
+                return getPayload(in, section.length() - content.offset() + 1);
             }
             return super.parseContent(section, content, in);
         }
@@ -191,16 +241,43 @@ public abstract class MessageParser implements MessageHolder {
 
 
     abstract class SectionParser<S extends Section> extends ContentsParser<S> {
-        final S parse(final SectionNumber sectionNumber, final ByteBuffer in, final int sectionLength) {
+        /**
+         * @param sectionNumber
+         * @param in
+         * @param base セクションの第1オクテットの位置
+         * @param sectionLength
+         */
+        final S parse(final SectionNumber sectionNumber, final ByteBuffer in, final int base, final int sectionLength) {
             final S section; try {
                 section = (S)containerFactory_.newSection(sectionNumber.sectionType(), sectionLength);
             } catch (Exception cannotInstanciate) {
                 logger_.error("Cannot create section for "+sectionNumber);
                 return null;
             }
+            if (section instanceof CompiledContainer) {
+                final CompiledContainer compiled = (CompiledContainer)section;
+                in.position(base + compiled.read(contentReader_, in, base));
+                if (isEnabledSyntaxChecking_) {
+                    compiled.validate(contentReader_);
+                }
+                return section;
+            }
             return parse(section, in);
         }
 
+        /**
+         * セクションのデータ部分を取得する。
+         * ゼロコピーモードでは複製せず、読み込み専用のビューを返す。
+         * @param in
+         * @param length データ部分の長さ
+         * @return byte[]またはByteBuffer
+         */
+        protected Object getPayload(final ByteBuffer in, final int length) {
+            final Object payload = MessageParser.this.getPayload(in, in.position(), length);
+            in.position(in.position() + length);
+            return payload;
+        }
+
         protected <T extends Template> T parseTemplate(final EnumValue<? extends TemplateNumber<T>> templateNumber,
                                                        final ByteBuffer in) {
             return parseTemplate(templateNumber, new TemplateParser<T>(), in);
@@ -256,7 +333,6 @@ public abstract class MessageParser implements MessageHolder {
         }
 
         protected Object parseContent(final C container, final ContentInfo content, final ByteBuffer in) {
-            System.out.println(content);
             final Class contentType = content.type();
             if (contentType.isPrimitive()) {
                 if (contentType == Byte.TYPE) {
@@ -327,9 +403,7 @@ public abstract class MessageParser implements MessageHolder {
          * @return　2の補数形式によるbyte値
          */
         private byte getSignedByte(final ByteBuffer in) {
-            final byte value = in.get();
-            //return value >= -1 ? value : (byte)(-(value & Byte.MAX_VALUE));
-            return (value & Byte.MIN_VALUE) == 0  || value == -1 ? value : (byte)((value ^ Byte.MAX_VALUE) + 1);
+            return ContentReader.signedByte(in.get());
         }
 
         /**
@@ -339,9 +413,7 @@ public abstract class MessageParser implements MessageHolder {
          * @return　2の補数形式によるshort値
          */
         private short getSignedShort(final ByteBuffer in) {
-            final short value = in.getShort();
-            //return value >= -1 ? value : (short)(-(value & Short.MAX_VALUE));
-            return (value & Short.MIN_VALUE) == 0  || value == -1 ? value : (short)((value ^ Short.MAX_VALUE) + 1);
+            return ContentReader.signedShort(in.getShort());
         }
 
         /**
@@ -351,9 +423,7 @@ public abstract class MessageParser implements MessageHolder {
          * @return 2の補数形式によるint値
          */
         private int getSignedInt(final ByteBuffer in) {
-            final int value = in.getInt();
-            //return value >= -1 ? value : -(value & Integer.MAX_VALUE);
-            return (value & Integer.MIN_VALUE) == 0  || value == -1 ? value : ((value ^ Integer.MAX_VALUE) + 1);
+            return ContentReader.signedInt(in.getInt());
         }
 
         /**
@@ -363,9 +433,7 @@ public abstract class MessageParser implements MessageHolder {
          * @return 2の補数形式によるlong値
          */
         private long getSignedLong(final ByteBuffer in) {
-            final long value = in.getLong();
-            //return value >= -1L ? value : -(value & Long.MAX_VALUE);
-            return (value & Long.MIN_VALUE) == 0  || value == -1L ? value : ((value ^ Long.MAX_VALUE) + 1);
+            return ContentReader.signedLong(in.getLong());
         }
 
         /**
@@ -375,11 +443,8 @@ public abstract class MessageParser implements MessageHolder {
          * @return
          */
         protected <E extends Enum<E> & EnumValue<E>> EnumValue<E> enumValueOf(final Class<E> type, final int value) {
-            try {
-                return EnumValues.valueOf(type, value);
-            } catch (Exception enumValueIsNotFound) {
-                return unknownEnumValue(type, value, enumValueIsNotFound);
-            }
+            final E e = EnumValues.find(type, value);
+            return e != null ? e : unknownEnumValue(type, value, null);
         }
 
         /**
@@ -401,11 +466,8 @@ public abstract class MessageParser implements MessageHolder {
         }
 
         private final boolean validateValue(final ContentInfo content, final int actualValue) {
-            if (content.expectedValues().length == 0) return true;
-            for (final int expected: content.expectedValues()) {
-                if (expected == actualValue) return true;
-            }
-            logger_.error("content value is expected "+Arrays.toString(content.expectedValues())+" but "+actualValue+": "+content);
+            if (content.isExpectedValue(actualValue)) return true;
+            contentReader_.invalidValue(content, actualValue);
             return false;
         }
 
@@ -415,31 +477,181 @@ public abstract class MessageParser implements MessageHolder {
     }
 
 
+    /**
+     * 生成されたコンテナから呼び出され、解析の状態に依存する値を解決する。
+     */
+    private class CompiledContentReader extends ContentReader implements ContentValidator {
+        @Override
+        public <E extends Enum<E> & EnumValue<E>> EnumValue<E> enumValue(final Container container,
+                                                                         final ContentInfo content,
+                                                                         final Class<E> type, final int value) {
+            return resolveEnumValue(container, type, value);
+        }
+
+        @Override
+        public <T extends Template> T newTemplate(final Container container,
+                                                  final ContentInfo content,
+                                                  final EnumValue<? extends TemplateNumber<T>> templateNumber) {
+            try {
+                return containerFactory_.newTemplate(templateNumber.enumValue().templateType());
+            } catch (Exception cannotInstanciate) {
+                logger_.error("Cannot create template for "+templateNumber);
+                return null;
+            }
+        }
+
+        @Override
+        public int readTemplate(final Template template, final ContentInfo content, final ByteBuffer in, final int base) {
+            if (template instanceof CompiledContainer) {
+                return ((CompiledContainer)template).read(this, in, base);
+            }
+            in.position(base + content.offset() - 1);
+            if (template instanceof ProductDefinitionTemplate) {
+                new ProductDefinitionTemplateParser().parse((ProductDefinitionTemplate)template, in);
+            }
+            else {
+                new TemplateParser<Template>().parse(template, in);
+            }
+            return in.position() - base;
+        }
+
+        @Override
+        public Object payload(final Section section, final ContentInfo content,
+                              final ByteBuffer in, final int index, final int length) {
+            if (section instanceof BitmapSection && ((BitmapSection)section).bitmapIndicator() < 0) {
+                return ArrayUtils.EMPTY_BYTE_ARRAY;
+            }
+            return getPayload(in, index, length);
+        }
+
+        @Override
+        public void invalidValue(final ContentInfo content, final int actualValue) {
+            logger_.error("content value is expected "+Arrays.toString(content.expectedValues())+" but "+actualValue+": "+content);
+        }
+    }
+
+    private final CompiledContentReader contentReader_ = new CompiledContentReader();
+
+    /**
+     * 解析中の文脈に応じてenum値を解決する。
+     * ParameterCategoryはdiscipline、ParameterNumberはParameterCategoryに依存する。
+     * @param container 読み込み中のコンテナ
+     * @return 該当する値がない場合は{@link #unknownEnumValue}の戻り値
+     */
+    <E extends Enum<E> & EnumValue<E>> EnumValue<E> resolveEnumValue(final Container container,
+                                                                     final Class<E> type, final int value) {
+        final EnumValue<?> e;
+        if (ParameterCategory.class.equals(type)) {
+            final IndicatorSection indicator = latestIndicatorSection_;
+            e = ParameterCategory.find(indicator != null ? indicator.discipline().enumValue() : null, value);
+        }
+        else if (ParameterNumber.class.equals(type)) {
+            e = ParameterNumber.find(((ProductDefinitionTemplate)container).parameterCategory().enumValue(), value);
+        }
+        else {
+            e = EnumValues.find(type, value);
+        }
+        return e != null ? (EnumValue<E>)e : unknownEnumValue(type, value, null);
+    }
+
+    /**
+     * セクションのデータ部分を取得する。
+     * ゼロコピーモードでは複製せず、読み込み専用のビューを返す。
+     * @param in
+     * @param index データ部分の絶対位置
+     * @param length データ部分の長さ
+     * @return byte[]またはByteBuffer
+     */
+    Object getPayload(final ByteBuffer in, final int index, final int length) {
+        final ByteBuffer view = in.duplicate();
+        view.limit(index + length).position(index);
+        if (isEnabledZeroCopy_) {
+            return view.slice().asReadOnlyBuffer();
+        }
+        final byte[] payload = new byte[length];
+        view.get(payload);
+        return payload;
+    }
+
+
     private Set<MessageListener> listenerSet_ = new CopyOnWriteArraySet<MessageListener>();
 
-    public boolean addListener(final MessageListener listener) {
-        return this.listenerSet_.add(listener);
+    /** セクション番号ごとの通知先。リスナーの登録・削除時に再構成する。 */
+    private volatile MessageListener[][] dispatchTable_ = new MessageListener[END_SECTION_NUMBER + 1][0];
+    private volatile DataChunkListener[] chunkListeners_ = new DataChunkListener[0];
+    /** Data Sectionの通知先が全てDataChunkListenerで、分割して通知できるか */
+    private volatile boolean isChunkedDataSection_ = true;
+
+    public synchronized boolean addListener(final MessageListener listener) {
+        final boolean added = this.listenerSet_.add(listener);
+        if (added) updateDispatchTable();
+        return added;
     }
 
-    public boolean removeListner(final MessageListener listener) {
-        return this.listenerSet_.remove(listener);
+    public synchronized boolean removeListner(final MessageListener listener) {
+        final boolean removed = this.listenerSet_.remove(listener);
+        if (removed) updateDispatchTable();
+        return removed;
     }
 
-    private void notifyListeners(final Section section) {
-        assert section != null;
-        if (!listenerSet_.isEmpty()) {
-            final String handlerName = StringUtils.uncapitalize(section.type().getSimpleName());
-            try {
-                final Method handler = MessageListener.class.getMethod(handlerName,
-                                                                       section.type(),
-                                                                       MessageHolder.class);
-                for (MessageListener listener: listenerSet_) {
-                    handler.invoke(listener, section, this);
+    private void updateDispatchTable() {
+        final MessageListener[][] table = new MessageListener[END_SECTION_NUMBER + 1][];
+        for (final SectionNumber sectionNumber: SectionNumber.values()) {
+            final List<MessageListener> listeners = new ArrayList<MessageListener>();
+            for (final MessageListener listener: listenerSet_) {
+                if (!(listener instanceof SelectiveMessageListener)
+                        || ((SelectiveMessageListener)listener).consumedSections().contains(sectionNumber)) {
+                    listeners.add(listener);
                 }
             }
-            catch (Exception e) {
-                throw new IllegalStateException(e);
-            }
+            table[sectionNumber.intValue()] = listeners.toArray(new MessageListener[listeners.size()]);
+        }
+        final List<DataChunkListener> chunkListeners = new ArrayList<DataChunkListener>();
+        for (final MessageListener listener: table[DATA_SECTION_NUMBER]) {
+            if (listener instanceof DataChunkListener) chunkListeners.add((DataChunkListener)listener);
+        }
+        this.dispatchTable_ = table;
+        this.chunkListeners_ = chunkListeners.toArray(new DataChunkListener[chunkListeners.size()]);
+        this.isChunkedDataSection_ = chunkListeners.size() == table[DATA_SECTION_NUMBER].length;
+    }
+
+    private void notifyListeners(final Section section) {
+        assert section != null;
+        final MessageListener[] listeners = dispatchTable_[section.number()];
+        switch (section.number()) {
+          case INDICATOR_SECTION_NUMBER:
+            for (final MessageListener listener: listeners) listener.indicatorSection((IndicatorSection)section, this);
+            break;
+          case IDENTIFICATION_SECTION_NUMBER:
+            for (final MessageListener listener: listeners) listener.identificationSection((IdentificationSection)section, this);
+            break;
+          case GRID_DEFINITION_SECTION_NUMBER:
+            for (final MessageListener listener: listeners) listener.gridDefinitionSection((GridDefinitionSection)section, this);
+            break;
+          case PRODUCT_DEFITION_SECTION_NUMBER:
+            for (final MessageListener listener: listeners) listener.productDefinitionSection((ProductDefinitionSection)section, this);
+            break;
+          case DATA_REPRESENTAITON_SECTION_NUMBER:
+            for (final MessageListener listener: listeners) listener.dataRepresentationSection((DataRepresentationSection)section, this);
+            break;
+          case BITMAP_SECTION_NUMBER:
+            for (final MessageListener listener: listeners) listener.bitmapSection((BitmapSection)section, this);
+            break;
+          case DATA_SECTION_NUMBER:
+            for (final MessageListener listener: listeners) listener.dataSection((DataSection)section, this);
+            break;
+          case END_SECTION_NUMBER:
+            for (final MessageListener listener: listeners) listener.endSection((EndSection)section, this);
+            break;
+          default:
+            throw new IllegalStateException("unknown section number: " + section.number());
+        }
+    }
+
+
+    private void notifyDataChunk(final DataSection section, final ByteBuffer chunk, final long offset) {
+        for (final DataChunkListener listener: chunkListeners_) {
+            listener.dataChunk(section, chunk.duplicate(), offset, this);
         }
     }
 
@@ -492,14 +704,40 @@ public abstract class MessageParser implements MessageHolder {
 
     protected IndicatorSection parseFirstSection(final ByteBuffer in) throws IOException {
         clearLatestSection(INDICATOR_SECTION_NUMBER);
-        return latestIndicatorSection_ = new IndicatorSectionParser().parse(SectionNumber.INDICATOR_SECTION, in, INDICATOR_SECTION_LENGTH);
+        isRejectedField_ = false;
+        return latestIndicatorSection_ = new IndicatorSectionParser().parse(SectionNumber.INDICATOR_SECTION, in, in.position(), INDICATOR_SECTION_LENGTH);
     }
 
 
     private int startPosition_;
+    private boolean isSkippedSection_;
+    /** 解析中の格子データが{@link FieldFilter}に受け付けられなかった */
+    private boolean isRejectedField_;
+
+    /**
+     * @param sectionNumber
+     * @return 読み飛ばす場合はtrue
+     */
+    protected boolean isSkippedSection(final SectionNumber sectionNumber) {
+        switch (sectionNumber) {
+          case DATA_REPRESENTAITON_SECTION:
+            return isRejectedField_;
+          case BITMAP_SECTION:
+          case DATA_SECTION:
+            return isEnabledInventoryMode_ || isRejectedField_;
+          default:
+            return false;
+        }
+    }
+
+    private boolean acceptField(final ProductDefinitionSection section) {
+        final FieldFilter filter = fieldFilter_;
+        return filter == null || section == null || section.template() == null || filter.accept(section.template(), this);
+    }
 
     protected Section parseNextSection(final ByteBuffer in) throws IOException {
         startPosition_ = in.position();
+        isSkippedSection_ = false;
         final int sectionLength = in.getInt();
         if (sectionLength <= 0) {
             throw new IllegalStateException("invalid section length: " + sectionLength);
@@ -508,26 +746,47 @@ public abstract class MessageParser implements MessageHolder {
             return containerFactory_.newSection(EndSection.class, END_SECTION_LENGTH);
         }
         else {
+            final SectionNumber nextSectionNumber = SectionNumber.valueOf(in.get(in.position()));
+            if (nextSectionNumber.intValue() <= PRODUCT_DEFITION_SECTION_NUMBER) {
+                isRejectedField_ = false;
+            }
+            if (isSkippedSection(nextSectionNumber)) {
+                in.get();
+                clearLatestSection(nextSectionNumber.intValue());
+                return skipSection(in, nextSectionNumber, sectionLength);
+            }
             if (in.remaining() < sectionLength) {
                 refill(in);
                 startPosition_ = -4;
             }
 
             final SectionNumber sectionNumber = SectionNumber.valueOf(in.get());
+            final int base = in.position() - 5;
             clearLatestSection(sectionNumber.intValue());
+            if (in.remaining() < sectionLength - 5) {
+                // バッファに収まらない
+                if (sectionNumber == SectionNumber.DATA_SECTION && isChunkedDataSection_) {
+                    return latestDataSection_ = parseDataSectionInChunks(in, sectionLength);
+                }
+                throw new IllegalStateException("section is larger than the buffer: " + sectionNumber
+                                                + " length=" + sectionLength + ", capacity=" + in.capacity());
+            }
             switch (sectionNumber) {
               case IDENTIFICATION_SECTION:
-                return latestIdentificationSection_ = new IdentificationSectionParser().parse(sectionNumber, in, sectionLength);
+                return latestIdentificationSection_ = new IdentificationSectionParser().parse(sectionNumber, in, base, sectionLength);
               case GRID_DEFINITION_SECTION:
-                return latestGridDefinitionSection_ = new GridDefinitionSectionParser().parse(sectionNumber, in, sectionLength);
+                return latestGridDefinitionSection_ = new GridDefinitionSectionParser().parse(sectionNumber, in, base, sectionLength);
               case PRODUCT_DEFITION_SECTION:
-                return latestProductDefinitionSection_ = new ProductDefinitionSectionParser().parse(sectionNumber, in, sectionLength);
+                latestProductDefinitionSection_ = new ProductDefinitionSectionParser().parse(sectionNumber, in, base, sectionLength);
+                isRejectedField_ = !acceptField(latestProductDefinitionSection_);
+                isSkippedSection_ = isRejectedField_;
+                return latestProductDefinitionSection_;
               case DATA_REPRESENTAITON_SECTION:
-                return latestDataRepresentationSection_ = new DataRepresentationSectionParser().parse(sectionNumber, in, sectionLength);
+                return latestDataRepresentationSection_ = new DataRepresentationSectionParser().parse(sectionNumber, in, base, sectionLength);
               case BITMAP_SECTION:
-                return latestBitmapSection_ = new BitmapSectionParser().parse(sectionNumber, in, sectionLength);
+                return latestBitmapSection_ = new BitmapSectionParser().parse(sectionNumber, in, base, sectionLength);
               case DATA_SECTION:
-                return latestDataSection_ = new DataSectionParser().parse(sectionNumber, in, sectionLength);
+                return latestDataSection_ = new DataSectionParser().parse(sectionNumber, in, base, sectionLength);
               default:
                 throw new UnsupportedOperationException("unknown section number: " + sectionNumber);
             }
@@ -535,9 +794,75 @@ public abstract class MessageParser implements MessageHolder {
     }
 
 
+    /**
+     * バッファに収まらないData Sectionを、バッファを再充填しながら分割して通知する。
+     * @param in 位置はデータ部分の先頭
+     * @param sectionLength
+     * @return データを保持しないData Section
+     */
+    private DataSection parseDataSectionInChunks(final ByteBuffer in, final int sectionLength) throws IOException {
+        final DataSection section = containerFactory_.newSection(DataSection.class, sectionLength);
+        long offset = 0;
+        long remains = sectionLength - 5;
+        while (remains > 0) {
+            if (!in.hasRemaining()) {
+                refill(in);
+                if (!in.hasRemaining()) {
+                    throw new EOFException("data section is truncated: " + remains + " bytes remain");
+                }
+            }
+            final int length = (int)Math.min(in.remaining(), remains);
+            final ByteBuffer chunk = in.slice();
+            chunk.limit(length);
+            notifyDataChunk(section, chunk.asReadOnlyBuffer(), offset);
+            in.position(in.position() + length);
+            offset += length;
+            remains -= length;
+        }
+        startPosition_ = in.position() - sectionLength;
+        return section;
+    }
+
+
+    /**
+     * セクションの残りを読まずに読み飛ばす。
+     * @param in 位置はセクションの第6オクテット
+     * @param sectionLength
+     * @return 内容を持たないセクション
+     */
+    private Section skipSection(final ByteBuffer in, final SectionNumber sectionNumber, final int sectionLength) throws IOException {
+        skip(in, sectionLength - 5);
+        startPosition_ = in.position() - sectionLength;
+        isSkippedSection_ = true;
+        return containerFactory_.newSection(sectionNumber.sectionType(), sectionLength);
+    }
+
+    /**
+     * 入力をnバイト進める。
+     * バッファに残っていない部分は{@link #refill}で読み込んで捨てる。
+     * サブクラスは入力の位置を直接移動してもよい。
+     * @param in
+     * @param n
+     * @throws IOException
+     */
+    protected void skip(final ByteBuffer in, long n) throws IOException {
+        while (n > in.remaining()) {
+            n -= in.remaining();
+            in.position(in.limit());
+            refill(in);
+            if (!in.hasRemaining()) {
+                throw new EOFException("section is truncated: " + n + " bytes remain");
+            }
+        }
+        in.position(in.position() + (int)n);
+    }
+
+
     public long parse(final ByteBuffer in) throws IOException {
+        if (in.remaining() < INDICATOR_SECTION_LENGTH) {
+            refill(in);
+        }
         Section section = parseFirstSection(in);
-        System.out.println(section);
         long totalLength = section.length();
         notifyListeners(section);
 
@@ -547,7 +872,7 @@ public abstract class MessageParser implements MessageHolder {
 
             validateSectionLength(in, section);
             totalLength += section.length();
-            notifyListeners(section);
+            if (!isSkippedSection_) notifyListeners(section);
 
             if (in.remaining() < 5) {
                 refill(in);
@@ -585,7 +910,7 @@ public abstract class MessageParser implements MessageHolder {
     public Map<Class<? extends Enum<?>>,Set<Integer>> missingEnumValues_ = new HashMap();
 
     protected <E extends Enum<E> & EnumValue<E>> EnumValue<E> unknownEnumValue(final Class<E> type, final int value, final Throwable cause) {
-        logger_.error(type.getSimpleName() + " cannot resolved.", cause);
+        logger_.error(type.getSimpleName() + "(" + value + ") cannot resolved.", cause);
         if (!missingEnumValues_.containsKey(type)) {
             missingEnumValues_.put(type, new TreeSet());
         }
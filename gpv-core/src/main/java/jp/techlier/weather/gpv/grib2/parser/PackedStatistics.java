@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv.grib2.parser;
+
+
+/**
+ * 単純圧縮された格子データの統計量。
+ * <p>
+ * Y = (R + X * 2^E) / 10^D はXについて単調増加のため、
+ * 最小値・最大値・平均値は圧縮値Xのまま集計し、最後に一度だけ変換して求める。
+ * </p>
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ * @see SimplePackingDecorder#statistics()
+ */
+public final class PackedStatistics {
+
+    private final int count_;
+    private final long minPacked_, maxPacked_;
+    private final double min_, max_, mean_;
+
+    PackedStatistics(final int count, final long minPacked, final long maxPacked,
+                     final double min, final double max, final double mean) {
+        this.count_ = count;
+        this.minPacked_ = minPacked;
+        this.maxPacked_ = maxPacked;
+        this.min_ = min;
+        this.max_ = max;
+        this.mean_ = mean;
+    }
+
+    /**
+     * 集計した値の数を取得する。
+     * @return 値の数
+     */
+    public int count() {
+        return count_;
+    }
+
+    /**
+     * 最小値を取得する。値がない場合はNaN。
+     * @return min(Y)
+     */
+    public double min() {
+        return min_;
+    }
+
+    /**
+     * 最大値を取得する。値がない場合はNaN。
+     * @return max(Y)
+     */
+    public double max() {
+        return max_;
+    }
+
+    /**
+     * 平均値を取得する。値がない場合はNaN。
+     * @return mean(Y)
+     */
+    public double mean() {
+        return mean_;
+    }
+
+    /**
+     * 最小値の圧縮値を取得する。値がない場合は-1。
+     * @return min(X)
+     */
+    public long minPacked() {
+        return minPacked_;
+    }
+
+    /**
+     * 最大値の圧縮値を取得する。値がない場合は-1。
+     * @return max(X)
+     */
+    public long maxPacked() {
+        return maxPacked_;
+    }
+
+    @Override
+    public String toString() {
+        return "PackedStatistics[count=" + count_ + ", min=" + min_ + ", max=" + max_ + ", mean=" + mean_ + "]";
+    }
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv.grib2.parser;
+
+import java.util.Set;
+
+import jp.techlier.weather.gpv.grib2.Grib2.SectionNumber;
+
+
+/**
+ * 通知を受けるセクションを限定するリスナー。
+ * <p>
+ * {@link MessageParser#addListener(MessageListener)}で登録したリスナーがこのインターフェースを持つ場合、
+ * {@link #consumedSections()}に含まれないセクションは通知されない。
+ * 戻り値は登録時に一度だけ参照される。
+ * </p>
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+public interface SelectiveMessageListener extends MessageListener {
+
+    /**
+     * @return 通知を受けるセクション
+     */
+    Set<SectionNumber> consumedSections();
+
+}
@@ -16,9 +16,13 @@
  */
 package jp.techlier.weather.gpv.grib2.parser;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.util.BitSet;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 import jp.techlier.weather.gpv.grib2.Grib2.DataRepresentationTemplate;
 import jp.techlier.weather.gpv.grib2.Grib2.GridDefinitionTemplate;
@@ -34,40 +38,109 @@ import jp.techlier.weather.gpv.grib2.Grib2.ScanningMode;
  */
 public class SimplePackingDecorder implements Iterable<Double> {
 
-    private final BitReader in_;
+    /** 一括復号時に一度に展開する値の数 */
+    static final int CHUNK_SIZE = 1024;
+    /** valuesAt()でビットマップの累積数の表を作る指定位置の最小数 */
+    static final int RANK_TABLE_MIN_POINTS = 8;
+
+    private final ByteBuffer data_;
+    private final ByteBuffer bitmap_;
     private final double r_, e_, d_;
+    private final double binaryScale_, decimalScale_;
     private ScanningMode scanningMode_;
     private final int nI_, nJ_;
     private final int numBits_;
-    private int bitRemains_;
+    private final int numValues_;
+    private final boolean isSequential_;
+    private int nextIndex_;
+    private int[] packed_;
+    private int[] ranks_;
+    private int numPresent_ = -1;
 
     public SimplePackingDecorder(final GridDefinitionTemplate gridDefinition,
                                  final DataRepresentationTemplate dataRepresetation,
                                  final byte[] data) {
+        this(gridDefinition, dataRepresetation, ByteBuffer.wrap(data));
+    }
+
+    /**
+     * @param gridDefinition
+     * @param dataRepresetation
+     * @param data 圧縮データ。positionからlimitまでを用いる。バッファの状態は変更しない。
+     */
+    public SimplePackingDecorder(final GridDefinitionTemplate gridDefinition,
+                                 final DataRepresentationTemplate dataRepresetation,
+                                 final ByteBuffer data) {
+        this(gridDefinition, dataRepresetation, null, data);
+    }
+
+    /**
+     * ビットマップを持つデータのデコーダを生成する。
+     * ビットマップは{@link #valueAt(int, int)}, {@link #valuesAt(int[])}と、
+     * {@link #statistics()}などの復号せずに集計するメソッドが参照する。
+     * 他のメソッドは従来通り全ての格子点に値があるものとして扱う。
+     * @param gridDefinition
+     * @param dataRepresetation
+     * @param bitmap Bitmap Sectionのbitmap。nullの場合は全ての格子点に値がある。
+     *               positionからlimitまでを用いる。バッファの状態は変更しない。
+     * @param data 圧縮データ。positionからlimitまでを用いる。バッファの状態は変更しない。
+     */
+    public SimplePackingDecorder(final GridDefinitionTemplate gridDefinition,
+                                 final DataRepresentationTemplate dataRepresetation,
+                                 final ByteBuffer bitmap,
+                                 final ByteBuffer data) {
         this.r_ = dataRepresetation.referenceValue();
         //assert r_ >= 0;
         this.e_ = dataRepresetation.binaryScaleFactor();
         //assert e_ >= 0;
         this.d_ = dataRepresetation.decimalScaleFactor();
         //assert d_ >= 0;
+        this.binaryScale_ = Math.pow(2.0, e_);
+        this.decimalScale_ = d_ == 0 ? 1.0 : Math.pow(10.0, d_);
 
         this.scanningMode_ = gridDefinition.scanningMode();
         this.nI_ = gridDefinition.numPointsAlongParallel();
         this.nJ_ = gridDefinition.numPointsAlongMeridian();
         this.numBits_ = dataRepresetation.numBits();
-        assert numBits_ > 0 && numBits_ <= Integer.SIZE;
-        this.bitRemains_ = nI_ * nJ_ * numBits_;
-        assert data.length >= (bitRemains_ + Byte.SIZE - 1) / Byte.SIZE;
-        this.in_ = new BitReader(new ByteArrayInputStream(data));
+        assert numBits_ >= 0 && numBits_ <= Integer.SIZE;
+        this.numValues_ = nI_ * nJ_;
+        this.isSequential_ = scanningMode_.isIDirectionConsective()
+                          && (scanningMode_.areSameDirections() || nJ_ <= 1);
+        assert data == null || bitmap != null || data.remaining() >= BitUnpacker.byteLength(numBits_, numValues_);
+        this.data_ = data != null ? data.slice() : ByteBuffer.allocate(0);
+        if (bitmap != null && bitmap.remaining() < BitUnpacker.byteLength(1, numValues_)) {
+            throw new IllegalArgumentException("bitmap is too short: " + bitmap.remaining() + " bytes for " + numValues_ + " points");
+        }
+        this.bitmap_ = bitmap != null ? bitmap.slice() : null;
     }
 
 
+    /**
+     * 分割して到着するデータを{@link ChunkDecorder}で復号するためのデコーダを生成する。
+     * このデコーダ自体はデータを持たないため、next(), decode()は使用できない。
+     * @param gridDefinition
+     * @param dataRepresetation
+     */
+    public SimplePackingDecorder(final GridDefinitionTemplate gridDefinition,
+                                 final DataRepresentationTemplate dataRepresetation) {
+        this(gridDefinition, dataRepresetation, (ByteBuffer)null);
+    }
+
+
+    /**
+     * 格子点の数(Ni * Nj)を取得する。
+     * @return 格子点数
+     */
+    public int size() {
+        return numValues_;
+    }
+
     /**
      * 次のデータの存在を確認する。
      * @return true: 次データが存在する
      */
     public boolean hasNext() {
-        return bitRemains_ >= numBits_;
+        return nextIndex_ < numValues_;
     }
 
     /**
@@ -75,18 +148,156 @@ public class SimplePackingDecorder implements Iterable<Double> {
      * @return　Y
      */
     public double next() {
-        final double x;
-        try {
-            x = in_.read(numBits_);
+        if (!hasNext()) throw new NoSuchElementException();
+        return valueOf(BitUnpacker.get(data_, numBits_, nextIndex_++));
+    }
+
+    /**
+     * 格子点(i, j)の値だけを復号する。
+     * 他の格子点は展開しないため、ビットマップがなければ格子点数によらず一定の時間で求まる。
+     * ビットマップがある場合は累積数の表を作らず、{@link #valuesAt(int[])}で作った表がなければ
+     * 対象の位置までのビットマップを数える。
+     * @param i 0〜Ni-1
+     * @param j 0〜Nj-1
+     * @return Y。ビットマップで値がないとされた格子点ではNaN
+     */
+    public double valueAt(final int i, final int j) {
+        if (i < 0 || i >= nI_ || j < 0 || j >= nJ_) {
+            throw new IndexOutOfBoundsException("(" + i + ", " + j + ") is out of " + nI_ + "x" + nJ_);
         }
-        catch (IOException e) {
-            e.printStackTrace();
-            throw new IllegalStateException(e);
+        return valueAtIndex(j * nI_ + i);
+    }
+
+    /**
+     * 指定された格子点の値だけを復号する。
+     * 計算量は格子点数ではなく、指定した位置の数に比例する。
+     * ビットマップがある場合、指定した位置が{@value #RANK_TABLE_MIN_POINTS}個以上なら
+     * 64bitごとの累積数の表を作って再利用し、それより少なければ{@link #valueAt(int, int)}と同じく
+     * 位置ごとにビットマップを数える。
+     * @param indices 格子点の位置 j * Ni + i
+     * @return Y。ビットマップで値がないとされた格子点ではNaN
+     */
+    public double[] valuesAt(final int[] indices) {
+        if (bitmap_ != null && ranks_ == null && indices.length >= RANK_TABLE_MIN_POINTS) {
+            ranks_ = rankTable();
+        }
+        final double[] result = new double[indices.length];
+        for (int n = 0; n < indices.length; n++) {
+            if (indices[n] < 0 || indices[n] >= numValues_) {
+                throw new IndexOutOfBoundsException("index " + indices[n] + " is out of " + numValues_);
+            }
+            result[n] = valueAtIndex(indices[n]);
+        }
+        return result;
+    }
+
+    private double valueAtIndex(final int index) {
+        int k = storageIndex(index);
+        if (bitmap_ != null) {
+            if ((bitmap_.get(bitmap_.position() + (k >>> 3)) & 0x80 >>> (k & 7)) == 0) {
+                return Double.NaN;
+            }
+            k = rank(k);
+        }
+        if ((long)k * numBits_ + numBits_ > data_.limit() * 8L) {
+            throw new IndexOutOfBoundsException("index " + index + " (value " + k + ") is beyond the data: "
+                                                + data_.limit() + " bytes of " + numBits_ + "bits values");
+        }
+        return valueOf(BitUnpacker.get(data_, numBits_, k));
+    }
+
+    /**
+     * ビットマップのk番目より前にある値の数を求める。
+     * 累積数の表があればそれを用い、なければ先頭から64bitずつ数える。
+     */
+    private int rank(final int k) {
+        final int bits = k & (Long.SIZE - 1);
+        final int w = k / Long.SIZE;
+        int rank;
+        if (ranks_ != null) {
+            rank = ranks_[w];
+        }
+        else {
+            rank = 0;
+            for (int n = 0; n < w; n++) {
+                rank += Long.bitCount(bitmapWord(n));
+            }
         }
-        bitRemains_ -= numBits_;
+        return bits == 0 ? rank : rank + Long.bitCount(bitmapWord(w) >>> (Long.SIZE - bits));
+    }
 
-        double temp = r_ + x * Math.pow(2.0, e_);
-        return d_ == 0 ? temp : temp / Math.pow(10.0, d_);
+    /**
+     * ビットマップの64bitごとに、それより前にある値の累積数を求める。
+     */
+    private int[] rankTable() {
+        final int[] ranks = new int[(numValues_ + Long.SIZE - 1) / Long.SIZE];
+        for (int w = 1; w < ranks.length; w++) {
+            ranks[w] = ranks[w - 1] + Long.bitCount(bitmapWord(w - 1));
+        }
+        return ranks;
+    }
+
+    /**
+     * 値を持つ格子点の数を求める。
+     * @return ビットマップで値があるとされた格子点の数。ビットマップがなければ格子点数
+     */
+    private int presentCount() {
+        if (bitmap_ == null) {
+            return numValues_;
+        }
+        if (numPresent_ < 0) {
+            int count = 0;
+            for (int w = 0, words = (numValues_ + Long.SIZE - 1) / Long.SIZE; w < words; w++) {
+                count += Long.bitCount(presentWord(w));
+            }
+            numPresent_ = count;
+        }
+        return numPresent_;
+    }
+
+    /**
+     * ビットマップのw番目の64bitから格子点数を超える末尾のビットを除いたものを求める。
+     */
+    private long presentWord(final int w) {
+        final int bits = numValues_ - w * Long.SIZE;
+        if (bits <= 0) {
+            return 0;
+        }
+        final long word = bitmapWord(w);
+        return bits >= Long.SIZE ? word : word & -1L << (Long.SIZE - bits);
+    }
+
+    /**
+     * ビットマップのw番目の64bitを読み込む。末尾の不足分は0とする。
+     */
+    private long bitmapWord(final int w) {
+        final int p = bitmap_.position() + w * 8;
+        if (p + 8 <= bitmap_.limit()) {
+            final long word = bitmap_.getLong(p);
+            return bitmap_.order() == ByteOrder.BIG_ENDIAN ? word : Long.reverseBytes(word);
+        }
+        long word = 0;
+        for (int b = 0; b < 8; b++) {
+            word <<= Byte.SIZE;
+            if (p + b < bitmap_.limit()) word |= bitmap_.get(p + b) & 0xff;
+        }
+        return word;
+    }
+
+    /**
+     * 圧縮された値Xを復号する。
+     * @param x X
+     * @return Y = (R + X * 2^E) / 10^D
+     */
+    private double valueOf(final long x) {
+        return (r_ + x * binaryScale_) / decimalScale_;
+    }
+
+    /**
+     * 圧縮値の平均などの実数を変換する。
+     */
+    private double valueOf(final double x) {
+        return (r_ + x * binaryScale_) / decimalScale_;
     }
 
     @Override
@@ -114,47 +325,546 @@ public class SimplePackingDecorder implements Iterable<Double> {
      * @return Y
      */
     public double[][] matrix() {
-        final double[][] result = new double[nJ_][nI_];
-        if (scanningMode_.areSameDirections() && scanningMode_.isIDirectionConsective()) {
-            for (int j = 0; j < nJ_; j++) {
-                final double[] row = result[j];
-                for (int i = 0; i < nI_; i++) {
-                    row[i] = next();
+        final double[] values = decode();
+        final double[][] result = new double[nJ_][];
+        for (int j = 0; j < nJ_; j++) {
+            final double[] row = new double[nI_];
+            System.arraycopy(values, j * nI_, row, 0, nI_);
+            result[j] = row;
+        }
+        return result;
+    }
+
+    /**
+     * 全てのデータを一括して復号する。
+     * 結果は走査モードによらず、j * Ni + i の位置に格納される。
+     * @return Y
+     */
+    public double[] decode() {
+        final double[] result = new double[numValues_];
+        decode(result, 0, 1);
+        return result;
+    }
+
+    /**
+     * 全てのデータを指定された配列に復号する。
+     * 格子点(i, j)の値は dest[offset + (j * Ni + i) * stride] に格納される。
+     * @param dest 出力先
+     * @param offset 出力先の開始位置
+     * @param stride 格子点間の間隔(1以上)
+     */
+    public void decode(final double[] dest, final int offset, final int stride) {
+        checkRange(dest.length, offset, stride);
+        final int[] packed = packedBuffer();
+        for (int from = 0; from < numValues_; from += packed.length) {
+            final int count = unpack(from, packed);
+            for (int k = 0; k < count; k++) {
+                dest[offset + gridIndex(from + k) * stride] = valueOf(packed[k] & 0xffffffffL);
+            }
+        }
+    }
+
+    /**
+     * 全てのデータを指定された配列に復号する。
+     * 格子点(i, j)の値は dest[offset + (j * Ni + i) * stride] に格納される。
+     * @param dest 出力先
+     * @param offset 出力先の開始位置
+     * @param stride 格子点間の間隔(1以上)
+     */
+    public void decode(final float[] dest, final int offset, final int stride) {
+        checkRange(dest.length, offset, stride);
+        final int[] packed = packedBuffer();
+        for (int from = 0; from < numValues_; from += packed.length) {
+            final int count = unpack(from, packed);
+            for (int k = 0; k < count; k++) {
+                dest[offset + gridIndex(from + k) * stride] = (float)valueOf(packed[k] & 0xffffffffL);
+            }
+        }
+    }
+
+    /**
+     * 全てのデータを指定されたバッファに復号する。
+     * 格子点(i, j)の値は絶対位置 offset + (j * Ni + i) * stride に格納され、
+     * バッファのpositionは変更しない。
+     * @param dest 出力先(ヒープまたはダイレクトバッファ)
+     * @param offset 出力先の開始位置
+     * @param stride 格子点間の間隔(1以上)
+     */
+    public void decode(final DoubleBuffer dest, final int offset, final int stride) {
+        checkRange(dest.limit(), offset, stride);
+        final int[] packed = packedBuffer();
+        for (int from = 0; from < numValues_; from += packed.length) {
+            final int count = unpack(from, packed);
+            for (int k = 0; k < count; k++) {
+                dest.put(offset + gridIndex(from + k) * stride, valueOf(packed[k] & 0xffffffffL));
+            }
+        }
+    }
+
+    /**
+     * 全てのデータを指定されたバッファに復号する。
+     * 格子点(i, j)の値は絶対位置 offset + (j * Ni + i) * stride に格納され、
+     * バッファのpositionは変更しない。
+     * @param dest 出力先(ヒープまたはダイレクトバッファ)
+     * @param offset 出力先の開始位置
+     * @param stride 格子点間の間隔(1以上)
+     */
+    public void decode(final FloatBuffer dest, final int offset, final int stride) {
+        checkRange(dest.limit(), offset, stride);
+        final int[] packed = packedBuffer();
+        for (int from = 0; from < numValues_; from += packed.length) {
+            final int count = unpack(from, packed);
+            for (int k = 0; k < count; k++) {
+                dest.put(offset + gridIndex(from + k) * stride, (float)valueOf(packed[k] & 0xffffffffL));
+            }
+        }
+    }
+
+    /**
+     * 全てのデータを復号せずに統計量を求める。
+     * 圧縮値のまま一度だけ走査し、復号した値の配列は確保しない。
+     * ビットマップがある場合は値を持つ格子点だけを集計する。
+     * @return 統計量
+     */
+    public PackedStatistics statistics() {
+        final int total = presentCount();
+        long min = Long.MAX_VALUE, max = -1, sum = 0;
+        if (numBits_ == 0) {
+            min = max = 0;
+        }
+        else {
+            final int[] packed = packedBuffer();
+            for (int from = 0; from < total; from += packed.length) {
+                final int count = unpack(from, packed, total);
+                for (int k = 0; k < count; k++) {
+                    final long x = packed[k] & 0xffffffffL;
+                    if (x < min) min = x;
+                    if (x > max) max = x;
+                    sum += x; // 32bit * 2^31個でもlongの範囲に収まる
+                }
+            }
+        }
+        if (total == 0) {
+            return new PackedStatistics(0, -1, -1, Double.NaN, Double.NaN, Double.NaN);
+        }
+        return new PackedStatistics(total, min, max, valueOf(min), valueOf(max),
+                                    valueOf((double)sum / total));
+    }
+
+    /**
+     * 全てのデータを復号せずに度数分布を求める。
+     * 区間k (0 &lt;= k &lt; bins) には lower + (upper - lower) * k / bins &lt;= Y &lt; lower + (upper - lower) * (k + 1) / bins
+     * の値を数え、範囲外の値は数えない。
+     * 区間の境界は圧縮値に変換して比較するため、復号した値を比較した場合と結果は一致する。
+     * ビットマップがある場合は値を持つ格子点だけを数える。
+     * @param lower 最初の区間の下限
+     * @param upper 最後の区間の上限
+     * @param bins 区間の数(1以上)
+     * @return 区間ごとの値の数
+     */
+    public int[] histogram(final double lower, final double upper, final int bins) {
+        if (bins < 1 || !(lower < upper)) {
+            throw new IllegalArgumentException("invalid range: [" + lower + ", " + upper + "), bins=" + bins);
+        }
+        // bounds[k]: 区間kに入る最小の圧縮値
+        final long[] bounds = new long[bins + 1];
+        for (int k = 0; k <= bins; k++) {
+            bounds[k] = packedCeiling(lower + (upper - lower) * k / bins);
+        }
+        final int total = presentCount();
+        final int[] result = new int[bins];
+        if (numBits_ == 0) {
+            final int bin = binOf(bounds, 0);
+            if (bin >= 0) result[bin] = total;
+            return result;
+        }
+        final int[] packed = packedBuffer();
+        if (numBits_ <= Short.SIZE) {
+            // 12bit, 16bitでは圧縮値ごとの区間を表にする
+            final int[] table = new int[1 << numBits_];
+            for (int x = 0; x < table.length; x++) {
+                table[x] = binOf(bounds, x);
+            }
+            for (int from = 0; from < total; from += packed.length) {
+                final int count = unpack(from, packed, total);
+                for (int k = 0; k < count; k++) {
+                    final int bin = table[packed[k]];
+                    if (bin >= 0) result[bin]++;
                 }
             }
         }
         else {
-            readMatrix(result);
+            for (int from = 0; from < total; from += packed.length) {
+                final int count = unpack(from, packed, total);
+                for (int k = 0; k < count; k++) {
+                    final int bin = binOf(bounds, packed[k] & 0xffffffffL);
+                    if (bin >= 0) result[bin]++;
+                }
+            }
         }
         return result;
     }
 
-    private void readMatrix(final double[][] result) {
-        final boolean hasOpositDirection = !scanningMode_.areSameDirections();
-        if (scanningMode_.isIDirectionConsective()) {
-            for (int j = 0; j < nJ_; j++) {
-                for (int i = 0; i < nI_; i++) {
-                    result[j][i] = next();
+    /**
+     * 復号した値が lower &lt;= Y &lt;= upper となる格子点を復号せずに求める。
+     * 範囲を圧縮値に変換して比較するため、復号した値を比較した場合と結果は一致する。
+     * 上限または下限を設けない場合は無限大を指定する。
+     * ビットマップがある場合は値を持つ格子点だけが対象となる。
+     * @param lower 下限
+     * @param upper 上限
+     * @return 該当する格子点の位置 j * Ni + i の集合
+     */
+    public BitSet select(final double lower, final double upper) {
+        final BitSet result = new BitSet(numValues_);
+        final long low = packedCeiling(lower);
+        final long high = packedCeiling(Math.nextUp(upper)) - 1;
+        if (low > high || numValues_ == 0) {
+            return result;
+        }
+        if (bitmap_ != null) {
+            selectPresent(low, high, result);
+            return result;
+        }
+        if (low == 0 && high == (1L << numBits_) - 1) {
+            result.set(0, numValues_);
+            return result;
+        }
+        final int[] packed = packedBuffer();
+        for (int from = 0; from < numValues_; from += packed.length) {
+            final int count = unpack(from, packed);
+            for (int k = 0; k < count; k++) {
+                final long x = packed[k] & 0xffffffffL;
+                if (x >= low && x <= high) result.set(gridIndex(from + k));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * ビットマップで値があるとされた格子点を格納順にたどりながら圧縮値を展開し、
+     * low &lt;= X &lt;= high となる格子点をresultに加える。
+     */
+    private void selectPresent(final long low, final long high, final BitSet result) {
+        final int total = presentCount();
+        final boolean isFullRange = low == 0 && high == (1L << numBits_) - 1;
+        final int[] packed = isFullRange ? null : packedBuffer();
+        int w = 0;
+        long word = presentWord(w);
+        for (int from = 0; from < total; ) {
+            final int count = isFullRange ? total : unpack(from, packed, total);
+            for (int n = 0; n < count; n++) {
+                while (word == 0) {
+                    word = presentWord(++w);
                 }
-                if (hasOpositDirection && ++j < nJ_) {
-                    for (int i = nI_; --i > 0;) {
-                        result[j][i] = next();
-                    }
+                final int leading = Long.numberOfLeadingZeros(word);
+                word &= ~(Long.MIN_VALUE >>> leading);
+                if (isFullRange || (packed[n] & 0xffffffffL) >= low && (packed[n] & 0xffffffffL) <= high) {
+                    result.set(gridIndex(w * Long.SIZE + leading));
                 }
             }
+            from += count;
         }
-        else {
-            for (int i = 0; i < nI_; i++) {
-                for (int j = 0; j < nJ_; j++) {
-                    result[j][i] = next();
+    }
+
+    /**
+     * 復号した値が lower &lt;= Y &lt;= upper となる格子点を復号せずに求める。
+     * @param lower 下限
+     * @param upper 上限
+     * @return 該当する格子点の位置 j * Ni + i の昇順の配列
+     * @see #select(double, double)
+     */
+    public int[] indicesOf(final double lower, final double upper) {
+        final BitSet selected = select(lower, upper);
+        final int[] result = new int[selected.cardinality()];
+        for (int n = 0, k = selected.nextSetBit(0); k >= 0; k = selected.nextSetBit(k + 1)) {
+            result[n++] = k;
+        }
+        return result;
+    }
+
+    /**
+     * 復号した値が lower &lt;= Y &lt;= upper となる格子点の数を復号せずに求める。
+     * 範囲は{@link #select(double, double)}と同じく圧縮値に変換して比較し、度数分布や集合は作らない。
+     * ビットマップがある場合は値を持つ格子点だけを数える。
+     * @param lower 下限
+     * @param upper 上限
+     * @return 該当する格子点の数
+     */
+    public int countInRange(final double lower, final double upper) {
+        return countPacked(packedCeiling(lower), packedCeiling(Math.nextUp(upper)) - 1);
+    }
+
+    /**
+     * 復号した値が Y &gt; threshold となる格子点の数を復号せずに求める。
+     * @param threshold 閾値
+     * @return 該当する格子点の数
+     * @see #countInRange(double, double)
+     */
+    public int countAbove(final double threshold) {
+        return countPacked(packedCeiling(Math.nextUp(threshold)), (1L << numBits_) - 1);
+    }
+
+    /**
+     * 圧縮値が low &lt;= X &lt;= high となる値の数を求める。
+     */
+    private int countPacked(final long low, final long high) {
+        final int total = presentCount();
+        if (low > high || total == 0) {
+            return 0;
+        }
+        if (low == 0 && high == (1L << numBits_) - 1) {
+            return total;
+        }
+        int result = 0;
+        final int[] packed = packedBuffer();
+        for (int from = 0; from < total; from += packed.length) {
+            final int count = unpack(from, packed, total);
+            for (int k = 0; k < count; k++) {
+                final long x = packed[k] & 0xffffffffL;
+                if (x >= low && x <= high) result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 圧縮値が属する区間を求める。
+     * @return 区間の位置。範囲外の場合は-1
+     */
+    private static int binOf(final long[] bounds, final long x) {
+        if (x < bounds[0] || x >= bounds[bounds.length - 1]) return -1;
+        int low = 0, high = bounds.length - 1;
+        while (high - low > 1) {
+            final int mid = (low + high) >>> 1;
+            if (x >= bounds[mid]) low = mid;
+            else high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * 復号した値がy以上となる最小の圧縮値を求める。
+     * @param y Y
+     * @return 0〜2^numBits。全ての圧縮値でyを下回る場合は2^numBits
+     */
+    long packedCeiling(final double y) {
+        final long limit = 1L << numBits_;
+        if (Double.isNaN(y)) return limit;
+        final double estimate = Math.ceil((y * decimalScale_ - r_) / binaryScale_);
+        long x = estimate <= 0 ? 0 : estimate >= limit ? limit : (long)estimate;
+        // 丸め誤差を復号と同じ計算で補正する
+        while (x > 0 && valueOf(x - 1) >= y) x--;
+        while (x < limit && valueOf(x) < y) x++;
+        return x;
+    }
+
+    /**
+     * 分割して到着するデータを指定された配列に逐次復号する。
+     * 格子点(i, j)の値は dest[offset + (j * Ni + i) * stride] に格納される。
+     * @param dest 出力先
+     * @param offset 出力先の開始位置
+     * @param stride 格子点間の間隔(1以上)
+     * @return デコーダ
+     */
+    public ChunkDecorder chunkDecorder(final double[] dest, final int offset, final int stride) {
+        checkRange(dest.length, offset, stride);
+        return new ChunkDecorder(dest, null, offset, stride);
+    }
+
+    /**
+     * 分割して到着するデータを指定された配列に逐次復号する。
+     * 格子点(i, j)の値は dest[offset + (j * Ni + i) * stride] に格納される。
+     * @param dest 出力先
+     * @param offset 出力先の開始位置
+     * @param stride 格子点間の間隔(1以上)
+     * @return デコーダ
+     */
+    public ChunkDecorder chunkDecorder(final float[] dest, final int offset, final int stride) {
+        checkRange(dest.length, offset, stride);
+        return new ChunkDecorder(null, dest, offset, stride);
+    }
+
+    /**
+     * 分割して到着するデータを逐次復号する。
+     * <p>
+     * 値はバイト境界で区切られるグループ(12bitでは2値3バイト)単位で復号し、
+     * chunkの境界をまたぐグループのみを内部に保持する。
+     * そのため保持するデータ量はデータ全体の大きさによらない。
+     * </p>
+     */
+    public class ChunkDecorder {
+        private final double[] doubles_;
+        private final float[] floats_;
+        private final int offset_, stride_;
+        private final int groupValues_, groupBytes_;
+        private final byte[] carry_;
+        private int carryLength_;
+        private int nextIndex_;
+
+        ChunkDecorder(final double[] doubles, final float[] floats, final int offset, final int stride) {
+            this.doubles_ = doubles;
+            this.floats_ = floats;
+            this.offset_ = offset;
+            this.stride_ = stride;
+            final int gcd = numBits_ == 0 ? Byte.SIZE : gcd(numBits_, Byte.SIZE);
+            this.groupValues_ = Byte.SIZE / gcd;
+            this.groupBytes_ = numBits_ / gcd;
+            this.carry_ = new byte[Math.max(1, groupBytes_)];
+            if (numBits_ == 0) {
+                while (nextIndex_ < numValues_) put(0);
+            }
+        }
+
+        /**
+         * 続くデータを復号する。
+         * @param chunk データ。positionからlimitまでを用いる。バッファの状態は変更しない。
+         */
+        public void write(final ByteBuffer chunk) {
+            if (groupBytes_ == 0) {
+                // numBits == 0 では生成時に全ての値を復号済み
+                return;
+            }
+            final ByteBuffer in = chunk.duplicate();
+            if (carryLength_ > 0) {
+                final int length = Math.min(groupBytes_ - carryLength_, in.remaining());
+                in.get(carry_, carryLength_, length);
+                carryLength_ += length;
+                if (carryLength_ == groupBytes_) {
+                    decode(ByteBuffer.wrap(carry_), groupValues_);
+                    carryLength_ = 0;
                 }
-                if (hasOpositDirection && ++i < nI_) {
-                    for (int j = nJ_; --j > 0;) {
-                        result[j][i] = next();
-                    }
+            }
+            if (carryLength_ == 0 && in.remaining() >= groupBytes_) {
+                final int groups = in.remaining() / groupBytes_;
+                decode(in.slice(), groups * groupValues_);
+                in.position(in.position() + groups * groupBytes_);
+            }
+            if (carryLength_ == 0 && in.hasRemaining() && !isComplete()) {
+                carryLength_ = Math.min(in.remaining(), groupBytes_ - 1);
+                in.get(carry_, 0, carryLength_);
+            }
+            // 末尾の端数(グループに満たない値)
+            if (carryLength_ > 0
+                    && (long)carryLength_ * Byte.SIZE >= (long)(numValues_ - nextIndex_) * numBits_) {
+                decode(ByteBuffer.wrap(carry_, 0, carryLength_), numValues_ - nextIndex_);
+                carryLength_ = 0;
+            }
+        }
+
+        /**
+         * 全ての値を復号したか。
+         */
+        public boolean isComplete() {
+            return nextIndex_ >= numValues_;
+        }
+
+        /**
+         * @param in 位置はグループの先頭
+         * @param count 値の数
+         */
+        private void decode(final ByteBuffer in, final int count) {
+            final int[] packed = packedBuffer();
+            final int total = Math.min(count, numValues_ - nextIndex_);
+            for (int from = 0; from < total; from += packed.length) {
+                final int n = Math.min(packed.length, total - from);
+                BitUnpacker.unpack(in, numBits_, from, packed, 0, n);
+                for (int k = 0; k < n; k++) {
+                    put(packed[k] & 0xffffffffL);
                 }
             }
         }
+
+        private void put(final long x) {
+            final int index = offset_ + gridIndex(nextIndex_++) * stride_;
+            if (doubles_ != null) {
+                doubles_[index] = valueOf(x);
+            }
+            else {
+                floats_[index] = (float)valueOf(x);
+            }
+        }
+    }
+
+    private static int gcd(final int a, final int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    private void checkRange(final int length, final int offset, final int stride) {
+        if (stride < 1) {
+            throw new IllegalArgumentException("invalid stride: " + stride);
+        }
+        if (offset < 0 || numValues_ > 0 && offset + (long)(numValues_ - 1) * stride >= length) {
+            throw new IndexOutOfBoundsException("destination is too short: length=" + length
+                                                + ", offset=" + offset + ", stride=" + stride
+                                                + ", values=" + numValues_);
+        }
+    }
+
+    private int[] packedBuffer() {
+        if (packed_ == null) {
+            packed_ = new int[Math.max(1, Math.min(CHUNK_SIZE, numValues_))];
+        }
+        return packed_;
+    }
+
+    /**
+     * from番目から最大でバッファ長の値を展開する。
+     * @return 展開した値の数
+     */
+    private int unpack(final int from, final int[] packed) {
+        return unpack(from, packed, numValues_);
+    }
+
+    /**
+     * from番目から最大でバッファ長の値を展開する。
+     * @param total 圧縮値の数
+     * @return 展開した値の数
+     */
+    private int unpack(final int from, final int[] packed, final int total) {
+        final int count = Math.min(packed.length, total - from);
+        BitUnpacker.unpack(data_, numBits_, from, packed, 0, count);
+        return count;
+    }
+
+    /**
+     * j * Ni + i の位置をデータの格納順の位置に変換する。
+     * {@link #gridIndex(int)}の逆変換。
+     * @param index j * Ni + i
+     * @return データの格納順の位置
+     */
+    private int storageIndex(final int index) {
+        if (isSequential_) return index;
+        final boolean hasOpositDirection = !scanningMode_.areSameDirections();
+        final int j = index / nI_;
+        final int i = index - j * nI_;
+        if (scanningMode_.isIDirectionConsective()) {
+            return j * nI_ + (hasOpositDirection && (j & 1) != 0 ? nI_ - 1 - i : i);
+        }
+        else {
+            return i * nJ_ + (hasOpositDirection && (i & 1) != 0 ? nJ_ - 1 - j : j);
+        }
+    }
+
+    /**
+     * データの格納順の位置を j * Ni + i の位置に変換する。
+     * @param k データの格納順の位置
+     * @return j * Ni + i
+     */
+    private int gridIndex(final int k) {
+        if (isSequential_) return k;
+        final boolean hasOpositDirection = !scanningMode_.areSameDirections();
+        if (scanningMode_.isIDirectionConsective()) {
+            final int j = k / nI_;
+            int i = k - j * nI_;
+            if (hasOpositDirection && (j & 1) != 0) i = nI_ - 1 - i;
+            return j * nI_ + i;
+        }
+        else {
+            final int i = k / nJ_;
+            int j = k - i * nJ_;
+            if (hasOpositDirection && (i & 1) != 0) j = nJ_ - 1 - j;
+            return j * nI_ + i;
+        }
     }
 
 }
@@ -36,7 +36,7 @@ public class DataSectionDump extends AbstractMessageListener {
     public void dataSection(final DataSection section, final MessageHolder messages) {
         final DataRepresentationTemplate template = messages.latestDataRepresentationSection().template();
         final SimplePackingDecorder decorder = new SimplePackingDecorder(messages.latestGridDefinitionSection().template(),
-                                                                         template, section.data());
+                                                                         template, section.dataBuffer());
         double[][] data = decorder.matrix(); {
             System.out.print("{");
             for (int j = 0; j < data.length; j++) {
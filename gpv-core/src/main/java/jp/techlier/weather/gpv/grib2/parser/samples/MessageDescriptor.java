@@ -16,25 +16,42 @@
  */
 package jp.techlier.weather.gpv.grib2.parser.samples;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 import jp.techlier.weather.gpv.grib2.Grib2.IdentificationSection;
 import jp.techlier.weather.gpv.grib2.Grib2.ProductDefinitionSection;
+import jp.techlier.weather.gpv.grib2.Grib2.SectionNumber;
 import jp.techlier.weather.gpv.grib2.parser.AbstractMessageListener;
 import jp.techlier.weather.gpv.grib2.parser.MessageHolder;
+import jp.techlier.weather.gpv.grib2.parser.SelectiveMessageListener;
 import jp.techlier.weather.gpv.grib2.util.ProductDefinitionUtils;
 
 
 /**
- *
+ * wgrib2形式の一覧を出力する。
+ * Identification SectionとProduct Definition Sectionだけを用いるため、
+ * {@link jp.techlier.weather.gpv.grib2.parser.MessageParser#enableInventoryMode(boolean)}と併用できる。
  *
  * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
  * @since 2011/08/19
  * @version $Id$
  */
-public class MessageDescriptor extends AbstractMessageListener {
+public class MessageDescriptor extends AbstractMessageListener implements SelectiveMessageListener {
+
+    private static final Set<SectionNumber> CONSUMED_SECTIONS =
+            Collections.unmodifiableSet(EnumSet.of(SectionNumber.IDENTIFICATION_SECTION,
+                                                   SectionNumber.PRODUCT_DEFITION_SECTION));
 
     protected long datetime_;
     protected int part_;
 
+    @Override
+    public Set<SectionNumber> consumedSections() {
+        return CONSUMED_SECTIONS;
+    }
+
     @Override
     public void identificationSection(final IdentificationSection section, final MessageHolder messages) {
         datetime_ = section.year() * 10000 + section.month() * 100 + section.mday();
@@ -49,7 +66,15 @@ public class MessageDescriptor extends AbstractMessageListener {
         out.append(++part_).append(':')
            .append("d=").append(datetime_).append(':');
         ProductDefinitionUtils.appendDetailsTo(section.template(), out);
-        System.out.println(out);
+        print(out);
+    }
+
+    /**
+     * 1行を出力する。
+     * @param line
+     */
+    protected void print(final CharSequence line) {
+        System.out.println(line);
     }
 
 
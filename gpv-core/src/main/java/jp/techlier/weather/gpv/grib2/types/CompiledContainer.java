@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv.grib2.types;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * 生成されたコンテナが自身のcontentを直接読み込むための操作。
+ * <p>
+ * 各contentはセクション先頭からの固定位置を絶対位置指定で読み込むため、
+ * バッファのpositionは変更しない。
+ * </p>
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+public interface CompiledContainer extends Container {
+
+    /**
+     * contentを読み込む。
+     * @param reader 文脈に依存する値の解決
+     * @param in 入力
+     * @param base セクションの第1オクテットの位置
+     * @return 読み込んだ最後のオクテット番号
+     */
+    int read(ContentReader reader, ByteBuffer in, int base);
+
+    /**
+     * 読み込んだ値を{@link Content#value()}と照合する。
+     * @param validator 不正な値の通知先
+     * @return すべて期待値どおりならtrue
+     */
+    boolean validate(ContentValidator validator);
+
+}
@@ -20,6 +20,7 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.nio.ByteBuffer;
 
 
 
@@ -33,9 +34,19 @@ public interface Container {
         int[] length() default {};
     }
 
+    /**
+     * 指定されたcontentの値をByteBufferとして参照するアクセサを示す。
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.METHOD)
+    public @interface BufferView {
+        String value();
+    }
+
     Class<? extends Container> type();
 
     Object get(ContentInfo content);
     void set(ContentInfo content, Object value);
+    ByteBuffer getBuffer(ContentInfo content);
 
 }
@@ -21,21 +21,26 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 
 /**
- *
+ * コンテナの各contentの定義。
+ * <p>
+ * 定義はコンテナの型ごとに最初の参照時に一度だけ生成され、以後は変更されない。
+ * 生成された定義は全てのスレッドで共有される。
+ * </p>
  *
  * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
  * @since 2012/03/10
  * @version $Id$
  */
-public class ContentInfo {
+public final class ContentInfo {
 
     public static Collection<ContentInfo> getOrderedContents(Class<? extends Container> containerType) {
         assert Container.class.isAssignableFrom(containerType);
@@ -43,22 +48,33 @@ public class ContentInfo {
     }
 
 
-    private static Map<Class<? extends Container>,Map<String,ContentInfo>> globalDefinitions_ = new HashMap();
+    private static final ConcurrentMap<Class<? extends Container>,Map<String,ContentInfo>> globalDefinitions_ =
+            new ConcurrentHashMap<Class<? extends Container>,Map<String,ContentInfo>>();
 
+    /**
+     * @param containerType
+     * @return 名前からcontentの定義を引く変更不可のMap。offset順に列挙される。
+     */
     public static Map<String,ContentInfo> getContentDefinitions(Class<? extends Container> containerType) {
         assert Container.class.isAssignableFrom(containerType);
         Map<String,ContentInfo> contents = globalDefinitions_.get(containerType);
         if (contents == null) {
-            contents = new LinkedHashMap(); {
-                for (final Method m: getContentAccessor(containerType)) {
-                    contents.put(m.getName(), new ContentInfo(m));
-                }
-            }
-            globalDefinitions_.put(containerType, contents);
+            final Map<String,ContentInfo> created = createContentDefinitions(containerType);
+            contents = globalDefinitions_.putIfAbsent(containerType, created);
+            if (contents == null) contents = created;
         }
         return contents;
     }
 
+    private static Map<String,ContentInfo> createContentDefinitions(Class<? extends Container> containerType) {
+        final Map<String,ContentInfo> contents = new LinkedHashMap<String,ContentInfo>();
+        int index = 0;
+        for (final Method m: getContentAccessor(containerType)) {
+            contents.put(m.getName(), new ContentInfo(containerType, index++, m));
+        }
+        return Collections.unmodifiableMap(contents);
+    }
+
     private static Collection<Method> getContentAccessor(Class<? extends Container> containerType) {
         assert Container.class.isAssignableFrom(containerType);
         if (!Container.class.isAssignableFrom(containerType)) {
@@ -83,14 +99,39 @@ public class ContentInfo {
     }
 
 
+    private final Class<? extends Container> containerType_;
+    private final int index_;
     private final String name_;
+    private final String abbrev_;
     private final Class type_;
-    private final Content anno_;
-
-    ContentInfo(final Method accessor) {
+    private final int offset_;
+    private final int length_;
+    private final int[] expectedValues_;
+
+    ContentInfo(final Class<? extends Container> containerType, final int index, final Method accessor) {
+        final Content anno = accessor.getAnnotation(Content.class);
+        this.containerType_ = containerType;
+        this.index_ = index;
         this.name_ = accessor.getName();
-        this.anno_ = accessor.getAnnotation(Content.class);
-        this.type_ = anno_.type() != Object.class ? anno_.type() : accessor.getReturnType();
+        this.abbrev_ = anno.abbrev().length() > 0 ? anno.abbrev() : name_;
+        this.type_ = anno.type() != Object.class ? anno.type() : accessor.getReturnType();
+        this.offset_ = anno.offset();
+        this.length_ = anno.length();
+        this.expectedValues_ = anno.value();
+    }
+
+    /**
+     * @return このcontentを定義したコンテナの型
+     */
+    public Class<? extends Container> containerType() {
+        return containerType_;
+    }
+
+    /**
+     * @return コンテナ内でのoffset順の位置
+     */
+    public int index() {
+        return index_;
     }
 
     public String name() {
@@ -98,7 +139,7 @@ public class ContentInfo {
     }
 
     public String abbrev() {
-        return anno_.abbrev().length() > 0 ? anno_.abbrev() : name_;
+        return abbrev_;
     }
 
     public Class<?> type() {
@@ -106,22 +147,37 @@ public class ContentInfo {
     }
 
     public int offset() {
-        return anno_.offset();
+        return offset_;
     }
 
     public int length() {
-        return anno_.length();
+        return length_;
     }
 
+    /**
+     * @return 期待値の複製。期待値がなければ空の配列
+     */
     public int[] expectedValues() {
-        return anno_.value();
+        return expectedValues_.clone();
+    }
+
+    /**
+     * @param actualValue
+     * @return 期待値が定義されていないか、いずれかの期待値に一致すればtrue
+     */
+    public boolean isExpectedValue(final int actualValue) {
+        if (expectedValues_.length == 0) return true;
+        for (final int expected: expectedValues_) {
+            if (expected == actualValue) return true;
+        }
+        return false;
     }
 
     public String toString() {
         return type_.getSimpleName() + ' ' + name_
-             + "{offset=" + anno_.offset()
-             + ",length=" + anno_.length()
-             + ",value=" + Arrays.toString(anno_.value())
+             + "{offset=" + offset_
+             + ",length=" + length_
+             + ",value=" + Arrays.toString(expectedValues_)
              + '}';
     }
 
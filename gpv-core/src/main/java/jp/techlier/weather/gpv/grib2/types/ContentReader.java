@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv.grib2.types;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * {@link CompiledContainer}から呼び出され、文脈に依存する値を解決する。
+ * <p>
+ * 数値の読み込みは生成されたコードが直接行い、
+ * ここではenum値・テンプレート・データ部分のように解析の状態に依存するものだけを扱う。
+ * </p>
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+public abstract class ContentReader {
+
+    /**
+     * 符号bit形式で格納されたbyte値を2の補数形式に変換する。
+     * 0xff(全てのbitが1）は未定義数を表現する目的で用いられているため変換しない。
+     */
+    public static final byte signedByte(final byte value) {
+        return (value & Byte.MIN_VALUE) == 0  || value == -1 ? value : (byte)((value ^ Byte.MAX_VALUE) + 1);
+    }
+
+    /**
+     * 符号bit形式で格納されたshort値を2の補数形式に変換する。
+     * 0xffff(全てのbitが1）は未定義数を表現する目的で用いられているため変換しない。
+     */
+    public static final short signedShort(final short value) {
+        return (value & Short.MIN_VALUE) == 0  || value == -1 ? value : (short)((value ^ Short.MAX_VALUE) + 1);
+    }
+
+    /**
+     * 符号bit形式で格納されたint値を2の補数形式に変換する。
+     * 0xffffffff(全てのbitが1）は未定義数を表現する目的で用いられているため変換しない。
+     */
+    public static final int signedInt(final int value) {
+        return (value & Integer.MIN_VALUE) == 0  || value == -1 ? value : ((value ^ Integer.MAX_VALUE) + 1);
+    }
+
+    /**
+     * 符号bit形式で格納されたlong値を2の補数形式に変換する。
+     * 0xffffffffffffffffL(全てのbitが1）は未定義数を表現する目的で用いられているため変換しない。
+     */
+    public static final long signedLong(final long value) {
+        return (value & Long.MIN_VALUE) == 0  || value == -1L ? value : ((value ^ Long.MAX_VALUE) + 1);
+    }
+
+    /**
+     * @param in 入力
+     * @param index 先頭の絶対位置
+     * @param length バイト数
+     * @return 文字列
+     */
+    public static final String getString(final ByteBuffer in, final int index, final int length) {
+        final byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = in.get(index + i);
+        }
+        return new String(bytes);
+    }
+
+
+    /**
+     * EnumValueインターフェースを持つenum値を取得する。
+     * @param container 読み込み中のコンテナ
+     * @param content
+     * @param type
+     * @param value
+     * @return 該当する値がない場合は{@link EnumValues#unknownValue(Class, int)}
+     */
+    public abstract <E extends Enum<E> & EnumValue<E>> EnumValue<E> enumValue(Container container,
+                                                                              ContentInfo content,
+                                                                              Class<E> type, int value);
+
+    /**
+     * テンプレート番号に対応するテンプレートを生成する。
+     * @return 生成できない場合はnull
+     */
+    public abstract <T extends Template> T newTemplate(Container container,
+                                                       ContentInfo content,
+                                                       EnumValue<? extends TemplateNumber<T>> templateNumber);
+
+    /**
+     * テンプレートの内容を読み込む。
+     * @param base セクションの第1オクテットの位置
+     * @return 読み込んだ最後のオクテット番号
+     */
+    public abstract int readTemplate(Template template, ContentInfo content, ByteBuffer in, int base);
+
+    /**
+     * セクションのデータ部分を取得する。
+     * @param index データ部分の絶対位置
+     * @param length データ部分の長さ
+     * @return byte[]またはByteBuffer
+     */
+    public abstract Object payload(Section section, ContentInfo content, ByteBuffer in, int index, int length);
+
+}
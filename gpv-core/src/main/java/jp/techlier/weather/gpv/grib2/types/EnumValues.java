@@ -16,7 +16,9 @@
  */
 package jp.techlier.weather.gpv.grib2.types;
 
-import java.util.EnumSet;
+import java.lang.reflect.Array;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 
 
@@ -37,10 +39,101 @@ public abstract class EnumValues {
      */
     public static <E extends Enum<E> & HasIntValue> E valueOf(final Class<E> enumType, final int intValue)
             throws EnumConstantNotPresentException {
-        for (final E e: EnumSet.allOf(enumType)) {
-            if (e.intValue() == intValue) return e;
+        final E e = find(enumType, intValue);
+        if (e == null) {
+            throw new EnumConstantNotPresentException(enumType, "HasIntValue("+intValue+")");
+        }
+        return e;
+    }
+
+    /**
+     * @param enumType
+     * @param intValue
+     * @return enum value. 該当するEnum値が存在しない場合はnull
+     */
+    public static <E extends Enum<E> & HasIntValue> E find(final Class<E> enumType, final int intValue) {
+        return lookupTable(enumType).get(intValue);
+    }
+
+
+    private static final ConcurrentMap<Class<?>,LookupTable<?>> lookupTables_ =
+            new ConcurrentHashMap<Class<?>,LookupTable<?>>();
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Enum<E> & HasIntValue> LookupTable<E> lookupTable(final Class<E> enumType) {
+        LookupTable<E> table = (LookupTable<E>)lookupTables_.get(enumType);
+        if (table == null) {
+            table = new LookupTable<E>(enumType);
+            final LookupTable<E> existing = (LookupTable<E>)lookupTables_.putIfAbsent(enumType, table);
+            if (existing != null) table = existing;
+        }
+        return table;
+    }
+
+    /**
+     * intValue()をキーとする不変の表。
+     * 値の範囲が狭ければ配列で、広ければオープンアドレス法のハッシュ表で引く。
+     */
+    private static final class LookupTable<E extends Enum<E> & HasIntValue> {
+        private static final int MAX_DENSE_RANGE = 1024;
+
+        private final int min_;
+        private final int mask_;
+        private final E[] values_;
+        /** ハッシュ表のキー。denseな表ではnull */
+        private final int[] keys_;
+
+        @SuppressWarnings("unchecked")
+        LookupTable(final Class<E> enumType) {
+            final E[] constants = enumType.getEnumConstants();
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (final E e: constants) {
+                min = Math.min(min, e.intValue());
+                max = Math.max(max, e.intValue());
+            }
+            if (constants.length == 0 || (long)max - min < MAX_DENSE_RANGE) {
+                min_ = min;
+                mask_ = 0;
+                values_ = (E[])Array.newInstance(enumType, constants.length == 0 ? 0 : max - min + 1);
+                keys_ = null;
+                for (final E e: constants) {
+                    // 同じ値を持つ定数は先に宣言されたものを優先する。
+                    if (values_[e.intValue() - min] == null) values_[e.intValue() - min] = e;
+                }
+            }
+            else {
+                final int capacity = Integer.highestOneBit(constants.length * 2 - 1) << 1;
+                min_ = 0;
+                mask_ = capacity - 1;
+                values_ = (E[])Array.newInstance(enumType, capacity);
+                keys_ = new int[capacity];
+                for (final E e: constants) {
+                    int i = hash(e.intValue()) & mask_;
+                    while (values_[i] != null && keys_[i] != e.intValue()) i = i + 1 & mask_;
+                    if (values_[i] == null) {
+                        values_[i] = e;
+                        keys_[i] = e.intValue();
+                    }
+                }
+            }
+        }
+
+        E get(final int intValue) {
+            if (keys_ == null) {
+                final int i = intValue - min_;
+                return i >= 0 && i < values_.length ? values_[i] : null;
+            }
+            for (int i = hash(intValue) & mask_; values_[i] != null; i = i + 1 & mask_) {
+                if (keys_[i] == intValue) return values_[i];
+            }
+            return null;
+        }
+
+        private static int hash(final int value) {
+            final int h = value * 0x9e3779b9;
+            return h ^ h >>> 16;
         }
-        throw new EnumConstantNotPresentException(enumType, "HasIntValue("+intValue+")");
     }
 
     /**
@@ -20,9 +20,15 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 
+import jp.techlier.weather.gpv.grib2.types.Container.BufferView;
+
 
 /**
- *
+ * セクション・テンプレートを生成する。
+ * <p>
+ * {@link Grib2Containers}に生成済みの実装クラスがある型はそれを用い、
+ * それ以外の型は{@link Proxy}で実装する。
+ * </p>
  *
  * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
  * @since 2012/03/10
@@ -35,12 +41,20 @@ public class Grib2ContainerFactory {
     }
 
     public <T extends Section> T newSection(Class<T> sectionType, final int sectionLength) {
+        final T section = Grib2Containers.newSection(sectionType, sectionLength);
+        if (section != null) {
+            return section;
+        }
         return (T)Proxy.newProxyInstance(sectionType.getClassLoader(),
                                          new Class[] { sectionType },
                                          new SectionInvocationHandler<T>(sectionType, sectionLength));
     }
 
     public <T extends Template> T newTemplate(Class<T> templateType) {
+        final T template = Grib2Containers.newTemplate(templateType);
+        if (template != null) {
+            return template;
+        }
         return (T)Proxy.newProxyInstance(templateType.getClassLoader(),
                                          new Class[] { templateType },
                                          new TemplateInvocationHandler<T>(templateType));
@@ -63,6 +77,11 @@ public class Grib2ContainerFactory {
                 assert content != null : method;
                 return container_.get(content);
             }
+            else if (method.isAnnotationPresent(BufferView.class)) {
+                final ContentInfo content = container_.getContentInfo(method.getAnnotation(BufferView.class).value());
+                assert content != null : method;
+                return container_.getBuffer(content);
+            }
             else {
                 return method.invoke(container_, args);
             }
@@ -75,25 +94,15 @@ public class Grib2ContainerFactory {
         }
     }
 
-    private static class SectionImpl<T extends Section> extends Grib2ContainerImpl<T> implements Section {
-        /* @Content(offset=1, length=4) */ int length_;
-        /* @Content(offset=5, length=1) */ int number_;
+    private static class SectionImpl<T extends Section> extends Grib2SectionImpl<T> {
+        private final Object[] values_ = new Object[contentDefinition_.size()];
 
         SectionImpl(final Class<T> sectionType, final int sectionLength) {
-            super(sectionType);
-            this.number_ = sectionType.getAnnotation(Assertion.class).section();
-            this.length_ = sectionLength;
+            super(sectionType, sectionLength);
         }
 
-        @Override public int length() { return length_; }
-        @Override public int number() { return number_; }
-
-        @Override
-        protected StringBuilder appendTo(final StringBuilder out) {
-            out.append("section:").append(number_).append(',')
-            .append("length:").append(length_).append(',');
-            return super.appendTo(out);
-        }
+        @Override protected Object value(final int index) { return values_[index]; }
+        @Override protected void value(final int index, final Object value) { values_[index] = value; }
     }
 
 
@@ -103,16 +112,15 @@ public class Grib2ContainerFactory {
         }
     }
 
-    private static class TemplateImpl<T extends Template> extends Grib2ContainerImpl<T> implements Template {
+    private static class TemplateImpl<T extends Template> extends Grib2TemplateImpl<T> {
+        private final Object[] values_ = new Object[contentDefinition_.size()];
+
         TemplateImpl(Class<T> templateType) {
             super(templateType);
         }
 
-        @Override
-        protected StringBuilder appendTo(final StringBuilder out) {
-            out.append('{');
-            return super.appendTo(out).append('}');
-        }
+        @Override protected Object value(final int index) { return values_[index]; }
+        @Override protected void value(final int index, final Object value) { values_[index] = value; }
     }
 
 }
@@ -17,21 +17,52 @@
 package jp.techlier.weather.gpv.grib2.types;
 
 import java.lang.reflect.Array;
-import java.util.HashMap;
+import java.nio.ByteBuffer;
 import java.util.Map;
 
 
+/**
+ * コンテナ実装の基底クラス。
+ * 値の格納方法はサブクラスが{@link ContentInfo#index()}をキーとして実装する。
+ */
 abstract class Grib2ContainerImpl<T extends Container> implements Container {
 
     final Class<T> containerType_;
     final Map<String,ContentInfo> contentDefinition_;
-    final Map<String,Object> contentValues_ = new HashMap();
 
     public Grib2ContainerImpl(Class<T> containerType) {
         containerType_ = containerType;
         contentDefinition_ = ContentInfo.getContentDefinitions(containerType);
     }
 
+    /**
+     * @return {@link ContentInfo#index()}順のcontent定義
+     */
+    static ContentInfo[] contentsOf(final Class<? extends Container> containerType) {
+        return ContentInfo.getOrderedContents(containerType).toArray(new ContentInfo[0]);
+    }
+
+    /**
+     * 不正な値を通知する。
+     * @return false
+     */
+    static boolean invalid(final ContentValidator validator, final ContentInfo content, final int actualValue) {
+        validator.invalidValue(content, actualValue);
+        return false;
+    }
+
+    /**
+     * @param index {@link ContentInfo#index()}
+     * @return 格納されている値
+     */
+    protected abstract Object value(int index);
+
+    /**
+     * @param index {@link ContentInfo#index()}
+     * @param value 格納する値
+     */
+    protected abstract void value(int index, Object value);
+
     public Class<T> type() {
         return containerType_;
     }
@@ -41,19 +72,68 @@ abstract class Grib2ContainerImpl<T extends Container> implements Container {
     }
 
     public Object get(ContentInfo content) {
-        checkContentIsExists(content);
-        return contentValues_.get(content.name());
+        final int index = indexOf(content);
+        if (content.type() == byte[].class) {
+            return getBytes(index);
+        }
+        return value(index);
+    }
+
+    /**
+     * byte[]型のcontentの値を返す。
+     * 参照のみ保持している場合は、要求された時点で複製する。
+     */
+    protected final byte[] getBytes(final int index) {
+        final Object value = value(index);
+        if (value instanceof ByteBuffer) {
+            final ByteBuffer buffer = ((ByteBuffer)value).duplicate();
+            final byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            value(index, bytes);
+            return bytes;
+        }
+        return (byte[])value;
+    }
+
+    public ByteBuffer getBuffer(ContentInfo content) {
+        final int index = indexOf(content);
+        try {
+            return getBuffer(index);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("content is not a byte sequence: "+content.name());
+        }
+    }
+
+    protected final ByteBuffer getBuffer(final int index) {
+        final Object value = value(index);
+        if (value instanceof ByteBuffer) {
+            return ((ByteBuffer)value).duplicate();
+        }
+        else if (value instanceof byte[]) {
+            return ByteBuffer.wrap((byte[])value).asReadOnlyBuffer();
+        }
+        else if (value == null) {
+            return null;
+        }
+        throw new IllegalArgumentException("content is not a byte sequence: #"+index);
     }
 
     public void set(ContentInfo content, Object value) {
-        checkContentIsExists(content);
-        contentValues_.put(content.name(), value);
+        value(indexOf(content), value);
     }
 
-    private void checkContentIsExists(final ContentInfo content) {
-        if (!contentDefinition_.containsKey(content.name())) {
+    /**
+     * 他の型(上位のインタフェースなど)で定義されたcontentは名前で対応付ける。
+     */
+    private int indexOf(final ContentInfo content) {
+        if (content.containerType() == containerType_) {
+            return content.index();
+        }
+        final ContentInfo own = contentDefinition_.get(content.name());
+        if (own == null) {
             throw new IllegalArgumentException("No such content was defined: "+content.name());
         }
+        return own.index();
     }
 
     @Override
@@ -64,8 +144,11 @@ abstract class Grib2ContainerImpl<T extends Container> implements Container {
     protected StringBuilder appendTo(final StringBuilder out) {
         for (final ContentInfo content: contentDefinition_.values()) {
             out.append(content.abbrev()).append(':');
-            Object value = get(content);
-            if (content.type().isArray()) {
+            Object value = value(content.index());
+            if (value instanceof ByteBuffer) {
+                out.append("byte[").append(((ByteBuffer)value).remaining()).append(']');
+            }
+            else if (value != null && content.type().isArray()) {
                 out.append(value.getClass().getComponentType().getSimpleName())
                    .append('[').append(Array.getLength(value)).append(']');
             }
@@ -0,0 +1,1620 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv.grib2.types;
+
+import static jp.techlier.weather.gpv.grib2.types.ContentReader.*;
+
+import java.nio.ByteBuffer;
+
+import jp.techlier.weather.gpv.grib2.Grib2;
+
+
+/**
+ * Grib2で定義されたセクション・テンプレートの実装クラス。
+ * <p>
+ * このファイルは{@link jp.techlier.weather.gpv.tools.Grib2ContainerGenerator}で生成される。
+ * 直接編集しないこと。
+ * </p>
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+@SuppressWarnings("unchecked")
+final class Grib2Containers {
+
+    private Grib2Containers() {
+    }
+
+    static <T extends Section> T newSection(final Class<T> sectionType, final int sectionLength) {
+        if (sectionType == Grib2.IndicatorSection.class) {
+            return (T)new IndicatorSectionImpl(sectionLength);
+        }
+        if (sectionType == Grib2.IdentificationSection.class) {
+            return (T)new IdentificationSectionImpl(sectionLength);
+        }
+        if (sectionType == Grib2.GridDefinitionSection.class) {
+            return (T)new GridDefinitionSectionImpl(sectionLength);
+        }
+        if (sectionType == Grib2.ProductDefinitionSection.class) {
+            return (T)new ProductDefinitionSectionImpl(sectionLength);
+        }
+        if (sectionType == Grib2.DataRepresentationSection.class) {
+            return (T)new DataRepresentationSectionImpl(sectionLength);
+        }
+        if (sectionType == Grib2.BitmapSection.class) {
+            return (T)new BitmapSectionImpl(sectionLength);
+        }
+        if (sectionType == Grib2.DataSection.class) {
+            return (T)new DataSectionImpl(sectionLength);
+        }
+        if (sectionType == Grib2.EndSection.class) {
+            return (T)new EndSectionImpl(sectionLength);
+        }
+        return null;
+    }
+
+    static <T extends Template> T newTemplate(final Class<T> templateType) {
+        if (templateType == Grib2.GridDefinitionTemplate.class) {
+            return (T)new GridDefinitionTemplateImpl();
+        }
+        if (templateType == Grib2.ProductDefinitionTemplate.Forecast.class) {
+            return (T)new ProductDefinitionTemplateForecastImpl();
+        }
+        if (templateType == Grib2.ProductDefinitionTemplate.PointInTimeEnsembleForecast.class) {
+            return (T)new ProductDefinitionTemplatePointInTimeEnsembleForecastImpl();
+        }
+        if (templateType == Grib2.ProductDefinitionTemplate.Average.class) {
+            return (T)new ProductDefinitionTemplateAverageImpl();
+        }
+        if (templateType == Grib2.ProductDefinitionTemplate.TimeIntervalEnsembleForecast.class) {
+            return (T)new ProductDefinitionTemplateTimeIntervalEnsembleForecastImpl();
+        }
+        if (templateType == Grib2.ProductDefinitionTemplate.DerivedTimeIntervalEnsembleForecast.class) {
+            return (T)new ProductDefinitionTemplateDerivedTimeIntervalEnsembleForecastImpl();
+        }
+        if (templateType == Grib2.DataRepresentationTemplate.class) {
+            return (T)new DataRepresentationTemplateImpl();
+        }
+        return null;
+    }
+
+
+    static final class IndicatorSectionImpl extends Grib2SectionImpl<Grib2.IndicatorSection> implements Grib2.IndicatorSection, CompiledContainer {
+        private static final ContentInfo[] CONTENTS = contentsOf(Grib2.IndicatorSection.class);
+
+        String header_;
+        short __reserved_;
+        EnumValue<Grib2.MasterTableCode> discipline_;
+        byte editionNumber_;
+        long totalLength_;
+
+        IndicatorSectionImpl(final int sectionLength) {
+            super(Grib2.IndicatorSection.class, sectionLength);
+        }
+
+        @Override public String header() { return header_; }
+        @Override public short __reserved() { return __reserved_; }
+        @Override public EnumValue<Grib2.MasterTableCode> discipline() { return discipline_; }
+        @Override public byte editionNumber() { return editionNumber_; }
+        @Override public long totalLength() { return totalLength_; }
+
+        @Override
+        public int read(final ContentReader reader, final ByteBuffer in, final int base) {
+            final int o = base - 1;
+            header_ = getString(in, o + 1, 4);
+            __reserved_ = signedShort(in.getShort(o + 5));
+            discipline_ = reader.enumValue(this, CONTENTS[2], Grib2.MasterTableCode.class, in.get(o + 7));
+            editionNumber_ = signedByte(in.get(o + 8));
+            totalLength_ = signedLong(in.getLong(o + 9));
+            return 16;
+        }
+
+        @Override
+        public boolean validate(final ContentValidator validator) {
+            boolean valid = true;
+            if (__reserved_ != -1) valid = invalid(validator, CONTENTS[1], __reserved_);
+            if (discipline_ != null && discipline_.intValue() != 0 && discipline_.intValue() != 10) valid = invalid(validator, CONTENTS[2], discipline_.intValue());
+            if (editionNumber_ != 2) valid = invalid(validator, CONTENTS[3], editionNumber_);
+            return valid;
+        }
+
+        @Override
+        protected Object value(final int index) {
+            switch (index) {
+              case 0: return header_;
+              case 1: return __reserved_;
+              case 2: return discipline_;
+              case 3: return editionNumber_;
+              case 4: return totalLength_;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+
+        @Override
+        protected void value(final int index, final Object value) {
+            switch (index) {
+              case 0: header_ = (String)value; return;
+              case 1: __reserved_ = ((Number)value).shortValue(); return;
+              case 2: discipline_ = (EnumValue<Grib2.MasterTableCode>)value; return;
+              case 3: editionNumber_ = ((Number)value).byteValue(); return;
+              case 4: totalLength_ = ((Number)value).longValue(); return;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+    }
+
+
+    static final class IdentificationSectionImpl extends Grib2SectionImpl<Grib2.IdentificationSection> implements Grib2.IdentificationSection, CompiledContainer {
+        private static final ContentInfo[] CONTENTS = contentsOf(Grib2.IdentificationSection.class);
+
+        short centreId_;
+        short subCentreId_;
+        byte masterVersion_;
+        byte localVersion_;
+        EnumValue<Grib2.ReferenceTimeSignificance> significanceOfRefecenceTime_;
+        short year_;
+        byte month_;
+        byte mday_;
+        byte hour_;
+        byte minute_;
+        byte second_;
+        EnumValue<Grib2.ProductionStatus> productionStatus_;
+        EnumValue<Grib2.DataType> dataType_;
+
+        IdentificationSectionImpl(final int sectionLength) {
+            super(Grib2.IdentificationSection.class, sectionLength);
+        }
+
+        @Override public short centreId() { return centreId_; }
+        @Override public short subCentreId() { return subCentreId_; }
+        @Override public byte masterVersion() { return masterVersion_; }
+        @Override public byte localVersion() { return localVersion_; }
+        @Override public EnumValue<Grib2.ReferenceTimeSignificance> significanceOfRefecenceTime() { return significanceOfRefecenceTime_; }
+        @Override public short year() { return year_; }
+        @Override public byte month() { return month_; }
+        @Override public byte mday() { return mday_; }
+        @Override public byte hour() { return hour_; }
+        @Override public byte minute() { return minute_; }
+        @Override public byte second() { return second_; }
+        @Override public EnumValue<Grib2.ProductionStatus> productionStatus() { return productionStatus_; }
+        @Override public EnumValue<Grib2.DataType> dataType() { return dataType_; }
+
+        @Override
+        public int read(final ContentReader reader, final ByteBuffer in, final int base) {
+            final int o = base - 1;
+            centreId_ = signedShort(in.getShort(o + 6));
+            subCentreId_ = signedShort(in.getShort(o + 8));
+            masterVersion_ = signedByte(in.get(o + 10));
+            localVersion_ = signedByte(in.get(o + 11));
+            significanceOfRefecenceTime_ = reader.enumValue(this, CONTENTS[4], Grib2.ReferenceTimeSignificance.class, in.get(o + 12));
+            year_ = signedShort(in.getShort(o + 13));
+            month_ = signedByte(in.get(o + 15));
+            mday_ = signedByte(in.get(o + 16));
+            hour_ = signedByte(in.get(o + 17));
+            minute_ = signedByte(in.get(o + 18));
+            second_ = signedByte(in.get(o + 19));
+            productionStatus_ = reader.enumValue(this, CONTENTS[11], Grib2.ProductionStatus.class, in.get(o + 20));
+            dataType_ = reader.enumValue(this, CONTENTS[12], Grib2.DataType.class, in.get(o + 21));
+            return 21;
+        }
+
+        @Override
+        public boolean validate(final ContentValidator validator) {
+            boolean valid = true;
+            if (centreId_ != 34) valid = invalid(validator, CONTENTS[0], centreId_);
+            if (subCentreId_ != 0) valid = invalid(validator, CONTENTS[1], subCentreId_);
+            if (masterVersion_ != 2 && masterVersion_ != 4 && masterVersion_ != 5) valid = invalid(validator, CONTENTS[2], masterVersion_);
+            if (localVersion_ != 1) valid = invalid(validator, CONTENTS[3], localVersion_);
+            if (significanceOfRefecenceTime_ != null && significanceOfRefecenceTime_.intValue() != 1) valid = invalid(validator, CONTENTS[4], significanceOfRefecenceTime_.intValue());
+            if (productionStatus_ != null && productionStatus_.intValue() != 0) valid = invalid(validator, CONTENTS[11], productionStatus_.intValue());
+            if (dataType_ != null && dataType_.intValue() != 1 && dataType_.intValue() != 5) valid = invalid(validator, CONTENTS[12], dataType_.intValue());
+            return valid;
+        }
+
+        @Override
+        protected Object value(final int index) {
+            switch (index) {
+              case 0: return centreId_;
+              case 1: return subCentreId_;
+              case 2: return masterVersion_;
+              case 3: return localVersion_;
+              case 4: return significanceOfRefecenceTime_;
+              case 5: return year_;
+              case 6: return month_;
+              case 7: return mday_;
+              case 8: return hour_;
+              case 9: return minute_;
+              case 10: return second_;
+              case 11: return productionStatus_;
+              case 12: return dataType_;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+
+        @Override
+        protected void value(final int index, final Object value) {
+            switch (index) {
+              case 0: centreId_ = ((Number)value).shortValue(); return;
+              case 1: subCentreId_ = ((Number)value).shortValue(); return;
+              case 2: masterVersion_ = ((Number)value).byteValue(); return;
+              case 3: localVersion_ = ((Number)value).byteValue(); return;
+              case 4: significanceOfRefecenceTime_ = (EnumValue<Grib2.ReferenceTimeSignificance>)value; return;
+              case 5: year_ = ((Number)value).shortValue(); return;
+              case 6: month_ = ((Number)value).byteValue(); return;
+              case 7: mday_ = ((Number)value).byteValue(); return;
+              case 8: hour_ = ((Number)value).byteValue(); return;
+              case 9: minute_ = ((Number)value).byteValue(); return;
+              case 10: second_ = ((Number)value).byteValue(); return;
+              case 11: productionStatus_ = (EnumValue<Grib2.ProductionStatus>)value; return;
+              case 12: dataType_ = (EnumValue<Grib2.DataType>)value; return;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+    }
+
+
+    static final class GridDefinitionSectionImpl extends Grib2SectionImpl<Grib2.GridDefinitionSection> implements Grib2.GridDefinitionSection, CompiledContainer {
+        private static final ContentInfo[] CONTENTS = contentsOf(Grib2.GridDefinitionSection.class);
+
+        byte sourceOfDefinition_;
+        int numPoints_;
+        byte numOptionalList_;
+        byte optionalPointInterpretation_;
+        EnumValue<Grib2.GridDefinitionTemplateNumber> templateNumber_;
+        Grib2.GridDefinitionTemplate template_;
+
+        GridDefinitionSectionImpl(final int sectionLength) {
+            super(Grib2.GridDefinitionSection.class, sectionLength);
+        }
+
+        @Override public byte sourceOfDefinition() { return sourceOfDefinition_; }
+        @Override public int numPoints() { return numPoints_; }
+        @Override public byte numOptionalList() { return numOptionalList_; }
+        @Override public byte optionalPointInterpretation() { return optionalPointInterpretation_; }
+        @Override public EnumValue<Grib2.GridDefinitionTemplateNumber> templateNumber() { return templateNumber_; }
+        @Override public Grib2.GridDefinitionTemplate template() { return template_; }
+
+        @Override
+        public int read(final ContentReader reader, final ByteBuffer in, final int base) {
+            final int o = base - 1;
+            sourceOfDefinition_ = signedByte(in.get(o + 6));
+            numPoints_ = signedInt(in.getInt(o + 7));
+            numOptionalList_ = signedByte(in.get(o + 11));
+            optionalPointInterpretation_ = signedByte(in.get(o + 12));
+            templateNumber_ = reader.enumValue(this, CONTENTS[4], Grib2.GridDefinitionTemplateNumber.class, in.getShort(o + 13));
+            template_ = reader.newTemplate(this, CONTENTS[5], templateNumber_);
+            return Math.max(14, template_ != null ? reader.readTemplate(template_, CONTENTS[5], in, base) : 0);
+        }
+
+        @Override
+        public boolean validate(final ContentValidator validator) {
+            boolean valid = true;
+            if (sourceOfDefinition_ != 0) valid = invalid(validator, CONTENTS[0], sourceOfDefinition_);
+            if (numOptionalList_ != 0) valid = invalid(validator, CONTENTS[2], numOptionalList_);
+            if (optionalPointInterpretation_ != 0) valid = invalid(validator, CONTENTS[3], optionalPointInterpretation_);
+            if (templateNumber_ != null && templateNumber_.intValue() != 0) valid = invalid(validator, CONTENTS[4], templateNumber_.intValue());
+            if (template_ instanceof CompiledContainer && !((CompiledContainer)template_).validate(validator)) valid = false;
+            return valid;
+        }
+
+        @Override
+        protected Object value(final int index) {
+            switch (index) {
+              case 0: return sourceOfDefinition_;
+              case 1: return numPoints_;
+              case 2: return numOptionalList_;
+              case 3: return optionalPointInterpretation_;
+              case 4: return templateNumber_;
+              case 5: return template_;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+
+        @Override
+        protected void value(final int index, final Object value) {
+            switch (index) {
+              case 0: sourceOfDefinition_ = ((Number)value).byteValue(); return;
+              case 1: numPoints_ = ((Number)value).intValue(); return;
+              case 2: numOptionalList_ = ((Number)value).byteValue(); return;
+              case 3: optionalPointInterpretation_ = ((Number)value).byteValue(); return;
+              case 4: templateNumber_ = (EnumValue<Grib2.GridDefinitionTemplateNumber>)value; return;
+              case 5: template_ = (Grib2.GridDefinitionTemplate)value; return;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+    }
+
+
+    static final class GridDefinitionTemplateImpl extends Grib2TemplateImpl<Grib2.GridDefinitionTemplate> implements Grib2.GridDefinitionTemplate, CompiledContainer {
+        private static final ContentInfo[] CONTENTS = contentsOf(Grib2.GridDefinitionTemplate.class);
+
+        byte shapeOfTheEarth_;
+        byte scaleFactorOfRadius_;
+        int scaledValueOfRadius_;
+        byte scaleFactorOfMajorAxis_;
+        int scaledValueOfMajorAxis_;
+        byte scaleFactorOfMinorAxis_;
+        int scaledValueOfMinorAxis_;
+        int numPointsAlongParallel_;
+        int numPointsAlongMeridian_;
+        int basicAngle_;
+        int subdivisionsOfBasicAngle_;
+        int latitudeOfFirstGrid_;
+        int longtitudeOfFirstGrid_;
+        byte resolutionAndComponentFlag_;
+        int latitudeOfLastGrid_;
+        int longtitudeOfLastGrid_;
+        int incrementI_;
+        int incrementJ_;
+        Grib2.ScanningMode scanningMode_;
+
+        GridDefinitionTemplateImpl() {
+            super(Grib2.GridDefinitionTemplate.class);
+        }
+
+        @Override public byte shapeOfTheEarth() { return shapeOfTheEarth_; }
+        @Override public byte scaleFactorOfRadius() { return scaleFactorOfRadius_; }
+        @Override public int scaledValueOfRadius() { return scaledValueOfRadius_; }
+        @Override public byte scaleFactorOfMajorAxis() { return scaleFactorOfMajorAxis_; }
+        @Override public int scaledValueOfMajorAxis() { return scaledValueOfMajorAxis_; }
+        @Override public byte scaleFactorOfMinorAxis() { return scaleFactorOfMinorAxis_; }
+        @Override public int scaledValueOfMinorAxis() { return scaledValueOfMinorAxis_; }
+        @Override public int numPointsAlongParallel() { return numPointsAlongParallel_; }
+        @Override public int numPointsAlongMeridian() { return numPointsAlongMeridian_; }
+        @Override public int basicAngle() { return basicAngle_; }
+        @Override public int subdivisionsOfBasicAngle() { return subdivisionsOfBasicAngle_; }
+        @Override public int latitudeOfFirstGrid() { return latitudeOfFirstGrid_; }
+        @Override public int longtitudeOfFirstGrid() { return longtitudeOfFirstGrid_; }
+        @Override public byte resolutionAndComponentFlag() { return resolutionAndComponentFlag_; }
+        @Override public int latitudeOfLastGrid() { return latitudeOfLastGrid_; }
+        @Override public int longtitudeOfLastGrid() { return longtitudeOfLastGrid_; }
+        @Override public int incrementI() { return incrementI_; }
+        @Override public int incrementJ() { return incrementJ_; }
+        @Override public Grib2.ScanningMode scanningMode() { return scanningMode_; }
+
+        @Override
+        public int read(final ContentReader reader, final ByteBuffer in, final int base) {
+            final int o = base - 1;
+            shapeOfTheEarth_ = signedByte(in.get(o + 15));
+            scaleFactorOfRadius_ = signedByte(in.get(o + 16));
+            scaledValueOfRadius_ = signedInt(in.getInt(o + 17));
+            scaleFactorOfMajorAxis_ = signedByte(in.get(o + 21));
+            scaledValueOfMajorAxis_ = signedInt(in.getInt(o + 22));
+            scaleFactorOfMinorAxis_ = signedByte(in.get(o + 26));
+            scaledValueOfMinorAxis_ = signedInt(in.getInt(o + 27));
+            numPointsAlongParallel_ = signedInt(in.getInt(o + 31));
+            numPointsAlongMeridian_ = signedInt(in.getInt(o + 35));
+            basicAngle_ = signedInt(in.getInt(o + 39));
+            subdivisionsOfBasicAngle_ = signedInt(in.getInt(o + 43));
+            latitudeOfFirstGrid_ = signedInt(in.getInt(o + 47));
+            longtitudeOfFirstGrid_ = signedInt(in.getInt(o + 51));
+            resolutionAndComponentFlag_ = signedByte(in.get(o + 55));
+            latitudeOfLastGrid_ = signedInt(in.getInt(o + 56));
+            longtitudeOfLastGrid_ = signedInt(in.getInt(o + 60));
+            incrementI_ = signedInt(in.getInt(o + 64));
+            incrementJ_ = signedInt(in.getInt(o + 68));
+            scanningMode_ = new Grib2.ScanningMode(in.get(o + 72));
+            return 72;
+        }
+
+        @Override
+        public boolean validate(final ContentValidator validator) {
+            boolean valid = true;
+            if (shapeOfTheEarth_ != 6) valid = invalid(validator, CONTENTS[0], shapeOfTheEarth_);
+            if (scaleFactorOfRadius_ != -1) valid = invalid(validator, CONTENTS[1], scaleFactorOfRadius_);
+            if (scaledValueOfRadius_ != -1) valid = invalid(validator, CONTENTS[2], scaledValueOfRadius_);
+            if (scaleFactorOfMajorAxis_ != -1) valid = invalid(validator, CONTENTS[3], scaleFactorOfMajorAxis_);
+            if (scaledValueOfMajorAxis_ != -1) valid = invalid(validator, CONTENTS[4], scaledValueOfMajorAxis_);
+            if (scaleFactorOfMinorAxis_ != -1) valid = invalid(validator, CONTENTS[5], scaleFactorOfMinorAxis_);
+            if (scaledValueOfMinorAxis_ != -1) valid = invalid(validator, CONTENTS[6], scaledValueOfMinorAxis_);
+            if (basicAngle_ != 0) valid = invalid(validator, CONTENTS[9], basicAngle_);
+            if (subdivisionsOfBasicAngle_ != -1) valid = invalid(validator, CONTENTS[10], subdivisionsOfBasicAngle_);
+            if (resolutionAndComponentFlag_ != 48) valid = invalid(validator, CONTENTS[13], resolutionAndComponentFlag_);
+            if (scanningMode_ != null && scanningMode_.intValue() != 0) valid = invalid(validator, CONTENTS[18], scanningMode_.intValue());
+            return valid;
+        }
+
+        @Override
+        protected Object value(final int index) {
+            switch (index) {
+              case 0: return shapeOfTheEarth_;
+              case 1: return scaleFactorOfRadius_;
+              case 2: return scaledValueOfRadius_;
+              case 3: return scaleFactorOfMajorAxis_;
+              case 4: return scaledValueOfMajorAxis_;
+              case 5: return scaleFactorOfMinorAxis_;
+              case 6: return scaledValueOfMinorAxis_;
+              case 7: return numPointsAlongParallel_;
+              case 8: return numPointsAlongMeridian_;
+              case 9: return basicAngle_;
+              case 10: return subdivisionsOfBasicAngle_;
+              case 11: return latitudeOfFirstGrid_;
+              case 12: return longtitudeOfFirstGrid_;
+              case 13: return resolutionAndComponentFlag_;
+              case 14: return latitudeOfLastGrid_;
+              case 15: return longtitudeOfLastGrid_;
+              case 16: return incrementI_;
+              case 17: return incrementJ_;
+              case 18: return scanningMode_;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+
+        @Override
+        protected void value(final int index, final Object value) {
+            switch (index) {
+              case 0: shapeOfTheEarth_ = ((Number)value).byteValue(); return;
+              case 1: scaleFactorOfRadius_ = ((Number)value).byteValue(); return;
+              case 2: scaledValueOfRadius_ = ((Number)value).intValue(); return;
+              case 3: scaleFactorOfMajorAxis_ = ((Number)value).byteValue(); return;
+              case 4: scaledValueOfMajorAxis_ = ((Number)value).intValue(); return;
+              case 5: scaleFactorOfMinorAxis_ = ((Number)value).byteValue(); return;
+              case 6: scaledValueOfMinorAxis_ = ((Number)value).intValue(); return;
+              case 7: numPointsAlongParallel_ = ((Number)value).intValue(); return;
+              case 8: numPointsAlongMeridian_ = ((Number)value).intValue(); return;
+              case 9: basicAngle_ = ((Number)value).intValue(); return;
+              case 10: subdivisionsOfBasicAngle_ = ((Number)value).intValue(); return;
+              case 11: latitudeOfFirstGrid_ = ((Number)value).intValue(); return;
+              case 12: longtitudeOfFirstGrid_ = ((Number)value).intValue(); return;
+              case 13: resolutionAndComponentFlag_ = ((Number)value).byteValue(); return;
+              case 14: latitudeOfLastGrid_ = ((Number)value).intValue(); return;
+              case 15: longtitudeOfLastGrid_ = ((Number)value).intValue(); return;
+              case 16: incrementI_ = ((Number)value).intValue(); return;
+              case 17: incrementJ_ = ((Number)value).intValue(); return;
+              case 18: scanningMode_ = (Grib2.ScanningMode)value; return;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+    }
+
+
+    static final class ProductDefinitionSectionImpl extends Grib2SectionImpl<Grib2.ProductDefinitionSection> implements Grib2.ProductDefinitionSection, CompiledContainer {
+        private static final ContentInfo[] CONTENTS = contentsOf(Grib2.ProductDefinitionSection.class);
+
+        short numCoordinateValues_;
+        EnumValue<Grib2.ProductDefinitionTemplateNumber> templateNumber_;
+        Grib2.ProductDefinitionTemplate template_;
+
+        ProductDefinitionSectionImpl(final int sectionLength) {
+            super(Grib2.ProductDefinitionSection.class, sectionLength);
+        }
+
+        @Override public short numCoordinateValues() { return numCoordinateValues_; }
+        @Override public EnumValue<Grib2.ProductDefinitionTemplateNumber> templateNumber() { return templateNumber_; }
+        @Override public Grib2.ProductDefinitionTemplate template() { return template_; }
+
+        @Override
+        public int read(final ContentReader reader, final ByteBuffer in, final int base) {
+            final int o = base - 1;
+            numCoordinateValues_ = signedShort(in.getShort(o + 6));
+            templateNumber_ = reader.enumValue(this, CONTENTS[1], Grib2.ProductDefinitionTemplateNumber.class, in.getShort(o + 8));
+            template_ = reader.newTemplate(this, CONTENTS[2], templateNumber_);
+            return Math.max(9, template_ != null ? reader.readTemplate(template_, CONTENTS[2], in, base) : 0);
+        }
+
+        @Override
+        public boolean validate(final ContentValidator validator) {
+            boolean valid = true;
+            if (numCoordinateValues_ != 0) valid = invalid(validator, CONTENTS[0], numCoordinateValues_);
+            if (template_ instanceof CompiledContainer && !((CompiledContainer)template_).validate(validator)) valid = false;
+            return valid;
+        }
+
+        @Override
+        protected Object value(final int index) {
+            switch (index) {
+              case 0: return numCoordinateValues_;
+              case 1: return templateNumber_;
+              case 2: return template_;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+
+        @Override
+        protected void value(final int index, final Object value) {
+            switch (index) {
+              case 0: numCoordinateValues_ = ((Number)value).shortValue(); return;
+              case 1: templateNumber_ = (EnumValue<Grib2.ProductDefinitionTemplateNumber>)value; return;
+              case 2: template_ = (Grib2.ProductDefinitionTemplate)value; return;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+    }
+
+
+    static final class ProductDefinitionTemplateForecastImpl extends Grib2TemplateImpl<Grib2.ProductDefinitionTemplate.Forecast> implements Grib2.ProductDefinitionTemplate.Forecast, CompiledContainer {
+        private static final ContentInfo[] CONTENTS = contentsOf(Grib2.ProductDefinitionTemplate.Forecast.class);
+
+        EnumValue<Grib2.ParameterCategory> parameterCategory_;
+        EnumValue<Grib2.ParameterNumber> parameterNumber_;
+        EnumValue<Grib2.GeneratingProcessType> generatingProcessType_;
+        byte backgroundGenerationProcessId_;
+        byte forcastGenerationProcessId_;
+        short cutoffHours_;
+        byte cutoffMinutes_;
+        EnumValue<Grib2.UnitOfTimeRange> unitOfForecastTime_;
+        int forecastTime_;
+        EnumValue<Grib2.SurfaceType> firstFixedSurfaceType_;
+        byte scaleFactorOfFirstFixedSurface_;
+        int scaledValueOfFirstFixedSurface_;
+        byte secondFixedSurfaceType_;
+        byte scaleFactorOfSecondFixedSurface_;
+        int scaledValueOfSecondFixedSurface_;
+
+        ProductDefinitionTemplateForecastImpl() {
+            super(Grib2.ProductDefinitionTemplate.Forecast.class);
+        }
+
+        @Override public EnumValue<Grib2.ParameterCategory> parameterCategory() { return parameterCategory_; }
+        @Override public EnumValue<Grib2.ParameterNumber> parameterNumber() { return parameterNumber_; }
+        @Override public EnumValue<Grib2.GeneratingProcessType> generatingProcessType() { return generatingProcessType_; }
+        @Override public byte backgroundGenerationProcessId() { return backgroundGenerationProcessId_; }
+        @Override public byte forcastGenerationProcessId() { return forcastGenerationProcessId_; }
+        @Override public short cutoffHours() { return cutoffHours_; }
+        @Override public byte cutoffMinutes() { return cutoffMinutes_; }
+        @Override public EnumValue<Grib2.UnitOfTimeRange> unitOfForecastTime() { return unitOfForecastTime_; }
+        @Override public int forecastTime() { return forecastTime_; }
+        @Override public EnumValue<Grib2.SurfaceType> firstFixedSurfaceType() { return firstFixedSurfaceType_; }
+        @Override public byte scaleFactorOfFirstFixedSurface() { return scaleFactorOfFirstFixedSurface_; }
+        @Override public int scaledValueOfFirstFixedSurface() { return scaledValueOfFirstFixedSurface_; }
+        @Override public byte secondFixedSurfaceType() { return secondFixedSurfaceType_; }
+        @Override public byte scaleFactorOfSecondFixedSurface() { return scaleFactorOfSecondFixedSurface_; }
+        @Override public int scaledValueOfSecondFixedSurface() { return scaledValueOfSecondFixedSurface_; }
+
+        @Override
+        public int read(final ContentReader reader, final ByteBuffer in, final int base) {
+            final int o = base - 1;
+            parameterCategory_ = reader.enumValue(this, CONTENTS[0], Grib2.ParameterCategory.class, in.get(o + 10));
+            parameterNumber_ = reader.enumValue(this, CONTENTS[1], Grib2.ParameterNumber.class, in.get(o + 11));
+            generatingProcessType_ = reader.enumValue(this, CONTENTS[2], Grib2.GeneratingProcessType.class, in.get(o + 12));
+            backgroundGenerationProcessId_ = signedByte(in.get(o + 13));
+            forcastGenerationProcessId_ = signedByte(in.get(o + 14));
+            cutoffHours_ = signedShort(in.getShort(o + 15));
+            cutoffMinutes_ = signedByte(in.get(o + 17));
+            unitOfForecastTime_ = reader.enumValue(this, CONTENTS[7], Grib2.UnitOfTimeRange.class, in.get(o + 18));
+            forecastTime_ = signedInt(in.getInt(o + 19));
+            firstFixedSurfaceType_ = reader.enumValue(this, CONTENTS[9], Grib2.SurfaceType.class, in.get(o + 23));
+            scaleFactorOfFirstFixedSurface_ = signedByte(in.get(o + 24));
+            scaledValueOfFirstFixedSurface_ = signedInt(in.getInt(o + 25));
+            secondFixedSurfaceType_ = signedByte(in.get(o + 29));
+            scaleFactorOfSecondFixedSurface_ = signedByte(in.get(o + 30));
+            scaledValueOfSecondFixedSurface_ = signedInt(in.getInt(o + 31));
+            return 34;
+        }
+
+        @Override
+        public boolean validate(final ContentValidator validator) {
+            boolean valid = true;
+            if (forcastGenerationProcessId_ != -1) valid = invalid(validator, CONTENTS[4], forcastGenerationProcessId_);
+            if (secondFixedSurfaceType_ != -1) valid = invalid(validator, CONTENTS[12], secondFixedSurfaceType_);
+            if (scaleFactorOfSecondFixedSurface_ != -1) valid = invalid(validator, CONTENTS[13], scaleFactorOfSecondFixedSurface_);
+            if (scaledValueOfSecondFixedSurface_ != -1) valid = invalid(validator, CONTENTS[14], scaledValueOfSecondFixedSurface_);
+            return valid;
+        }
+
+        @Override
+        protected Object value(final int index) {
+            switch (index) {
+              case 0: return parameterCategory_;
+              case 1: return parameterNumber_;
+              case 2: return generatingProcessType_;
+              case 3: return backgroundGenerationProcessId_;
+              case 4: return forcastGenerationProcessId_;
+              case 5: return cutoffHours_;
+              case 6: return cutoffMinutes_;
+              case 7: return unitOfForecastTime_;
+              case 8: return forecastTime_;
+              case 9: return firstFixedSurfaceType_;
+              case 10: return scaleFactorOfFirstFixedSurface_;
+              case 11: return scaledValueOfFirstFixedSurface_;
+              case 12: return secondFixedSurfaceType_;
+              case 13: return scaleFactorOfSecondFixedSurface_;
+              case 14: return scaledValueOfSecondFixedSurface_;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+
+        @Override
+        protected void value(final int index, final Object value) {
+            switch (index) {
+              case 0: parameterCategory_ = (EnumValue<Grib2.ParameterCategory>)value; return;
+              case 1: parameterNumber_ = (EnumValue<Grib2.ParameterNumber>)value; return;
+              case 2: generatingProcessType_ = (EnumValue<Grib2.GeneratingProcessType>)value; return;
+              case 3: backgroundGenerationProcessId_ = ((Number)value).byteValue(); return;
+              case 4: forcastGenerationProcessId_ = ((Number)value).byteValue(); return;
+              case 5: cutoffHours_ = ((Number)value).shortValue(); return;
+              case 6: cutoffMinutes_ = ((Number)value).byteValue(); return;
+              case 7: unitOfForecastTime_ = (EnumValue<Grib2.UnitOfTimeRange>)value; return;
+              case 8: forecastTime_ = ((Number)value).intValue(); return;
+              case 9: firstFixedSurfaceType_ = (EnumValue<Grib2.SurfaceType>)value; return;
+              case 10: scaleFactorOfFirstFixedSurface_ = ((Number)value).byteValue(); return;
+              case 11: scaledValueOfFirstFixedSurface_ = ((Number)value).intValue(); return;
+              case 12: secondFixedSurfaceType_ = ((Number)value).byteValue(); return;
+              case 13: scaleFactorOfSecondFixedSurface_ = ((Number)value).byteValue(); return;
+              case 14: scaledValueOfSecondFixedSurface_ = ((Number)value).intValue(); return;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+    }
+
+
+    static final class ProductDefinitionTemplatePointInTimeEnsembleForecastImpl extends Grib2TemplateImpl<Grib2.ProductDefinitionTemplate.PointInTimeEnsembleForecast> implements Grib2.ProductDefinitionTemplate.PointInTimeEnsembleForecast, CompiledContainer {
+        private static final ContentInfo[] CONTENTS = contentsOf(Grib2.ProductDefinitionTemplate.PointInTimeEnsembleForecast.class);
+
+        EnumValue<Grib2.ParameterCategory> parameterCategory_;
+        EnumValue<Grib2.ParameterNumber> parameterNumber_;
+        EnumValue<Grib2.GeneratingProcessType> generatingProcessType_;
+        byte backgroundGenerationProcessId_;
+        byte forcastGenerationProcessId_;
+        short cutoffHours_;
+        byte cutoffMinutes_;
+        EnumValue<Grib2.UnitOfTimeRange> unitOfForecastTime_;
+        int forecastTime_;
+        EnumValue<Grib2.SurfaceType> firstFixedSurfaceType_;
+        byte scaleFactorOfFirstFixedSurface_;
+        int scaledValueOfFirstFixedSurface_;
+        byte secondFixedSurfaceType_;
+        byte scaleFactorOfSecondFixedSurface_;
+        int scaledValueOfSecondFixedSurface_;
+        EnumValue<Grib2.EnsembleForecastType> ensembleForcastType_;
+        byte perturbationNumber_;
+        byte numForcasts_;
+
+        ProductDefinitionTemplatePointInTimeEnsembleForecastImpl() {
+            super(Grib2.ProductDefinitionTemplate.PointInTimeEnsembleForecast.class);
+        }
+
+        @Override public EnumValue<Grib2.ParameterCategory> parameterCategory() { return parameterCategory_; }
+        @Override public EnumValue<Grib2.ParameterNumber> parameterNumber() { return parameterNumber_; }
+        @Override public EnumValue<Grib2.GeneratingProcessType> generatingProcessType() { return generatingProcessType_; }
+        @Override public byte backgroundGenerationProcessId() { return backgroundGenerationProcessId_; }
+        @Override public byte forcastGenerationProcessId() { return forcastGenerationProcessId_; }
+        @Override public short cutoffHours() { return cutoffHours_; }
+        @Override public byte cutoffMinutes() { return cutoffMinutes_; }
+        @Override public EnumValue<Grib2.UnitOfTimeRange> unitOfForecastTime() { return unitOfForecastTime_; }
+        @Override public int forecastTime() { return forecastTime_; }
+        @Override public EnumValue<Grib2.SurfaceType> firstFixedSurfaceType() { return firstFixedSurfaceType_; }
+        @Override public byte scaleFactorOfFirstFixedSurface() { return scaleFactorOfFirstFixedSurface_; }
+        @Override public int scaledValueOfFirstFixedSurface() { return scaledValueOfFirstFixedSurface_; }
+        @Override public byte secondFixedSurfaceType() { return secondFixedSurfaceType_; }
+        @Override public byte scaleFactorOfSecondFixedSurface() { return scaleFactorOfSecondFixedSurface_; }
+        @Override public int scaledValueOfSecondFixedSurface() { return scaledValueOfSecondFixedSurface_; }
+        @Override public EnumValue<Grib2.EnsembleForecastType> ensembleForcastType() { return ensembleForcastType_; }
+        @Override public byte perturbationNumber() { return perturbationNumber_; }
+        @Override public byte numForcasts() { return numForcasts_; }
+
+        @Override
+        public int read(final ContentReader reader, final ByteBuffer in, final int base) {
+            final int o = base - 1;
+            parameterCategory_ = reader.enumValue(this, CONTENTS[0], Grib2.ParameterCategory.class, in.get(o + 10));
+            parameterNumber_ = reader.enumValue(this, CONTENTS[1], Grib2.ParameterNumber.class, in.get(o + 11));
+            generatingProcessType_ = reader.enumValue(this, CONTENTS[2], Grib2.GeneratingProcessType.class, in.get(o + 12));
+            backgroundGenerationProcessId_ = signedByte(in.get(o + 13));
+            forcastGenerationProcessId_ = signedByte(in.get(o + 14));
+            cutoffHours_ = signedShort(in.getShort(o + 15));
+            cutoffMinutes_ = signedByte(in.get(o + 17));
+            unitOfForecastTime_ = reader.enumValue(this, CONTENTS[7], Grib2.UnitOfTimeRange.class, in.get(o + 18));
+            forecastTime_ = signedInt(in.getInt(o + 19));
+            firstFixedSurfaceType_ = reader.enumValue(this, CONTENTS[9], Grib2.SurfaceType.class, in.get(o + 23));
+            scaleFactorOfFirstFixedSurface_ = signedByte(in.get(o + 24));
+            scaledValueOfFirstFixedSurface_ = signedInt(in.getInt(o + 25));
+            secondFixedSurfaceType_ = signedByte(in.get(o + 29));
+            scaleFactorOfSecondFixedSurface_ = signedByte(in.get(o + 30));
+            scaledValueOfSecondFixedSurface_ = signedInt(in.getInt(o + 31));
+            ensembleForcastType_ = reader.enumValue(this, CONTENTS[15], Grib2.EnsembleForecastType.class, in.get(o + 35));
+            perturbationNumber_ = signedByte(in.get(o + 36));
+            numForcasts_ = signedByte(in.get(o + 37));
+            return 37;
+        }
+
+        @Override
+        public boolean validate(final ContentValidator validator) {
+            boolean valid = true;
+            if (forcastGenerationProcessId_ != -1) valid = invalid(validator, CONTENTS[4], forcastGenerationProcessId_);
+            if (secondFixedSurfaceType_ != -1) valid = invalid(validator, CONTENTS[12], secondFixedSurfaceType_);
+            if (scaleFactorOfSecondFixedSurface_ != -1) valid = invalid(validator, CONTENTS[13], scaleFactorOfSecondFixedSurface_);
+            if (scaledValueOfSecondFixedSurface_ != -1) valid = invalid(validator, CONTENTS[14], scaledValueOfSecondFixedSurface_);
+            return valid;
+        }
+
+        @Override
+        protected Object value(final int index) {
+            switch (index) {
+              case 0: return parameterCategory_;
+              case 1: return parameterNumber_;
+              case 2: return generatingProcessType_;
+              case 3: return backgroundGenerationProcessId_;
+              case 4: return forcastGenerationProcessId_;
+              case 5: return cutoffHours_;
+              case 6: return cutoffMinutes_;
+              case 7: return unitOfForecastTime_;
+              case 8: return forecastTime_;
+              case 9: return firstFixedSurfaceType_;
+              case 10: return scaleFactorOfFirstFixedSurface_;
+              case 11: return scaledValueOfFirstFixedSurface_;
+              case 12: return secondFixedSurfaceType_;
+              case 13: return scaleFactorOfSecondFixedSurface_;
+              case 14: return scaledValueOfSecondFixedSurface_;
+              case 15: return ensembleForcastType_;
+              case 16: return perturbationNumber_;
+              case 17: return numForcasts_;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+
+        @Override
+        protected void value(final int index, final Object value) {
+            switch (index) {
+              case 0: parameterCategory_ = (EnumValue<Grib2.ParameterCategory>)value; return;
+              case 1: parameterNumber_ = (EnumValue<Grib2.ParameterNumber>)value; return;
+              case 2: generatingProcessType_ = (EnumValue<Grib2.GeneratingProcessType>)value; return;
+              case 3: backgroundGenerationProcessId_ = ((Number)value).byteValue(); return;
+              case 4: forcastGenerationProcessId_ = ((Number)value).byteValue(); return;
+              case 5: cutoffHours_ = ((Number)value).shortValue(); return;
+              case 6: cutoffMinutes_ = ((Number)value).byteValue(); return;
+              case 7: unitOfForecastTime_ = (EnumValue<Grib2.UnitOfTimeRange>)value; return;
+              case 8: forecastTime_ = ((Number)value).intValue(); return;
+              case 9: firstFixedSurfaceType_ = (EnumValue<Grib2.SurfaceType>)value; return;
+              case 10: scaleFactorOfFirstFixedSurface_ = ((Number)value).byteValue(); return;
+              case 11: scaledValueOfFirstFixedSurface_ = ((Number)value).intValue(); return;
+              case 12: secondFixedSurfaceType_ = ((Number)value).byteValue(); return;
+              case 13: scaleFactorOfSecondFixedSurface_ = ((Number)value).byteValue(); return;
+              case 14: scaledValueOfSecondFixedSurface_ = ((Number)value).intValue(); return;
+              case 15: ensembleForcastType_ = (EnumValue<Grib2.EnsembleForecastType>)value; return;
+              case 16: perturbationNumber_ = ((Number)value).byteValue(); return;
+              case 17: numForcasts_ = ((Number)value).byteValue(); return;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+    }
+
+
+    static final class ProductDefinitionTemplateAverageImpl extends Grib2TemplateImpl<Grib2.ProductDefinitionTemplate.Average> implements Grib2.ProductDefinitionTemplate.Average, CompiledContainer {
+        private static final ContentInfo[] CONTENTS = contentsOf(Grib2.ProductDefinitionTemplate.Average.class);
+
+        EnumValue<Grib2.ParameterCategory> parameterCategory_;
+        EnumValue<Grib2.ParameterNumber> parameterNumber_;
+        EnumValue<Grib2.GeneratingProcessType> generatingProcessType_;
+        byte backgroundGenerationProcessId_;
+        byte forcastGenerationProcessId_;
+        short cutoffHours_;
+        byte cutoffMinutes_;
+        EnumValue<Grib2.UnitOfTimeRange> unitOfForecastTime_;
+        int forecastTime_;
+        EnumValue<Grib2.SurfaceType> firstFixedSurfaceType_;
+        byte scaleFactorOfFirstFixedSurface_;
+        int scaledValueOfFirstFixedSurface_;
+        byte secondFixedSurfaceType_;
+        byte scaleFactorOfSecondFixedSurface_;
+        int scaledValueOfSecondFixedSurface_;
+        short year_;
+        byte month_;
+        byte day_;
+        byte hour_;
+        byte minute_;
+        byte second_;
+        byte numTimeRange_;
+        int numMissingDataValues_;
+        EnumValue<Grib2.StatisticalProcessingType> statisticalProcessingType_;
+        EnumValue<Grib2.TimeIntervalsType> timeIntervalsType_;
+        EnumValue<Grib2.UnitOfTimeRange> unitOfTimeRangeLength_;
+        int timeRangeLength_;
+        EnumValue<Grib2.UnitOfTimeRange> unitOfTimeIncrement_;
+        int timeIncrement_;
+
+        ProductDefinitionTemplateAverageImpl() {
+            super(Grib2.ProductDefinitionTemplate.Average.class);
+        }
+
+        @Override public EnumValue<Grib2.ParameterCategory> parameterCategory() { return parameterCategory_; }
+        @Override public EnumValue<Grib2.ParameterNumber> parameterNumber() { return parameterNumber_; }
+        @Override public EnumValue<Grib2.GeneratingProcessType> generatingProcessType() { return generatingProcessType_; }
+        @Override public byte backgroundGenerationProcessId() { return backgroundGenerationProcessId_; }
+        @Override public byte forcastGenerationProcessId() { return forcastGenerationProcessId_; }
+        @Override public short cutoffHours() { return cutoffHours_; }
+        @Override public byte cutoffMinutes() { return cutoffMinutes_; }
+        @Override public EnumValue<Grib2.UnitOfTimeRange> unitOfForecastTime() { return unitOfForecastTime_; }
+        @Override public int forecastTime() { return forecastTime_; }
+        @Override public EnumValue<Grib2.SurfaceType> firstFixedSurfaceType() { return firstFixedSurfaceType_; }
+        @Override public byte scaleFactorOfFirstFixedSurface() { return scaleFactorOfFirstFixedSurface_; }
+        @Override public int scaledValueOfFirstFixedSurface() { return scaledValueOfFirstFixedSurface_; }
+        @Override public byte secondFixedSurfaceType() { return secondFixedSurfaceType_; }
+        @Override public byte scaleFactorOfSecondFixedSurface() { return scaleFactorOfSecondFixedSurface_; }
+        @Override public int scaledValueOfSecondFixedSurface() { return scaledValueOfSecondFixedSurface_; }
+        @Override public short year() { return year_; }
+        @Override public byte month() { return month_; }
+        @Override public byte day() { return day_; }
+        @Override public byte hour() { return hour_; }
+        @Override public byte minute() { return minute_; }
+        @Override public byte second() { return second_; }
+        @Override public byte numTimeRange() { return numTimeRange_; }
+        @Override public int numMissingDataValues() { return numMissingDataValues_; }
+        @Override public EnumValue<Grib2.StatisticalProcessingType> statisticalProcessingType() { return statisticalProcessingType_; }
+        @Override public EnumValue<Grib2.TimeIntervalsType> timeIntervalsType() { return timeIntervalsType_; }
+        @Override public EnumValue<Grib2.UnitOfTimeRange> unitOfTimeRangeLength() { return unitOfTimeRangeLength_; }
+        @Override public int timeRangeLength() { return timeRangeLength_; }
+        @Override public EnumValue<Grib2.UnitOfTimeRange> unitOfTimeIncrement() { return unitOfTimeIncrement_; }
+        @Override public int timeIncrement() { return timeIncrement_; }
+
+        @Override
+        public int read(final ContentReader reader, final ByteBuffer in, final int base) {
+            final int o = base - 1;
+            parameterCategory_ = reader.enumValue(this, CONTENTS[0], Grib2.ParameterCategory.class, in.get(o + 10));
+            parameterNumber_ = reader.enumValue(this, CONTENTS[1], Grib2.ParameterNumber.class, in.get(o + 11));
+            generatingProcessType_ = reader.enumValue(this, CONTENTS[2], Grib2.GeneratingProcessType.class, in.get(o + 12));
+            backgroundGenerationProcessId_ = signedByte(in.get(o + 13));
+            forcastGenerationProcessId_ = signedByte(in.get(o + 14));
+            cutoffHours_ = signedShort(in.getShort(o + 15));
+            cutoffMinutes_ = signedByte(in.get(o + 17));
+            unitOfForecastTime_ = reader.enumValue(this, CONTENTS[7], Grib2.UnitOfTimeRange.class, in.get(o + 18));
+            forecastTime_ = signedInt(in.getInt(o + 19));
+            firstFixedSurfaceType_ = reader.enumValue(this, CONTENTS[9], Grib2.SurfaceType.class, in.get(o + 23));
+            scaleFactorOfFirstFixedSurface_ = signedByte(in.get(o + 24));
+            scaledValueOfFirstFixedSurface_ = signedInt(in.getInt(o + 25));
+            secondFixedSurfaceType_ = signedByte(in.get(o + 29));
+            scaleFactorOfSecondFixedSurface_ = signedByte(in.get(o + 30));
+            scaledValueOfSecondFixedSurface_ = signedInt(in.getInt(o + 31));
+            year_ = signedShort(in.getShort(o + 35));
+            month_ = signedByte(in.get(o + 37));
+            day_ = signedByte(in.get(o + 38));
+            hour_ = signedByte(in.get(o + 39));
+            minute_ = signedByte(in.get(o + 40));
+            second_ = signedByte(in.get(o + 41));
+            numTimeRange_ = signedByte(in.get(o + 42));
+            numMissingDataValues_ = signedInt(in.getInt(o + 43));
+            statisticalProcessingType_ = reader.enumValue(this, CONTENTS[23], Grib2.StatisticalProcessingType.class, in.get(o + 47));
+            timeIntervalsType_ = reader.enumValue(this, CONTENTS[24], Grib2.TimeIntervalsType.class, in.get(o + 48));
+            unitOfTimeRangeLength_ = reader.enumValue(this, CONTENTS[25], Grib2.UnitOfTimeRange.class, in.get(o + 49));
+            timeRangeLength_ = signedInt(in.getInt(o + 50));
+            unitOfTimeIncrement_ = reader.enumValue(this, CONTENTS[27], Grib2.UnitOfTimeRange.class, in.get(o + 54));
+            timeIncrement_ = signedInt(in.getInt(o + 55));
+            return 58;
+        }
+
+        @Override
+        public boolean validate(final ContentValidator validator) {
+            boolean valid = true;
+            if (forcastGenerationProcessId_ != -1) valid = invalid(validator, CONTENTS[4], forcastGenerationProcessId_);
+            if (secondFixedSurfaceType_ != -1) valid = invalid(validator, CONTENTS[12], secondFixedSurfaceType_);
+            if (scaleFactorOfSecondFixedSurface_ != -1) valid = invalid(validator, CONTENTS[13], scaleFactorOfSecondFixedSurface_);
+            if (scaledValueOfSecondFixedSurface_ != -1) valid = invalid(validator, CONTENTS[14], scaledValueOfSecondFixedSurface_);
+            return valid;
+        }
+
+        @Override
+        protected Object value(final int index) {
+            switch (index) {
+              case 0: return parameterCategory_;
+              case 1: return parameterNumber_;
+              case 2: return generatingProcessType_;
+              case 3: return backgroundGenerationProcessId_;
+              case 4: return forcastGenerationProcessId_;
+              case 5: return cutoffHours_;
+              case 6: return cutoffMinutes_;
+              case 7: return unitOfForecastTime_;
+              case 8: return forecastTime_;
+              case 9: return firstFixedSurfaceType_;
+              case 10: return scaleFactorOfFirstFixedSurface_;
+              case 11: return scaledValueOfFirstFixedSurface_;
+              case 12: return secondFixedSurfaceType_;
+              case 13: return scaleFactorOfSecondFixedSurface_;
+              case 14: return scaledValueOfSecondFixedSurface_;
+              case 15: return year_;
+              case 16: return month_;
+              case 17: return day_;
+              case 18: return hour_;
+              case 19: return minute_;
+              case 20: return second_;
+              case 21: return numTimeRange_;
+              case 22: return numMissingDataValues_;
+              case 23: return statisticalProcessingType_;
+              case 24: return timeIntervalsType_;
+              case 25: return unitOfTimeRangeLength_;
+              case 26: return timeRangeLength_;
+              case 27: return unitOfTimeIncrement_;
+              case 28: return timeIncrement_;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+
+        @Override
+        protected void value(final int index, final Object value) {
+            switch (index) {
+              case 0: parameterCategory_ = (EnumValue<Grib2.ParameterCategory>)value; return;
+              case 1: parameterNumber_ = (EnumValue<Grib2.ParameterNumber>)value; return;
+              case 2: generatingProcessType_ = (EnumValue<Grib2.GeneratingProcessType>)value; return;
+              case 3: backgroundGenerationProcessId_ = ((Number)value).byteValue(); return;
+              case 4: forcastGenerationProcessId_ = ((Number)value).byteValue(); return;
+              case 5: cutoffHours_ = ((Number)value).shortValue(); return;
+              case 6: cutoffMinutes_ = ((Number)value).byteValue(); return;
+              case 7: unitOfForecastTime_ = (EnumValue<Grib2.UnitOfTimeRange>)value; return;
+              case 8: forecastTime_ = ((Number)value).intValue(); return;
+              case 9: firstFixedSurfaceType_ = (EnumValue<Grib2.SurfaceType>)value; return;
+              case 10: scaleFactorOfFirstFixedSurface_ = ((Number)value).byteValue(); return;
+              case 11: scaledValueOfFirstFixedSurface_ = ((Number)value).intValue(); return;
+              case 12: secondFixedSurfaceType_ = ((Number)value).byteValue(); return;
+              case 13: scaleFactorOfSecondFixedSurface_ = ((Number)value).byteValue(); return;
+              case 14: scaledValueOfSecondFixedSurface_ = ((Number)value).intValue(); return;
+              case 15: year_ = ((Number)value).shortValue(); return;
+              case 16: month_ = ((Number)value).byteValue(); return;
+              case 17: day_ = ((Number)value).byteValue(); return;
+              case 18: hour_ = ((Number)value).byteValue(); return;
+              case 19: minute_ = ((Number)value).byteValue(); return;
+              case 20: second_ = ((Number)value).byteValue(); return;
+              case 21: numTimeRange_ = ((Number)value).byteValue(); return;
+              case 22: numMissingDataValues_ = ((Number)value).intValue(); return;
+              case 23: statisticalProcessingType_ = (EnumValue<Grib2.StatisticalProcessingType>)value; return;
+              case 24: timeIntervalsType_ = (EnumValue<Grib2.TimeIntervalsType>)value; return;
+              case 25: unitOfTimeRangeLength_ = (EnumValue<Grib2.UnitOfTimeRange>)value; return;
+              case 26: timeRangeLength_ = ((Number)value).intValue(); return;
+              case 27: unitOfTimeIncrement_ = (EnumValue<Grib2.UnitOfTimeRange>)value; return;
+              case 28: timeIncrement_ = ((Number)value).intValue(); return;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+    }
+
+
+    static final class ProductDefinitionTemplateTimeIntervalEnsembleForecastImpl extends Grib2TemplateImpl<Grib2.ProductDefinitionTemplate.TimeIntervalEnsembleForecast> implements Grib2.ProductDefinitionTemplate.TimeIntervalEnsembleForecast, CompiledContainer {
+        private static final ContentInfo[] CONTENTS = contentsOf(Grib2.ProductDefinitionTemplate.TimeIntervalEnsembleForecast.class);
+
+        EnumValue<Grib2.ParameterCategory> parameterCategory_;
+        EnumValue<Grib2.ParameterNumber> parameterNumber_;
+        EnumValue<Grib2.GeneratingProcessType> generatingProcessType_;
+        byte backgroundGenerationProcessId_;
+        byte forcastGenerationProcessId_;
+        short cutoffHours_;
+        byte cutoffMinutes_;
+        EnumValue<Grib2.UnitOfTimeRange> unitOfForecastTime_;
+        int forecastTime_;
+        EnumValue<Grib2.SurfaceType> firstFixedSurfaceType_;
+        byte scaleFactorOfFirstFixedSurface_;
+        int scaledValueOfFirstFixedSurface_;
+        byte secondFixedSurfaceType_;
+        byte scaleFactorOfSecondFixedSurface_;
+        int scaledValueOfSecondFixedSurface_;
+        EnumValue<Grib2.EnsembleForecastType> ensembleForcastType_;
+        byte perturbationNumber_;
+        byte numForcasts_;
+        short year_;
+        byte month_;
+        byte day_;
+        byte hour_;
+        byte minute_;
+        byte second_;
+        byte numTimeRange_;
+        int numMissingDataValues_;
+        EnumValue<Grib2.StatisticalProcessingType> statisticalProcessingType_;
+        EnumValue<Grib2.TimeIntervalsType> timeIntervalsType_;
+        EnumValue<Grib2.UnitOfTimeRange> unitOfTimeRangeLength_;
+        int timeRangeLength_;
+        EnumValue<Grib2.UnitOfTimeRange> unitOfTimeIncrement_;
+        int timeIncrement_;
+
+        ProductDefinitionTemplateTimeIntervalEnsembleForecastImpl() {
+            super(Grib2.ProductDefinitionTemplate.TimeIntervalEnsembleForecast.class);
+        }
+
+        @Override public EnumValue<Grib2.ParameterCategory> parameterCategory() { return parameterCategory_; }
+        @Override public EnumValue<Grib2.ParameterNumber> parameterNumber() { return parameterNumber_; }
+        @Override public EnumValue<Grib2.GeneratingProcessType> generatingProcessType() { return generatingProcessType_; }
+        @Override public byte backgroundGenerationProcessId() { return backgroundGenerationProcessId_; }
+        @Override public byte forcastGenerationProcessId() { return forcastGenerationProcessId_; }
+        @Override public short cutoffHours() { return cutoffHours_; }
+        @Override public byte cutoffMinutes() { return cutoffMinutes_; }
+        @Override public EnumValue<Grib2.UnitOfTimeRange> unitOfForecastTime() { return unitOfForecastTime_; }
+        @Override public int forecastTime() { return forecastTime_; }
+        @Override public EnumValue<Grib2.SurfaceType> firstFixedSurfaceType() { return firstFixedSurfaceType_; }
+        @Override public byte scaleFactorOfFirstFixedSurface() { return scaleFactorOfFirstFixedSurface_; }
+        @Override public int scaledValueOfFirstFixedSurface() { return scaledValueOfFirstFixedSurface_; }
+        @Override public byte secondFixedSurfaceType() { return secondFixedSurfaceType_; }
+        @Override public byte scaleFactorOfSecondFixedSurface() { return scaleFactorOfSecondFixedSurface_; }
+        @Override public int scaledValueOfSecondFixedSurface() { return scaledValueOfSecondFixedSurface_; }
+        @Override public EnumValue<Grib2.EnsembleForecastType> ensembleForcastType() { return ensembleForcastType_; }
+        @Override public byte perturbationNumber() { return perturbationNumber_; }
+        @Override public byte numForcasts() { return numForcasts_; }
+        @Override public short year() { return year_; }
+        @Override public byte month() { return month_; }
+        @Override public byte day() { return day_; }
+        @Override public byte hour() { return hour_; }
+        @Override public byte minute() { return minute_; }
+        @Override public byte second() { return second_; }
+        @Override public byte numTimeRange() { return numTimeRange_; }
+        @Override public int numMissingDataValues() { return numMissingDataValues_; }
+        @Override public EnumValue<Grib2.StatisticalProcessingType> statisticalProcessingType() { return statisticalProcessingType_; }
+        @Override public EnumValue<Grib2.TimeIntervalsType> timeIntervalsType() { return timeIntervalsType_; }
+        @Override public EnumValue<Grib2.UnitOfTimeRange> unitOfTimeRangeLength() { return unitOfTimeRangeLength_; }
+        @Override public int timeRangeLength() { return timeRangeLength_; }
+        @Override public EnumValue<Grib2.UnitOfTimeRange> unitOfTimeIncrement() { return unitOfTimeIncrement_; }
+        @Override public int timeIncrement() { return timeIncrement_; }
+
+        @Override
+        public int read(final ContentReader reader, final ByteBuffer in, final int base) {
+            final int o = base - 1;
+            parameterCategory_ = reader.enumValue(this, CONTENTS[0], Grib2.ParameterCategory.class, in.get(o + 10));
+            parameterNumber_ = reader.enumValue(this, CONTENTS[1], Grib2.ParameterNumber.class, in.get(o + 11));
+            generatingProcessType_ = reader.enumValue(this, CONTENTS[2], Grib2.GeneratingProcessType.class, in.get(o + 12));
+            backgroundGenerationProcessId_ = signedByte(in.get(o + 13));
+            forcastGenerationProcessId_ = signedByte(in.get(o + 14));
+            cutoffHours_ = signedShort(in.getShort(o + 15));
+            cutoffMinutes_ = signedByte(in.get(o + 17));
+            unitOfForecastTime_ = reader.enumValue(this, CONTENTS[7], Grib2.UnitOfTimeRange.class, in.get(o + 18));
+            forecastTime_ = signedInt(in.getInt(o + 19));
+            firstFixedSurfaceType_ = reader.enumValue(this, CONTENTS[9], Grib2.SurfaceType.class, in.get(o + 23));
+            scaleFactorOfFirstFixedSurface_ = signedByte(in.get(o + 24));
+            scaledValueOfFirstFixedSurface_ = signedInt(in.getInt(o + 25));
+            secondFixedSurfaceType_ = signedByte(in.get(o + 29));
+            scaleFactorOfSecondFixedSurface_ = signedByte(in.get(o + 30));
+            scaledValueOfSecondFixedSurface_ = signedInt(in.getInt(o + 31));
+            ensembleForcastType_ = reader.enumValue(this, CONTENTS[15], Grib2.EnsembleForecastType.class, in.get(o + 35));
+            perturbationNumber_ = signedByte(in.get(o + 36));
+            numForcasts_ = signedByte(in.get(o + 37));
+            year_ = signedShort(in.getShort(o + 38));
+            month_ = signedByte(in.get(o + 40));
+            day_ = signedByte(in.get(o + 41));
+            hour_ = signedByte(in.get(o + 42));
+            minute_ = signedByte(in.get(o + 43));
+            second_ = signedByte(in.get(o + 44));
+            numTimeRange_ = signedByte(in.get(o + 45));
+            numMissingDataValues_ = signedInt(in.getInt(o + 46));
+            statisticalProcessingType_ = reader.enumValue(this, CONTENTS[26], Grib2.StatisticalProcessingType.class, in.get(o + 50));
+            timeIntervalsType_ = reader.enumValue(this, CONTENTS[27], Grib2.TimeIntervalsType.class, in.get(o + 51));
+            unitOfTimeRangeLength_ = reader.enumValue(this, CONTENTS[28], Grib2.UnitOfTimeRange.class, in.get(o + 52));
+            timeRangeLength_ = signedInt(in.getInt(o + 53));
+            unitOfTimeIncrement_ = reader.enumValue(this, CONTENTS[30], Grib2.UnitOfTimeRange.class, in.get(o + 57));
+            timeIncrement_ = signedInt(in.getInt(o + 58));
+            return 61;
+        }
+
+        @Override
+        public boolean validate(final ContentValidator validator) {
+            boolean valid = true;
+            if (forcastGenerationProcessId_ != -1) valid = invalid(validator, CONTENTS[4], forcastGenerationProcessId_);
+            if (secondFixedSurfaceType_ != -1) valid = invalid(validator, CONTENTS[12], secondFixedSurfaceType_);
+            if (scaleFactorOfSecondFixedSurface_ != -1) valid = invalid(validator, CONTENTS[13], scaleFactorOfSecondFixedSurface_);
+            if (scaledValueOfSecondFixedSurface_ != -1) valid = invalid(validator, CONTENTS[14], scaledValueOfSecondFixedSurface_);
+            return valid;
+        }
+
+        @Override
+        protected Object value(final int index) {
+            switch (index) {
+              case 0: return parameterCategory_;
+              case 1: return parameterNumber_;
+              case 2: return generatingProcessType_;
+              case 3: return backgroundGenerationProcessId_;
+              case 4: return forcastGenerationProcessId_;
+              case 5: return cutoffHours_;
+              case 6: return cutoffMinutes_;
+              case 7: return unitOfForecastTime_;
+              case 8: return forecastTime_;
+              case 9: return firstFixedSurfaceType_;
+              case 10: return scaleFactorOfFirstFixedSurface_;
+              case 11: return scaledValueOfFirstFixedSurface_;
+              case 12: return secondFixedSurfaceType_;
+              case 13: return scaleFactorOfSecondFixedSurface_;
+              case 14: return scaledValueOfSecondFixedSurface_;
+              case 15: return ensembleForcastType_;
+              case 16: return perturbationNumber_;
+              case 17: return numForcasts_;
+              case 18: return year_;
+              case 19: return month_;
+              case 20: return day_;
+              case 21: return hour_;
+              case 22: return minute_;
+              case 23: return second_;
+              case 24: return numTimeRange_;
+              case 25: return numMissingDataValues_;
+              case 26: return statisticalProcessingType_;
+              case 27: return timeIntervalsType_;
+              case 28: return unitOfTimeRangeLength_;
+              case 29: return timeRangeLength_;
+              case 30: return unitOfTimeIncrement_;
+              case 31: return timeIncrement_;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+
+        @Override
+        protected void value(final int index, final Object value) {
+            switch (index) {
+              case 0: parameterCategory_ = (EnumValue<Grib2.ParameterCategory>)value; return;
+              case 1: parameterNumber_ = (EnumValue<Grib2.ParameterNumber>)value; return;
+              case 2: generatingProcessType_ = (EnumValue<Grib2.GeneratingProcessType>)value; return;
+              case 3: backgroundGenerationProcessId_ = ((Number)value).byteValue(); return;
+              case 4: forcastGenerationProcessId_ = ((Number)value).byteValue(); return;
+              case 5: cutoffHours_ = ((Number)value).shortValue(); return;
+              case 6: cutoffMinutes_ = ((Number)value).byteValue(); return;
+              case 7: unitOfForecastTime_ = (EnumValue<Grib2.UnitOfTimeRange>)value; return;
+              case 8: forecastTime_ = ((Number)value).intValue(); return;
+              case 9: firstFixedSurfaceType_ = (EnumValue<Grib2.SurfaceType>)value; return;
+              case 10: scaleFactorOfFirstFixedSurface_ = ((Number)value).byteValue(); return;
+              case 11: scaledValueOfFirstFixedSurface_ = ((Number)value).intValue(); return;
+              case 12: secondFixedSurfaceType_ = ((Number)value).byteValue(); return;
+              case 13: scaleFactorOfSecondFixedSurface_ = ((Number)value).byteValue(); return;
+              case 14: scaledValueOfSecondFixedSurface_ = ((Number)value).intValue(); return;
+              case 15: ensembleForcastType_ = (EnumValue<Grib2.EnsembleForecastType>)value; return;
+              case 16: perturbationNumber_ = ((Number)value).byteValue(); return;
+              case 17: numForcasts_ = ((Number)value).byteValue(); return;
+              case 18: year_ = ((Number)value).shortValue(); return;
+              case 19: month_ = ((Number)value).byteValue(); return;
+              case 20: day_ = ((Number)value).byteValue(); return;
+              case 21: hour_ = ((Number)value).byteValue(); return;
+              case 22: minute_ = ((Number)value).byteValue(); return;
+              case 23: second_ = ((Number)value).byteValue(); return;
+              case 24: numTimeRange_ = ((Number)value).byteValue(); return;
+              case 25: numMissingDataValues_ = ((Number)value).intValue(); return;
+              case 26: statisticalProcessingType_ = (EnumValue<Grib2.StatisticalProcessingType>)value; return;
+              case 27: timeIntervalsType_ = (EnumValue<Grib2.TimeIntervalsType>)value; return;
+              case 28: unitOfTimeRangeLength_ = (EnumValue<Grib2.UnitOfTimeRange>)value; return;
+              case 29: timeRangeLength_ = ((Number)value).intValue(); return;
+              case 30: unitOfTimeIncrement_ = (EnumValue<Grib2.UnitOfTimeRange>)value; return;
+              case 31: timeIncrement_ = ((Number)value).intValue(); return;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+    }
+
+
+    static final class ProductDefinitionTemplateDerivedTimeIntervalEnsembleForecastImpl extends Grib2TemplateImpl<Grib2.ProductDefinitionTemplate.DerivedTimeIntervalEnsembleForecast> implements Grib2.ProductDefinitionTemplate.DerivedTimeIntervalEnsembleForecast, CompiledContainer {
+        private static final ContentInfo[] CONTENTS = contentsOf(Grib2.ProductDefinitionTemplate.DerivedTimeIntervalEnsembleForecast.class);
+
+        EnumValue<Grib2.ParameterCategory> parameterCategory_;
+        EnumValue<Grib2.ParameterNumber> parameterNumber_;
+        EnumValue<Grib2.GeneratingProcessType> generatingProcessType_;
+        byte backgroundGenerationProcessId_;
+        byte forcastGenerationProcessId_;
+        short cutoffHours_;
+        byte cutoffMinutes_;
+        EnumValue<Grib2.UnitOfTimeRange> unitOfForecastTime_;
+        int forecastTime_;
+        EnumValue<Grib2.SurfaceType> firstFixedSurfaceType_;
+        byte scaleFactorOfFirstFixedSurface_;
+        int scaledValueOfFirstFixedSurface_;
+        byte secondFixedSurfaceType_;
+        byte scaleFactorOfSecondFixedSurface_;
+        int scaledValueOfSecondFixedSurface_;
+        EnumValue<Grib2.EnsembleForecastType> ensembleForcastType_;
+        byte numForcasts_;
+        short year_;
+        byte month_;
+        byte day_;
+        byte hour_;
+        byte minute_;
+        byte second_;
+        byte numTimeRange_;
+        int numMissingDataValues_;
+        EnumValue<Grib2.StatisticalProcessingType> statisticalProcessingType_;
+        EnumValue<Grib2.TimeIntervalsType> timeIntervalsType_;
+        EnumValue<Grib2.UnitOfTimeRange> unitOfTimeRangeLength_;
+        int timeRangeLength_;
+        EnumValue<Grib2.UnitOfTimeRange> unitOfTimeIncrement_;
+        int timeIncrement_;
+
+        ProductDefinitionTemplateDerivedTimeIntervalEnsembleForecastImpl() {
+            super(Grib2.ProductDefinitionTemplate.DerivedTimeIntervalEnsembleForecast.class);
+        }
+
+        @Override public EnumValue<Grib2.ParameterCategory> parameterCategory() { return parameterCategory_; }
+        @Override public EnumValue<Grib2.ParameterNumber> parameterNumber() { return parameterNumber_; }
+        @Override public EnumValue<Grib2.GeneratingProcessType> generatingProcessType() { return generatingProcessType_; }
+        @Override public byte backgroundGenerationProcessId() { return backgroundGenerationProcessId_; }
+        @Override public byte forcastGenerationProcessId() { return forcastGenerationProcessId_; }
+        @Override public short cutoffHours() { return cutoffHours_; }
+        @Override public byte cutoffMinutes() { return cutoffMinutes_; }
+        @Override public EnumValue<Grib2.UnitOfTimeRange> unitOfForecastTime() { return unitOfForecastTime_; }
+        @Override public int forecastTime() { return forecastTime_; }
+        @Override public EnumValue<Grib2.SurfaceType> firstFixedSurfaceType() { return firstFixedSurfaceType_; }
+        @Override public byte scaleFactorOfFirstFixedSurface() { return scaleFactorOfFirstFixedSurface_; }
+        @Override public int scaledValueOfFirstFixedSurface() { return scaledValueOfFirstFixedSurface_; }
+        @Override public byte secondFixedSurfaceType() { return secondFixedSurfaceType_; }
+        @Override public byte scaleFactorOfSecondFixedSurface() { return scaleFactorOfSecondFixedSurface_; }
+        @Override public int scaledValueOfSecondFixedSurface() { return scaledValueOfSecondFixedSurface_; }
+        @Override public EnumValue<Grib2.EnsembleForecastType> ensembleForcastType() { return ensembleForcastType_; }
+        @Override public byte numForcasts() { return numForcasts_; }
+        @Override public short year() { return year_; }
+        @Override public byte month() { return month_; }
+        @Override public byte day() { return day_; }
+        @Override public byte hour() { return hour_; }
+        @Override public byte minute() { return minute_; }
+        @Override public byte second() { return second_; }
+        @Override public byte numTimeRange() { return numTimeRange_; }
+        @Override public int numMissingDataValues() { return numMissingDataValues_; }
+        @Override public EnumValue<Grib2.StatisticalProcessingType> statisticalProcessingType() { return statisticalProcessingType_; }
+        @Override public EnumValue<Grib2.TimeIntervalsType> timeIntervalsType() { return timeIntervalsType_; }
+        @Override public EnumValue<Grib2.UnitOfTimeRange> unitOfTimeRangeLength() { return unitOfTimeRangeLength_; }
+        @Override public int timeRangeLength() { return timeRangeLength_; }
+        @Override public EnumValue<Grib2.UnitOfTimeRange> unitOfTimeIncrement() { return unitOfTimeIncrement_; }
+        @Override public int timeIncrement() { return timeIncrement_; }
+
+        @Override
+        public int read(final ContentReader reader, final ByteBuffer in, final int base) {
+            final int o = base - 1;
+            parameterCategory_ = reader.enumValue(this, CONTENTS[0], Grib2.ParameterCategory.class, in.get(o + 10));
+            parameterNumber_ = reader.enumValue(this, CONTENTS[1], Grib2.ParameterNumber.class, in.get(o + 11));
+            generatingProcessType_ = reader.enumValue(this, CONTENTS[2], Grib2.GeneratingProcessType.class, in.get(o + 12));
+            backgroundGenerationProcessId_ = signedByte(in.get(o + 13));
+            forcastGenerationProcessId_ = signedByte(in.get(o + 14));
+            cutoffHours_ = signedShort(in.getShort(o + 15));
+            cutoffMinutes_ = signedByte(in.get(o + 17));
+            unitOfForecastTime_ = reader.enumValue(this, CONTENTS[7], Grib2.UnitOfTimeRange.class, in.get(o + 18));
+            forecastTime_ = signedInt(in.getInt(o + 19));
+            firstFixedSurfaceType_ = reader.enumValue(this, CONTENTS[9], Grib2.SurfaceType.class, in.get(o + 23));
+            scaleFactorOfFirstFixedSurface_ = signedByte(in.get(o + 24));
+            scaledValueOfFirstFixedSurface_ = signedInt(in.getInt(o + 25));
+            secondFixedSurfaceType_ = signedByte(in.get(o + 29));
+            scaleFactorOfSecondFixedSurface_ = signedByte(in.get(o + 30));
+            scaledValueOfSecondFixedSurface_ = signedInt(in.getInt(o + 31));
+            ensembleForcastType_ = reader.enumValue(this, CONTENTS[15], Grib2.EnsembleForecastType.class, in.get(o + 35));
+            numForcasts_ = signedByte(in.get(o + 36));
+            year_ = signedShort(in.getShort(o + 37));
+            month_ = signedByte(in.get(o + 39));
+            day_ = signedByte(in.get(o + 40));
+            hour_ = signedByte(in.get(o + 41));
+            minute_ = signedByte(in.get(o + 42));
+            second_ = signedByte(in.get(o + 43));
+            numTimeRange_ = signedByte(in.get(o + 44));
+            numMissingDataValues_ = signedInt(in.getInt(o + 45));
+            statisticalProcessingType_ = reader.enumValue(this, CONTENTS[25], Grib2.StatisticalProcessingType.class, in.get(o + 49));
+            timeIntervalsType_ = reader.enumValue(this, CONTENTS[26], Grib2.TimeIntervalsType.class, in.get(o + 50));
+            unitOfTimeRangeLength_ = reader.enumValue(this, CONTENTS[27], Grib2.UnitOfTimeRange.class, in.get(o + 51));
+            timeRangeLength_ = signedInt(in.getInt(o + 52));
+            unitOfTimeIncrement_ = reader.enumValue(this, CONTENTS[29], Grib2.UnitOfTimeRange.class, in.get(o + 56));
+            timeIncrement_ = signedInt(in.getInt(o + 57));
+            return 60;
+        }
+
+        @Override
+        public boolean validate(final ContentValidator validator) {
+            boolean valid = true;
+            if (forcastGenerationProcessId_ != -1) valid = invalid(validator, CONTENTS[4], forcastGenerationProcessId_);
+            if (secondFixedSurfaceType_ != -1) valid = invalid(validator, CONTENTS[12], secondFixedSurfaceType_);
+            if (scaleFactorOfSecondFixedSurface_ != -1) valid = invalid(validator, CONTENTS[13], scaleFactorOfSecondFixedSurface_);
+            if (scaledValueOfSecondFixedSurface_ != -1) valid = invalid(validator, CONTENTS[14], scaledValueOfSecondFixedSurface_);
+            return valid;
+        }
+
+        @Override
+        protected Object value(final int index) {
+            switch (index) {
+              case 0: return parameterCategory_;
+              case 1: return parameterNumber_;
+              case 2: return generatingProcessType_;
+              case 3: return backgroundGenerationProcessId_;
+              case 4: return forcastGenerationProcessId_;
+              case 5: return cutoffHours_;
+              case 6: return cutoffMinutes_;
+              case 7: return unitOfForecastTime_;
+              case 8: return forecastTime_;
+              case 9: return firstFixedSurfaceType_;
+              case 10: return scaleFactorOfFirstFixedSurface_;
+              case 11: return scaledValueOfFirstFixedSurface_;
+              case 12: return secondFixedSurfaceType_;
+              case 13: return scaleFactorOfSecondFixedSurface_;
+              case 14: return scaledValueOfSecondFixedSurface_;
+              case 15: return ensembleForcastType_;
+              case 16: return numForcasts_;
+              case 17: return year_;
+              case 18: return month_;
+              case 19: return day_;
+              case 20: return hour_;
+              case 21: return minute_;
+              case 22: return second_;
+              case 23: return numTimeRange_;
+              case 24: return numMissingDataValues_;
+              case 25: return statisticalProcessingType_;
+              case 26: return timeIntervalsType_;
+              case 27: return unitOfTimeRangeLength_;
+              case 28: return timeRangeLength_;
+              case 29: return unitOfTimeIncrement_;
+              case 30: return timeIncrement_;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+
+        @Override
+        protected void value(final int index, final Object value) {
+            switch (index) {
+              case 0: parameterCategory_ = (EnumValue<Grib2.ParameterCategory>)value; return;
+              case 1: parameterNumber_ = (EnumValue<Grib2.ParameterNumber>)value; return;
+              case 2: generatingProcessType_ = (EnumValue<Grib2.GeneratingProcessType>)value; return;
+              case 3: backgroundGenerationProcessId_ = ((Number)value).byteValue(); return;
+              case 4: forcastGenerationProcessId_ = ((Number)value).byteValue(); return;
+              case 5: cutoffHours_ = ((Number)value).shortValue(); return;
+              case 6: cutoffMinutes_ = ((Number)value).byteValue(); return;
+              case 7: unitOfForecastTime_ = (EnumValue<Grib2.UnitOfTimeRange>)value; return;
+              case 8: forecastTime_ = ((Number)value).intValue(); return;
+              case 9: firstFixedSurfaceType_ = (EnumValue<Grib2.SurfaceType>)value; return;
+              case 10: scaleFactorOfFirstFixedSurface_ = ((Number)value).byteValue(); return;
+              case 11: scaledValueOfFirstFixedSurface_ = ((Number)value).intValue(); return;
+              case 12: secondFixedSurfaceType_ = ((Number)value).byteValue(); return;
+              case 13: scaleFactorOfSecondFixedSurface_ = ((Number)value).byteValue(); return;
+              case 14: scaledValueOfSecondFixedSurface_ = ((Number)value).intValue(); return;
+              case 15: ensembleForcastType_ = (EnumValue<Grib2.EnsembleForecastType>)value; return;
+              case 16: numForcasts_ = ((Number)value).byteValue(); return;
+              case 17: year_ = ((Number)value).shortValue(); return;
+              case 18: month_ = ((Number)value).byteValue(); return;
+              case 19: day_ = ((Number)value).byteValue(); return;
+              case 20: hour_ = ((Number)value).byteValue(); return;
+              case 21: minute_ = ((Number)value).byteValue(); return;
+              case 22: second_ = ((Number)value).byteValue(); return;
+              case 23: numTimeRange_ = ((Number)value).byteValue(); return;
+              case 24: numMissingDataValues_ = ((Number)value).intValue(); return;
+              case 25: statisticalProcessingType_ = (EnumValue<Grib2.StatisticalProcessingType>)value; return;
+              case 26: timeIntervalsType_ = (EnumValue<Grib2.TimeIntervalsType>)value; return;
+              case 27: unitOfTimeRangeLength_ = (EnumValue<Grib2.UnitOfTimeRange>)value; return;
+              case 28: timeRangeLength_ = ((Number)value).intValue(); return;
+              case 29: unitOfTimeIncrement_ = (EnumValue<Grib2.UnitOfTimeRange>)value; return;
+              case 30: timeIncrement_ = ((Number)value).intValue(); return;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+    }
+
+
+    static final class DataRepresentationSectionImpl extends Grib2SectionImpl<Grib2.DataRepresentationSection> implements Grib2.DataRepresentationSection, CompiledContainer {
+        private static final ContentInfo[] CONTENTS = contentsOf(Grib2.DataRepresentationSection.class);
+
+        int numDataPoints_;
+        EnumValue<Grib2.DataRepresentationTemplateNumber> templateNumber_;
+        Grib2.DataRepresentationTemplate template_;
+
+        DataRepresentationSectionImpl(final int sectionLength) {
+            super(Grib2.DataRepresentationSection.class, sectionLength);
+        }
+
+        @Override public int numDataPoints() { return numDataPoints_; }
+        @Override public EnumValue<Grib2.DataRepresentationTemplateNumber> templateNumber() { return templateNumber_; }
+        @Override public Grib2.DataRepresentationTemplate template() { return template_; }
+
+        @Override
+        public int read(final ContentReader reader, final ByteBuffer in, final int base) {
+            final int o = base - 1;
+            numDataPoints_ = signedInt(in.getInt(o + 6));
+            templateNumber_ = reader.enumValue(this, CONTENTS[1], Grib2.DataRepresentationTemplateNumber.class, in.getShort(o + 10));
+            template_ = reader.newTemplate(this, CONTENTS[2], templateNumber_);
+            return Math.max(11, template_ != null ? reader.readTemplate(template_, CONTENTS[2], in, base) : 0);
+        }
+
+        @Override
+        public boolean validate(final ContentValidator validator) {
+            boolean valid = true;
+            if (templateNumber_ != null && templateNumber_.intValue() != 0) valid = invalid(validator, CONTENTS[1], templateNumber_.intValue());
+            if (template_ instanceof CompiledContainer && !((CompiledContainer)template_).validate(validator)) valid = false;
+            return valid;
+        }
+
+        @Override
+        protected Object value(final int index) {
+            switch (index) {
+              case 0: return numDataPoints_;
+              case 1: return templateNumber_;
+              case 2: return template_;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+
+        @Override
+        protected void value(final int index, final Object value) {
+            switch (index) {
+              case 0: numDataPoints_ = ((Number)value).intValue(); return;
+              case 1: templateNumber_ = (EnumValue<Grib2.DataRepresentationTemplateNumber>)value; return;
+              case 2: template_ = (Grib2.DataRepresentationTemplate)value; return;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+    }
+
+
+    static final class DataRepresentationTemplateImpl extends Grib2TemplateImpl<Grib2.DataRepresentationTemplate> implements Grib2.DataRepresentationTemplate, CompiledContainer {
+        private static final ContentInfo[] CONTENTS = contentsOf(Grib2.DataRepresentationTemplate.class);
+
+        float referenceValue_;
+        short binaryScaleFactor_;
+        short decimalScaleFactor_;
+        byte numBits_;
+        EnumValue<Grib2.FieldValueType> originalFieldValuesType_;
+
+        DataRepresentationTemplateImpl() {
+            super(Grib2.DataRepresentationTemplate.class);
+        }
+
+        @Override public float referenceValue() { return referenceValue_; }
+        @Override public short binaryScaleFactor() { return binaryScaleFactor_; }
+        @Override public short decimalScaleFactor() { return decimalScaleFactor_; }
+        @Override public byte numBits() { return numBits_; }
+        @Override public EnumValue<Grib2.FieldValueType> originalFieldValuesType() { return originalFieldValuesType_; }
+
+        @Override
+        public int read(final ContentReader reader, final ByteBuffer in, final int base) {
+            final int o = base - 1;
+            referenceValue_ = in.getFloat(o + 12);
+            binaryScaleFactor_ = signedShort(in.getShort(o + 16));
+            decimalScaleFactor_ = signedShort(in.getShort(o + 18));
+            numBits_ = signedByte(in.get(o + 20));
+            originalFieldValuesType_ = reader.enumValue(this, CONTENTS[4], Grib2.FieldValueType.class, in.get(o + 21));
+            return 21;
+        }
+
+        @Override
+        public boolean validate(final ContentValidator validator) {
+            boolean valid = true;
+            if (numBits_ != 12 && numBits_ != 16) valid = invalid(validator, CONTENTS[3], numBits_);
+            if (originalFieldValuesType_ != null && originalFieldValuesType_.intValue() != 0) valid = invalid(validator, CONTENTS[4], originalFieldValuesType_.intValue());
+            return valid;
+        }
+
+        @Override
+        protected Object value(final int index) {
+            switch (index) {
+              case 0: return referenceValue_;
+              case 1: return binaryScaleFactor_;
+              case 2: return decimalScaleFactor_;
+              case 3: return numBits_;
+              case 4: return originalFieldValuesType_;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+
+        @Override
+        protected void value(final int index, final Object value) {
+            switch (index) {
+              case 0: referenceValue_ = ((Number)value).floatValue(); return;
+              case 1: binaryScaleFactor_ = ((Number)value).shortValue(); return;
+              case 2: decimalScaleFactor_ = ((Number)value).shortValue(); return;
+              case 3: numBits_ = ((Number)value).byteValue(); return;
+              case 4: originalFieldValuesType_ = (EnumValue<Grib2.FieldValueType>)value; return;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+    }
+
+
+    static final class BitmapSectionImpl extends Grib2SectionImpl<Grib2.BitmapSection> implements Grib2.BitmapSection, CompiledContainer {
+        private static final ContentInfo[] CONTENTS = contentsOf(Grib2.BitmapSection.class);
+
+        byte bitmapIndicator_;
+        Object bitmap_;
+
+        BitmapSectionImpl(final int sectionLength) {
+            super(Grib2.BitmapSection.class, sectionLength);
+        }
+
+        @Override public byte bitmapIndicator() { return bitmapIndicator_; }
+        @Override public byte[] bitmap() { return getBytes(1); }
+        @Override public ByteBuffer bitmapBuffer() { return getBuffer(1); }
+
+        @Override
+        public int read(final ContentReader reader, final ByteBuffer in, final int base) {
+            final int o = base - 1;
+            bitmapIndicator_ = signedByte(in.get(o + 6));
+            bitmap_ = reader.payload(this, CONTENTS[1], in, o + 7, length_ - 6);
+            return length_;
+        }
+
+        @Override
+        public boolean validate(final ContentValidator validator) {
+            boolean valid = true;
+            return valid;
+        }
+
+        @Override
+        protected Object value(final int index) {
+            switch (index) {
+              case 0: return bitmapIndicator_;
+              case 1: return bitmap_;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+
+        @Override
+        protected void value(final int index, final Object value) {
+            switch (index) {
+              case 0: bitmapIndicator_ = ((Number)value).byteValue(); return;
+              case 1: bitmap_ = value; return;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+    }
+
+
+    static final class DataSectionImpl extends Grib2SectionImpl<Grib2.DataSection> implements Grib2.DataSection, CompiledContainer {
+        private static final ContentInfo[] CONTENTS = contentsOf(Grib2.DataSection.class);
+
+        Object data_;
+
+        DataSectionImpl(final int sectionLength) {
+            super(Grib2.DataSection.class, sectionLength);
+        }
+
+        @Override public byte[] data() { return getBytes(0); }
+        @Override public ByteBuffer dataBuffer() { return getBuffer(0); }
+
+        @Override
+        public int read(final ContentReader reader, final ByteBuffer in, final int base) {
+            final int o = base - 1;
+            data_ = reader.payload(this, CONTENTS[0], in, o + 6, length_ - 5);
+            return length_;
+        }
+
+        @Override
+        public boolean validate(final ContentValidator validator) {
+            boolean valid = true;
+            return valid;
+        }
+
+        @Override
+        protected Object value(final int index) {
+            switch (index) {
+              case 0: return data_;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+
+        @Override
+        protected void value(final int index, final Object value) {
+            switch (index) {
+              case 0: data_ = value; return;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+    }
+
+
+    static final class EndSectionImpl extends Grib2SectionImpl<Grib2.EndSection> implements Grib2.EndSection, CompiledContainer {
+        private static final ContentInfo[] CONTENTS = contentsOf(Grib2.EndSection.class);
+
+        String marker_;
+
+        EndSectionImpl(final int sectionLength) {
+            super(Grib2.EndSection.class, sectionLength);
+        }
+
+        @Override public String marker() { return marker_; }
+
+        @Override
+        public int read(final ContentReader reader, final ByteBuffer in, final int base) {
+            final int o = base - 1;
+            marker_ = getString(in, o + 1, 4);
+            return 4;
+        }
+
+        @Override
+        public boolean validate(final ContentValidator validator) {
+            boolean valid = true;
+            return valid;
+        }
+
+        @Override
+        protected Object value(final int index) {
+            switch (index) {
+              case 0: return marker_;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+
+        @Override
+        protected void value(final int index, final Object value) {
+            switch (index) {
+              case 0: marker_ = (String)value; return;
+            }
+            throw new IndexOutOfBoundsException("No such content: #" + index);
+        }
+    }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv.grib2.types;
+
+
+/**
+ * セクション実装の基底クラス。
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+abstract class Grib2SectionImpl<T extends Section> extends Grib2ContainerImpl<T> implements Section {
+    /* @Content(offset=1, length=4) */ final int length_;
+    /* @Content(offset=5, length=1) */ final int number_;
+
+    Grib2SectionImpl(final Class<T> sectionType, final int sectionLength) {
+        super(sectionType);
+        this.number_ = sectionType.getAnnotation(Assertion.class).section();
+        this.length_ = sectionLength;
+    }
+
+    @Override public int length() { return length_; }
+    @Override public int number() { return number_; }
+
+    @Override
+    protected StringBuilder appendTo(final StringBuilder out) {
+        out.append("section:").append(number_).append(',')
+        .append("length:").append(length_).append(',');
+        return super.appendTo(out);
+    }
+}
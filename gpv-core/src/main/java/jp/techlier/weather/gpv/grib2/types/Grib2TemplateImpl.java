@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv.grib2.types;
+
+
+/**
+ * テンプレート実装の基底クラス。
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+abstract class Grib2TemplateImpl<T extends Template> extends Grib2ContainerImpl<T> implements Template {
+
+    Grib2TemplateImpl(final Class<T> templateType) {
+        super(templateType);
+    }
+
+    @Override
+    protected StringBuilder appendTo(final StringBuilder out) {
+        out.append('{');
+        return super.appendTo(out).append('}');
+    }
+}
@@ -74,7 +74,7 @@ public class GpvFileValidator implements MessageListener {
         return this.fileType;
     }
 
-
+
     @Override
     public void indicatorSection(final IndicatorSection section, final MessageHolder messages) {
         logger_.info(section);
@@ -302,12 +302,12 @@ public class GpvFileValidator implements MessageListener {
           case EPS1_GLOBAL:
           case EPS1_MGPV_GLOBAL:
             validate("numBits", template.numBits(), is((byte)16));
-            validate("data.length", section.data().length,
+            validate("data.length", section.dataBuffer().remaining(),
                      is(holder.latestGridDefinitionSection().numPoints() * 2));
             break;
           default:
             validate("numBits", template.numBits(), is((byte)12));
-            validate("data.length", section.data().length,
+            validate("data.length", section.dataBuffer().remaining(),
                      is((holder.latestGridDefinitionSection().numPoints() * template.numBits() + Byte.SIZE - 1) / Byte.SIZE));
             break;
         }
@@ -0,0 +1,481 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv.tools;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import jp.techlier.weather.gpv.grib2.Grib2;
+import jp.techlier.weather.gpv.grib2.types.CompiledContainer;
+import jp.techlier.weather.gpv.grib2.types.Container;
+import jp.techlier.weather.gpv.grib2.types.Container.Assertion;
+import jp.techlier.weather.gpv.grib2.types.Container.BufferView;
+import jp.techlier.weather.gpv.grib2.types.Content;
+import jp.techlier.weather.gpv.grib2.types.ContentInfo;
+import jp.techlier.weather.gpv.grib2.types.ContentReader;
+import jp.techlier.weather.gpv.grib2.types.HasIntValue;
+import jp.techlier.weather.gpv.grib2.types.Section;
+import jp.techlier.weather.gpv.grib2.types.Template;
+import jp.techlier.weather.gpv.grib2.types.TemplateNumber;
+
+
+/**
+ * {@link Grib2}のセクション・テンプレート定義から実装クラスのソースを生成する。
+ * <p>
+ * 各contentをプリミティブ型のフィールドとして持つクラスを生成し、
+ * {@link java.lang.reflect.Proxy}による実装を置き換える。
+ * 生成されたクラスは{@link CompiledContainer}として、固定位置のcontentを
+ * 直線的なコードで読み込み、期待値の照合はそれとは別に行う。
+ * 定義を変更したときは再生成すること(生成結果との差異はテストで検出される)。
+ * <pre>
+ * java jp.techlier.weather.gpv.tools.Grib2ContainerGenerator [出力ファイル]
+ * </pre>
+ * </p>
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+public class Grib2ContainerGenerator {
+
+    public static final String PACKAGE = "jp.techlier.weather.gpv.grib2.types";
+    public static final String CLASS_NAME = "Grib2Containers";
+    public static final String SOURCE_PATH =
+            "src/main/java/" + PACKAGE.replace('.', '/') + "/" + CLASS_NAME + ".java";
+
+    public static void main(final String[] args) throws IOException {
+        final File file = new File(args.length > 0 ? args[0] : SOURCE_PATH);
+        final Writer out = new OutputStreamWriter(new FileOutputStream(file), "UTF-8"); try {
+            out.write(generate());
+        } finally {
+            out.close();
+        }
+        System.out.println(file);
+    }
+
+
+    /**
+     * @return 実装クラスを生成する対象の型(セクション番号・テンプレート番号順)
+     */
+    public static List<Class<? extends Container>> containerTypes() {
+        final List<Class<? extends Container>> types = new ArrayList<Class<? extends Container>>();
+        collectContainerTypes(Grib2.class, types);
+        Collections.sort(types, new Comparator<Class<?>>() {
+            @Override
+            public int compare(final Class<?> c1, final Class<?> c2) {
+                final Assertion a1 = c1.getAnnotation(Assertion.class);
+                final Assertion a2 = c2.getAnnotation(Assertion.class);
+                if (a1.section() != a2.section()) return a1.section() - a2.section();
+                if (a1.template() != a2.template()) return a1.template() - a2.template();
+                return c1.getName().compareTo(c2.getName());
+            }
+        });
+        return types;
+    }
+
+    private static void collectContainerTypes(final Class<?> enclosing,
+                                              final List<Class<? extends Container>> types) {
+        for (final Class<?> c: enclosing.getDeclaredClasses()) {
+            if (c.isInterface() && Container.class.isAssignableFrom(c) && c.isAnnotationPresent(Assertion.class)) {
+                types.add(c.asSubclass(Container.class));
+            }
+            collectContainerTypes(c, types);
+        }
+    }
+
+
+    private final StringBuilder out_ = new StringBuilder();
+
+    public static String generate() {
+        return new Grib2ContainerGenerator().generateSource().toString();
+    }
+
+    private Grib2ContainerGenerator line(final String line) {
+        out_.append(line).append('\n');
+        return this;
+    }
+
+    private StringBuilder generateSource() {
+        line("/*");
+        line(" * Copyright (c) 2026 Techlier Inc. All rights reserved.");
+        line(" *");
+        line(" * This program is free software: you can redistribute it and/or");
+        line(" * modify it under the terms of the GNU Lesser General Public");
+        line(" * License as published by the Free Software Foundation, either");
+        line(" * version 3 of the License, or any later version.");
+        line(" *");
+        line(" * This program is distributed in the hope that it will be useful,");
+        line(" * but WITHOUT ANY WARRANTY; without even the implied warranty of");
+        line(" * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the");
+        line(" * GNU Lesser General Public License for more details.");
+        line(" *");
+        line(" * You should have received a copy of the GNU Lesser General Public");
+        line(" * License along with this program. If not, see <http://www.gnu.org/licenses/>.");
+        line(" */");
+        line("package " + PACKAGE + ";");
+        line("");
+        line("import static " + ContentReader.class.getName() + ".*;");
+        line("");
+        line("import " + ByteBuffer.class.getName() + ";");
+        line("");
+        line("import " + Grib2.class.getName() + ";");
+        line("");
+        line("");
+        line("/**");
+        line(" * " + Grib2.class.getSimpleName() + "で定義されたセクション・テンプレートの実装クラス。");
+        line(" * <p>");
+        line(" * このファイルは{@link " + Grib2ContainerGenerator.class.getName() + "}で生成される。");
+        line(" * 直接編集しないこと。");
+        line(" * </p>");
+        line(" *");
+        line(" * @author <a href=\"mailto:okamura@techlier.jp\">Kz Okamura</a>");
+        line(" * @since 2026/10/16");
+        line(" * @version $Id$");
+        line(" */");
+        line("@SuppressWarnings(\"unchecked\")");
+        line("final class " + CLASS_NAME + " {");
+        line("");
+        line("    private " + CLASS_NAME + "() {");
+        line("    }");
+        line("");
+
+        final List<Class<? extends Container>> types = containerTypes();
+        generateFactoryMethod(types, Section.class, "newSection", "sectionType", "final int sectionLength", "sectionLength");
+        line("");
+        generateFactoryMethod(types, Template.class, "newTemplate", "templateType", null, "");
+        for (final Class<? extends Container> type: types) {
+            line("");
+            line("");
+            generateClass(type);
+        }
+        line("");
+        line("}");
+        return out_;
+    }
+
+    private void generateFactoryMethod(final List<Class<? extends Container>> types, final Class<?> kind,
+                                       final String name, final String typeParam,
+                                       final String extraParam, final String extraArg) {
+        final String kindName = kind.getSimpleName();
+        line("    static <T extends " + kindName + "> T " + name + "(final Class<T> " + typeParam
+             + (extraParam != null ? ", " + extraParam : "") + ") {");
+        for (final Class<? extends Container> type: types) {
+            if (!kind.isAssignableFrom(type)) continue;
+            line("        if (" + typeParam + " == " + typeName(type) + ".class) {");
+            line("            return (T)new " + className(type) + "(" + extraArg + ");");
+            line("        }");
+        }
+        line("        return null;");
+        line("    }");
+    }
+
+    private void generateClass(final Class<? extends Container> type) {
+        final boolean isSection = Section.class.isAssignableFrom(type);
+        final Class<?> base = isSection ? Section.class : Template.class;
+        final String baseImpl = "Grib2" + base.getSimpleName() + "Impl";
+        final List<ContentInfo> contents = new ArrayList<ContentInfo>(ContentInfo.getOrderedContents(type));
+        final List<Method> accessors = new ArrayList<Method>();
+        for (final ContentInfo content: contents) {
+            accessors.add(accessor(type, content.name()));
+        }
+
+        line("    static final class " + className(type) + " extends " + baseImpl + "<" + typeName(type) + ">"
+             + " implements " + typeName(type) + ", " + CompiledContainer.class.getSimpleName() + " {");
+        line("        private static final ContentInfo[] CONTENTS = contentsOf(" + typeName(type) + ".class);");
+        line("");
+        for (int i = 0; i < contents.size(); i++) {
+            final Class<?> fieldType = accessors.get(i).getReturnType();
+            line("        " + (fieldType == byte[].class ? "Object" : typeName(accessors.get(i).getGenericReturnType()))
+                 + " " + fieldName(contents.get(i)) + ";");
+        }
+        line("");
+        if (isSection) {
+            line("        " + className(type) + "(final int sectionLength) {");
+            line("            super(" + typeName(type) + ".class, sectionLength);");
+        }
+        else {
+            line("        " + className(type) + "() {");
+            line("            super(" + typeName(type) + ".class);");
+        }
+        line("        }");
+        line("");
+
+        for (int i = 0; i < contents.size(); i++) {
+            final Method m = accessors.get(i);
+            final String value = m.getReturnType() == byte[].class ? "getBytes(" + i + ")" : fieldName(contents.get(i));
+            line("        @Override public " + typeName(m.getGenericReturnType()) + " " + m.getName()
+                 + "() { return " + value + "; }");
+        }
+        for (final Method m: type.getMethods()) {
+            if (m.isAnnotationPresent(BufferView.class)) {
+                final int index = indexOf(contents, m.getAnnotation(BufferView.class).value(), m);
+                line("        @Override public " + typeName(m.getGenericReturnType()) + " " + m.getName()
+                     + "() { return getBuffer(" + index + "); }");
+            }
+            else if (!m.isAnnotationPresent(Content.class)) {
+                checkImplemented(isSection ? SECTION_BASE_METHODS : TEMPLATE_BASE_METHODS, m);
+            }
+        }
+        line("");
+
+        generateRead(contents, accessors);
+        line("");
+        generateValidate(contents, accessors);
+        line("");
+
+        line("        @Override");
+        line("        protected Object value(final int index) {");
+        line("            switch (index) {");
+        for (int i = 0; i < contents.size(); i++) {
+            line("              case " + i + ": return " + fieldName(contents.get(i)) + ";");
+        }
+        line("            }");
+        line("            throw new IndexOutOfBoundsException(\"No such content: #\" + index);");
+        line("        }");
+        line("");
+        line("        @Override");
+        line("        protected void value(final int index, final Object value) {");
+        line("            switch (index) {");
+        for (int i = 0; i < contents.size(); i++) {
+            line("              case " + i + ": " + fieldName(contents.get(i)) + " = "
+                 + convert(accessors.get(i), "value") + "; return;");
+        }
+        line("            }");
+        line("            throw new IndexOutOfBoundsException(\"No such content: #\" + index);");
+        line("        }");
+        line("    }");
+    }
+
+
+    private void generateRead(final List<ContentInfo> contents, final List<Method> accessors) {
+        line("        @Override");
+        line("        public int read(final ContentReader reader, final ByteBuffer in, final int base) {");
+        line("            final int o = base - 1;");
+        int end = 0;
+        boolean hasPayload = false;
+        String template = null;
+        for (int i = 0; i < contents.size(); i++) {
+            final ContentInfo content = contents.get(i);
+            final Class<?> type = accessors.get(i).getReturnType();
+            final String field = fieldName(content);
+            final String index = "o + " + content.offset();
+            if (type == byte[].class) {
+                line("            " + field + " = reader.payload(this, CONTENTS[" + i + "], in, " + index
+                     + ", length_ - " + (content.offset() - 1) + ");");
+                hasPayload = true;
+                continue;
+            }
+            else if (Template.class.isAssignableFrom(type)) {
+                line("            " + field + " = reader.newTemplate(this, CONTENTS[" + i + "], "
+                     + fieldName(templateNumber(contents, content)) + ");");
+                template = field + " != null ? reader.readTemplate(" + field + ", CONTENTS[" + i + "], in, base) : 0";
+                continue;
+            }
+            line("            " + field + " = " + readExpression(content, type, index, i) + ";");
+            end = Math.max(end, content.offset() + content.length() - 1);
+        }
+        if (hasPayload) {
+            line("            return length_;");
+        }
+        else if (template != null) {
+            line("            return Math.max(" + end + ", " + template + ");");
+        }
+        else {
+            line("            return " + end + ";");
+        }
+        line("        }");
+    }
+
+    private static String readExpression(final ContentInfo content, final Class<?> type,
+                                         final String index, final int i) {
+        final int length = content.length();
+        if (type.isPrimitive()) {
+            if (type == Float.TYPE && length == 4) return "in.getFloat(" + index + ")";
+            final int size = type == Byte.TYPE ? 1 : type == Short.TYPE ? 2 : type == Integer.TYPE ? 4
+                    : type == Long.TYPE ? 8 : 0;
+            switch (length <= size ? length : 0) {
+              case 1: return "signedByte(in.get(" + index + "))";
+              case 2: return "signedShort(in.getShort(" + index + "))";
+              case 4: return "signedInt(in.getInt(" + index + "))";
+              case 8: return "signedLong(in.getLong(" + index + "))";
+            }
+        }
+        else if (type == String.class) {
+            if (length > 0) return "getString(in, " + index + ", " + length + ")";
+        }
+        else if (HasIntValue.class.isAssignableFrom(content.type())) {
+            final String value = length == 1 ? "in.get(" + index + ")" : length == 2 ? "in.getShort(" + index + ")" : null;
+            if (value != null && content.type().isEnum()) {
+                return "reader.enumValue(this, CONTENTS[" + i + "], " + typeName(content.type()) + ".class, " + value + ")";
+            }
+            else if (value != null) {
+                try {
+                    content.type().getConstructor(Integer.TYPE);
+                } catch (NoSuchMethodException e) {
+                    throw new IllegalStateException("constructor(int) is required: " + content, e);
+                }
+                return "new " + typeName(content.type()) + "(" + value + ")";
+            }
+        }
+        throw new IllegalStateException("unsupported content type or length: " + content);
+    }
+
+    /**
+     * テンプレートの種類を示すcontent。
+     */
+    private static ContentInfo templateNumber(final List<ContentInfo> contents, final ContentInfo template) {
+        for (final ContentInfo content: contents) {
+            if (TemplateNumber.class.isAssignableFrom(content.type())) return content;
+        }
+        throw new IllegalStateException("template number is not defined: " + template);
+    }
+
+    private void generateValidate(final List<ContentInfo> contents, final List<Method> accessors) {
+        line("        @Override");
+        line("        public boolean validate(final ContentValidator validator) {");
+        line("            boolean valid = true;");
+        for (int i = 0; i < contents.size(); i++) {
+            final ContentInfo content = contents.get(i);
+            final Class<?> type = accessors.get(i).getReturnType();
+            final String field = fieldName(content);
+            if (Template.class.isAssignableFrom(type)) {
+                line("            if (" + field + " instanceof CompiledContainer"
+                     + " && !((CompiledContainer)" + field + ").validate(validator)) valid = false;");
+                continue;
+            }
+            final int[] expected = content.expectedValues();
+            if (expected.length == 0) continue;
+            final String value;
+            final String condition;
+            if (type.isPrimitive()) {
+                value = type == Float.TYPE || type == Double.TYPE ? "(int)" + field : field;
+                condition = "";
+            }
+            else if (HasIntValue.class.isAssignableFrom(type)) {
+                value = field + ".intValue()";
+                condition = field + " != null && ";
+            }
+            else {
+                continue;
+            }
+            final StringBuilder test = new StringBuilder(condition);
+            for (int k = 0; k < expected.length; k++) {
+                if (k > 0) test.append(" && ");
+                test.append(value).append(" != ").append(expected[k]);
+            }
+            line("            if (" + test + ") valid = invalid(validator, CONTENTS[" + i + "], " + value + ");");
+        }
+        line("            return valid;");
+        line("        }");
+    }
+
+
+    /** 基底クラスで実装されるメソッド */
+    private static final Class<?>[] SECTION_BASE_METHODS = { Section.class, Container.class, Object.class };
+    private static final Class<?>[] TEMPLATE_BASE_METHODS = { Template.class, Container.class, Object.class };
+
+    private static void checkImplemented(final Class<?>[] implemented, final Method m) {
+        for (final Class<?> c: implemented) {
+            try {
+                c.getMethod(m.getName(), m.getParameterTypes());
+                return;
+            } catch (NoSuchMethodException e) {
+                continue;
+            }
+        }
+        throw new IllegalStateException("unsupported method: " + m);
+    }
+
+    private static Method accessor(final Class<?> type, final String name) {
+        try {
+            return type.getMethod(name);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int indexOf(final List<ContentInfo> contents, final String name, final Method m) {
+        for (int i = 0; i < contents.size(); i++) {
+            if (contents.get(i).name().equals(name)) return i;
+        }
+        throw new IllegalStateException("No such content was defined: " + name + " for " + m);
+    }
+
+    private static String fieldName(final ContentInfo content) {
+        return content.name() + "_";
+    }
+
+    /**
+     * 入れ子のインタフェース名を連結したクラス名。
+     */
+    static String className(final Class<?> type) {
+        if (type.getEnclosingClass() == null || type.getEnclosingClass() == Grib2.class) {
+            return type.getSimpleName() + "Impl";
+        }
+        return className(type.getEnclosingClass()).replaceFirst("Impl$", "") + type.getSimpleName() + "Impl";
+    }
+
+    static String typeName(final Type type) {
+        if (type instanceof ParameterizedType) {
+            final ParameterizedType p = (ParameterizedType)type;
+            final StringBuilder name = new StringBuilder(typeName(p.getRawType())).append('<');
+            final Type[] args = p.getActualTypeArguments();
+            for (int i = 0; i < args.length; i++) {
+                if (i > 0) name.append(',');
+                name.append(typeName(args[i]));
+            }
+            return name.append('>').toString();
+        }
+        final Class<?> c = (Class<?>)type;
+        if (c.isArray()) {
+            return typeName(c.getComponentType()) + "[]";
+        }
+        else if (c.isPrimitive() || c == Grib2.class || c == ByteBuffer.class) {
+            return c.getSimpleName();
+        }
+        else if (c.getEnclosingClass() != null) {
+            return typeName(c.getEnclosingClass()) + "." + c.getSimpleName();
+        }
+        else if (c.getPackage().getName().equals("java.lang") || c.getPackage().getName().equals(PACKAGE)) {
+            return c.getSimpleName();
+        }
+        return c.getName();
+    }
+
+    private static String convert(final Method accessor, final String value) {
+        final Class<?> type = accessor.getReturnType();
+        if (type == byte[].class) {
+            return value;
+        }
+        else if (type.isPrimitive()) {
+            return "((Number)" + value + ")." + type.getName() + "Value()";
+        }
+        return "(" + typeName(accessor.getGenericReturnType()) + ")" + value;
+    }
+
+}
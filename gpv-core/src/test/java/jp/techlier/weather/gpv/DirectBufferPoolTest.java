@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv;
+
+import static jp.techlier.test.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+
+/**
+ *
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+@SuppressWarnings("boxing")
+public class DirectBufferPoolTest {
+
+    static final int MIN = DirectBufferPool.MIN_BUFFER_SIZE;
+
+    @Test
+    public void roundUpToSizeClass() throws Exception {
+        assertThat(DirectBufferPool.sizeClass(0), is(0));
+        assertThat(DirectBufferPool.sizeClass(MIN), is(0));
+        assertThat(DirectBufferPool.sizeClass(MIN + 1), is(1));
+        assertThat(DirectBufferPool.sizeClass(MIN * 2), is(1));
+        assertThat(DirectBufferPool.sizeClass(DirectBufferPool.MAX_BUFFER_SIZE),
+                   is(Integer.numberOfTrailingZeros(DirectBufferPool.MAX_BUFFER_SIZE / MIN)));
+    }
+
+    @Test
+    public void reuseReleasedBuffers() throws Exception {
+        final DirectBufferPool pool = new DirectBufferPool(MIN * 16);
+        final ByteBuffer first = pool.lease(1000);
+        assertThat(first.capacity(), is(MIN));
+        assertThat(first.isDirect(), is(true));
+        first.position(10);
+        pool.release(first);
+
+        final ByteBuffer second = pool.lease(MIN);
+        assertSame(first, second);
+        assertThat(second.position(), is(0));
+        assertThat(second.limit(), is(MIN));
+        final ByteBuffer third = pool.lease(MIN * 3);
+        assertThat(third.capacity(), is(MIN * 4));
+
+        assertThat(pool.leaseCount(), is(3L));
+        assertThat(pool.allocationCount(), is(2L));
+        assertThat(pool.allocatedBytes(), is(MIN * 5L));
+        assertThat(pool.leasedBytes(), is(MIN * 5L));
+        pool.release(second);
+        pool.release(third);
+        assertThat(pool.leasedBytes(), is(0L));
+        assertThat(pool.allocatedBytes(), is(MIN * 5L));
+        pool.trim();
+        assertThat(pool.allocatedBytes(), is(0L));
+        assertThat(pool.peakAllocatedBytes(), is(MIN * 5L));
+    }
+
+    @Test
+    public void limitDirectMemory() throws Exception {
+        final DirectBufferPool pool = new DirectBufferPool(MIN * 4);
+        final ByteBuffer small = pool.lease(MIN);
+        pool.release(small);
+        // 未使用のバッファを解放して確保する
+        final ByteBuffer large = pool.lease(MIN * 4);
+        assertThat(large.isDirect(), is(true));
+        assertThat(pool.allocatedBytes(), is(MIN * 4L));
+        // 上限を超える分はヒープ上に確保する
+        final ByteBuffer overflow = pool.lease(MIN);
+        assertThat(overflow.isDirect(), is(false));
+        assertThat(pool.overflowCount(), is(1L));
+        pool.release(overflow);
+        pool.release(large);
+        assertThat(pool.leasedBytes(), is(0L));
+        assertThat(pool.allocatedBytes(), is(MIN * 4L));
+    }
+
+    @Test
+    public void reclaimUnreleasedBuffers() throws Exception {
+        final DirectBufferPool pool = new DirectBufferPool(MIN * 4);
+        pool.lease(MIN * 4).put(0, (byte)1);
+        assertThat(pool.leasedBytes(), is(MIN * 4L));
+        // 返却されずに回収されたバッファは上限に数えない
+        for (int k = 0; k < 100 && pool.leasedBytes() > 0; k++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(pool.leasedBytes(), is(0L));
+        assertThat(pool.allocatedBytes(), is(0L));
+        assertThat(pool.collectedCount(), is(1L));
+        final ByteBuffer buffer = pool.lease(MIN * 4);
+        assertThat(buffer.isDirect(), is(true));
+        pool.release(buffer);
+        assertThat(pool.collectedCount(), is(1L));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void rejectForeignBuffer() throws Exception {
+        new DirectBufferPool(MIN).release(ByteBuffer.allocateDirect(MIN));
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv;
+
+import static jp.techlier.test.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import jp.techlier.weather.gpv.grib2.Grib2.GeneratingProcessType;
+import jp.techlier.weather.gpv.grib2.Grib2.ParameterNumber;
+import jp.techlier.weather.gpv.grib2.Grib2.SurfaceType;
+import jp.techlier.weather.gpv.grib2.Grib2.UnitOfTimeRange;
+import jp.techlier.weather.gpv.grib2.Grib2TestMessages;
+import jp.techlier.weather.gpv.grib2.index.FieldKey;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+
+/**
+ *
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+@SuppressWarnings("boxing")
+public class GpvFieldReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    static FieldKey key(final ParameterNumber parameter, final int forecastTime) {
+        return FieldKey.of(parameter, GeneratingProcessType.FORECAST, UnitOfTimeRange.HOUR, forecastTime,
+                           SurfaceType.ISOBARIC_SURFACE, -2, 850);
+    }
+
+    static Grib2TestMessages message(final int parameterCategory, final int parameterNumber,
+                                     final int forecastTime, final int seed) {
+        final Grib2TestMessages message = new Grib2TestMessages();
+        message.parameterCategory = parameterCategory;
+        message.parameterNumber = parameterNumber;
+        message.forecastTime = forecastTime;
+        return message.values(seed);
+    }
+
+    @Test
+    public void readSelectedField() throws Exception {
+        final Grib2TestMessages[] messages = {
+            message(0, 0, 0, 1),    // TMP
+            message(2, 2, 0, 2),    // UGRD
+            message(0, 0, 24, 3),   // TMP
+            message(2, 2, 24, 4),   // UGRD
+        };
+        final byte[][] bytes = new byte[messages.length][];
+        for (int k = 0; k < messages.length; k++) {
+            bytes[k] = messages[k].message();
+        }
+        final File file = Grib2TestMessages.write(folder.newFile("sample_grib2.bin"), bytes);
+
+        final GpvFieldReader reader = new GpvFieldReader();
+        final GpvFieldReader.FieldData field = reader.read(file, key(ParameterNumber.TEMPERATURE, 24));
+        assertThat(field.field().messageOffset(), is((long)(bytes[0].length + bytes[1].length)));
+        assertThat(field.latestProductDefinitionSection().template().forecastTime(), is(24));
+        assertThat(field.latestProductDefinitionSection().template().parameterNumber().enumValue(),
+                   is(ParameterNumber.TEMPERATURE));
+        final double[] values = field.decode();
+        assertThat(values.length, is(messages[2].numPoints()));
+        for (int k = 0; k < values.length; k++) {
+            assertEquals(messages[2].valueOf(messages[2].packedValues[k]), values[k], 0.0);
+        }
+
+        final List<GpvFieldReader.FieldData> winds = reader.readAll(file, key(ParameterNumber.WIND_U, 0));
+        assertThat(winds.size(), is(1));
+        assertThat(winds.get(0).latestIndicatorSection().totalLength(), is((long)bytes[1].length));
+        assertThat(reader.read(file, key(ParameterNumber.WIND_V, 0)), isNull());
+        assertSame(reader.index(file), reader.index(file));
+    }
+
+    @Test
+    public void decodeAllInParallel() throws Exception {
+        final Grib2TestMessages[] messages = new Grib2TestMessages[40];
+        final byte[][] bytes = new byte[messages.length][];
+        for (int k = 0; k < messages.length; k++) {
+            messages[k] = message(0, 0, k, k);
+            messages[k].ni = 5 + k % 7;
+            messages[k].values(k);
+            bytes[k] = messages[k].message();
+        }
+        final File file = Grib2TestMessages.write(folder.newFile("sample_grib2.bin"), bytes);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (final boolean ordered: new boolean[] { true, false }) {
+                final List<Integer> forecastTimes = Collections.synchronizedList(new ArrayList<Integer>());
+                new GpvFieldReader().decodeAll(file, executor, 3, ordered, new GpvFieldReader.FieldHandler() {
+                    public void field(final GpvFieldReader.FieldData field, final double[] values) {
+                        final int forecastTime = field.latestProductDefinitionSection().template().forecastTime();
+                        final Grib2TestMessages expected = messages[forecastTime];
+                        assertThat(values.length, is(expected.numPoints()));
+                        for (int k = 0; k < values.length; k++) {
+                            assertEquals(expected.valueOf(expected.packedValues[k]), values[k], 0.0);
+                        }
+                        forecastTimes.add(forecastTime);
+                    }
+                });
+                assertThat(forecastTimes.size(), is(messages.length));
+                if (ordered) {
+                    for (int k = 0; k < messages.length; k++) {
+                        assertThat(forecastTimes.get(k), is(k));
+                    }
+                }
+                else {
+                    assertThat(new HashSet<Integer>(forecastTimes).size(), is(messages.length));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import jp.techlier.weather.gpv.grib2.index.FieldKey;
+import jp.techlier.weather.gpv.grib2.index.Grib2Index;
+
+
+/**
+ * バッファ読み込みとメモリマップによる解析時間を比較する。
+ * 比較のため、索引を用いて1つの格子データだけを読み込む時間も計測する。
+ * 引数を省略した場合はtest.propertiesのデータディレクトリを用いる。
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+public class GpvFileParserBenchmark {
+
+    static final int ROUNDS = 5;
+    static final int POINTS = 300;
+    static final int CORES = Runtime.getRuntime().availableProcessors();
+
+    public static void main(final String[] args) throws Exception {
+        final File root = new File(args.length > 0 ? args[0] : GpvFileParserRunnner.getDatadir());
+        final List<File> files = new ArrayList<File>();
+        collect(root, new GpvFileParser(), files);
+
+        for (final File file: files) {
+            System.out.println(file.getName() + " (" + file.length() + " bytes)");
+            measure("buffered        ", file, false, false, false);
+            measure("buffered+0copy  ", file, false, true, false);
+            measure("read-ahead+0copy", file, false, true, true);
+            measure("mapped          ", file, true, false, false);
+            measure("mapped+0copy    ", file, true, true, false);
+            measureInventory("inventory       ", file);
+            measureField("indexed field   ", file);
+            measureDecodeAll("decode x1       ", file, 1);
+            measureDecodeAll("decode x" + CORES + "       ", file, CORES);
+            measureStatistics("statistics x1   ", file);
+            measurePoints("points x" + POINTS + "     ", file);
+        }
+    }
+
+    static void collect(final File file, final GpvFileParser filter, final List<File> files) {
+        if (file.isDirectory()) {
+            for (final File child: file.listFiles(filter)) {
+                collect(child, filter, files);
+            }
+        }
+        else if (file.isFile()) {
+            files.add(file);
+        }
+    }
+
+    static void measure(final String label, final File file,
+                        final boolean mapping, final boolean zeroCopy, final boolean readAhead) throws Exception {
+        final GpvFileParser parser = new GpvFileParser();
+        parser.enableMemoryMapping(mapping);
+        parser.enableZeroCopy(zeroCopy);
+        parser.enableReadAhead(readAhead);
+        parser.parse(file); // warm up
+
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            final long start = System.nanoTime();
+            parser.parse(file);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("  %s %8.2f ms%n", label, best / 1e6);
+    }
+
+    static void measureInventory(final String label, final File file) throws Exception {
+        final GpvFileParser parser = new GpvFileParser();
+        parser.enableInventoryMode(true);
+        parser.parse(file); // warm up
+
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            final long start = System.nanoTime();
+            parser.parse(file);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("  %s %8.2f ms%n", label, best / 1e6);
+    }
+
+    static void measureDecodeAll(final String label, final File file, final int parallelism) throws Exception {
+        final GpvFieldReader reader = new GpvFieldReader();
+        final GpvFieldReader.FieldHandler handler = new GpvFieldReader.FieldHandler() {
+            public void field(final GpvFieldReader.FieldData field, final double[] values) {
+                // nothing to do
+            }
+        };
+        final ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            reader.decodeAll(file, executor, parallelism, true, handler); // warm up
+
+            long best = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                final long start = System.nanoTime();
+                reader.decodeAll(file, executor, parallelism, true, handler);
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            System.out.printf("  %s %8.2f ms%n", label, best / 1e6);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    static void measureStatistics(final String label, final File file) throws Exception {
+        final GpvFieldReader reader = new GpvFieldReader();
+        final List<Grib2Index.Field> fields = reader.index(file).fields();
+        for (final Grib2Index.Field field: fields) reader.read(file, field.key()).statistics(); // warm up
+
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            final long start = System.nanoTime();
+            for (final Grib2Index.Field field: fields) {
+                reader.read(file, field.key()).statistics();
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("  %s %8.2f ms%n", label, best / 1e6);
+    }
+
+    static void measurePoints(final String label, final File file) throws Exception {
+        final GpvFieldReader reader = new GpvFieldReader();
+        final List<Grib2Index.Field> fields = reader.index(file).fields();
+        final int size = reader.read(file, fields.get(0).key()).decorder().size();
+        final int[] indices = new int[POINTS];
+        for (int n = 0; n < POINTS; n++) {
+            indices[n] = (int)((long)size * n / POINTS);
+        }
+        for (final Grib2Index.Field field: fields) reader.read(file, field.key()).decorder().valuesAt(indices); // warm up
+
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            final long start = System.nanoTime();
+            for (final Grib2Index.Field field: fields) {
+                reader.read(file, field.key()).decorder().valuesAt(indices);
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("  %s %8.2f ms%n", label, best / 1e6);
+    }
+
+    static void measureField(final String label, final File file) throws Exception {
+        final GpvFieldReader reader = new GpvFieldReader();
+        final List<Grib2Index.Field> fields = reader.index(file).fields();
+        final FieldKey key = fields.get(fields.size() / 2).key();
+        reader.read(file, key).decode(); // warm up
+
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            final long start = System.nanoTime();
+            reader.read(file, key).decode();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("  %s %8.2f ms%n", label, best / 1e6);
+    }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv;
+
+import static jp.techlier.test.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.util.NoSuchElementException;
+import java.util.zip.GZIPOutputStream;
+
+import jp.techlier.weather.gpv.GpvFieldReader.FieldData;
+import jp.techlier.weather.gpv.grib2.Grib2.ParameterNumber;
+import jp.techlier.weather.gpv.grib2.Grib2.ProductDefinitionTemplate;
+import jp.techlier.weather.gpv.grib2.Grib2TestMessages;
+import jp.techlier.weather.gpv.grib2.parser.FieldFilter;
+import jp.techlier.weather.gpv.grib2.parser.FieldFilters;
+import jp.techlier.weather.gpv.grib2.parser.MessageHolder;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+
+/**
+ *
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+@SuppressWarnings("boxing")
+public class GribFieldReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    static final int COUNT = 6;
+
+    Grib2TestMessages[] messages_ = new Grib2TestMessages[COUNT];
+
+    File sampleFile() throws Exception {
+        final byte[][] bytes = new byte[COUNT][];
+        for (int k = 0; k < COUNT; k++) {
+            messages_[k] = new Grib2TestMessages();
+            messages_[k].parameterCategory = k % 2 == 0 ? 0 : 2;    // TMP, UGRD
+            messages_[k].parameterNumber = k % 2 == 0 ? 0 : 2;
+            messages_[k].forecastTime = k;
+            messages_[k].ni = 20;
+            messages_[k].nj = 20;
+            messages_[k].values(k);
+            bytes[k] = messages_[k].message();
+        }
+        return Grib2TestMessages.write(folder.newFile("sample_grib2.bin"), bytes);
+    }
+
+    void assertField(final FieldData field, final int k) {
+        assertThat(field.field(), isNull());
+        assertThat(field.latestProductDefinitionSection().template().forecastTime(), is(k));
+        final double[] values = field.decode();
+        assertThat(values.length, is(messages_[k].numPoints()));
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(messages_[k].valueOf(messages_[k].packedValues[i]), values[i], 0.0);
+        }
+    }
+
+    @Test
+    public void readAllFields() throws Exception {
+        final File file = sampleFile();
+        // 2つ目はData Sectionがバッファより大きい
+        for (final ByteBuffer buffer: new ByteBuffer[] { null, ByteBuffer.allocate(256) }) {
+            final GribFieldReader reader = new GribFieldReader(file, null, buffer);
+            final FieldData[] fields = new FieldData[COUNT];
+            for (int k = 0; k < COUNT; k++) {
+                assertThat(reader.hasNext(), is(true));
+                fields[k] = reader.next();
+            }
+            assertThat(reader.hasNext(), is(false));
+            // 復号は読み込みが終わった後でもよい
+            for (int k = 0; k < COUNT; k++) {
+                assertField(fields[k], k);
+            }
+        }
+    }
+
+    @Test
+    public void stopAndFilter() throws Exception {
+        final GribFieldReader reader =
+                new GribFieldReader(sampleFile(), FieldFilters.parameters(ParameterNumber.WIND_U));
+        assertField(reader.next(), 1);
+        assertField(reader.next(), 3);
+        reader.close();
+        assertThat(reader.hasNext(), is(false));
+        try {
+            reader.next();
+            fail();
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void releaseBufferOnRuntimeException() throws Exception {
+        // 圧縮されたファイルはマップせず、プールから借りたバッファに読み込む
+        final File file = sampleFile();
+        final File gzipped = new File(file.getPath() + GpvFileType.GZIP_SUFFIX);
+        final FileInputStream in = new FileInputStream(file);
+        final GZIPOutputStream out = new GZIPOutputStream(new FileOutputStream(gzipped));
+        try {
+            final byte[] bytes = new byte[4096];
+            for (int n; (n = in.read(bytes)) > 0; ) {
+                out.write(bytes, 0, n);
+            }
+        } finally {
+            in.close();
+            out.close();
+        }
+
+        final DirectBufferPool pool = DirectBufferPool.getDefault();
+        final long leasedBytes = pool.leasedBytes();
+        final GribFieldReader reader = new GribFieldReader(gzipped, new FieldFilter() {
+            @Override
+            public boolean accept(final ProductDefinitionTemplate template, final MessageHolder messages) {
+                if (template.forecastTime() == 2) throw new IllegalArgumentException("rejected");
+                return true;
+            }
+        });
+        assertTrue(pool.leasedBytes() > leasedBytes);
+        assertField(reader.next(), 0);
+        assertField(reader.next(), 1);
+        try {
+            reader.hasNext();
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertThat(pool.leasedBytes(), is(leasedBytes));
+        assertThat(reader.hasNext(), is(false));
+    }
+
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv;
+
+import static jp.techlier.test.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+
+/**
+ *
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+@SuppressWarnings("boxing")
+public class ReadAheadChannelTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    static final int SIZE = 1000;
+
+    final DirectBufferPool pool = new DirectBufferPool(1024 * 1024);
+
+    File sampleFile() throws Exception {
+        final byte[] bytes = new byte[SIZE];
+        for (int k = 0; k < SIZE; k++) {
+            bytes[k] = (byte)(k * 7);
+        }
+        final File file = folder.newFile("sample.bin");
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(bytes);
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    /**
+     * 位置を指定した読み込みの位置を記録する。
+     */
+    static class RecordingChannel extends FileChannel {
+        final FileChannel channel;
+        final List<Long> positions = new CopyOnWriteArrayList<Long>();
+
+        RecordingChannel(final FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public int read(final ByteBuffer dst, final long position) throws IOException {
+            positions.add(position);
+            return channel.read(dst, position);
+        }
+
+        @Override public int read(final ByteBuffer dst) throws IOException { return channel.read(dst); }
+        @Override public long read(final ByteBuffer[] dsts, final int offset, final int length) throws IOException { return channel.read(dsts, offset, length); }
+        @Override public int write(final ByteBuffer src) throws IOException { return channel.write(src); }
+        @Override public long write(final ByteBuffer[] srcs, final int offset, final int length) throws IOException { return channel.write(srcs, offset, length); }
+        @Override public int write(final ByteBuffer src, final long position) throws IOException { return channel.write(src, position); }
+        @Override public long position() throws IOException { return channel.position(); }
+        @Override public FileChannel position(final long newPosition) throws IOException { channel.position(newPosition); return this; }
+        @Override public long size() throws IOException { return channel.size(); }
+        @Override public FileChannel truncate(final long size) throws IOException { channel.truncate(size); return this; }
+        @Override public void force(final boolean metaData) throws IOException { channel.force(metaData); }
+        @Override public long transferTo(final long position, final long count, final WritableByteChannel target) throws IOException { return channel.transferTo(position, count, target); }
+        @Override public long transferFrom(final ReadableByteChannel src, final long position, final long count) throws IOException { return channel.transferFrom(src, position, count); }
+        @Override public MappedByteBuffer map(final MapMode mode, final long position, final long size) throws IOException { return channel.map(mode, position, size); }
+        @Override public FileLock lock(final long position, final long size, final boolean shared) throws IOException { return channel.lock(position, size, shared); }
+        @Override public FileLock tryLock(final long position, final long size, final boolean shared) throws IOException { return channel.tryLock(position, size, shared); }
+        @Override protected void implCloseChannel() throws IOException { channel.close(); }
+    }
+
+    static void assertBytes(final ByteBuffer buffer, final long position) {
+        for (int k = 0; buffer.hasRemaining(); k++) {
+            assertThat(buffer.get(), is((byte)((position + k) * 7)));
+        }
+    }
+
+    @Test
+    public void readAcrossBlocks() throws Exception {
+        final FileChannel channel = new FileInputStream(sampleFile()).getChannel();
+        try {
+            final ReadAheadChannel readAhead = new ReadAheadChannel(channel, pool, 7, 3);
+            final ByteBuffer buffer = ByteBuffer.allocate(64);
+            long position = 0;
+            for (int n; (n = readAhead.read(buffer)) >= 0; ) {
+                assertThat(n, is((int)Math.min(buffer.capacity(), SIZE - position)));
+                buffer.flip();
+                assertBytes(buffer, position);
+                position += n;
+                buffer.clear();
+            }
+            assertThat(position, is((long)SIZE));
+            assertThat(readAhead.position(), is((long)SIZE));
+            assertThat(readAhead.read(buffer), is(-1));
+            assertThat(pool.leasedBytes(), is(3L * DirectBufferPool.MIN_BUFFER_SIZE));
+            readAhead.close();
+            assertThat(channel.isOpen(), is(true));
+            assertThat(pool.leasedBytes(), is(0L));
+        } finally {
+            channel.close();
+        }
+    }
+
+    @Test
+    public void seekForwardAndBackward() throws Exception {
+        final FileChannel channel = new FileInputStream(sampleFile()).getChannel();
+        try {
+            final ReadAheadChannel readAhead = new ReadAheadChannel(channel, pool, 16, 4);
+            final ByteBuffer buffer = ByteBuffer.allocate(10);
+            for (final long position: new long[] { 5, 20, 900, 100, 990, 0 }) {
+                readAhead.position(position);
+                buffer.clear();
+                readAhead.read(buffer);
+                buffer.flip();
+                assertThat(buffer.remaining(), is(10));
+                assertBytes(buffer, position);
+                assertThat(readAhead.position(), is(position + 10));
+            }
+            readAhead.position(SIZE);
+            buffer.clear();
+            assertThat(readAhead.read(buffer), is(-1));
+            readAhead.close();
+        } finally {
+            channel.close();
+        }
+    }
+
+    @Test
+    public void seekBeyondWindowDiscardsNoReads() throws Exception {
+        final RecordingChannel channel = new RecordingChannel(new FileInputStream(sampleFile()).getChannel());
+        try {
+            final ReadAheadChannel readAhead = new ReadAheadChannel(channel, pool, 16, 4);
+            // 全てのブロックが読み込まれるのを待つ
+            for (int wait = 0; channel.positions.size() < 4 && wait < 500; wait++) {
+                Thread.sleep(10);
+            }
+            assertThat(channel.positions.size(), is(4));
+            readAhead.position(900);
+            final ByteBuffer buffer = ByteBuffer.allocate(10);
+            readAhead.read(buffer);
+            buffer.flip();
+            assertBytes(buffer, 900);
+            readAhead.close();
+            // 先読みした範囲と移動先の間は読み込まない
+            for (final long position: channel.positions) {
+                assertThat(position < 64 || position >= 900, is(true));
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+}
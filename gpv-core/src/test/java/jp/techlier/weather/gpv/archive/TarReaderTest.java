@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv.archive;
+
+import static jp.techlier.test.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+
+/**
+ *
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+@SuppressWarnings("boxing")
+public class TarReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    static final String LONG_NAME = "run/20110919000000/"
+            + "Z__C_RJTD_20110919000000_MSM_GPV_Rjp_L-pall_FH00-15_grib2.bin.with.a.very.long.name";
+
+    static byte[] bytes(final int length, final int seed) {
+        final byte[] bytes = new byte[length];
+        for (int k = 0; k < length; k++) bytes[k] = (byte)(k * seed);
+        return bytes;
+    }
+
+    static TarTestArchives sample() throws Exception {
+        return new TarTestArchives()
+                .directory("run/")
+                .add("run/a.bin", bytes(1000, 3))
+                .add(LONG_NAME, bytes(512, 5))
+                .addPax("run/pax.bin", bytes(10, 7))
+                .add("run/empty.bin", new byte[0]);
+    }
+
+    static byte[] read(final ReadableByteChannel channel, final int length) throws Exception {
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+            // continue
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    @Test
+    public void readEntriesFromStream() throws Exception {
+        final TarReader reader = new TarReader(Channels.newChannel(new ByteArrayInputStream(sample().toByteArray())));
+
+        TarEntry entry = reader.nextEntry();
+        assertThat(entry.name(), is("run/"));
+        assertThat(entry.isFile(), is(false));
+
+        entry = reader.nextEntry();
+        assertThat(entry.name(), is("run/a.bin"));
+        assertThat(entry.size(), is(1000L));
+        assertThat(entry.offset(), is(1024L));
+        // 途中まで読んで次に進む
+        assertThat(read(reader.entryChannel(), 100), is(Arrays.copyOf(bytes(1000, 3), 100)));
+
+        entry = reader.nextEntry();
+        assertThat(entry.name(), is(LONG_NAME));
+        assertThat(entry.isFile(), is(true));
+        assertThat(read(reader.entryChannel(), 1024), is(bytes(512, 5)));
+
+        entry = reader.nextEntry();
+        assertThat(entry.name(), is("run/pax.bin"));
+        assertThat(read(reader.entryChannel(), 1024), is(bytes(10, 7)));
+
+        entry = reader.nextEntry();
+        assertThat(entry.name(), is("run/empty.bin"));
+        assertThat(reader.entryChannel().read(ByteBuffer.allocate(1)), is(-1));
+
+        assertThat(reader.nextEntry(), isNull());
+        assertThat(reader.nextEntry(), isNull());
+        reader.close();
+    }
+
+    @Test
+    public void indexUncompressedArchive() throws Exception {
+        final File file = sample().write(folder.newFile("sample.tar"));
+        final TarIndex index = TarIndex.scan(file);
+        final List<TarEntry> entries = index.entries();
+        assertThat(entries.size(), is(5));
+
+        final TarEntry entry = index.find(LONG_NAME);
+        final ReadableByteChannel channel = index.open(entry);
+        try {
+            assertThat(read(channel, 1024), is(bytes(512, 5)));
+        } finally {
+            channel.close();
+        }
+        final ByteBuffer mapped = index.map(index.find("run/a.bin"));
+        assertThat(mapped.remaining(), is(1000));
+        assertThat(mapped.get(999), is((byte)(999 * 3)));
+        assertThat(index.find("run/none.bin"), isNull());
+    }
+
+    @Test
+    public void usePrefixOfPosixHeadersOnly() throws Exception {
+        final byte[] archive = new TarTestArchives()
+                .addWithPrefix("run/20110919", "a.bin", bytes(10, 3))
+                .addGnu("run/gnu.bin", bytes(10, 5))
+                .toByteArray();
+        final TarReader reader = new TarReader(Channels.newChannel(new ByteArrayInputStream(archive)));
+        assertThat(reader.nextEntry().name(), is("run/20110919/a.bin"));
+        assertThat(reader.nextEntry().name(), is("run/gnu.bin"));
+        assertThat(read(reader.entryChannel(), 1024), is(bytes(10, 5)));
+        assertThat(reader.nextEntry(), isNull());
+        reader.close();
+    }
+
+    @Test(expected=java.io.IOException.class)
+    public void rejectBrokenHeader() throws Exception {
+        final byte[] archive = sample().toByteArray();
+        archive[512 + 10] ^= 1;
+        final TarReader reader = new TarReader(Channels.newChannel(new ByteArrayInputStream(archive)));
+        reader.nextEntry();
+        reader.nextEntry();
+    }
+
+}
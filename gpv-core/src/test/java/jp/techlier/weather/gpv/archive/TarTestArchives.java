@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.zip.GZIPOutputStream;
+
+
+/**
+ * 試験用のtarアーカイブを生成する。
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+public class TarTestArchives {
+
+    static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final ByteArrayOutputStream out_ = new ByteArrayOutputStream();
+
+    /**
+     * 通常のファイルを追加する。100バイトを超える名前はGNUの長い名前で格納する。
+     */
+    public TarTestArchives add(final String name, final byte[] data) throws IOException {
+        final byte[] nameBytes = name.getBytes(UTF8);
+        if (nameBytes.length > 100) {
+            final byte[] longName = new byte[nameBytes.length + 1];
+            System.arraycopy(nameBytes, 0, longName, 0, nameBytes.length);
+            entry("././@LongLink", (byte)'L', longName);
+        }
+        return entry(name, (byte)'0', data);
+    }
+
+    /**
+     * paxの拡張ヘッダで名前を指定してファイルを追加する。
+     */
+    public TarTestArchives addPax(final String name, final byte[] data) throws IOException {
+        String record = " path=" + name + "\n";
+        int length = record.length();
+        length += String.valueOf(length + String.valueOf(length).length()).length();
+        record = length + record;
+        entry("PaxHeaders/x", (byte)'x', record.getBytes(UTF8));
+        return entry("x", (byte)'0', data);
+    }
+
+    public TarTestArchives directory(final String name) throws IOException {
+        return entry(name, (byte)'5', new byte[0]);
+    }
+
+    /**
+     * POSIXのprefixに名前の前半を入れてファイルを追加する。
+     */
+    public TarTestArchives addWithPrefix(final String prefix, final String name, final byte[] data) throws IOException {
+        final byte[] header = header(name, (byte)'0', data);
+        final byte[] prefixBytes = prefix.getBytes(UTF8);
+        System.arraycopy(prefixBytes, 0, header, 345, prefixBytes.length);
+        return entry(header, data);
+    }
+
+    /**
+     * GNU形式のヘッダでファイルを追加する。prefixの位置にはatime, ctimeが入る。
+     */
+    public TarTestArchives addGnu(final String name, final byte[] data) throws IOException {
+        final byte[] header = header(name, (byte)'0', data);
+        System.arraycopy("ustar  \0".getBytes(UTF8), 0, header, 257, 8);
+        octal(header, 345, 12, 012345670123L);
+        octal(header, 357, 12, 012345670123L);
+        return entry(header, data);
+    }
+
+    private TarTestArchives entry(final String name, final byte type, final byte[] data) throws IOException {
+        return entry(header(name, type, data), data);
+    }
+
+    private static byte[] header(final String name, final byte type, final byte[] data) {
+        final byte[] header = new byte[TarReader.BLOCK_SIZE];
+        final byte[] nameBytes = name.getBytes(UTF8);
+        System.arraycopy(nameBytes, 0, header, 0, Math.min(100, nameBytes.length));
+        octal(header, 100, 8, 0644);
+        octal(header, 108, 8, 0);
+        octal(header, 116, 8, 0);
+        octal(header, 124, 12, data.length);
+        octal(header, 136, 12, 0);
+        header[156] = type;
+        System.arraycopy("ustar\0".getBytes(UTF8), 0, header, 257, 6);
+        header[263] = '0';
+        header[264] = '0';
+        return header;
+    }
+
+    private TarTestArchives entry(final byte[] header, final byte[] data) throws IOException {
+        for (int k = 148; k < 156; k++) header[k] = ' ';
+        long sum = 0;
+        for (final byte b: header) sum += b & 0xff;
+        octal(header, 148, 7, sum);
+        out_.write(header);
+        out_.write(data);
+        out_.write(new byte[(TarReader.BLOCK_SIZE - data.length % TarReader.BLOCK_SIZE) % TarReader.BLOCK_SIZE]);
+        return this;
+    }
+
+    private static void octal(final byte[] header, final int offset, final int length, final long value) {
+        final String digits = Long.toOctalString(value);
+        for (int k = 0; k < length - 1; k++) {
+            final int d = digits.length() - (length - 1 - k);
+            header[offset + k] = (byte)(d < 0 ? '0' : digits.charAt(d));
+        }
+        header[offset + length - 1] = 0;
+    }
+
+    /**
+     * @return 終端を付けたアーカイブ
+     */
+    public byte[] toByteArray() throws IOException {
+        final ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        out_.writeTo(archive);
+        archive.write(new byte[TarReader.BLOCK_SIZE * 2]);
+        return archive.toByteArray();
+    }
+
+    /**
+     * @param file 名前が.tar.gzまたは.tgzで終わる場合は圧縮する
+     * @return file
+     */
+    public File write(final File file) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        if (TarReader.isCompressedArchive(file.getName())) {
+            out = new GZIPOutputStream(out);
+        }
+        try {
+            out.write(toByteArray());
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv.grib2;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+
+/**
+ * テスト用のGRIB2メッセージを生成する。
+ * 格子は3.0(緯度経度)、プロダクトは4.0、データ表現は5.0(単純圧縮)に固定する。
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+public class Grib2TestMessages {
+
+    public int ni = 4;
+    public int nj = 3;
+    public int parameterCategory = 0;   // TEMPERATURE
+    public int parameterNumber = 0;     // TMP
+    public int generatingProcess = 2;   // FORECAST
+    public int forecastTime = 0;
+    public int surfaceType = 100;       // ISOBARIC_SURFACE
+    public int surfaceScaleFactor = -2;
+    public int surfaceValue = 850;
+    public float referenceValue = 200.0f;
+    public int binaryScaleFactor = 0;
+    public int decimalScaleFactor = 1;
+    public int numBits = 12;
+    /** null以外のとき、Bitmap Sectionにビットマップを格納する */
+    public byte[] bitmap = null;
+    public long[] packedValues;
+
+    public int numPoints() {
+        return ni * nj;
+    }
+
+    /**
+     * 圧縮値Xを生成する。
+     * @param seed
+     * @return this
+     */
+    public Grib2TestMessages values(final int seed) {
+        final int count = bitmap != null ? countBits(bitmap, numPoints()) : numPoints();
+        packedValues = new long[count];
+        for (int k = 0; k < count; k++) {
+            packedValues[k] = (k * 37L + seed * 101L) & ((1L << numBits) - 1);
+        }
+        return this;
+    }
+
+    /**
+     * 圧縮値Xを復号した値を返す。
+     */
+    public double valueOf(final long x) {
+        final double temp = referenceValue + x * Math.pow(2.0, binaryScaleFactor);
+        return decimalScaleFactor == 0 ? temp : temp / Math.pow(10.0, decimalScaleFactor);
+    }
+
+    static int countBits(final byte[] bitmap, final int numPoints) {
+        int count = 0;
+        for (int k = 0; k < numPoints; k++) {
+            if ((bitmap[k / 8] & 0x80 >>> k % 8) != 0) count++;
+        }
+        return count;
+    }
+
+    /**
+     * 値を指定されたビット長で詰める。
+     */
+    public static byte[] pack(final long[] values, final int numBits) {
+        final byte[] data = new byte[(values.length * numBits + 7) / 8];
+        int bit = 0;
+        for (final long value: values) {
+            for (int b = numBits; --b >= 0; bit++) {
+                if ((value >>> b & 1) != 0) data[bit / 8] |= 0x80 >>> bit % 8;
+            }
+        }
+        return data;
+    }
+
+
+    /**
+     * 1つのメッセージ(Section 0〜8)を生成する。
+     * @return GRIB2メッセージ
+     */
+    public byte[] message() throws IOException {
+        if (packedValues == null) values(0);
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(body);
+
+        // Section 1: Identification Section
+        out.writeInt(21); out.writeByte(1);
+        out.writeShort(34); out.writeShort(0);
+        out.writeByte(2); out.writeByte(1); out.writeByte(1);
+        out.writeShort(2011); out.writeByte(9); out.writeByte(19);
+        out.writeByte(0); out.writeByte(0); out.writeByte(0);
+        out.writeByte(0); out.writeByte(1);
+
+        // Section 3: Grid Definition Section
+        out.writeInt(72); out.writeByte(3);
+        out.writeByte(0); out.writeInt(numPoints()); out.writeByte(0); out.writeByte(0);
+        out.writeShort(0);
+        out.writeByte(6);
+        out.writeByte(-1); out.writeInt(-1);
+        out.writeByte(-1); out.writeInt(-1);
+        out.writeByte(-1); out.writeInt(-1);
+        out.writeInt(ni); out.writeInt(nj);
+        out.writeInt(0); out.writeInt(-1);
+        out.writeInt(47600000); out.writeInt(120000000);
+        out.writeByte(0x30);
+        out.writeInt(47600000 - (nj - 1) * 100000); out.writeInt(120000000 + (ni - 1) * 125000);
+        out.writeInt(125000); out.writeInt(100000);
+        out.writeByte(0);
+
+        // Section 4: Product Definition Section
+        out.writeInt(34); out.writeByte(4);
+        out.writeShort(0); out.writeShort(0);
+        out.writeByte(parameterCategory); out.writeByte(parameterNumber);
+        out.writeByte(generatingProcess); out.writeByte(31); out.writeByte(-1);
+        out.writeShort(0); out.writeByte(0);
+        out.writeByte(1); out.writeInt(forecastTime);
+        out.writeByte(surfaceType); out.writeByte(signedByte(surfaceScaleFactor)); out.writeInt(surfaceValue);
+        out.writeByte(-1); out.writeByte(-1); out.writeInt(-1);
+
+        // Section 5: Data Representation Section
+        out.writeInt(21); out.writeByte(5);
+        out.writeInt(packedValues.length); out.writeShort(0);
+        out.writeFloat(referenceValue);
+        out.writeShort(signedShort(binaryScaleFactor)); out.writeShort(signedShort(decimalScaleFactor));
+        out.writeByte(numBits); out.writeByte(0);
+
+        // Section 6: Bit-Map Section
+        if (bitmap != null) {
+            out.writeInt(6 + bitmap.length); out.writeByte(6); out.writeByte(0);
+            out.write(bitmap);
+        }
+        else {
+            out.writeInt(6); out.writeByte(6); out.writeByte(-1);
+        }
+
+        // Section 7: Data Section
+        final byte[] data = pack(packedValues, numBits);
+        out.writeInt(5 + data.length); out.writeByte(7);
+        out.write(data);
+
+        // Section 8: End Section
+        out.writeBytes("7777");
+        out.flush();
+
+        final ByteArrayOutputStream message = new ByteArrayOutputStream();
+        final DataOutputStream header = new DataOutputStream(message);
+        header.writeBytes("GRIB");
+        header.writeShort(-1);
+        header.writeByte(0);
+        header.writeByte(2);
+        header.writeLong(16 + body.size());
+        header.flush();
+        body.writeTo(message);
+        return message.toByteArray();
+    }
+
+    /**
+     * 符号bit形式の値に変換する。
+     */
+    static int signedByte(final int value) {
+        return value >= 0 ? value : 0x80 | -value;
+    }
+
+    static int signedShort(final int value) {
+        return value >= 0 ? value : 0x8000 | -value;
+    }
+
+
+    /**
+     * メッセージを連結したファイルを生成する。
+     * @param file
+     * @param messages
+     * @return file
+     */
+    public static File write(final File file, final byte[]... messages) throws IOException {
+        final FileOutputStream out = new FileOutputStream(file); try {
+            for (final byte[] message: messages) {
+                out.write(message);
+            }
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+}
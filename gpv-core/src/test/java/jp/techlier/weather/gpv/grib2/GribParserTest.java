@@ -16,10 +16,51 @@
  */
 package jp.techlier.weather.gpv.grib2;
 
-import static org.junit.Assert.fail;
+import static jp.techlier.test.Matchers.*;
+import static org.hamcrest.number.OrderingComparison.*;
+import static org.junit.Assert.*;
 
-import org.junit.Ignore;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+import jp.techlier.weather.gpv.DirectBufferPool;
+import jp.techlier.weather.gpv.GpvFileParser;
+import jp.techlier.weather.gpv.GpvFileType;
+import jp.techlier.weather.gpv.archive.TarIndex;
+import jp.techlier.weather.gpv.archive.TarTestArchives;
+import jp.techlier.weather.gpv.grib2.Grib2.DataSection;
+import jp.techlier.weather.gpv.grib2.parser.AbstractMessageListener;
+import jp.techlier.weather.gpv.grib2.parser.AsyncMessageDispatcher;
+import jp.techlier.weather.gpv.grib2.parser.DataChunkListener;
+import jp.techlier.weather.gpv.grib2.parser.FieldFilters;
+import jp.techlier.weather.gpv.grib2.parser.MessageHolder;
+import jp.techlier.weather.gpv.grib2.parser.SelectiveMessageListener;
+import jp.techlier.weather.gpv.grib2.parser.SimplePackingDecorder;
+import jp.techlier.weather.gpv.grib2.parser.samples.MessageDescriptor;
+
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 
 /**
@@ -29,12 +70,650 @@ import org.junit.Test;
  * @since 2012/02/28
  * @version $Id$
  */
+@SuppressWarnings("boxing")
 public class GribParserTest {
 
-    @Ignore
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Data Sectionを復号して保持する。
+     */
+    static class DecodingListener extends AbstractMessageListener {
+        final List<double[]> fields = new ArrayList<double[]>();
+        final List<ByteBuffer> buffers = new ArrayList<ByteBuffer>();
+
+        @Override
+        public void dataSection(final DataSection section, final MessageHolder messages) {
+            buffers.add(section.dataBuffer());
+            fields.add(new SimplePackingDecorder(messages.latestGridDefinitionSection().template(),
+                                                 messages.latestDataRepresentationSection().template(),
+                                                 section.dataBuffer()).decode());
+        }
+    }
+
+    /**
+     * バッファに収まらないData Sectionを分割して復号する。
+     */
+    static class ChunkDecodingListener extends DecodingListener implements DataChunkListener {
+        final List<Integer> chunks = new ArrayList<Integer>();
+        double[] field;
+        SimplePackingDecorder.ChunkDecorder decorder;
+
+        @Override
+        public void dataChunk(final DataSection section, final ByteBuffer chunk, final long offset, final MessageHolder messages) {
+            if (offset == 0) {
+                final SimplePackingDecorder base =
+                        new SimplePackingDecorder(messages.latestGridDefinitionSection().template(),
+                                                  messages.latestDataRepresentationSection().template());
+                field = new double[base.size()];
+                decorder = base.chunkDecorder(field, 0, 1);
+            }
+            chunks.add(chunk.remaining());
+            decorder.write(chunk);
+        }
+
+        @Override
+        public void dataSection(final DataSection section, final MessageHolder messages) {
+            if (section.dataBuffer() == null) {
+                assertThat(decorder.isComplete(), is(true));
+                fields.add(field);
+            }
+            else {
+                super.dataSection(section, messages);
+            }
+        }
+    }
+
+    File sampleFile(final Grib2TestMessages... messages) throws Exception {
+        final byte[][] bytes = new byte[messages.length][];
+        for (int k = 0; k < messages.length; k++) {
+            bytes[k] = messages[k].message();
+        }
+        return Grib2TestMessages.write(folder.newFile("Z__C_RJTD_20110919000000_MSM_GPV_Rjp_L-pall_FH00-15_grib2.bin"), bytes);
+    }
+
+    static void assertField(final Grib2TestMessages expected, final double[] actual) {
+        assertThat(actual.length, is(expected.numPoints()));
+        for (int k = 0; k < actual.length; k++) {
+            assertEquals(expected.valueOf(expected.packedValues[k]), actual[k], 0.0);
+        }
+    }
+
+    @Test
+    public void parseFile() throws Exception {
+        final Grib2TestMessages first = new Grib2TestMessages().values(1);
+        final Grib2TestMessages second = new Grib2TestMessages().values(2);
+        second.numBits = 16;
+        second.values(2);
+
+        final GpvFileParser parser = new GpvFileParser();
+        final DecodingListener listener = new DecodingListener();
+        parser.addListener(listener);
+        parser.parse(sampleFile(first, second));
+
+        assertThat(listener.fields.size(), is(2));
+        assertField(first, listener.fields.get(0));
+        assertField(second, listener.fields.get(1));
+        assertThat(listener.buffers.get(0).isReadOnly(), is(true));
+    }
+
+    @Test
+    public void parseFileWithZeroCopy() throws Exception {
+        final Grib2TestMessages first = new Grib2TestMessages().values(3);
+        final Grib2TestMessages second = new Grib2TestMessages().values(4);
+
+        final GpvFileParser parser = new GpvFileParser();
+        parser.enableZeroCopy(true);
+        final DecodingListener listener = new DecodingListener();
+        parser.addListener(listener);
+        parser.parse(sampleFile(first, second));
+
+        assertThat(listener.fields.size(), is(2));
+        assertField(first, listener.fields.get(0));
+        assertField(second, listener.fields.get(1));
+        assertThat(listener.buffers.get(1).isReadOnly(), is(true));
+        assertThat(listener.buffers.get(1).remaining(), is((first.numPoints() * first.numBits + 7) / 8));
+    }
+
+    @Test
+    public void parseSectionLargerThanBuffer() throws Exception {
+        final Grib2TestMessages small = new Grib2TestMessages().values(7);
+        final Grib2TestMessages large = new Grib2TestMessages();
+        large.ni = 41;
+        large.nj = 29;
+        large.values(8);
+        final Grib2TestMessages large16 = new Grib2TestMessages();
+        large16.ni = 41;
+        large16.nj = 29;
+        large16.numBits = 16;
+        large16.values(9);
+
+        final GpvFileParser parser = new GpvFileParser();
+        final ChunkDecodingListener listener = new ChunkDecodingListener();
+        parser.addListener(listener);
+        parser.parse(sampleFile(small, large, large16), ByteBuffer.allocateDirect(256));
+
+        assertThat(listener.fields.size(), is(3));
+        assertField(small, listener.fields.get(0));
+        assertField(large, listener.fields.get(1));
+        assertField(large16, listener.fields.get(2));
+        for (final int chunk: listener.chunks) {
+            assertThat(chunk, is(lessThanOrEqualTo(256)));
+        }
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void rejectLargeDataSectionForWholeSectionListeners() throws Exception {
+        final Grib2TestMessages large = new Grib2TestMessages();
+        large.ni = 41;
+        large.nj = 29;
+        large.values(10);
+
+        final GpvFileParser parser = new GpvFileParser();
+        parser.addListener(new ChunkDecodingListener());
+        parser.addListener(new DecodingListener());
+        parser.parse(sampleFile(large), ByteBuffer.allocateDirect(256));
+    }
+
+    @Test
+    public void parseSectionContents() throws Exception {
+        final Grib2TestMessages message = new Grib2TestMessages();
+        message.forecastTime = 15;
+        message.binaryScaleFactor = -3;
+
+        final GpvFileParser parser = new GpvFileParser();
+        parser.parse(sampleFile(message));
+
+        assertThat(parser.latestIndicatorSection().discipline().enumValue(), is(Grib2.MasterTableCode.METEOROLOGICAL));
+        assertThat(parser.latestIdentificationSection().year(), is((short)2011));
+        final Grib2.GridDefinitionTemplate grid = parser.latestGridDefinitionSection().template();
+        assertThat(grid.numPointsAlongParallel(), is(message.ni));
+        assertThat(grid.scanningMode().intValue(), is(0));
+        final Grib2.ProductDefinitionTemplate product = parser.latestProductDefinitionSection().template();
+        assertThat(product.parameterNumber().enumValue(), is(Grib2.ParameterNumber.TEMPERATURE));
+        assertThat(product.forecastTime(), is(15));
+        // 符号bit形式の負値
+        assertThat(product.scaleFactorOfFirstFixedSurface(), is((byte)-2));
+        assertThat(product.scaledValueOfSecondFixedSurface(), is(-1));
+        final Grib2.DataRepresentationTemplate drt = parser.latestDataRepresentationSection().template();
+        assertThat(drt.binaryScaleFactor(), is((short)-3));
+        assertThat(drt.numBits(), is((byte)12));
+        assertThat(parser.latestBitmapSection().bitmap().length, is(0));
+    }
+
+    /**
+     * Data Sectionのみ通知を受ける。
+     */
+    static class DataSectionCounter extends AbstractMessageListener implements SelectiveMessageListener {
+        int dataSections = 0;
+        int otherSections = 0;
+
+        @Override
+        public Set<Grib2.SectionNumber> consumedSections() {
+            return EnumSet.of(Grib2.SectionNumber.DATA_SECTION);
+        }
+
+        @Override
+        public void dataSection(final DataSection section, final MessageHolder messages) {
+            dataSections++;
+        }
+
+        @Override
+        public void endSection(final Grib2.EndSection section, final MessageHolder messages) {
+            otherSections++;
+        }
+    }
+
+    @Test
+    public void notifyConsumedSectionsOnly() throws Exception {
+        final GpvFileParser parser = new GpvFileParser();
+        final DataSectionCounter counter = new DataSectionCounter();
+        final DecodingListener listener = new DecodingListener();
+        parser.addListener(counter);
+        parser.addListener(listener);
+        parser.parse(sampleFile(new Grib2TestMessages(), new Grib2TestMessages()));
+
+        assertThat(counter.dataSections, is(2));
+        assertThat(counter.otherSections, is(0));
+        assertThat(listener.fields.size(), is(2));
+    }
+
+    /**
+     * 一覧の行を保持する。
+     */
+    static class InventoryCollector extends MessageDescriptor {
+        final List<String> lines = new ArrayList<String>();
+
+        @Override
+        protected void print(final CharSequence line) {
+            lines.add(line.toString());
+        }
+    }
+
+    @Test
+    public void inventoryModeSkipsDataSections() throws Exception {
+        final Grib2TestMessages small = new Grib2TestMessages();
+        small.forecastTime = 3;
+        final Grib2TestMessages large = new Grib2TestMessages();
+        large.ni = 41;
+        large.nj = 29;
+        large.bitmap = new byte[(41 * 29 + 7) / 8];
+        Arrays.fill(large.bitmap, (byte)0x5a);
+        large.values(10);
+        final File file = sampleFile(small, large, small);
+
+        final GpvFileParser full = new GpvFileParser();
+        final InventoryCollector expected = new InventoryCollector();
+        full.addListener(expected);
+        full.parse(file);
+
+        for (final boolean mapping: new boolean[] { false, true }) {
+            final GpvFileParser parser = new GpvFileParser();
+            parser.enableInventoryMode(true);
+            parser.enableMemoryMapping(mapping);
+            final InventoryCollector inventory = new InventoryCollector();
+            final DecodingListener listener = new DecodingListener();
+            parser.addListener(inventory);
+            parser.addListener(listener);
+            if (mapping) {
+                parser.parse(file);
+            }
+            else {
+                // セクションがバッファより大きくても読み飛ばせる
+                parser.parse(file, ByteBuffer.allocateDirect(256));
+            }
+            assertThat(inventory.lines.size(), is(3));
+            assertThat(inventory.lines, is(expected.lines));
+            assertThat(listener.fields.size(), is(0));
+            assertThat(parser.latestDataSection(), isNull());
+            assertThat(parser.latestDataRepresentationSection().template().numBits(), is((byte)12));
+        }
+    }
+
+    /**
+     * Product Definition Sectionの通知を数える。
+     */
+    static class ProductCounter extends DecodingListener {
+        final List<Grib2.ParameterNumber> parameters = new ArrayList<Grib2.ParameterNumber>();
+        int dataRepresentationSections = 0;
+
+        @Override
+        public void productDefinitionSection(final Grib2.ProductDefinitionSection section, final MessageHolder messages) {
+            parameters.add(section.template().parameterNumber().enumValue());
+        }
+
+        @Override
+        public void dataRepresentationSection(final Grib2.DataRepresentationSection section, final MessageHolder messages) {
+            dataRepresentationSections++;
+        }
+    }
+
+    @Test
+    public void skipRejectedFields() throws Exception {
+        final Grib2TestMessages tmp = new Grib2TestMessages().values(11);
+        final Grib2TestMessages ugrd = new Grib2TestMessages();
+        ugrd.parameterCategory = 2;
+        ugrd.parameterNumber = 2;
+        ugrd.ni = 41;
+        ugrd.nj = 29;
+        ugrd.values(12);
+        final Grib2TestMessages tp = new Grib2TestMessages();
+        tp.parameterCategory = 1;
+        tp.parameterNumber = 8;
+        tp.values(13);
+        final File file = sampleFile(tmp, ugrd, tp, tmp);
+
+        final GpvFileParser parser = new GpvFileParser();
+        parser.setFieldFilter(FieldFilters.parameters(Grib2.ParameterNumber.TEMPERATURE,
+                                                      Grib2.ParameterNumber.TOTAL_PRECIPITATION));
+        final ProductCounter listener = new ProductCounter();
+        parser.addListener(listener);
+        // 読み飛ばすセクションはバッファより大きくてもよい
+        parser.parse(file, ByteBuffer.allocateDirect(256));
+
+        assertThat(listener.parameters, is(Arrays.asList(Grib2.ParameterNumber.TEMPERATURE,
+                                                         Grib2.ParameterNumber.TOTAL_PRECIPITATION,
+                                                         Grib2.ParameterNumber.TEMPERATURE)));
+        assertThat(listener.dataRepresentationSections, is(3));
+        assertThat(listener.fields.size(), is(3));
+        assertField(tmp, listener.fields.get(0));
+        assertField(tp, listener.fields.get(1));
+        assertField(tmp, listener.fields.get(2));
+    }
+
+    /**
+     * 複数のスレッドから呼び出される。
+     */
+    static class ConcurrentDecodingListener extends AbstractMessageListener {
+        final Map<Long,double[]> fields = new ConcurrentHashMap<Long,double[]>();
+        final Set<String> threads = Collections.synchronizedSet(new HashSet<String>());
+
+        @Override
+        public void dataSection(final DataSection section, final MessageHolder messages) {
+            threads.add(Thread.currentThread().getName());
+            final double[] field = new SimplePackingDecorder(messages.latestGridDefinitionSection().template(),
+                                                             messages.latestDataRepresentationSection().template(),
+                                                             section.dataBuffer()).decode();
+            fields.put((long)messages.latestProductDefinitionSection().template().forecastTime(), field);
+        }
+    }
+
+    @Test
+    public void parseDirectoryInParallel() throws Exception {
+        final File dir = folder.newFolder("parallel");
+        final Grib2TestMessages[] messages = new Grib2TestMessages[12];
+        for (int k = 0; k < messages.length; k++) {
+            messages[k] = new Grib2TestMessages();
+            messages[k].forecastTime = k;
+            messages[k].ni = 8 + k;
+            messages[k].values(k);
+            Grib2TestMessages.write(new File(dir, "FT" + k + "_grib2.bin"), messages[k].message());
+        }
+        new File(dir, "ignored.txt").createNewFile();
+
+        final GpvFileParser parser = new GpvFileParser();
+        parser.enableZeroCopy(true);
+        final DirectBufferPool pool = new DirectBufferPool(64 * 1024 * 1024);
+        parser.setBufferPool(pool);
+        final ConcurrentDecodingListener listener = new ConcurrentDecodingListener();
+        parser.addListener(listener);
+        parser.parseAll(dir, 4);
+        // 解析バッファはワーカーの間で共有され、全て返却される
+        assertThat(pool.leaseCount(), is((long)messages.length));
+        assertThat(pool.allocationCount(), is(lessThanOrEqualTo(4L)));
+        assertThat(pool.leasedBytes(), is(0L));
+
+        assertThat(listener.fields.size(), is(messages.length));
+        for (int k = 0; k < messages.length; k++) {
+            assertField(messages[k], listener.fields.get((long)k));
+        }
+        assertThat(listener.threads.size(), is(lessThanOrEqualTo(4)));
+    }
+
+    @Test(expected=IOException.class)
+    public void reportFailureInParallel() throws Exception {
+        final File dir = folder.newFolder("broken");
+        Grib2TestMessages.write(new File(dir, "valid_grib2.bin"), new Grib2TestMessages().message());
+        Grib2TestMessages.write(new File(dir, "broken_grib2.bin"), Arrays.copyOf(new Grib2TestMessages().message(), 40));
+        new GpvFileParser().parseAll(dir, 2);
+    }
+
+    @Test
+    public void parseMappedFile() throws Exception {
+        final Grib2TestMessages first = new Grib2TestMessages().values(5);
+        final Grib2TestMessages second = new Grib2TestMessages().values(6);
+
+        final GpvFileParser parser = new GpvFileParser();
+        parser.enableMemoryMapping(true);
+        parser.enableZeroCopy(true);
+        final DecodingListener listener = new DecodingListener();
+        parser.addListener(listener);
+        parser.parse(sampleFile(first, second));
+
+        assertThat(listener.fields.size(), is(2));
+        assertField(first, listener.fields.get(0));
+        assertField(second, listener.fields.get(1));
+        // マップされたファイルを参照するビューは解析後も有効
+        final SimplePackingDecorder decorder =
+                new SimplePackingDecorder(parser.latestGridDefinitionSection().template(),
+                                          parser.latestDataRepresentationSection().template(),
+                                          listener.buffers.get(0));
+        assertField(first, decorder.decode());
+    }
+
     @Test
-    public void test() {
-        fail("まだ実装されていません"); // TODO
+    public void parseWithReadAhead() throws Exception {
+        final Grib2TestMessages[] messages = new Grib2TestMessages[8];
+        for (int k = 0; k < messages.length; k++) {
+            messages[k] = new Grib2TestMessages();
+            messages[k].ni = 30 + k;
+            messages[k].values(k);
+        }
+        final File file = sampleFile(messages);
+
+        final GpvFileParser parser = new GpvFileParser();
+        parser.enableReadAhead(true);
+        final ChunkDecodingListener listener = new ChunkDecodingListener();
+        parser.addListener(listener);
+        parser.parse(file, ByteBuffer.allocate(256));
+        assertThat(listener.fields.size(), is(messages.length));
+        for (int k = 0; k < messages.length; k++) {
+            assertField(messages[k], listener.fields.get(k));
+        }
+
+        // 読み飛ばしながら先読みする
+        final ProductCounter counter = new ProductCounter();
+        parser.removeListner(listener);
+        parser.addListener(counter);
+        parser.enableInventoryMode(true);
+        parser.parse(file, ByteBuffer.allocate(256));
+        assertThat(counter.parameters.size(), is(messages.length));
+        assertThat(counter.dataRepresentationSections, is(messages.length));
+        assertThat(counter.fields.size(), is(0));
+    }
+
+    /**
+     * 一度に少しずつしか読み込めない。
+     */
+    static class TrickleInputStream extends FilterInputStream {
+        TrickleInputStream(final InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            return super.read(b, off, Math.min(len, 7));
+        }
+    }
+
+    @Test
+    public void parseCompressedStreams() throws Exception {
+        final Grib2TestMessages[] messages = new Grib2TestMessages[5];
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (int k = 0; k < messages.length; k++) {
+            messages[k] = new Grib2TestMessages();
+            messages[k].ni = 30 + k;
+            messages[k].values(k);
+            bytes.write(messages[k].message());
+        }
+        final File file = folder.newFile("Z__C_RJTD_20110919000000_MSM_GPV_Rjp_Lsurf_FH00-15_grib2.bin.gz");
+        final OutputStream out = new GZIPOutputStream(new FileOutputStream(file)); try {
+            out.write(bytes.toByteArray());
+        } finally {
+            out.close();
+        }
+        assertThat(GpvFileType.getFileType(file.getName()), is(GpvFileType.MSM_JP_SURF));
+
+        final GpvFileParser parser = new GpvFileParser();
+        assertThat(parser.accept(file), is(true));
+        parser.enableMemoryMapping(true);
+        final DecodingListener listener = new DecodingListener();
+        parser.addListener(listener);
+        parser.parse(file);
+        assertThat(listener.fields.size(), is(messages.length));
+        for (int k = 0; k < messages.length; k++) {
+            assertField(messages[k], listener.fields.get(k));
+        }
+        parser.removeListner(listener);
+
+        // 少しずつ返すストリームから、バッファより大きなData Sectionを読み込む
+        final ChunkDecodingListener chunkListener = new ChunkDecodingListener();
+        parser.addListener(chunkListener);
+        parser.parse(Channels.newChannel(new TrickleInputStream(new ByteArrayInputStream(bytes.toByteArray()))),
+                     ByteBuffer.allocate(256));
+        assertThat(chunkListener.fields.size(), is(messages.length));
+        for (int k = 0; k < messages.length; k++) {
+            assertField(messages[k], chunkListener.fields.get(k));
+        }
+        parser.removeListner(chunkListener);
+
+        // 圧縮されたファイルは読み込んで読み飛ばす
+        final ProductCounter counter = new ProductCounter();
+        parser.addListener(counter);
+        parser.enableInventoryMode(true);
+        parser.enableReadAhead(true);
+        parser.parse(file, ByteBuffer.allocate(256));
+        assertThat(counter.parameters.size(), is(messages.length));
+        assertThat(counter.fields.size(), is(0));
+    }
+
+    /**
+     * 解析したエントリの名前を記録する。
+     */
+    static class ArchiveEntryRecorder extends DecodingListener {
+        final GpvFileParser parser;
+        final List<String> entries = new ArrayList<String>();
+
+        ArchiveEntryRecorder(final GpvFileParser parser) {
+            this.parser = parser;
+        }
+
+        @Override
+        public void dataSection(final DataSection section, final MessageHolder messages) {
+            entries.add(parser.getArchiveEntry().name());
+            super.dataSection(section, messages);
+        }
+    }
+
+    @Test
+    public void parseArchiveEntries() throws Exception {
+        final Grib2TestMessages[] messages = new Grib2TestMessages[3];
+        for (int k = 0; k < messages.length; k++) {
+            messages[k] = new Grib2TestMessages();
+            messages[k].ni = 20 + k;
+            messages[k].values(k);
+        }
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        final OutputStream out = new GZIPOutputStream(compressed); try {
+            out.write(messages[2].message());
+        } finally {
+            out.close();
+        }
+        final String prefix = "20110919/Z__C_RJTD_20110919000000_MSM_GPV_Rjp_";
+        final TarTestArchives archive = new TarTestArchives()
+                .add(prefix + "Lsurf_FH00-15_grib2.bin", messages[0].message())
+                .add("20110919/README.txt", "not a GRIB2 file".getBytes("UTF-8"))
+                .add(prefix + "L-pall_FH00-15_grib2.bin", messages[1].message())
+                .add(prefix + "Lsurf_FH16-33_grib2.bin.gz", compressed.toByteArray());
+        final File dir = folder.newFolder("archives");
+
+        for (final String name: new String[] { "MSM.tar", "MSM.tar.gz" }) {
+            final File file = archive.write(new File(dir, name));
+            final GpvFileParser parser = new GpvFileParser();
+            assertThat(parser.accept(file), is(true));
+            final ArchiveEntryRecorder listener = new ArchiveEntryRecorder(parser);
+            parser.addListener(listener);
+            parser.parseArchive(file);
+
+            assertThat(name, listener.fields.size(), is(messages.length));
+            for (int k = 0; k < messages.length; k++) {
+                assertField(messages[k], listener.fields.get(k));
+            }
+            assertThat(listener.entries.get(1), is(prefix + "L-pall_FH00-15_grib2.bin"));
+            assertThat(parser.getFile(), is(file));
+        }
+
+        // 索引を用いて1つのエントリだけを解析する
+        final TarIndex index = TarIndex.scan(new File(dir, "MSM.tar"));
+        for (final boolean mapping: new boolean[] { false, true }) {
+            final GpvFileParser parser = new GpvFileParser();
+            parser.enableMemoryMapping(mapping);
+            final ArchiveEntryRecorder listener = new ArchiveEntryRecorder(parser);
+            parser.addListener(listener);
+            parser.parseArchiveEntry(index, index.find(prefix + "L-pall_FH00-15_grib2.bin"));
+            assertThat(listener.fields.size(), is(1));
+            assertField(messages[1], listener.fields.get(0));
+        }
+
+        // ディレクトリ中のアーカイブも解析する
+        final GpvFileParser parser = new GpvFileParser();
+        final DecodingListener listener = new DecodingListener();
+        parser.addListener(listener);
+        parser.parseAll(dir);
+        assertThat(listener.fields.size(), is(messages.length * 2));
+    }
+
+    /**
+     * 解析より遅れて通知を受ける。
+     */
+    static class SlowDecodingListener extends DecodingListener {
+        final Set<String> threads = Collections.synchronizedSet(new HashSet<String>());
+
+        @Override
+        public void dataSection(final DataSection section, final MessageHolder messages) {
+            threads.add(Thread.currentThread().getName());
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            super.dataSection(section, messages);
+        }
+    }
+
+    @Test
+    public void dispatchAsynchronously() throws Exception {
+        final Grib2TestMessages[] messages = new Grib2TestMessages[20];
+        for (int k = 0; k < messages.length; k++) {
+            messages[k] = new Grib2TestMessages();
+            messages[k].forecastTime = k;
+            messages[k].values(k);
+        }
+        final File file = sampleFile(messages);
+
+        for (final AsyncMessageDispatcher.WaitStrategy strategy: AsyncMessageDispatcher.WaitStrategy.values()) {
+            final SlowDecodingListener listener = new SlowDecodingListener();
+            final DataSectionCounter counter = new DataSectionCounter();
+            final AsyncMessageDispatcher dispatcher = new AsyncMessageDispatcher(3, strategy, listener, counter);
+            assertThat(dispatcher.capacity(), is(4));
+            final GpvFileParser parser = new GpvFileParser();
+            parser.addListener(dispatcher);
+            final ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                dispatcher.start(executor);
+                try {
+                    parser.parse(file);
+                } finally {
+                    dispatcher.close();
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            assertThat(strategy.name(), listener.fields.size(), is(messages.length));
+            for (int k = 0; k < messages.length; k++) {
+                assertField(messages[k], listener.fields.get(k));
+            }
+            assertThat(listener.threads.contains(Thread.currentThread().getName()), is(false));
+            assertThat(counter.dataSections, is(messages.length));
+            assertThat(counter.otherSections, is(0));
+            assertThat(dispatcher.pending(), is(0));
+        }
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void reportListenerFailureAsynchronously() throws Exception {
+        final AsyncMessageDispatcher dispatcher = new AsyncMessageDispatcher(1, AsyncMessageDispatcher.WaitStrategy.BLOCKING,
+                new AbstractMessageListener() {
+                    @Override
+                    public void dataSection(final DataSection section, final MessageHolder messages) {
+                        throw new IllegalStateException("failed");
+                    }
+                });
+        final GpvFileParser parser = new GpvFileParser();
+        parser.addListener(dispatcher);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            dispatcher.start(executor);
+            try {
+                parser.parse(sampleFile(new Grib2TestMessages(), new Grib2TestMessages(), new Grib2TestMessages()));
+            } finally {
+                dispatcher.close();
+            }
+        } finally {
+            executor.shutdown();
+        }
     }
 
 }
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv.grib2.index;
+
+import static jp.techlier.test.Matchers.*;
+import static jp.techlier.weather.gpv.grib2.Grib2.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+
+import jp.techlier.weather.gpv.grib2.Grib2TestMessages;
+import jp.techlier.weather.gpv.grib2.index.Grib2Index.Field;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+
+/**
+ *
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+public class Grib2IndexerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    static FieldKey temperature(final int forecastTime, final int scaleFactor, final int scaledValue) {
+        return FieldKey.of(ParameterNumber.TEMPERATURE, GeneratingProcessType.FORECAST,
+                           UnitOfTimeRange.HOUR, forecastTime,
+                           SurfaceType.ISOBARIC_SURFACE, scaleFactor, scaledValue);
+    }
+
+    /**
+     * Section 4〜7を繰り返し、2つの格子データを含むメッセージを生成する。
+     */
+    static byte[] repeatFields(final byte[] message) {
+        final ByteBuffer in = ByteBuffer.wrap(message);
+        int position = INDICATOR_SECTION_LENGTH;
+        while (in.get(position + 4) != PRODUCT_DEFITION_SECTION_NUMBER) {
+            position += in.getInt(position);
+        }
+        final int fieldLength = message.length - END_SECTION_LENGTH - position;
+        final ByteBuffer out = ByteBuffer.allocate(message.length + fieldLength);
+        out.put(message, 0, message.length - END_SECTION_LENGTH);
+        out.put(message, position, fieldLength);
+        out.put(message, message.length - END_SECTION_LENGTH, END_SECTION_LENGTH);
+        out.putLong(8, out.capacity());
+        return out.array();
+    }
+
+    @Test
+    public void indexFields() throws Exception {
+        final Grib2TestMessages first = new Grib2TestMessages();
+        final Grib2TestMessages second = new Grib2TestMessages();
+        second.forecastTime = 24;
+        final byte[] firstMessage = first.message();
+        final File file = Grib2TestMessages.write(folder.newFile("sample_grib2.bin"),
+                                                  firstMessage, repeatFields(second.message()));
+
+        final Grib2Index index = new Grib2Indexer().index(file);
+        assertThat(index.fields().size(), is(3));
+        assertThat(index.keys().size(), is(2));
+
+        final Field field = index.findFirst(temperature(0, -2, 850));
+        assertThat(field.messageOffset(), is(0L));
+        assertThat(field.messageLength(), is((long)firstMessage.length));
+        // 850hPa = 85000Pa
+        assertThat(index.findFirst(temperature(0, 0, 85000)), is(field));
+        assertEquals(85000.0, field.key().surfaceValue(), 1e-6);
+
+        assertThat(index.find(temperature(24, -2, 850)).size(), is(2));
+        final Field repeated = index.find(temperature(24, -2, 850)).get(1);
+        assertThat(repeated.messageOffset(), is((long)firstMessage.length));
+        assertThat(repeated.fieldNumber(), is(1));
+        assertThat(repeated.sectionOffset(GRID_DEFINITION_SECTION_NUMBER),
+                   is(index.find(temperature(24, -2, 850)).get(0).sectionOffset(GRID_DEFINITION_SECTION_NUMBER)));
+        assertTrue(repeated.sectionOffset(DATA_SECTION_NUMBER) > repeated.sectionOffset(PRODUCT_DEFITION_SECTION_NUMBER));
+        assertThat(index.find(temperature(12, -2, 850)).isEmpty(), is(true));
+    }
+
+    @Test
+    public void reuseSidecarWhileFileIsUnchanged() throws Exception {
+        final Grib2TestMessages message = new Grib2TestMessages();
+        final File file = Grib2TestMessages.write(folder.newFile("sample_grib2.bin"), message.message());
+        final long lastModified = file.lastModified();
+
+        final Grib2Index index = new Grib2Indexer().index(file);
+        final File sidecar = Grib2Indexer.sidecarFile(file);
+        assertThat(sidecar.isFile(), is(true));
+
+        // サイズと最終更新時刻が同じであれば、内容を確かめずに索引ファイルを用いる
+        message.forecastTime = 6;
+        Grib2TestMessages.write(file, message.message());
+        assertTrue(file.setLastModified(lastModified));
+        Grib2Index loaded = new Grib2Indexer().index(file);
+        assertThat(loaded.fields().size(), is(1));
+        assertThat(loaded.fields().get(0).key(), is(index.fields().get(0).key()));
+        assertThat(loaded.fields().get(0).relativeOffset(DATA_SECTION_NUMBER),
+                   is(index.fields().get(0).relativeOffset(DATA_SECTION_NUMBER)));
+
+        // 更新されたファイルは走査し直す
+        assertTrue(file.setLastModified(lastModified + 2000));
+        loaded = new Grib2Indexer().index(file);
+        assertThat(loaded.fields().get(0).key(), is(temperature(6, -2, 850)));
+        assertThat(new Grib2Indexer().load(file, sidecar).fields().get(0).key(), is(temperature(6, -2, 850)));
+    }
+
+    @Test
+    public void rescanCorruptSidecar() throws Exception {
+        final File file = Grib2TestMessages.write(folder.newFile("sample_grib2.bin"), new Grib2TestMessages().message());
+        final Grib2Index index = new Grib2Indexer().index(file);
+        final File sidecar = Grib2Indexer.sidecarFile(file);
+
+        // magic(4), version(2), length(8), lastModified(8)の次がフィールド数
+        for (final int count: new int[] { -1, Integer.MAX_VALUE, 2 }) {
+            final RandomAccessFile out = new RandomAccessFile(sidecar, "rw"); try {
+                out.seek(22);
+                out.writeInt(count);
+            } finally {
+                out.close();
+            }
+            assertThat("count=" + count, new Grib2Indexer().load(file, sidecar), is(nullValue()));
+            final Grib2Index rescanned = new Grib2Indexer().index(file);
+            assertThat("count=" + count, rescanned.fields().size(), is(1));
+            assertThat("count=" + count, rescanned.fields().get(0).key(), is(index.fields().get(0).key()));
+        }
+    }
+
+    @Test(expected=IOException.class)
+    public void rejectOtherEditions() throws Exception {
+        final byte[] message = new Grib2TestMessages().message();
+        message[7] = 1;
+        new Grib2Indexer().scan(Grib2TestMessages.write(folder.newFile("sample_grib1.bin"), message));
+    }
+
+}
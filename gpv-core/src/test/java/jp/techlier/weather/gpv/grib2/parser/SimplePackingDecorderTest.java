@@ -0,0 +1,483 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv.grib2.parser;
+
+import static jp.techlier.test.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+import jp.techlier.weather.gpv.grib2.Grib2.DataRepresentationTemplate;
+import jp.techlier.weather.gpv.grib2.Grib2.GridDefinitionTemplate;
+import jp.techlier.weather.gpv.grib2.Grib2.ScanningMode;
+import jp.techlier.weather.gpv.grib2.types.Container;
+import jp.techlier.weather.gpv.grib2.types.ContentInfo;
+import jp.techlier.weather.gpv.grib2.types.Grib2ContainerFactory;
+
+import org.junit.Test;
+
+
+/**
+ *
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+@SuppressWarnings("boxing")
+public class SimplePackingDecorderTest {
+
+    static final int NI = 7;
+    static final int NJ = 5;
+
+    static final Grib2ContainerFactory factory = Grib2ContainerFactory.getInstance();
+
+    static void set(final Container container, final String name, final Object value) {
+        container.set(ContentInfo.getContentDefinitions(container.type()).get(name), value);
+    }
+
+    static GridDefinitionTemplate grid(final int ni, final int nj, final int scanningMode) {
+        final GridDefinitionTemplate grid = factory.newTemplate(GridDefinitionTemplate.class);
+        set(grid, "numPointsAlongParallel", ni);
+        set(grid, "numPointsAlongMeridian", nj);
+        set(grid, "scanningMode", new ScanningMode(scanningMode));
+        return grid;
+    }
+
+    static DataRepresentationTemplate representation(final float r, final int e, final int d, final int numBits) {
+        final DataRepresentationTemplate drt = factory.newTemplate(DataRepresentationTemplate.class);
+        set(drt, "referenceValue", r);
+        set(drt, "binaryScaleFactor", (short)e);
+        set(drt, "decimalScaleFactor", (short)d);
+        set(drt, "numBits", (byte)numBits);
+        return drt;
+    }
+
+    /**
+     * 値を指定されたビット長で詰める。
+     */
+    static byte[] pack(final long[] values, final int numBits) {
+        final byte[] data = new byte[(values.length * numBits + 7) / 8];
+        int bit = 0;
+        for (final long value: values) {
+            for (int b = numBits; --b >= 0; bit++) {
+                if ((value >>> b & 1) != 0) data[bit / 8] |= 0x80 >>> bit % 8;
+            }
+        }
+        return data;
+    }
+
+    static long[] randomValues(final int count, final int numBits, final long seed) {
+        final Random random = new Random(seed);
+        final long[] values = new long[count];
+        for (int k = 0; k < count; k++) {
+            values[k] = random.nextLong() >>> (Long.SIZE - numBits);
+        }
+        return values;
+    }
+
+    static double expected(final long x, final float r, final int e, final int d) {
+        final double temp = r + x * Math.pow(2.0, e);
+        return d == 0 ? temp : temp / Math.pow(10.0, d);
+    }
+
+
+    @Test
+    public void decodeAllBitWidths() throws Exception {
+        for (int numBits = 1; numBits <= Integer.SIZE; numBits++) {
+            final long[] values = randomValues(NI * NJ, numBits, numBits);
+            final SimplePackingDecorder decorder =
+                    new SimplePackingDecorder(grid(NI, NJ, 0), representation(250.5f, -3, 1, numBits), pack(values, numBits));
+            final double[] decoded = decorder.decode();
+            assertThat(decoded.length, is(NI * NJ));
+            for (int k = 0; k < values.length; k++) {
+                assertEquals(numBits + "bits [" + k + "]", expected(values[k], 250.5f, -3, 1), decoded[k], 0.0);
+                assertEquals(numBits + "bits [" + k + "]", decoded[k], decorder.next(), 0.0);
+            }
+            assertThat(decorder.hasNext(), is(false));
+        }
+    }
+
+    @Test
+    public void matrixFollowsScanningMode() throws Exception {
+        final long[] values = randomValues(NI * NJ, 12, 12);
+        final byte[] data = pack(values, 12);
+        final DataRepresentationTemplate drt = representation(0f, 0, 0, 12);
+
+        // +i, -j, i方向が連続、全ての行が同方向
+        double[][] matrix = new SimplePackingDecorder(grid(NI, NJ, 0x00), drt, data).matrix();
+        for (int j = 0; j < NJ; j++) {
+            for (int i = 0; i < NI; i++) {
+                assertEquals((double)values[j * NI + i], matrix[j][i], 0.0);
+            }
+        }
+
+        // 隣接する行が逆方向
+        matrix = new SimplePackingDecorder(grid(NI, NJ, 0x10), drt, data).matrix();
+        for (int j = 0; j < NJ; j++) {
+            for (int i = 0; i < NI; i++) {
+                final int k = j * NI + ((j & 1) == 0 ? i : NI - 1 - i);
+                assertEquals((double)values[k], matrix[j][i], 0.0);
+            }
+        }
+
+        // j方向が連続
+        matrix = new SimplePackingDecorder(grid(NI, NJ, 0x20), drt, data).matrix();
+        for (int j = 0; j < NJ; j++) {
+            for (int i = 0; i < NI; i++) {
+                assertEquals((double)values[i * NJ + j], matrix[j][i], 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void decodeIntoBuffersWithStride() throws Exception {
+        final long[] values = randomValues(NI * NJ, 16, 16);
+        final SimplePackingDecorder decorder =
+                new SimplePackingDecorder(grid(NI, NJ, 0), representation(-12.25f, 2, 3, 16), pack(values, 16));
+        final double[] expected = decorder.decode();
+
+        final double[] doubles = new double[1 + NI * NJ * 2];
+        decorder.decode(doubles, 1, 2);
+        final float[] floats = new float[NI * NJ];
+        decorder.decode(floats, 0, 1);
+        final FloatBuffer direct = ByteBuffer.allocateDirect(NI * NJ * 3 * 4).asFloatBuffer();
+        decorder.decode(direct, 2, 3);
+        for (int k = 0; k < expected.length; k++) {
+            assertEquals(expected[k], doubles[1 + k * 2], 0.0);
+            assertEquals((float)expected[k], floats[k], 0.0f);
+            assertEquals((float)expected[k], direct.get(2 + k * 3), 0.0f);
+        }
+        assertThat(direct.position(), is(0));
+    }
+
+    @Test
+    public void decodeInChunks() throws Exception {
+        final Random random = new Random(0);
+        for (int numBits = 0; numBits <= Integer.SIZE; numBits++) {
+            final long[] values = randomValues(NI * NJ, Math.max(1, numBits), numBits);
+            if (numBits == 0) values[0] = 0;
+            final byte[] data = pack(numBits == 0 ? new long[0] : values, numBits);
+            final GridDefinitionTemplate grid = grid(NI, NJ, 0x10);
+            final DataRepresentationTemplate drt = representation(1.5f, 1, 0, numBits);
+            final double[] expected = new SimplePackingDecorder(grid, drt, data).decode();
+
+            final double[] actual = new double[NI * NJ];
+            final SimplePackingDecorder.ChunkDecorder decorder =
+                    new SimplePackingDecorder(grid, drt).chunkDecorder(actual, 0, 1);
+            for (int position = 0; position < data.length; ) {
+                final int length = Math.min(data.length - position, 1 + random.nextInt(5));
+                decorder.write(ByteBuffer.wrap(data, position, length));
+                position += length;
+            }
+            assertThat(numBits + "bits", decorder.isComplete(), is(true));
+            for (int k = 0; k < expected.length; k++) {
+                assertEquals(numBits + "bits [" + k + "]", expected[k], actual[k], 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void writeChunksToConstantField() throws Exception {
+        final double[] actual = new double[NI * NJ];
+        final SimplePackingDecorder.ChunkDecorder decorder =
+                new SimplePackingDecorder(grid(NI, NJ, 0), representation(2.5f, 0, 0, 0)).chunkDecorder(actual, 0, 1);
+        assertThat(decorder.isComplete(), is(true));
+        decorder.write(ByteBuffer.allocate(0));
+        decorder.write(ByteBuffer.wrap(new byte[] { 1, 2, 3 }));
+        assertThat(decorder.isComplete(), is(true));
+        for (int k = 0; k < actual.length; k++) {
+            assertEquals("[" + k + "]", 2.5, actual[k], 0.0);
+        }
+    }
+
+    @Test
+    public void statisticsMatchDecodedValues() throws Exception {
+        for (final int numBits: new int[] { 0, 5, 12, 16, 24, 32 }) {
+            final long[] values = randomValues(NI * NJ, Math.max(1, numBits), numBits);
+            final byte[] data = pack(numBits == 0 ? new long[0] : values, numBits);
+            final SimplePackingDecorder decorder =
+                    new SimplePackingDecorder(grid(NI, NJ, 0x40), representation(-3.75f, -2, 1, numBits), data);
+            final double[] decoded = decorder.decode();
+
+            double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY, sum = 0;
+            for (final double y: decoded) {
+                min = Math.min(min, y);
+                max = Math.max(max, y);
+                sum += y;
+            }
+            final PackedStatistics statistics = decorder.statistics();
+            assertThat(statistics.count(), is(NI * NJ));
+            assertEquals(numBits + "bits", min, statistics.min(), 0.0);
+            assertEquals(numBits + "bits", max, statistics.max(), 0.0);
+            assertEquals(numBits + "bits", sum / decoded.length, statistics.mean(), 1e-9 * Math.max(1, Math.abs(max)));
+
+            // 区間の境界を値の上に置いて、境界の扱いを確かめる
+            final double lower = min, upper = max + 1;
+            final int bins = 7;
+            final int[] expected = new int[bins];
+            for (final double y: decoded) {
+                for (int k = 0; k < bins; k++) {
+                    if (lower + (upper - lower) * k / bins <= y && y < lower + (upper - lower) * (k + 1) / bins) {
+                        expected[k]++;
+                    }
+                }
+            }
+            assertArrayEquals(numBits + "bits", expected, decorder.histogram(lower, upper, bins));
+            final int[] narrow = decorder.histogram(decoded[3], decoded[3] + 1e-6, 1);
+            int same = 0;
+            for (final double y: decoded) {
+                if (decoded[3] <= y && y < decoded[3] + 1e-6) same++;
+            }
+            assertThat(narrow[0], is(same));
+        }
+    }
+
+    @Test
+    public void countsMatchDecodedValues() throws Exception {
+        for (final int numBits: new int[] { 0, 5, 12, 16, 32 }) {
+            final long[] values = randomValues(NI * NJ, Math.max(1, numBits), numBits);
+            final byte[] data = pack(numBits == 0 ? new long[0] : values, numBits);
+            final SimplePackingDecorder decorder =
+                    new SimplePackingDecorder(grid(NI, NJ, 0), representation(-1.25f, -1, 1, numBits), data);
+            final double[] decoded = decorder.decode();
+            final double[] thresholds = {
+                decoded[0], decoded[7], decoded[7] - 1e-9, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 1e30, -1e30,
+            };
+            for (final double threshold: thresholds) {
+                int above = 0, inRange = 0;
+                for (final double y: decoded) {
+                    if (y > threshold) above++;
+                    if (threshold <= y && y <= decoded[11]) inRange++;
+                }
+                final String message = numBits + "bits " + threshold;
+                assertThat(message, decorder.countAbove(threshold), is(above));
+                assertThat(message, decorder.countInRange(threshold, decoded[11]), is(inRange));
+            }
+        }
+    }
+
+    @Test
+    public void statisticsHonourBitmap() throws Exception {
+        final int ni = 50, nj = 9;
+        final Random random = new Random(23);
+        final byte[] bitmap = new byte[(ni * nj + 7) / 8];
+        final long[] packed = new long[ni * nj];
+        int count = 0;
+        double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY, sum = 0;
+        int above = 0;
+        for (int k = 0; k < ni * nj; k++) {
+            if (random.nextInt(3) == 0) continue;
+            bitmap[k / 8] |= 0x80 >>> k % 8;
+            packed[count] = random.nextInt(1 << 12);
+            final double y = expected(packed[count], 0.25f, 1, 2);
+            min = Math.min(min, y);
+            max = Math.max(max, y);
+            sum += y;
+            if (y > 30) above++;
+            count++;
+        }
+        // 格子点数を超える末尾のビットは数えない
+        bitmap[bitmap.length - 1] |= 0xff >>> (ni * nj % 8);
+        final long[] present = new long[count];
+        System.arraycopy(packed, 0, present, 0, count);
+        final SimplePackingDecorder decorder =
+                new SimplePackingDecorder(grid(ni, nj, 0), representation(0.25f, 1, 2, 12),
+                                          ByteBuffer.wrap(bitmap), ByteBuffer.wrap(pack(present, 12)));
+
+        final PackedStatistics statistics = decorder.statistics();
+        assertThat(statistics.count(), is(count));
+        assertEquals(min, statistics.min(), 0.0);
+        assertEquals(max, statistics.max(), 0.0);
+        assertEquals(sum / count, statistics.mean(), 1e-9 * Math.abs(max));
+        int binned = 0;
+        for (final int n: decorder.histogram(min, max + 1, 5)) {
+            binned += n;
+        }
+        assertThat(binned, is(count));
+        assertThat(decorder.countAbove(30), is(above));
+        assertThat(decorder.countInRange(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY), is(count));
+    }
+
+    @Test
+    public void selectMatchesDecodedValues() throws Exception {
+        for (final int numBits: new int[] { 0, 12, 16, 32 }) {
+            final long[] values = randomValues(NI * NJ, Math.max(1, numBits), numBits);
+            final byte[] data = pack(numBits == 0 ? new long[0] : values, numBits);
+            final SimplePackingDecorder decorder =
+                    new SimplePackingDecorder(grid(NI, NJ, 0x10), representation(0.5f, -1, 1, numBits), data);
+            final double[] decoded = decorder.decode();
+            final double[][] ranges = {
+                { decoded[4], Double.POSITIVE_INFINITY },
+                { Double.NEGATIVE_INFINITY, decoded[9] },
+                { decoded[2], decoded[2] },
+                { Math.min(decoded[5], decoded[6]), Math.max(decoded[5], decoded[6]) },
+                { Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY },
+                { 1e30, Double.POSITIVE_INFINITY },
+            };
+            for (final double[] range: ranges) {
+                final BitSet selected = decorder.select(range[0], range[1]);
+                final String message = numBits + "bits [" + range[0] + ", " + range[1] + "]";
+                int count = 0;
+                for (int k = 0; k < decoded.length; k++) {
+                    final boolean expected = range[0] <= decoded[k] && decoded[k] <= range[1];
+                    assertThat(message + " [" + k + "]", selected.get(k), is(expected));
+                    if (expected) count++;
+                }
+                final int[] indices = decorder.indicesOf(range[0], range[1]);
+                assertThat(message, indices.length, is(count));
+                for (final int k: indices) {
+                    assertThat(message, selected.get(k), is(true));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void selectHonourBitmap() throws Exception {
+        final int ni = 300, nj = 41;
+        final Random random = new Random(24);
+        final byte[] bitmap = new byte[(ni * nj + 7) / 8];
+        final long[] packed = new long[ni * nj];
+        int count = 0;
+        for (int k = 0; k < ni * nj; k++) {
+            if (random.nextInt(3) == 0) continue;
+            bitmap[k / 8] |= 0x80 >>> k % 8;
+            packed[count++] = random.nextInt(1 << 12);
+        }
+        bitmap[bitmap.length - 1] |= 0xff >>> (ni * nj % 8);
+        final long[] present = new long[count];
+        System.arraycopy(packed, 0, present, 0, count);
+        final SimplePackingDecorder decorder =
+                new SimplePackingDecorder(grid(ni, nj, 0x10), representation(0.5f, -1, 1, 12),
+                                          ByteBuffer.wrap(bitmap), ByteBuffer.wrap(pack(present, 12)));
+        final int[] all = new int[ni * nj];
+        for (int k = 0; k < all.length; k++) {
+            all[k] = k;
+        }
+        final double[] decoded = decorder.valuesAt(all);
+        final double[][] ranges = {
+            { 100, Double.POSITIVE_INFINITY },
+            { Double.NEGATIVE_INFINITY, 50 },
+            { Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY },
+        };
+        for (final double[] range: ranges) {
+            final BitSet selected = decorder.select(range[0], range[1]);
+            final String message = "[" + range[0] + ", " + range[1] + "]";
+            int expectedCount = 0;
+            for (int k = 0; k < decoded.length; k++) {
+                final boolean expected = range[0] <= decoded[k] && decoded[k] <= range[1];
+                assertThat(message + " [" + k + "]", selected.get(k), is(expected));
+                if (expected) expectedCount++;
+            }
+            assertThat(message, decorder.indicesOf(range[0], range[1]).length, is(expectedCount));
+        }
+    }
+
+    @Test
+    public void valuesAtFollowScanningMode() throws Exception {
+        for (final int scanningMode: new int[] { 0x00, 0x10, 0x20, 0x30 }) {
+            final long[] values = randomValues(NI * NJ, 12, scanningMode);
+            final SimplePackingDecorder decorder =
+                    new SimplePackingDecorder(grid(NI, NJ, scanningMode), representation(1.5f, 0, 1, 12), pack(values, 12));
+            final double[] decoded = decorder.decode();
+            final int[] indices = new int[decoded.length];
+            for (int k = 0; k < indices.length; k++) {
+                indices[k] = indices.length - 1 - k;
+            }
+            final double[] points = decorder.valuesAt(indices);
+            for (int k = 0; k < indices.length; k++) {
+                assertEquals(scanningMode + " [" + k + "]", decoded[indices[k]], points[k], 0.0);
+                final int i = k % NI, j = k / NI;
+                assertEquals(scanningMode + " (" + i + ", " + j + ")", decoded[k], decorder.valueAt(i, j), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void valuesAtHonourBitmap() throws Exception {
+        final int ni = 50, nj = 9;
+        final Random random = new Random(25);
+        final byte[] bitmap = new byte[(ni * nj + 7) / 8];
+        final long[] packed = new long[ni * nj];
+        final double[] expected = new double[ni * nj];
+        int count = 0;
+        for (int k = 0; k < ni * nj; k++) {
+            if (random.nextInt(3) == 0) {
+                expected[k] = Double.NaN;
+                continue;
+            }
+            bitmap[k / 8] |= 0x80 >>> k % 8;
+            packed[count] = random.nextInt(1 << 16);
+            expected[k] = expected(packed[count], 0.25f, 1, 2);
+            count++;
+        }
+        final long[] present = new long[count];
+        System.arraycopy(packed, 0, present, 0, count);
+        final SimplePackingDecorder decorder =
+                new SimplePackingDecorder(grid(ni, nj, 0), representation(0.25f, 1, 2, 16),
+                                          ByteBuffer.wrap(bitmap), ByteBuffer.wrap(pack(present, 16)));
+        // 累積数の表を作る前の単独の参照
+        for (int k = 0; k < ni * nj; k++) {
+            assertEquals("(" + k % ni + ", " + k / ni + ")", expected[k], decorder.valueAt(k % ni, k / ni), 0.0);
+        }
+        final int[] few = { ni * nj - 1, 70, 3 };
+        final double[] fewPoints = decorder.valuesAt(few);
+        for (int k = 0; k < few.length; k++) {
+            assertEquals("[" + few[k] + "]", expected[few[k]], fewPoints[k], 0.0);
+        }
+        final int[] indices = new int[ni * nj];
+        for (int k = 0; k < indices.length; k++) {
+            indices[k] = (k * 7) % indices.length;
+        }
+        final double[] points = decorder.valuesAt(indices);
+        for (int k = 0; k < indices.length; k++) {
+            assertEquals("[" + indices[k] + "]", expected[indices[k]], points[k], 0.0);
+        }
+        assertEquals(expected[ni + 3], decorder.valueAt(3, 1), 0.0);
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void valueAtOutOfGrid() throws Exception {
+        final SimplePackingDecorder decorder =
+                new SimplePackingDecorder(grid(NI, NJ, 0), representation(0f, 0, 0, 12), pack(new long[NI * NJ], 12));
+        decorder.valueAt(NI, 0);
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void valueAtBeyondTruncatedData() throws Exception {
+        final byte[] bitmap = new byte[(NI * NJ + 7) / 8];
+        Arrays.fill(bitmap, (byte)0xff);
+        final SimplePackingDecorder decorder =
+                new SimplePackingDecorder(grid(NI, NJ, 0), representation(0f, 0, 0, 12),
+                                          ByteBuffer.wrap(bitmap), ByteBuffer.wrap(pack(new long[NI], 12)));
+        assertEquals(0.0, decorder.valueAt(NI - 1, 0), 0.0);
+        decorder.valueAt(0, 1);
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void decodeIntoTooShortArray() throws Exception {
+        final SimplePackingDecorder decorder =
+                new SimplePackingDecorder(grid(NI, NJ, 0), representation(0f, 0, 0, 12), pack(new long[NI * NJ], 12));
+        decorder.decode(new double[NI * NJ], 1, 1);
+    }
+
+}
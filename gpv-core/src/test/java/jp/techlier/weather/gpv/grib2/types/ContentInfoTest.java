@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv.grib2.types;
+
+import static jp.techlier.test.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import jp.techlier.weather.gpv.grib2.Grib2;
+
+import org.junit.Test;
+
+
+/**
+ *
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+public class ContentInfoTest {
+
+    static final int THREADS = 8;
+
+    @Test
+    public void shareDefinitionsAcrossThreads() throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<Map<String,ContentInfo>>> results = new ArrayList<Future<Map<String,ContentInfo>>>();
+            for (int k = 0; k < THREADS; k++) {
+                results.add(executor.submit(new Callable<Map<String,ContentInfo>>() {
+                    public Map<String,ContentInfo> call() throws Exception {
+                        start.await();
+                        return ContentInfo.getContentDefinitions(Grib2.ProductDefinitionTemplate.Average.class);
+                    }
+                }));
+            }
+            start.countDown();
+            final Map<String,ContentInfo> first = results.get(0).get();
+            for (final Future<Map<String,ContentInfo>> result: results) {
+                assertSame(first, result.get());
+            }
+            int index = 0;
+            for (final ContentInfo content: first.values()) {
+                assertThat(content.index(), is(index++));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected=UnsupportedOperationException.class)
+    public void definitionsAreUnmodifiable() throws Exception {
+        ContentInfo.getContentDefinitions(Grib2.IndicatorSection.class).clear();
+    }
+
+    @Test
+    public void expectedValuesAreCopied() throws Exception {
+        final ContentInfo content = ContentInfo.getContentDefinitions(Grib2.IndicatorSection.class).get("editionNumber");
+        final int[] expected = content.expectedValues();
+        assertThat(expected.length, is(1));
+        expected[0] = -1;
+        assertThat(content.expectedValues()[0], is(2));
+        assertThat(content.isExpectedValue(2), is(true));
+        assertThat(content.isExpectedValue(1), is(false));
+    }
+
+}
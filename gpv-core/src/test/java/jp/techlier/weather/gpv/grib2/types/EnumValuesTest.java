@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv.grib2.types;
+
+import static jp.techlier.test.Matchers.*;
+import static org.junit.Assert.*;
+
+import jp.techlier.weather.gpv.grib2.Grib2;
+import jp.techlier.weather.gpv.grib2.Grib2.MasterTableCode;
+import jp.techlier.weather.gpv.grib2.Grib2.ParameterCategory;
+import jp.techlier.weather.gpv.grib2.Grib2.ParameterNumber;
+
+import org.junit.Test;
+
+
+/**
+ *
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class EnumValuesTest {
+
+    @Test
+    public void findAllCodeTables() throws Exception {
+        for (final Class type: Grib2.class.getDeclaredClasses()) {
+            if (!type.isEnum() || !HasIntValue.class.isAssignableFrom(type)) continue;
+            for (final Object constant: type.getEnumConstants()) {
+                final int intValue = ((HasIntValue)constant).intValue();
+                final Object found = EnumValues.find(type, intValue);
+                // 同じ値を持つ定数は先に宣言されたものが返る。
+                assertThat(type.getSimpleName() + "(" + intValue + ")", found, isNotNull());
+                assertThat(((HasIntValue)found).intValue(), is(intValue));
+                assertTrue(((Enum)found).ordinal() <= ((Enum)constant).ordinal());
+                assertThat(EnumValues.valueOf(type, intValue), is(found));
+            }
+        }
+    }
+
+    @Test
+    public void findMissingValue() throws Exception {
+        assertThat(EnumValues.find(MasterTableCode.class, 1), isNull());
+        assertThat(EnumValues.find(ParameterNumber.class, -1), isNull());
+        assertThat(ParameterNumber.find(null, 0), isNull());
+        assertThat(ParameterCategory.find(MasterTableCode.METEOROLOGICAL, 0), is(ParameterCategory.TEMPERATURE));
+    }
+
+    @Test(expected=EnumConstantNotPresentException.class)
+    public void valueOfMissingValue() throws Exception {
+        EnumValues.valueOf(MasterTableCode.class, 1);
+    }
+
+}
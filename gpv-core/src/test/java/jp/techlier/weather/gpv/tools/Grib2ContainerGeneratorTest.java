@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026 Techlier Inc. All rights reserved.
+ *
+ * This program is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation, either
+ * version 3 of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package jp.techlier.weather.gpv.tools;
+
+import static jp.techlier.test.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+
+import jp.techlier.weather.gpv.grib2.Grib2.DataSection;
+import jp.techlier.weather.gpv.grib2.Grib2.ProductDefinitionTemplate;
+import jp.techlier.weather.gpv.grib2.types.Container;
+import jp.techlier.weather.gpv.grib2.types.ContentInfo;
+import jp.techlier.weather.gpv.grib2.types.Grib2ContainerFactory;
+import jp.techlier.weather.gpv.grib2.types.Section;
+import jp.techlier.weather.gpv.grib2.types.Template;
+
+import org.junit.Test;
+
+
+/**
+ *
+ *
+ * @author <a href="mailto:okamura@techlier.jp">Kz Okamura</a>
+ * @since 2026/10/16
+ * @version $Id$
+ */
+@SuppressWarnings("boxing")
+public class Grib2ContainerGeneratorTest {
+
+    @Test
+    public void generatedSourceIsUpToDate() throws Exception {
+        final ByteArrayOutputStream source = new ByteArrayOutputStream();
+        final InputStream in = new FileInputStream(Grib2ContainerGenerator.SOURCE_PATH); try {
+            final byte[] buffer = new byte[8192];
+            for (int n; (n = in.read(buffer)) > 0; ) source.write(buffer, 0, n);
+        } finally {
+            in.close();
+        }
+        assertEquals(Grib2ContainerGenerator.CLASS_NAME + " must be regenerated",
+                     Grib2ContainerGenerator.generate(), source.toString("UTF-8").replace("\r\n", "\n"));
+    }
+
+    @Test
+    public void factoryUsesGeneratedClasses() throws Exception {
+        final Grib2ContainerFactory factory = Grib2ContainerFactory.getInstance();
+        for (final Class<? extends Container> type: Grib2ContainerGenerator.containerTypes()) {
+            final Container container = Section.class.isAssignableFrom(type)
+                    ? factory.newSection(type.asSubclass(Section.class), 0)
+                    : factory.newTemplate(type.asSubclass(Template.class));
+            assertThat(type.getName(), Proxy.isProxyClass(container.getClass()), is(false));
+            assertThat(container.type(), is((Object)type));
+        }
+    }
+
+    @Test
+    public void accessorsReflectContents() throws Exception {
+        final Grib2ContainerFactory factory = Grib2ContainerFactory.getInstance();
+        final ProductDefinitionTemplate.TimeIntervalEnsembleForecast template =
+                factory.newTemplate(ProductDefinitionTemplate.TimeIntervalEnsembleForecast.class);
+        // 上位の型で定義されたcontentも名前で対応付けられる。
+        template.set(ContentInfo.getContentDefinitions(ProductDefinitionTemplate.class).get("forecastTime"), 42);
+        template.set(ContentInfo.getContentDefinitions(template.type()).get("perturbationNumber"), (byte)3);
+        assertThat(template.forecastTime(), is(42));
+        assertThat(template.perturbationNumber(), is((byte)3));
+        assertThat(template.get(ContentInfo.getContentDefinitions(template.type()).get("forecastTime")), is((Object)42));
+
+        final DataSection section = factory.newSection(DataSection.class, 9);
+        final ContentInfo data = ContentInfo.getContentDefinitions(DataSection.class).get("data");
+        section.set(data, ByteBuffer.wrap(new byte[] { 1, 2, 3, 4 }).asReadOnlyBuffer());
+        assertThat(section.length(), is(9));
+        assertThat(section.number(), is(7));
+        assertThat(section.dataBuffer().remaining(), is(4));
+        assertArrayEquals(new byte[] { 1, 2, 3, 4 }, section.data());
+        assertThat(section.data(), sameInstance(section.data()));
+    }
+
+}